@@ -0,0 +1,417 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.benchmark;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.jce.interfaces.ECPublicKey;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.jce.spec.ECPrivateKeySpec;
+import org.bouncycastle.jce.spec.ECPublicKeySpec;
+import org.bouncycastle.math.ec.ECPoint;
+import org.omnione.did.core.data.rest.ClaimInfo;
+import org.omnione.did.core.data.rest.DidKeyInfo;
+import org.omnione.did.core.data.rest.IssueVcParam;
+import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.data.rest.SignatureVcParams;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.core.manager.VcManager;
+import org.omnione.did.crypto.enums.DigestType;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.crypto.enums.MultiBaseType;
+import org.omnione.did.crypto.exception.CryptoException;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.util.DigestUtils;
+import org.omnione.did.crypto.util.MultiBaseUtils;
+import org.omnione.did.crypto.util.SignatureUtils;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.AuthType;
+import org.omnione.did.data.model.enums.did.DidKeyType;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+import org.omnione.did.data.model.enums.did.ProofType;
+import org.omnione.did.data.model.enums.vc.VcType;
+import org.omnione.did.data.model.provider.ProviderDetail;
+import org.omnione.did.data.model.schema.ClaimDef;
+import org.omnione.did.data.model.schema.MetaData;
+import org.omnione.did.data.model.schema.Namespace;
+import org.omnione.did.data.model.schema.SchemaClaims;
+import org.omnione.did.data.model.schema.SchemaCredentialSubject;
+import org.omnione.did.data.model.schema.VcSchema;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.omnione.did.data.model.vp.VpProof;
+
+/**
+ * Deterministic fixtures for the benchmarks.
+ *
+ * <p>Keys are derived from their DID and key ID, and claims, IDs and dates are fixed, so every run
+ * works on the same data. Only the ECDSA signatures and the issuance time set by the SDK vary.</p>
+ */
+public final class BenchmarkFixtures {
+
+	public static final String ASSERT_KEY_ID = "assert";
+	public static final String AUTH_KEY_ID = "auth";
+	public static final String INVOKE_KEY_ID = "invoke";
+	public static final String DELEGATE_KEY_ID = "delegate";
+
+	/**
+	 * Keys signing the DID document, one per signing purpose.
+	 */
+	public static final List<String> DOCUMENT_SIGN_KEY_IDS = List.of(ASSERT_KEY_ID, AUTH_KEY_ID, INVOKE_KEY_ID, DELEGATE_KEY_ID);
+
+	private static final String FIXED_DATE = "2024-01-01T00:00:00Z";
+	private static final String FIXED_VALID_UNTIL = "2099-12-31T23:59:59Z";
+
+	static {
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Proof layout of a signed document.
+	 */
+	public enum ProofMode {
+		/** One proof */
+		SINGLE,
+		/** A proofs list with one proof per signing key */
+		MULTI
+	}
+
+	/**
+	 * A DID document together with the private keys of its verification methods.
+	 */
+	public static final class DidFixture {
+
+		private final DidManager didManager;
+		private final EccCurveType curveType;
+		private final Map<String, EcKeyPair> keyPairs;
+
+		private DidFixture(DidManager didManager, EccCurveType curveType, Map<String, EcKeyPair> keyPairs) {
+			this.didManager = didManager;
+			this.curveType = curveType;
+			this.keyPairs = keyPairs;
+		}
+
+		public DidManager getDidManager() {
+			return didManager;
+		}
+
+		public DidDocument getDocument() {
+			return didManager.getDocument();
+		}
+
+		public String getDid() {
+			return didManager.getDocument().getId();
+		}
+
+		public EccCurveType getCurveType() {
+			return curveType;
+		}
+
+		/**
+		 * Signs the signing input with the given key.
+		 *
+		 * @param keyId The ID of the key
+		 * @param originData The signing input
+		 * @return The multibase encoded compact signature
+		 */
+		public String sign(String keyId, String originData) {
+			try {
+				byte[] hashedData = DigestUtils.getDigest(originData.getBytes(StandardCharsets.UTF_8), DigestType.SHA256);
+				byte[] signature = SignatureUtils.generateCompactSignature(keyPairs.get(keyId), hashedData, curveType);
+				return MultiBaseUtils.encode(signature, MultiBaseType.base58btc);
+			} catch (CryptoException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * Adds a proof of every given key to the DID document.
+		 *
+		 * @param keyIds The IDs of the signing keys
+		 * @return This fixture
+		 */
+		public DidFixture signDocument(List<String> keyIds) throws CoreException {
+			List<SignatureParams> signatureParams = didManager.getOriginDataForSign(keyIds);
+			for (SignatureParams signatureParam : signatureParams) {
+				signatureParam.setSignatureValue(sign(signatureParam.getKeyId(), signatureParam.getOriginData()));
+			}
+			didManager.addProof(signatureParams);
+			return this;
+		}
+	}
+
+	/**
+	 * Creates a DID document with the given number of keys (at least four).
+	 * The first four keys hold one signing purpose each, the remaining keys are authentication keys.
+	 *
+	 * @param did The DID
+	 * @param keyCount The number of keys
+	 * @param curveType The curve of all keys
+	 * @return The unsigned DID document with its keys
+	 */
+	public static DidFixture didDocument(String did, int keyCount, EccCurveType curveType) throws CoreException {
+		Map<String, EcKeyPair> keyPairs = new HashMap<String, EcKeyPair>();
+		List<DidKeyInfo> didKeyInfos = new ArrayList<DidKeyInfo>();
+		for (int i = 0; i < Math.max(keyCount, DOCUMENT_SIGN_KEY_IDS.size()); i++) {
+			String keyId;
+			ProofPurpose keyPurpose;
+			switch (i) {
+				case 0: keyId = ASSERT_KEY_ID; keyPurpose = ProofPurpose.ASSERTION_METHOD; break;
+				case 1: keyId = AUTH_KEY_ID; keyPurpose = ProofPurpose.AUTHENTICATION; break;
+				case 2: keyId = INVOKE_KEY_ID; keyPurpose = ProofPurpose.CAPABILITY_INVOCATION; break;
+				case 3: keyId = DELEGATE_KEY_ID; keyPurpose = ProofPurpose.CAPABILITY_DELEGATION; break;
+				default: keyId = "key" + i; keyPurpose = ProofPurpose.AUTHENTICATION; break;
+			}
+
+			EcKeyPair keyPair = keyPair(did + "#" + keyId, curveType);
+			keyPairs.put(keyId, keyPair);
+
+			DidKeyInfo didKeyInfo = new DidKeyInfo();
+			didKeyInfo.setKeyId(keyId);
+			didKeyInfo.setController(did);
+			didKeyInfo.setAlgoType(curveType == EccCurveType.Secp256k1
+					? DidKeyType.SECP256K1_VERIFICATION_KEY_2018.getRawValue()
+					: DidKeyType.SECP256R1_VERIFICATION_KEY_2018.getRawValue());
+			didKeyInfo.setPublicKey(encodedPublicKey(keyPair));
+			didKeyInfo.setAuthType(AuthType.Free);
+			didKeyInfo.setKeyPurpose(List.of(keyPurpose));
+			didKeyInfos.add(didKeyInfo);
+		}
+
+		DidManager didManager = new DidManager();
+		didManager.createDocument(did, did, didKeyInfos);
+		return new DidFixture(didManager, curveType, keyPairs);
+	}
+
+	/**
+	 * Creates the issuance parameters of a credential with the given number of text claims.
+	 *
+	 * @param issuerDid The DID of the issuer
+	 * @param claimCount The number of claims
+	 * @return The issuance parameters
+	 */
+	public static IssueVcParam issueVcParam(String issuerDid, int claimCount) {
+		Namespace namespace = new Namespace();
+		namespace.setId("org.omnione.bench");
+		namespace.setName("Benchmark");
+
+		List<ClaimDef> claimDefs = new ArrayList<ClaimDef>();
+		Map<String, ClaimInfo> privacy = new LinkedHashMap<String, ClaimInfo>();
+		for (int i = 0; i < claimCount; i++) {
+			ClaimDef claimDef = new ClaimDef();
+			claimDef.setId("claim" + i);
+			claimDef.setCaption("Claim " + i);
+			claimDef.setType("text");
+			claimDef.setFormat("plain");
+			claimDef.setLocation("inline");
+			claimDef.setRequired(true);
+			claimDefs.add(claimDef);
+
+			ClaimInfo claimInfo = new ClaimInfo();
+			claimInfo.setCode(namespace.getId() + ".claim" + i);
+			claimInfo.setValue(("value-" + i).getBytes(StandardCharsets.UTF_8));
+			privacy.put(claimInfo.getCode(), claimInfo);
+		}
+
+		SchemaClaims schemaClaims = new SchemaClaims();
+		schemaClaims.setNamespace(namespace);
+		schemaClaims.setItems(claimDefs);
+		SchemaCredentialSubject schemaCredentialSubject = new SchemaCredentialSubject();
+		schemaCredentialSubject.setClaims(List.of(schemaClaims));
+
+		MetaData metaData = new MetaData();
+		metaData.setLanguage("ko");
+		metaData.setFormatVersion("1.0");
+
+		VcSchema vcSchema = new VcSchema();
+		vcSchema.setId("https://schema.omnione.org/bench/" + claimCount);
+		vcSchema.setSchema("https://json-schema.org/draft/2020-12/schema");
+		vcSchema.setTitle("Benchmark");
+		vcSchema.setDescription("Benchmark credential");
+		vcSchema.setMetadata(metaData);
+		vcSchema.setCredentialSubject(schemaCredentialSubject);
+
+		ProviderDetail providerDetail = new ProviderDetail();
+		providerDetail.setDid(issuerDid);
+		providerDetail.setName("Benchmark Issuer");
+
+		IssueVcParam issueVcParam = new IssueVcParam();
+		issueVcParam.setVcSchema(vcSchema);
+		issueVcParam.setProviderDetail(providerDetail);
+		issueVcParam.setPrivacy(privacy);
+		issueVcParam.setVcType(List.of(VcType.VERIFIABLE_CREDENTIAL, VcType.CERTIFICATE_VC));
+		return issueVcParam;
+	}
+
+	/**
+	 * Issues a credential signed with the assertion key of the issuer.
+	 *
+	 * @param issuer The issuer
+	 * @param holderDid The DID of the holder
+	 * @param claimCount The number of claims
+	 * @return The signed credential
+	 */
+	public static VerifiableCredential verifiableCredential(DidFixture issuer, String holderDid, int claimCount) throws CoreException {
+		return verifiableCredential(issuer, holderDid, issueVcParam(issuer.getDid(), claimCount));
+	}
+
+	/**
+	 * Issues a credential with the given parameters, signed with the assertion key of the issuer.
+	 *
+	 * @param issuer The issuer
+	 * @param holderDid The DID of the holder
+	 * @param issueVcParam The issuance parameters, e.g. from {@link #issueVcParam(String, int)}
+	 * @return The signed credential
+	 */
+	public static VerifiableCredential verifiableCredential(DidFixture issuer, String holderDid, IssueVcParam issueVcParam) throws CoreException {
+		VcManager vcManager = new VcManager();
+		VerifiableCredential verifiableCredential = vcManager.issueCredential(issueVcParam, holderDid);
+		List<SignatureVcParams> signatureVcParams = vcManager.getOriginDataForSign(ASSERT_KEY_ID, issuer.getDocument(), verifiableCredential);
+		for (SignatureVcParams signatureVcParam : signatureVcParams) {
+			signatureVcParam.setSignatureValue(issuer.sign(ASSERT_KEY_ID, signatureVcParam.getOriginData()));
+		}
+		return vcManager.addProof(verifiableCredential, signatureVcParams);
+	}
+
+	/**
+	 * Creates a presentation of the credential signed by the holder.
+	 * A single proof uses the authentication key, multiple proofs add the invocation key.
+	 *
+	 * @param holder The holder
+	 * @param verifiableCredential The credential to present
+	 * @param proofMode The proof layout
+	 * @return The signed presentation
+	 */
+	public static VerifiablePresentation verifiablePresentation(DidFixture holder, VerifiableCredential verifiableCredential,
+			ProofMode proofMode) {
+		VerifiablePresentation verifiablePresentation = new VerifiablePresentation();
+		verifiablePresentation.setContext(List.of("https://www.w3.org/ns/credentials/v2"));
+		verifiablePresentation.setId("urn:uuid:00000000-0000-0000-0000-000000000001");
+		verifiablePresentation.setType(List.of("VerifiablePresentation"));
+		verifiablePresentation.setHolder(holder.getDid());
+		verifiablePresentation.setValidFrom(FIXED_DATE);
+		verifiablePresentation.setValidUntil(FIXED_VALID_UNTIL);
+		verifiablePresentation.setVerifierNonce("benchmark-nonce");
+		verifiablePresentation.setVerifiableCredential(List.of(verifiableCredential));
+
+		String proofType = holder.getCurveType() == EccCurveType.Secp256k1
+				? ProofType.SECP256K1_SIGNATURE_2018.getRawValue()
+				: ProofType.SECP256R1_SIGNATURE_2018.getRawValue();
+		List<String> keyIds = proofMode == ProofMode.MULTI ? List.of(AUTH_KEY_ID, INVOKE_KEY_ID) : List.of(AUTH_KEY_ID);
+
+		List<VpProof> proofs = new ArrayList<VpProof>();
+		for (String keyId : keyIds) {
+			VpProof signingProof = new VpProof();
+			signingProof.setType(proofType);
+			signingProof.setCreated(FIXED_DATE);
+			signingProof.setProofPurpose(ProofPurpose.AUTHENTICATION.getRawValue());
+			signingProof.setVerificationMethod(holder.getDid() + "?versionId=" + holder.getDocument().getVersionId() + "#" + keyId);
+
+			VerifiablePresentation signingPresentation = new VerifiablePresentation();
+			signingPresentation.fromJson(verifiablePresentation.toJson());
+			signingPresentation.setProofs(null);
+			signingPresentation.setProof(signingProof);
+
+			VpProof proof = new VpProof();
+			proof.setType(signingProof.getType());
+			proof.setCreated(signingProof.getCreated());
+			proof.setProofPurpose(signingProof.getProofPurpose());
+			proof.setVerificationMethod(signingProof.getVerificationMethod());
+			proof.setProofValue(holder.sign(keyId, signingPresentation.toJson()));
+			proofs.add(proof);
+		}
+
+		if (proofMode == ProofMode.MULTI) {
+			verifiablePresentation.setProofs(proofs);
+		} else {
+			verifiablePresentation.setProof(proofs.get(0));
+		}
+		return verifiablePresentation;
+	}
+
+	/**
+	 * Finds a verification method of a DID document.
+	 *
+	 * @param didDocument The DID document
+	 * @param keyId The ID of the key
+	 * @return The verification method, or null if the document has no such key
+	 */
+	public static VerificationMethod verificationMethod(DidDocument didDocument, String keyId) {
+		for (VerificationMethod verificationMethod : didDocument.getVerificationMethod()) {
+			if (keyId.equals(verificationMethod.getId())) {
+				return verificationMethod;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Derives a key pair from a seed.
+	 *
+	 * @param seed The seed (e.g. DID and key ID)
+	 * @param curveType The curve of the key
+	 * @return The key pair
+	 */
+	static EcKeyPair keyPair(String seed, EccCurveType curveType) {
+		ECNamedCurveParameterSpec curveSpec = ECNamedCurveTable.getParameterSpec(curveType.getCurveName());
+		try {
+			byte[] seedHash = MessageDigest.getInstance("SHA-256").digest(seed.getBytes(StandardCharsets.UTF_8));
+			BigInteger privateValue = new BigInteger(1, seedHash).mod(curveSpec.getN().subtract(BigInteger.ONE)).add(BigInteger.ONE);
+			ECPoint publicPoint = curveSpec.getG().multiply(privateValue).normalize();
+
+			KeyFactory keyFactory = KeyFactory.getInstance("EC", BouncyCastleProvider.PROVIDER_NAME);
+			PrivateKey privateKey = keyFactory.generatePrivate(new ECPrivateKeySpec(privateValue, curveSpec));
+			PublicKey publicKey = keyFactory.generatePublic(new ECPublicKeySpec(publicPoint, curveSpec));
+
+			EcKeyPair keyPair = new EcKeyPair(publicKey, privateKey);
+			keyPair.setECType(curveType);
+			return keyPair;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String encodedPublicKey(EcKeyPair keyPair) {
+		byte[] compressedPublicKey = ((ECPublicKey) keyPair.getPublicKey()).getQ().getEncoded(true);
+		try {
+			return MultiBaseUtils.encode(compressedPublicKey, MultiBaseType.base58btc);
+		} catch (CryptoException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
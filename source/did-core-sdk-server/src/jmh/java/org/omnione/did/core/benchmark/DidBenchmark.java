@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.omnione.did.core.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.ProofMode;
+import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Signing input generation and proof verification of DID documents.
+ * A single-proof document is signed with the assertion key, a multi-proof document with one key per signing purpose.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DidBenchmark {
+
+	@Param({"4", "16", "64"})
+	private int keyCount;
+
+	@Param({"Secp256k1", "Secp256r1"})
+	private EccCurveType curveType;
+
+	@Param({"SINGLE", "MULTI"})
+	private ProofMode proofMode;
+
+	private List<String> signKeyIds;
+	private DidManager unsignedDidManager;
+	private DidManager signedDidManager;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CoreException {
+		String did = "did:omn:bench:controller:" + curveType + ":" + keyCount;
+		signKeyIds = proofMode == ProofMode.MULTI
+				? BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS
+				: List.of(BenchmarkFixtures.ASSERT_KEY_ID);
+		unsignedDidManager = BenchmarkFixtures.didDocument(did, keyCount, curveType).getDidManager();
+		signedDidManager = BenchmarkFixtures.didDocument(did, keyCount, curveType).signDocument(signKeyIds).getDidManager();
+	}
+
+	@Benchmark
+	public List<SignatureParams> getOriginDataForSign() throws CoreException {
+		return unsignedDidManager.getOriginDataForSign(signKeyIds);
+	}
+
+	@Benchmark
+	public DidManager verifyDocumentSignature() throws CoreException {
+		signedDidManager.verifyDocumentSignature();
+		return signedDidManager;
+	}
+}
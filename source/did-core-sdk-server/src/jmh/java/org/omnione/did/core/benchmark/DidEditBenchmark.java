@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.omnione.did.core.data.rest.DidKeyInfo;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.DidDocumentTransaction;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.AuthType;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding keys to a DID document with one mutation per key, or in a single edit.
+ * Every mutation publishes a document sharing no state with the previous one, which costs one copy of the document,
+ * while an edit publishes once on commit. The commit also validates the document, a fixed cost the mutations do not have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DidEditBenchmark {
+
+	@Param({"16", "64", "256"})
+	private int keyCount;
+
+	private DidDocument baseDocument;
+	private List<DidKeyInfo> didKeyInfos;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CoreException {
+		String did = "did:omn:bench:edit:" + keyCount;
+		baseDocument = BenchmarkFixtures.didDocument(did, BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS.size(), EccCurveType.Secp256r1).getDocument();
+
+		didKeyInfos = new ArrayList<DidKeyInfo>(keyCount);
+		DidDocument keyDocument = BenchmarkFixtures.didDocument("did:omn:bench:keys:" + keyCount,
+				BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS.size() + keyCount, EccCurveType.Secp256r1).getDocument();
+		for (VerificationMethod verificationMethod : keyDocument.getVerificationMethod()) {
+			if (BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS.contains(verificationMethod.getId())) {
+				continue;
+			}
+			DidKeyInfo didKeyInfo = new DidKeyInfo();
+			didKeyInfo.setKeyId(verificationMethod.getId());
+			didKeyInfo.setController(did);
+			didKeyInfo.setAlgoType(verificationMethod.getType());
+			didKeyInfo.setPublicKey(verificationMethod.getPublicKeyMultibase());
+			didKeyInfo.setAuthType(AuthType.Free);
+			didKeyInfo.setKeyPurpose(List.of(ProofPurpose.AUTHENTICATION));
+			didKeyInfos.add(didKeyInfo);
+		}
+	}
+
+	@Benchmark
+	public DidDocument addKeysOneByOne() throws CoreException {
+		DidManager didManager = newDidManager();
+		for (DidKeyInfo didKeyInfo : didKeyInfos) {
+			didManager.addVerifiCationMethod(didKeyInfo);
+		}
+		return didManager.getDocument();
+	}
+
+	@Benchmark
+	public DidDocument addKeysInOneEdit() throws CoreException {
+		DidManager didManager = newDidManager();
+		try (DidDocumentTransaction edit = didManager.beginEdit()) {
+			for (DidKeyInfo didKeyInfo : didKeyInfos) {
+				edit.addVerificationMethod(didKeyInfo);
+			}
+			return edit.commit();
+		}
+	}
+
+	private DidManager newDidManager() {
+		DidManager didManager = new DidManager();
+		didManager.didDocument = baseDocument;
+		return didManager;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.omnione.did.core.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.data.rest.IssueVcParam;
+import org.omnione.did.core.data.rest.SignatureVcParams;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.VcManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Issuance, signing input generation and verification of Verifiable Credentials.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VcBenchmark {
+
+	private static final String HOLDER_DID = "did:omn:bench:holder";
+
+	@Param({"1", "10", "50", "100"})
+	private int claimCount;
+
+	@Param({"Secp256k1", "Secp256r1"})
+	private EccCurveType curveType;
+
+	private final VcManager vcManager = new VcManager();
+	private DidDocument issuerDidDocument;
+	private IssueVcParam issueVcParam;
+	private VerifiableCredential unsignedCredential;
+	private VerifiableCredential signedCredential;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CoreException {
+		DidFixture issuer = BenchmarkFixtures.didDocument("did:omn:bench:issuer:" + curveType, 4, curveType);
+		issuerDidDocument = issuer.getDocument();
+		issueVcParam = BenchmarkFixtures.issueVcParam(issuer.getDid(), claimCount);
+		unsignedCredential = vcManager.issueCredential(issueVcParam, HOLDER_DID);
+		signedCredential = BenchmarkFixtures.verifiableCredential(issuer, HOLDER_DID, claimCount);
+	}
+
+	@Benchmark
+	public VerifiableCredential issueCredential() throws CoreException {
+		return vcManager.issueCredential(issueVcParam, HOLDER_DID);
+	}
+
+	@Benchmark
+	public List<SignatureVcParams> getOriginDataForSign() throws CoreException {
+		return vcManager.getOriginDataForSign(BenchmarkFixtures.ASSERT_KEY_ID, issuerDidDocument, unsignedCredential);
+	}
+
+	@Benchmark
+	public VerifiableCredential verifyCredential() throws CoreException {
+		vcManager.verifyCredential(signedCredential, issuerDidDocument, true);
+		return signedCredential;
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.omnione.did.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.ProofMode;
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.VpManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Verification of Verifiable Presentations holding one credential.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VpBenchmark {
+
+	@Param({"1", "10", "50", "100"})
+	private int claimCount;
+
+	@Param({"Secp256k1", "Secp256r1"})
+	private EccCurveType curveType;
+
+	@Param({"SINGLE", "MULTI"})
+	private ProofMode proofMode;
+
+	private final VpManager vpManager = new VpManager();
+	private VerifiablePresentation verifiablePresentation;
+	private VpVerifyParam verifyParam;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CoreException {
+		DidFixture issuer = BenchmarkFixtures.didDocument("did:omn:bench:issuer:" + curveType, 4, curveType);
+		DidFixture holder = BenchmarkFixtures.didDocument("did:omn:bench:holder:" + curveType, 4, curveType);
+		verifiablePresentation = BenchmarkFixtures.verifiablePresentation(holder,
+				BenchmarkFixtures.verifiableCredential(issuer, holder.getDid(), claimCount), proofMode);
+		verifyParam = new VpVerifyParam(holder.getDocument(), issuer.getDocument());
+	}
+
+	@Benchmark
+	public VerifiablePresentation verifyPresentation() throws CoreException {
+		vpManager.verifyPresentation(verifiablePresentation, verifyParam);
+		return verifiablePresentation;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Verification report of all proofs of a DID Document.
+ * Instances are immutable.
+ */
+@Getter
+public class DidDocumentVerifyReport {
+
+	/**
+	 * DID of the verified document
+	 */
+	private final String did;
+
+	/**
+	 * Version of the verified document
+	 */
+	private final String versionId;
+
+	/**
+	 * One result per proof, in document order
+	 */
+	private final List<DidProofVerifyResult> proofResults;
+
+	public DidDocumentVerifyReport(String did, String versionId, List<DidProofVerifyResult> proofResults) {
+
+		this.did = did;
+		this.versionId = versionId;
+		this.proofResults = Collections.unmodifiableList(new ArrayList<DidProofVerifyResult>(proofResults));
+	}
+
+	/**
+	 * Checks whether the document has at least one proof and all of its proofs were verified.
+	 *
+	 * @return true if every proof was verified
+	 */
+	public boolean isVerified() {
+
+		if (proofResults.isEmpty()) {
+			return false;
+		}
+		for (DidProofVerifyResult proofResult : proofResults) {
+			if (!proofResult.isSuccess()) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
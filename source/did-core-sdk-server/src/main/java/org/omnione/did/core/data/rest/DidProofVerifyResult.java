@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.did.Proof;
+
+import lombok.Getter;
+
+/**
+ * Verification result of one proof of a DID Document.
+ * When the proof was not verified, the error fields describe why.
+ */
+@Getter
+public class DidProofVerifyResult {
+
+	/**
+	 * Position of the proof in the DID Document
+	 */
+	private final int index;
+
+	/**
+	 * Purpose of the proof (e.g. assertionMethod)
+	 */
+	private final String proofPurpose;
+
+	/**
+	 * Verification method URL of the proof
+	 */
+	private final String verificationMethod;
+
+	/**
+	 * Whether the proof was verified
+	 */
+	private final boolean success;
+
+	/**
+	 * Error code (e.g. SSDKCOR03006), set when the verification failed
+	 */
+	private final String errorCode;
+
+	/**
+	 * Error message, set when the verification failed
+	 */
+	private final String errorMsg;
+
+	/**
+	 * Error reason, if any
+	 */
+	private final String errorReason;
+
+	private DidProofVerifyResult(int index, Proof proof, boolean success, String errorCode, String errorMsg, String errorReason) {
+
+		this.index = index;
+		this.proofPurpose = proof != null ? proof.getProofPurpose() : null;
+		this.verificationMethod = proof != null ? proof.getVerificationMethod() : null;
+		this.success = success;
+		this.errorCode = errorCode;
+		this.errorMsg = errorMsg;
+		this.errorReason = errorReason;
+	}
+
+	public static DidProofVerifyResult success(int index, Proof proof) {
+
+		return new DidProofVerifyResult(index, proof, true, null, null, null);
+	}
+
+	public static DidProofVerifyResult failure(int index, Proof proof, CoreException exception) {
+
+		return new DidProofVerifyResult(index, proof, false, exception.getErrorCode(), exception.getErrorMsg(), exception.getErrorReason());
+	}
+}
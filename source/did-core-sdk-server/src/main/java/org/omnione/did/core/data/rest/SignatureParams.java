@@ -19,6 +19,7 @@ package org.omnione.did.core.data.rest;
 import org.omnione.did.data.model.DataObject;
 import org.omnione.did.data.model.util.json.GsonWrapper;
 
+import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
 import lombok.Getter;
@@ -32,6 +33,7 @@ public class SignatureParams extends DataObject{
      * The identifier of the key used for signing.
      */
 	@SerializedName("keyId")
+	@Expose
 	private String keyId;
 	
 
@@ -39,24 +41,30 @@ public class SignatureParams extends DataObject{
      * The purpose of the key for signature.
      */ 
 	@SerializedName("keyPurpose")
+	@Expose
 	private String keyPurpose;
 	
 	/**
      * The hash of the data to be signed.
+     * 
+     * <p>Multibase encoded SHA-256 of the UTF-8 origin data, set if requested by the SigningInputMode.</p>
      */
 	@SerializedName("hashedData")
+	@Expose
 	private String hashedData;
 	
 	/**
      * The public key used for signature verification.
      */
 	@SerializedName("publicKey")
+	@Expose
 	private String publicKey;
     
 	/**
      * The original data that was signed.
      */
 	@SerializedName("originData")
+	@Expose
 	private String originData;
 	
 	
@@ -64,14 +72,30 @@ public class SignatureParams extends DataObject{
      * The cryptographic algorithm used for signing.
      */
 	@SerializedName("algorithm")
+	@Expose
 	private String algorithm;
 	
     /**
      * The signature value.
      */
 	@SerializedName("signatureValue")
+	@Expose
 	private String signatureValue;
 
+    /**
+     * The creation date of the proof, set if the origin data is omitted.
+     */
+	@SerializedName("created")
+	@Expose
+	private String created;
+
+    /**
+     * The verificationMethod of the proof (DID URL of the key), set if the origin data is omitted.
+     */
+	@SerializedName("verificationMethod")
+	@Expose
+	private String verificationMethod;
+
 	@Override
 	public void fromJson(String val) {
 	  	GsonWrapper gson = new GsonWrapper();
@@ -80,9 +104,11 @@ public class SignatureParams extends DataObject{
 	  	keyId = params.getKeyId();
 	  	keyPurpose = params.getKeyPurpose();
 	  	hashedData = params.getHashedData();
-        publicKey = params.getHashedData();
+        publicKey = params.getPublicKey();
         originData = params.getOriginData();
         algorithm = params.getAlgorithm();
         signatureValue = params.getSignatureValue();
+        created = params.getCreated();
+        verificationMethod = params.getVerificationMethod();
 	}
 }
@@ -18,6 +18,7 @@ package org.omnione.did.core.data.rest;
 
 import org.omnione.did.data.model.util.json.GsonWrapper;
 
+import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
 import lombok.Getter;
@@ -32,6 +33,7 @@ public class SignatureVcParams extends SignatureParams{
      * <p>This field indicates whether the claim is a single claim or not.</p>
      */
     @SerializedName("isSingleClaim")
+    @Expose
     private Boolean isSingleClaim;
     
     /**
@@ -40,6 +42,7 @@ public class SignatureVcParams extends SignatureParams{
      * <p>This field stores the code of the claim.</p>
      */
     @SerializedName("claimCode")
+    @Expose
     private String claimCode;   
 
 	@Override
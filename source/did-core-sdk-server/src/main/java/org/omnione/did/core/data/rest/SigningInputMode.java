@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+/**
+ * Content of the signing parameters returned by {@code getOriginDataForSign}.
+ */
+public enum SigningInputMode {
+
+	/**
+	 * The origin data (the JSON to sign) only. The signer hashes it itself.
+	 */
+	ORIGIN_DATA(true, false),
+
+	/**
+	 * The SHA-256 of the origin data in hashedData, without the origin data.
+	 * The unsigned proof is described by keyId, keyPurpose, algorithm, created and verificationMethod.
+	 */
+	DIGEST(false, true),
+
+	/**
+	 * Both the origin data and its SHA-256 in hashedData.
+	 */
+	DIGEST_AND_ORIGIN_DATA(true, true);
+
+	private final boolean isOriginDataIncluded;
+	private final boolean isDigestIncluded;
+
+	private SigningInputMode(boolean isOriginDataIncluded, boolean isDigestIncluded) {
+		this.isOriginDataIncluded = isOriginDataIncluded;
+		this.isDigestIncluded = isDigestIncluded;
+	}
+
+	public boolean isOriginDataIncluded() {
+		return isOriginDataIncluded;
+	}
+
+	public boolean isDigestIncluded() {
+		return isDigestIncluded;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import java.util.List;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+import lombok.Getter;
+
+/**
+ * Result of one item of a bulk Verifiable Credential issuance.
+ * Either the credential and its signing inputs are set, or the error fields describe why the item failed.
+ */
+@Getter
+public class VcBatchIssueResult {
+
+	/**
+	 * DID of the subject of the item
+	 */
+	private final String subjectDid;
+
+	/**
+	 * Whether the credential was issued
+	 */
+	private final boolean success;
+
+	/**
+	 * Issued Verifiable Credential without proof, set when the credential was issued
+	 */
+	private final VerifiableCredential verifiableCredential;
+
+	/**
+	 * Signing inputs of the credential, as returned by {@code VcManager.getOriginDataForSign}, set when the credential was issued
+	 */
+	private final List<SignatureVcParams> sigVcParamsList;
+
+	/**
+	 * Error code (e.g. SSDKCOR02000), set when the issuance failed
+	 */
+	private final String errorCode;
+
+	/**
+	 * Error message, set when the issuance failed
+	 */
+	private final String errorMsg;
+
+	/**
+	 * Error reason, if any
+	 */
+	private final String errorReason;
+
+	private VcBatchIssueResult(String subjectDid, VerifiableCredential verifiableCredential, List<SignatureVcParams> sigVcParamsList,
+			String errorCode, String errorMsg, String errorReason) {
+
+		this.subjectDid = subjectDid;
+		this.success = verifiableCredential != null;
+		this.verifiableCredential = verifiableCredential;
+		this.sigVcParamsList = sigVcParamsList;
+		this.errorCode = errorCode;
+		this.errorMsg = errorMsg;
+		this.errorReason = errorReason;
+	}
+
+	public static VcBatchIssueResult success(String subjectDid, VerifiableCredential verifiableCredential, List<SignatureVcParams> sigVcParamsList) {
+
+		return new VcBatchIssueResult(subjectDid, verifiableCredential, sigVcParamsList, null, null, null);
+	}
+
+	public static VcBatchIssueResult failure(String subjectDid, CoreException exception) {
+
+		return new VcBatchIssueResult(subjectDid, null, null, exception.getErrorCode(), exception.getErrorMsg(), exception.getErrorReason());
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * The subject and personal information of one Verifiable Credential, as one item of a bulk issuance.
+ */
+@Getter
+public class VcIssueRequest {
+
+	/**
+	 * DID of the subject to whom the Verifiable Credential is issued
+	 */
+	private final String subjectDid;
+
+	/**
+	 * The personal information about claims, keyed by claim code (namespace id + "." + claim id)
+	 */
+	private final Map<String, ClaimInfo> privacy;
+
+	public VcIssueRequest(String subjectDid, Map<String, ClaimInfo> privacy) {
+
+		this.subjectDid = subjectDid;
+		this.privacy = privacy;
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.I18N;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+
+/**
+ * Read-only view of the claims of a verified presentation.
+ *
+ * <p>The view is built once, when the presentation is verified, from copies of its claims, so later changes
+ * to the presentation are not seen. All lists and maps are unmodifiable and are shared between calls, so no call
+ * copies a claim. The claims themselves are shared as well and must not be modified.
+ * Instances are immutable and can be shared between threads.</p>
+ */
+public final class VerifiedClaims implements Iterable<Claim> {
+
+	private static final VerifiedClaims EMPTY = new Builder().build();
+
+	/**
+	 * Claims of all credentials, in presentation order
+	 */
+	private final List<Claim> claimList;
+
+	/**
+	 * Claims by claim code, in presentation order
+	 */
+	private final Map<String, List<Claim>> claimsByCode;
+
+	/**
+	 * Claims by id of their Verifiable Credential, in presentation order
+	 */
+	private final Map<String, List<Claim>> claimsByVcId;
+
+	private VerifiedClaims(List<Claim> claimList, Map<String, List<Claim>> claimsByCode, Map<String, List<Claim>> claimsByVcId) {
+
+		this.claimList = Collections.unmodifiableList(claimList);
+		this.claimsByCode = unmodifiableGroups(claimsByCode);
+		this.claimsByVcId = unmodifiableGroups(claimsByVcId);
+	}
+
+	/**
+	 * Takes a snapshot of the claims of a presentation.
+	 * The claims are copied field by field, without a JSON round-trip.
+	 *
+	 * @param verifiablePresentation The verified presentation.
+	 * @return The claims of all its credentials.
+	 */
+	public static VerifiedClaims of(VerifiablePresentation verifiablePresentation) {
+
+		return of(verifiablePresentation.getVerifiableCredential());
+	}
+
+	/**
+	 * Takes a snapshot of the claims of Verifiable Credentials.
+	 * The claims are copied field by field, without a JSON round-trip.
+	 *
+	 * @param verifiableCredentials The verified credentials.
+	 * @return The claims of all credentials, in credential order.
+	 */
+	public static VerifiedClaims of(List<VerifiableCredential> verifiableCredentials) {
+
+		Builder builder = new Builder();
+		if (verifiableCredentials != null) {
+			for (VerifiableCredential verifiableCredential : verifiableCredentials) {
+				if (verifiableCredential.getCredentialSubject() == null || verifiableCredential.getCredentialSubject().getClaims() == null) {
+					continue;
+				}
+				for (Claim claim : verifiableCredential.getCredentialSubject().getClaims()) {
+					builder.add(verifiableCredential, copyClaim(claim));
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Gets a view without claims.
+	 *
+	 * @return The shared empty view.
+	 */
+	public static VerifiedClaims empty() {
+
+		return EMPTY;
+	}
+
+	/**
+	 * Gets the claims of all credentials.
+	 *
+	 * @return The unmodifiable claims, in presentation order.
+	 */
+	public List<Claim> getClaimList() {
+
+		return claimList;
+	}
+
+	/**
+	 * Gets modifiable copies of the claims of all credentials, as returned by {@code VpManager.getClaimList()}.
+	 * Every call copies the list and the claims, so changes to the result are not seen by the view or by other callers.
+	 *
+	 * @return A new list of new claims, in presentation order.
+	 */
+	public List<Claim> copyClaimList() {
+		List<Claim> claims = new ArrayList<Claim>(claimList.size());
+		for (Claim claim : claimList) {
+			claims.add(copyClaim(claim));
+		}
+		return claims;
+	}
+
+	public int size() {
+
+		return claimList.size();
+	}
+
+	public boolean isEmpty() {
+
+		return claimList.isEmpty();
+	}
+
+	@Override
+	public Iterator<Claim> iterator() {
+
+		return claimList.iterator();
+	}
+
+	public Stream<Claim> stream() {
+
+		return claimList.stream();
+	}
+
+	/**
+	 * Finds the first claim with a code.
+	 *
+	 * @param code The claim code (Claim Namespace + Claim Id).
+	 * @return The first claim with the code in presentation order, or empty if no credential has it.
+	 */
+	public Optional<Claim> findClaim(String code) {
+
+		List<Claim> claims = claimsByCode.get(code);
+		return claims == null ? Optional.<Claim>empty() : Optional.of(claims.get(0));
+	}
+
+	/**
+	 * Gets all claims with a code, e.g. the same claim submitted in several credentials.
+	 *
+	 * @param code The claim code (Claim Namespace + Claim Id).
+	 * @return The unmodifiable claims with the code, in presentation order, or an empty list.
+	 */
+	public List<Claim> getClaims(String code) {
+
+		return claimsByCode.getOrDefault(code, Collections.<Claim>emptyList());
+	}
+
+	/**
+	 * Gets the claims of a Verifiable Credential.
+	 *
+	 * @param vcId The id of the Verifiable Credential.
+	 * @return The unmodifiable claims of the credential, or an empty list.
+	 */
+	public List<Claim> getClaimsByVcId(String vcId) {
+
+		return claimsByVcId.getOrDefault(vcId, Collections.<Claim>emptyList());
+	}
+
+	/**
+	 * Gets the claims grouped by Verifiable Credential.
+	 *
+	 * @return The unmodifiable claims by credential id, in presentation order.
+	 */
+	public Map<String, List<Claim>> groupByVcId() {
+
+		return claimsByVcId;
+	}
+
+	/**
+	 * Copies a claim field by field, like {@code fromJson(toJson())} does.
+	 */
+	private static Claim copyClaim(Claim claim) {
+
+		Claim copy = new Claim();
+		copy.setCode(claim.getCode());
+		copy.setCaption(claim.getCaption());
+		copy.setValue(claim.getValue());
+		copy.setType(claim.getType());
+		copy.setFormat(claim.getFormat());
+		copy.setHideValue(claim.isHideValue());
+		copy.setLocation(claim.getLocation());
+		copy.setDigestSRI(claim.getDigestSRI());
+		if (claim.getI18n() != null) {
+			Map<String, I18N> i18n = new LinkedHashMap<String, I18N>();
+			for (Map.Entry<String, I18N> entry : claim.getI18n().entrySet()) {
+				I18N source = entry.getValue();
+				I18N target = null;
+				if (source != null) {
+					target = new I18N();
+					target.setCaption(source.getCaption());
+					target.setValue(source.getValue());
+					target.setDigestSRI(source.getDigestSRI());
+				}
+				i18n.put(entry.getKey(), target);
+			}
+			copy.setI18n(i18n);
+		}
+		return copy;
+	}
+
+	private static Map<String, List<Claim>> unmodifiableGroups(Map<String, List<Claim>> groups) {
+
+		for (Map.Entry<String, List<Claim>> group : groups.entrySet()) {
+			group.setValue(Collections.unmodifiableList(group.getValue()));
+		}
+		return Collections.unmodifiableMap(groups);
+	}
+
+	/**
+	 * Collects claims into a VerifiedClaims, e.g. from a streaming verification with {@code builder::add} as claim consumer.
+	 * The claims are kept as given, without copying them. A builder is not thread-safe.
+	 */
+	public static final class Builder {
+
+		private final List<Claim> claimList = new ArrayList<Claim>();
+		private final Map<String, List<Claim>> claimsByCode = new LinkedHashMap<String, List<Claim>>();
+		private final Map<String, List<Claim>> claimsByVcId = new LinkedHashMap<String, List<Claim>>();
+		private boolean isBuilt = false;
+
+		/**
+		 * Adds a claim of a Verifiable Credential.
+		 *
+		 * @param verifiableCredential The credential holding the claim.
+		 * @param claim The claim.
+		 * @throws IllegalStateException If the builder has already been built.
+		 */
+		public void add(VerifiableCredential verifiableCredential, Claim claim) {
+
+			if (isBuilt) {
+				throw new IllegalStateException("VerifiedClaims already built");
+			}
+			claimList.add(claim);
+			claimsByCode.computeIfAbsent(claim.getCode(), code -> new ArrayList<Claim>(1)).add(claim);
+			claimsByVcId.computeIfAbsent(verifiableCredential.getId(), vcId -> new ArrayList<Claim>()).add(claim);
+		}
+
+		/**
+		 * Builds the view of the added claims.
+		 *
+		 * @return The VerifiedClaims.
+		 */
+		public VerifiedClaims build() {
+
+			isBuilt = true;
+			return new VerifiedClaims(claimList, claimsByCode, claimsByVcId);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import org.omnione.did.core.exception.CoreException;
+
+import lombok.Getter;
+
+/**
+ * Result of one item of a batch Verifiable Presentation verification.
+ * Either {@link #getResult()} is set, or the error fields describe why the item failed.
+ */
+@Getter
+public class VpBatchVerifyResult {
+
+	/**
+	 * Position of the item in the batch
+	 */
+	private final int index;
+
+	/**
+	 * Whether the presentation was verified
+	 */
+	private final boolean success;
+
+	/**
+	 * Verification result, set when the presentation was verified
+	 */
+	private final VpVerifyResult result;
+
+	/**
+	 * Error code (e.g. SSDKCOR03006), set when the verification failed
+	 */
+	private final String errorCode;
+
+	/**
+	 * Error message, set when the verification failed
+	 */
+	private final String errorMsg;
+
+	/**
+	 * Error reason, if any
+	 */
+	private final String errorReason;
+
+	/**
+	 * Id of the Verifiable Credential whose verification failed, if the error relates to a single credential
+	 */
+	private final String vcId;
+
+	private VpBatchVerifyResult(int index, VpVerifyResult result, String errorCode, String errorMsg, String errorReason, String vcId) {
+
+		this.index = index;
+		this.success = result != null;
+		this.result = result;
+		this.errorCode = errorCode;
+		this.errorMsg = errorMsg;
+		this.errorReason = errorReason;
+		this.vcId = vcId;
+	}
+
+	public static VpBatchVerifyResult success(int index, VpVerifyResult result) {
+
+		return new VpBatchVerifyResult(index, result, null, null, null, null);
+	}
+
+	public static VpBatchVerifyResult failure(int index, CoreException exception, String vcId) {
+
+		return new VpBatchVerifyResult(index, null, exception.getErrorCode(), exception.getErrorMsg(), exception.getErrorReason(), vcId);
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import lombok.Getter;
+
+/**
+ * Result of a successful streaming Verifiable Presentation verification.
+ * The claims are passed to the claim consumer and are not part of the result.
+ */
+@Getter
+public class VpStreamVerifyResult {
+
+	/**
+	 * Id of the verified presentation
+	 */
+	private final String presentationId;
+
+	/**
+	 * Holder DID of the verified presentation
+	 */
+	private final String holder;
+
+	/**
+	 * Number of credentials read from the presentation
+	 */
+	private final int credentialCount;
+
+	/**
+	 * Number of claims passed to the claim consumer
+	 */
+	private final int claimCount;
+
+	public VpStreamVerifyResult(String presentationId, String holder, int credentialCount, int claimCount) {
+
+		this.presentationId = presentationId;
+		this.holder = holder;
+		this.credentialCount = credentialCount;
+		this.claimCount = claimCount;
+	}
+}
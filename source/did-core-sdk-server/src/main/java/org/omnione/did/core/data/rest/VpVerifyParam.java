@@ -16,6 +16,7 @@
 
 package org.omnione.did.core.data.rest;
 
+import org.omnione.did.core.util.PresentationFilter;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.profile.Filter;
 
@@ -35,6 +36,11 @@ public class VpVerifyParam {
 	 * Setting up VC submission conditions
 	 */
 	private Filter filter; 
+
+	/**
+	 * Filter compiled once for repeated verifications; takes precedence over the filter if set
+	 */
+	private PresentationFilter presentationFilter;
 	
 	/**
 	 * Holder's DidDocument
@@ -46,6 +52,13 @@ public class VpVerifyParam {
      */
 	private DidDocument issuerDidDocument;
 
+	/**
+	 * Creates parameters without DID Documents.
+	 * The holder and issuer keys are then resolved from the DID document registry of the VpManager.
+	 */
+	public VpVerifyParam() {
+	}
+
 	public VpVerifyParam(DidDocument holderDidDocument, DidDocument issuerDidDocument) {
 
 		this.holderDidDocument = holderDidDocument;
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+
+import lombok.Getter;
+
+/**
+ * A Verifiable Presentation and its verification parameters, as one item of a batch verification.
+ */
+@Getter
+public class VpVerifyRequest {
+
+	/**
+	 * Presentation to verify
+	 */
+	private final VerifiablePresentation verifiablePresentation;
+
+	/**
+	 * Parameters for verification, including filter, DidDocument etc...
+	 */
+	private final VpVerifyParam verifyParam;
+
+	public VpVerifyRequest(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam) {
+
+		this.verifiablePresentation = verifiablePresentation;
+		this.verifyParam = verifyParam;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.data.rest;
+
+import java.util.List;
+
+import org.omnione.did.data.model.vc.Claim;
+
+import lombok.Getter;
+
+/**
+ * Result of a successful Verifiable Presentation verification.
+ * Instances are immutable and do not share state with the verified presentation.
+ * The claims are a snapshot taken at verification time, see {@link VerifiedClaims}.
+ */
+@Getter
+public class VpVerifyResult {
+
+	/**
+	 * Id of the verified presentation
+	 */
+	private final String presentationId;
+
+	/**
+	 * Holder DID of the verified presentation
+	 */
+	private final String holder;
+
+	/**
+	 * Claims of all submitted credentials, in presentation order
+	 */
+	private final List<Claim> claimList;
+
+	/**
+	 * Claims of all submitted credentials, with lookup by claim code and by credential
+	 */
+	private final VerifiedClaims verifiedClaims;
+
+	public VpVerifyResult(String presentationId, String holder, VerifiedClaims verifiedClaims) {
+
+		this.presentationId = presentationId;
+		this.holder = holder;
+		this.verifiedClaims = verifiedClaims;
+		this.claimList = verifiedClaims.getClaimList();
+	}
+}
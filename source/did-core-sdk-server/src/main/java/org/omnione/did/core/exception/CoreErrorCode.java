@@ -37,6 +37,14 @@ public enum CoreErrorCode implements CoreErrorCodeInterface{
 	ERR_CODE_DIDMANAGER_UNREGISTERED_KEY(ERR_CODE_DIDMANAGER_BASE, "013","The Key is not registered on VerificationMethod"),
 	ERR_CODE_DIDMANAGER_DIDDOCUMENT_FILE_NOT_FOUND(ERR_CODE_DIDMANAGER_BASE,  "014", "DidDocument file not found."),
 	ERR_CODE_DIDMANAGER_READ_DIDDOCUMENT_FILE_FAIL(ERR_CODE_DIDMANAGER_BASE,  "015", "Failed to read DidDocument File"),
+	ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT(ERR_CODE_DIDMANAGER_BASE,  "016", "DidDocument is not valid"),
+	ERR_CODE_DIDMANAGER_EDIT_CONFLICT(ERR_CODE_DIDMANAGER_BASE,  "017", "DidDocument was changed during the edit"),
+	ERR_CODE_DIDMANAGER_EDIT_CLOSED(ERR_CODE_DIDMANAGER_BASE,  "018", "The edit is already committed or rolled back"),
+	ERR_CODE_DIDMANAGER_INVALID_DID_URL(ERR_CODE_DIDMANAGER_BASE,  "019", "DID URL is not valid"),
+	ERR_CODE_DIDMANAGER_NOT_REGISTERED_DIDDOCUMENT(ERR_CODE_DIDMANAGER_BASE,  "020", "DidDocument is not registered"),
+	ERR_CODE_DIDMANAGER_WRITE_DIDDOCUMENT_FILE_FAIL(ERR_CODE_DIDMANAGER_BASE,  "021", "Failed to write DidDocument File"),
+	ERR_CODE_DIDMANAGER_VERIFICATION_REJECTED(ERR_CODE_DIDMANAGER_BASE,  "022", "Verification request was rejected"),
+	ERR_CODE_DIDMANAGER_NOT_MATCHED_VERSION(ERR_CODE_DIDMANAGER_BASE,  "023", "The versionId of the DID URL does not match the DidDocument"),
 	
 	ERR_CODE_VCMANAGER_BASE(ERR_CODE_CORE_SDK_BASE, "02", ""),
 	ERR_CODE_VCMANAGER_NOT_SUBMITED_PUBLIC_CLAIM(ERR_CODE_VCMANAGER_BASE, 	"000",	"Public claim is not submited"),
@@ -48,6 +56,10 @@ public enum CoreErrorCode implements CoreErrorCodeInterface{
 	ERR_CODE_VCMANAGER_PRIVACY_NOT_EXIST(ERR_CODE_VCMANAGER_BASE,  "006",  "Privacy Data does not Exist"), 
 	ERR_CODE_VCMANAGER_NOT_EXIST_SIGNING_KEY(ERR_CODE_VCMANAGER_BASE, "007", "Signkey does not exist in DIDs"),
 	ERR_CODE_VCMANAGER_MISSING_VC_TYPE(ERR_CODE_VCMANAGER_BASE, "008", "VcType is missing"),
+	ERR_CODE_VCMANAGER_VERIFY_CLAIM_SIGNATURE_FAIL(ERR_CODE_VCMANAGER_BASE, "009", "Claim signature verification failed"),
+	ERR_CODE_VCMANAGER_NOT_MATCHED_ISSUER_KEY(ERR_CODE_VCMANAGER_BASE, "010", "Signkey does not belong to the issuer"),
+	ERR_CODE_VCMANAGER_VERIFICATION_REJECTED(ERR_CODE_VCMANAGER_BASE, "011", "Verification request was rejected"),
+	ERR_CODE_VCMANAGER_ISSUE_BATCH_ITEM_FAIL(ERR_CODE_VCMANAGER_BASE, "012", "Failed to issue the Verifiable Credential of a batch item"),
 	
 	ERR_CODE_VPMANAGER_BASE(ERR_CODE_CORE_SDK_BASE, "03", ""),
 	ERR_CODE_VPMANAGER_EXPIRED_VP(ERR_CODE_VPMANAGER_BASE, 	"000",	"Expired Verifiable Presentation"), 
@@ -61,6 +73,13 @@ public enum CoreErrorCode implements CoreErrorCodeInterface{
 	ERR_CODE_VPMANAGER_MULTIBASE_DECODING_FAIL(ERR_CODE_VPMANAGER_BASE,     "008", "Multibase decoding failed"),
 	ERR_CODE_VPMANAGER_NOT_EXIST_SIGNING_KEY(ERR_CODE_VPMANAGER_BASE, "009", "Signkey does not exist in DIDs"),
 	ERR_CODE_VPMANAGER_NOT_EXIST_PROOFVALUE(ERR_CODE_VPMANAGER_BASE, "010", "ProofValue(Total claim signature value) does not exist in VC Proof"),
+	ERR_CODE_VPMANAGER_INVALID_PRESENTATION(ERR_CODE_VPMANAGER_BASE, "011", "Invalid Verifiable Presentation"),
+	ERR_CODE_VPMANAGER_NOT_MATCHED_HOLDER_KEY(ERR_CODE_VPMANAGER_BASE, "012", "Signkey does not belong to the holder"),
+	ERR_CODE_VPMANAGER_VERIFICATION_REJECTED(ERR_CODE_VPMANAGER_BASE, "013", "Verification request was rejected"),
+
+	ERR_CODE_SIGNER_BASE(ERR_CODE_CORE_SDK_BASE, "04", ""),
+	ERR_CODE_SIGNER_SIGN_FAIL(ERR_CODE_SIGNER_BASE, "000", "External signing failed"),
+	ERR_CODE_SIGNER_SIGN_TIMEOUT(ERR_CODE_SIGNER_BASE, "001", "External signing timed out"),
 	;
 	private String code;
 	private String msg;
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+/**
+ * Receiver of the claims of a streaming Verifiable Presentation verification.
+ *
+ * <p>Claims are passed while the presentation is still being read: each claim after the checks and the issuer
+ * signature of its credential, but before the holder signature of the presentation is verified. The claims are
+ * verified only if the verification returns normally; if it throws, the claims received must be discarded.</p>
+ *
+ * @see VpManager#verifyStreaming(java.io.Reader, org.omnione.did.core.data.rest.VpVerifyParam, ClaimConsumer)
+ */
+@FunctionalInterface
+public interface ClaimConsumer {
+
+	/**
+	 * Receives a claim of a verified credential.
+	 * The claim is the one read from the presentation, not a copy.
+	 *
+	 * @param verifiableCredential The credential holding the claim, e.g. to read its id, issuer or schema.
+	 * @param claim The claim.
+	 * @throws CoreException To stop the verification with this exception.
+	 */
+	void accept(VerifiableCredential verifiableCredential, Claim claim) throws CoreException;
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.did.Service;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+
+/**
+ * Copy-on-write working copy of a DID document.
+ *
+ * <p>The working copy starts as a shallow copy of the base document, so both share all lists.
+ * A list is cloned the first time it is requested for writing, and the base document is never modified.
+ * Discarding the editor discards all changes. {@link #publish()} copies whatever is still shared, so the
+ * published document and the documents handed out before are independent, as with a full JSON copy.</p>
+ *
+ * <p>Publishing is a field-by-field copy of the document, so each published edit costs O(K) in the number of keys,
+ * like the duplicate key check of adding a key, and adding K keys with one mutation each costs O(K²).
+ * A {@link DidDocumentTransaction} publishes once on commit, whatever the number of changes
+ * ({@code DidEditBenchmark} compares both).</p>
+ */
+class DidDocumentEditor {
+
+	private final DidDocument document;
+
+	private boolean isVerificationMethodCopied = false;
+	private boolean isServiceCopied = false;
+	private final EnumSet<ProofPurpose> copiedKeyPurposes = EnumSet.noneOf(ProofPurpose.class);
+
+	DidDocumentEditor(DidDocument baseDocument) {
+		this.document = copyOf(baseDocument);
+	}
+
+	/**
+	 * Gets the working copy.
+	 * Lists that were not requested for writing are shared with the base document and must not be modified.
+	 *
+	 * @return The working copy of the DID document
+	 */
+	DidDocument getDocument() {
+		return document;
+	}
+
+	/**
+	 * Gets the verification method list of the working copy for writing, creating it if absent.
+	 *
+	 * @return The modifiable verification method list
+	 */
+	List<VerificationMethod> getVerificationMethodsForWrite() {
+		if (!isVerificationMethodCopied) {
+			document.setVerificationMethod(copyList(document.getVerificationMethod()));
+			isVerificationMethodCopied = true;
+		}
+		return document.getVerificationMethod();
+	}
+
+	/**
+	 * Gets the key ID list of the given purpose in the working copy.
+	 *
+	 * @param keyPurpose The purpose of the list
+	 * @return The key ID list, or null if the document has none
+	 */
+	List<String> getKeyPurposeList(ProofPurpose keyPurpose) {
+		switch (keyPurpose) {
+			case ASSERTION_METHOD:
+				return document.getAssertionMethod();
+			case AUTHENTICATION:
+				return document.getAuthentication();
+			case KEY_AGREEMENT:
+				return document.getKeyAgreement();
+			case CAPABILITY_INVOCATION:
+				return document.getCapabilityInvocation();
+			case CAPABILITY_DELEGATION:
+				return document.getCapabilityDelegation();
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Gets the key ID list of the given purpose in the working copy for writing, creating it if absent.
+	 *
+	 * @param keyPurpose The purpose of the list
+	 * @return The modifiable key ID list
+	 */
+	List<String> getKeyPurposeListForWrite(ProofPurpose keyPurpose) {
+		if (!copiedKeyPurposes.contains(keyPurpose)) {
+			setKeyPurposeList(keyPurpose, copyList(getKeyPurposeList(keyPurpose)));
+		}
+		return getKeyPurposeList(keyPurpose);
+	}
+
+	/**
+	 * Replaces the key ID list of the given purpose in the working copy.
+	 *
+	 * @param keyPurpose The purpose of the list
+	 * @param keyIdList The new list, owned by the working copy from now on, or null to remove the purpose
+	 */
+	void setKeyPurposeList(ProofPurpose keyPurpose, List<String> keyIdList) {
+		switch (keyPurpose) {
+			case ASSERTION_METHOD:
+				document.setAssertionMethod(keyIdList);
+				break;
+			case AUTHENTICATION:
+				document.setAuthentication(keyIdList);
+				break;
+			case KEY_AGREEMENT:
+				document.setKeyAgreement(keyIdList);
+				break;
+			case CAPABILITY_INVOCATION:
+				document.setCapabilityInvocation(keyIdList);
+				break;
+			case CAPABILITY_DELEGATION:
+				document.setCapabilityDelegation(keyIdList);
+				break;
+		}
+		copiedKeyPurposes.add(keyPurpose);
+	}
+
+	/**
+	 * Gets the service list of the working copy for writing, creating it if absent.
+	 * The services are copied as well, so their endpoint lists can be modified.
+	 *
+	 * @return The modifiable service list
+	 */
+	List<Service> getServicesForWrite() {
+		if (!isServiceCopied) {
+			List<Service> services = new ArrayList<Service>();
+			if (document.getService() != null) {
+				for (Service service : document.getService()) {
+					Service tmpService = new Service();
+					tmpService.setId(service.getId());
+					tmpService.setType(service.getType());
+					tmpService.setServiceEndpoint(copyList(service.getServiceEndpoint()));
+					services.add(tmpService);
+				}
+			}
+			document.setService(services);
+			isServiceCopied = true;
+		}
+		return document.getService();
+	}
+
+	/**
+	 * Replaces the service list of the working copy.
+	 *
+	 * @param services The new list, owned by the working copy from now on, or null to remove all services
+	 */
+	void setServices(List<Service> services) {
+		document.setService(services);
+		isServiceCopied = true;
+	}
+
+	/**
+	 * Detaches the working copy from the base document, so it can become the current document of the DidManager.
+	 * Lists not copied for writing, and the verification methods and proofs in all lists, are copied now,
+	 * since the base document may have been handed out by {@link DidManager#getDocument()} and be modified by its holder.
+	 * The editor must not be used afterwards.
+	 *
+	 * @return The working copy, sharing no modifiable state with the base document
+	 */
+	DidDocument publish() {
+		document.setContext(copyListOrNull(document.getContext()));
+
+		if (document.getVerificationMethod() != null) {
+			List<VerificationMethod> verificationMethods = new ArrayList<VerificationMethod>(document.getVerificationMethod().size());
+			for (VerificationMethod verificationMethod : document.getVerificationMethod()) {
+				verificationMethods.add(copyOf(verificationMethod));
+			}
+			document.setVerificationMethod(verificationMethods);
+			isVerificationMethodCopied = true;
+		}
+
+		for (ProofPurpose keyPurpose : ProofPurpose.values()) {
+			if (!copiedKeyPurposes.contains(keyPurpose)) {
+				List<String> keyIdList = getKeyPurposeList(keyPurpose);
+				if (keyIdList != null) {
+					setKeyPurposeList(keyPurpose, new ArrayList<String>(keyIdList));
+				}
+			}
+		}
+
+		if (!isServiceCopied && document.getService() != null) {
+			getServicesForWrite();
+		}
+
+		if (document.getProof() != null) {
+			document.setProof(copyOf(document.getProof()));
+		}
+		if (document.getProofs() != null) {
+			List<Proof> proofs = new ArrayList<Proof>(document.getProofs().size());
+			for (Proof proof : document.getProofs()) {
+				proofs.add(copyOf(proof));
+			}
+			document.setProofs(proofs);
+		}
+		return document;
+	}
+
+	private static <T> List<T> copyListOrNull(List<T> list) {
+		return list != null ? new ArrayList<>(list) : null;
+	}
+
+	private static VerificationMethod copyOf(VerificationMethod verificationMethod) {
+		VerificationMethod copy = new VerificationMethod();
+		copy.setId(verificationMethod.getId());
+		copy.setType(verificationMethod.getType());
+		copy.setController(verificationMethod.getController());
+		copy.setPublicKeyMultibase(verificationMethod.getPublicKeyMultibase());
+		copy.setAuthType(verificationMethod.getAuthType());
+		return copy;
+	}
+
+	private static Proof copyOf(Proof proof) {
+		Proof copy = new Proof();
+		copy.setType(proof.getType());
+		copy.setCreated(proof.getCreated());
+		copy.setVerificationMethod(proof.getVerificationMethod());
+		copy.setProofPurpose(proof.getProofPurpose());
+		copy.setProofValue(proof.getProofValue());
+		return copy;
+	}
+
+	private static <T> List<T> copyList(List<T> list) {
+		return list != null ? new ArrayList<>(list) : new ArrayList<>();
+	}
+
+	/**
+	 * Creates a shallow copy of the DID document.
+	 *
+	 * @param didDocument The DID document to copy
+	 * @return The copy, sharing all lists and nested objects with the source
+	 */
+	private static DidDocument copyOf(DidDocument didDocument) {
+		DidDocument copy = new DidDocument();
+		copy.setContext(didDocument.getContext());
+		copy.setId(didDocument.getId());
+		copy.setController(didDocument.getController());
+		copy.setCreated(didDocument.getCreated());
+		copy.setUpdated(didDocument.getUpdated());
+		copy.setVersionId(didDocument.getVersionId());
+		copy.setDeactivated(didDocument.getDeactivated());
+		copy.setVerificationMethod(didDocument.getVerificationMethod());
+		copy.setAssertionMethod(didDocument.getAssertionMethod());
+		copy.setAuthentication(didDocument.getAuthentication());
+		copy.setKeyAgreement(didDocument.getKeyAgreement());
+		copy.setCapabilityInvocation(didDocument.getCapabilityInvocation());
+		copy.setCapabilityDelegation(didDocument.getCapabilityDelegation());
+		copy.setService(didDocument.getService());
+		copy.setProof(didDocument.getProof());
+		copy.setProofs(didDocument.getProofs());
+		return copy;
+	}
+}
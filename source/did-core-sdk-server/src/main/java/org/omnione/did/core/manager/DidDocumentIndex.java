@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+
+/**
+ * Key lookup index of a DID document.
+ *
+ * <p>The index is built once for a document and answers key and purpose lookups without scanning
+ * or allocating. It does not follow later changes, so {@link #isIndexOf(DidDocument)} must be checked
+ * before use. DidManager replaces its document on every change, but its document can also be changed
+ * in place through its public field, so the check compares the contents of the indexed lists as well.
+ * Changes to a verification method other than its ID need no new index, since lookups return the
+ * verification method itself.</p>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ */
+class DidDocumentIndex {
+
+	private static final ProofPurpose[] KEY_PURPOSES = ProofPurpose.values();
+	private static final Set<ProofPurpose> SIGN_PURPOSES = Collections.unmodifiableSet(EnumSet.of(
+			ProofPurpose.ASSERTION_METHOD, ProofPurpose.AUTHENTICATION,
+			ProofPurpose.CAPABILITY_INVOCATION, ProofPurpose.CAPABILITY_DELEGATION));
+
+	private final DidDocument document;
+	private final List<VerificationMethod> verificationMethodList;
+	private final List<List<String>> keyPurposeLists;
+
+	/** Contents of the indexed lists when the index was built, to detect changes made in place. */
+	private final VerificationMethod[] indexedVerificationMethods;
+	private final String[] indexedKeyIds;
+	private final List<List<String>> indexedKeyPurposeLists;
+
+	private final Map<String, VerificationMethod> verificationMethods;
+	private final Map<String, Set<ProofPurpose>> keyPurposes;
+	private final List<String> signKeyIds;
+	private final Set<String> signKeyIdSet;
+
+	private DidDocumentIndex(DidDocument document) {
+		this.document = document;
+		this.verificationMethodList = document.getVerificationMethod();
+		this.keyPurposeLists = new ArrayList<>(KEY_PURPOSES.length);
+		this.indexedKeyPurposeLists = new ArrayList<>(KEY_PURPOSES.length);
+
+		Map<String, EnumSet<ProofPurpose>> purposes = new HashMap<>();
+		for (ProofPurpose keyPurpose : KEY_PURPOSES) {
+			List<String> keyIdList = getKeyPurposeList(document, keyPurpose);
+			keyPurposeLists.add(keyIdList);
+			indexedKeyPurposeLists.add(keyIdList != null ? new ArrayList<>(keyIdList) : null);
+			if (keyIdList != null) {
+				for (String keyId : keyIdList) {
+					purposes.computeIfAbsent(keyId, k -> EnumSet.noneOf(ProofPurpose.class)).add(keyPurpose);
+				}
+			}
+		}
+		Map<String, Set<ProofPurpose>> keyPurposes = new HashMap<>();
+		purposes.forEach((keyId, keyPurposeSet) -> keyPurposes.put(keyId, Collections.unmodifiableSet(keyPurposeSet)));
+		this.keyPurposes = keyPurposes;
+
+		Map<String, VerificationMethod> verificationMethods = new HashMap<>();
+		List<String> signKeyIds = new ArrayList<>();
+		this.indexedVerificationMethods = verificationMethodList != null
+				? verificationMethodList.toArray(new VerificationMethod[0]) : new VerificationMethod[0];
+		this.indexedKeyIds = new String[indexedVerificationMethods.length];
+		for (int i = 0; i < indexedVerificationMethods.length; i++) {
+			indexedKeyIds[i] = indexedVerificationMethods[i].getId();
+		}
+		if (verificationMethodList != null) {
+			for (VerificationMethod verificationMethod : verificationMethodList) {
+				verificationMethods.putIfAbsent(verificationMethod.getId(), verificationMethod);
+				Set<ProofPurpose> keyPurposeSet = purposes.get(verificationMethod.getId());
+				if (keyPurposeSet != null && !Collections.disjoint(keyPurposeSet, SIGN_PURPOSES)) {
+					signKeyIds.add(verificationMethod.getId());
+				}
+			}
+		}
+		this.verificationMethods = verificationMethods;
+		this.signKeyIds = Collections.unmodifiableList(signKeyIds);
+		this.signKeyIdSet = new HashSet<>(signKeyIds);
+	}
+
+	/**
+	 * Builds the index of a DID document.
+	 *
+	 * @param didDocument The DID document to index
+	 * @return The index
+	 */
+	static DidDocumentIndex of(DidDocument didDocument) {
+		return new DidDocumentIndex(didDocument);
+	}
+
+	/**
+	 * Checks whether the index still describes the given DID document, i.e. the document and its
+	 * verification method and key purpose lists were neither replaced nor changed in place since the index was built.
+	 * The check compares the lists element by element.
+	 *
+	 * @param didDocument The DID document to check
+	 * @return true if the index can be used for the document
+	 */
+	boolean isIndexOf(DidDocument didDocument) {
+		if (document != didDocument || verificationMethodList != didDocument.getVerificationMethod()) {
+			return false;
+		}
+		if (verificationMethodList != null) {
+			if (verificationMethodList.size() != indexedVerificationMethods.length) {
+				return false;
+			}
+			for (int i = 0; i < indexedVerificationMethods.length; i++) {
+				VerificationMethod verificationMethod = verificationMethodList.get(i);
+				if (verificationMethod != indexedVerificationMethods[i] || !Objects.equals(verificationMethod.getId(), indexedKeyIds[i])) {
+					return false;
+				}
+			}
+		}
+		for (int i = 0; i < KEY_PURPOSES.length; i++) {
+			List<String> keyIdList = getKeyPurposeList(didDocument, KEY_PURPOSES[i]);
+			if (keyPurposeLists.get(i) != keyIdList || !Objects.equals(indexedKeyPurposeLists.get(i), keyIdList)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the verification method with the given key ID.
+	 *
+	 * @param keyId The ID of the key
+	 * @return The first verification method with the ID, or null if not found
+	 */
+	VerificationMethod getVerificationMethod(String keyId) {
+		return verificationMethods.get(keyId);
+	}
+
+	/**
+	 * Gets the purposes the key ID is listed under.
+	 *
+	 * @param keyId The ID of the key
+	 * @return The unmodifiable set of purposes, empty if the key has none
+	 */
+	Set<ProofPurpose> getKeyPurposes(String keyId) {
+		Set<ProofPurpose> keyPurposeSet = keyPurposes.get(keyId);
+		return keyPurposeSet != null ? keyPurposeSet : Collections.emptySet();
+	}
+
+	/**
+	 * Checks whether the key ID belongs to a verification method used for signing.
+	 *
+	 * @param keyId The ID of the key
+	 * @return true if the key is in the verification methods and listed under a signing purpose
+	 */
+	boolean isSignKey(String keyId) {
+		return signKeyIdSet.contains(keyId);
+	}
+
+	/**
+	 * Gets the IDs of the verification methods used for signing, in document order.
+	 *
+	 * @return The unmodifiable list of key IDs
+	 */
+	List<String> getSignKeyIds() {
+		return signKeyIds;
+	}
+
+	private static List<String> getKeyPurposeList(DidDocument didDocument, ProofPurpose keyPurpose) {
+		switch (keyPurpose) {
+			case ASSERTION_METHOD:
+				return didDocument.getAssertionMethod();
+			case AUTHENTICATION:
+				return didDocument.getAuthentication();
+			case KEY_AGREEMENT:
+				return didDocument.getKeyAgreement();
+			case CAPABILITY_INVOCATION:
+				return didDocument.getCapabilityInvocation();
+			case CAPABILITY_DELEGATION:
+				return didDocument.getCapabilityDelegation();
+			default:
+				return null;
+		}
+	}
+}
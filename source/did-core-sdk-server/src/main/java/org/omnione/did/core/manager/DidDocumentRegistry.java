@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.DidUrl;
+import org.omnione.did.core.util.PublicKeyCache;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.data.model.did.DidDocument;
+
+/**
+ * Source of DID documents by DID and versionId.
+ *
+ * <p>VcManager and VpManager resolve signing keys from the registry when no DID document is passed to them.
+ * The key is looked up in the document version named by the verificationMethod of the proof
+ * ({@code did?versionId=N#keyId}), or in the latest version if the URL has no versionId.</p>
+ *
+ * <p>Implementations must be thread-safe.</p>
+ *
+ * @see InMemoryDidDocumentRegistry
+ * @see FileDidDocumentRegistry
+ */
+public interface DidDocumentRegistry {
+
+	/**
+	 * Registers a version of a DID document.
+	 * A document with the same DID and versionId is replaced.
+	 *
+	 * @param didDocument The DID document, with ID and versionId
+	 * @throws CoreException
+	 */
+	void register(DidDocument didDocument) throws CoreException;
+
+	/**
+	 * Resolves a version of a DID document.
+	 *
+	 * @param did The DID
+	 * @param versionId The versionId, or null for the latest version
+	 * @return The DID document, or null if it is not registered
+	 * @throws CoreException
+	 */
+	DidDocument resolve(String did, String versionId) throws CoreException;
+
+	/**
+	 * Removes all versions of a DID document.
+	 *
+	 * @param did The DID
+	 * @throws CoreException
+	 */
+	void remove(String did) throws CoreException;
+
+	/**
+	 * Resolves the public key referenced by a DID URL.
+	 *
+	 * @param verificationMethod The DID URL of the key (e.g. "did:omn:issuer?versionId=1#assert")
+	 * @return The resolved public key, or null if the DID document has no such key
+	 * @throws CoreException If the URL is not valid or the DID document version is not registered
+	 */
+	default ResolvedPublicKey resolvePublicKey(String verificationMethod) throws CoreException {
+		DidUrl didUrl = DidUrl.parse(verificationMethod);
+		if (didUrl.getKeyId() == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DID_URL, verificationMethod);
+		}
+
+		DidDocument didDocument = resolve(didUrl.getDid(), didUrl.getVersionId());
+		if (didDocument == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_REGISTERED_DIDDOCUMENT, verificationMethod);
+		}
+		return PublicKeyCache.resolveCached(didDocument, didUrl.getKeyId());
+	}
+}
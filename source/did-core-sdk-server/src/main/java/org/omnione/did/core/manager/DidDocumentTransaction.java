@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.omnione.did.core.data.rest.DidKeyInfo;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.enums.did.DidServiceType;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+import org.omnione.did.data.model.util.json.GsonWrapper;
+
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * A batch of DID document edits applied to one working copy and committed at once.
+ *
+ * <p>Obtain an instance with {@link DidManager#beginEdit()}. Every operation is applied to the same working copy,
+ * and the DidManager keeps its current document until {@link #commit()} succeeds. The commit validates the result once,
+ * sets a single {@code updated} timestamp and increments {@code versionId}. If any operation fails, the edit is rolled
+ * back and can no longer be used.</p>
+ *
+ * <pre>
+ * try (DidDocumentTransaction edit = didManager.beginEdit()) {
+ *     edit.addVerificationMethod(newKey)
+ *         .removeVerificationMethod("oldKey");
+ *     edit.commit();
+ * }
+ * </pre>
+ */
+public class DidDocumentTransaction implements AutoCloseable {
+
+	private final DidManager didManager;
+	private final DidDocument baseDocument;
+	private final DidDocumentEditor editor;
+	private boolean isClosed = false;
+
+	DidDocumentTransaction(DidManager didManager, DidDocument baseDocument) {
+		this.didManager = didManager;
+		this.baseDocument = baseDocument;
+		this.editor = new DidDocumentEditor(baseDocument);
+	}
+
+	/**
+	 * Adds a key and its purposes.
+	 *
+	 * @param didKeyInfo Information about the key to be added
+	 * @return This edit
+	 * @throws CoreException
+	 * @see DidManager#addVerifiCationMethod(DidKeyInfo)
+	 */
+	public DidDocumentTransaction addVerificationMethod(DidKeyInfo didKeyInfo) throws CoreException {
+		checkOpen();
+		try {
+			didManager.addVerificationMethod(editor, didKeyInfo);
+		} catch (CoreException | RuntimeException e) {
+			rollback();
+			throw e;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the key ID to the given purposes.
+	 *
+	 * @param didKeyId The ID of the key
+	 * @param keyPurposes List of purpose to add
+	 * @return This edit
+	 * @throws CoreException
+	 * @see DidManager#addKeyPurpose(String, List)
+	 */
+	public DidDocumentTransaction addKeyPurpose(String didKeyId, List<ProofPurpose> keyPurposes) throws CoreException {
+		checkOpen();
+		try {
+			didManager.addKeyPurpose(editor, didKeyId, keyPurposes);
+		} catch (CoreException | RuntimeException e) {
+			rollback();
+			throw e;
+		}
+		return this;
+	}
+
+	/**
+	 * Removes a key and its purposes.
+	 *
+	 * @param keyId The ID of the key to remove
+	 * @return This edit
+	 * @throws CoreException
+	 * @see DidManager#removeVerificationMethod(String)
+	 */
+	public DidDocumentTransaction removeVerificationMethod(String keyId) throws CoreException {
+		checkOpen();
+		try {
+			didManager.removeVerificationMethod(editor, keyId);
+		} catch (CoreException | RuntimeException e) {
+			rollback();
+			throw e;
+		}
+		return this;
+	}
+
+	/**
+	 * Removes the key ID from all purposes.
+	 *
+	 * @param keyId The ID of the key
+	 * @return This edit
+	 * @throws CoreException
+	 * @see DidManager#removeKeyPurpose(String)
+	 */
+	public DidDocumentTransaction removeKeyPurpose(String keyId) throws CoreException {
+		checkOpen();
+		try {
+			didManager.removeKeyPurpose(editor, keyId);
+		} catch (CoreException | RuntimeException e) {
+			rollback();
+			throw e;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds a service endpoint.
+	 *
+	 * @param didServiceId The ID of the service to add
+	 * @param didServiceType The type of the service to add
+	 * @param url The URL of the service endpoint to add
+	 * @return This edit
+	 * @throws CoreException
+	 * @see DidManager#addServiceEndPoint(String, DidServiceType, String)
+	 */
+	public DidDocumentTransaction addServiceEndPoint(String didServiceId, DidServiceType didServiceType, String url) throws CoreException {
+		checkOpen();
+		try {
+			didManager.addServiceEndPoint(editor, didServiceId, didServiceType, url);
+		} catch (CoreException | RuntimeException e) {
+			rollback();
+			throw e;
+		}
+		return this;
+	}
+
+	/**
+	 * Deletes a service endpoint.
+	 *
+	 * @param didServiceId The ID of the service endpoint to delete
+	 * @param type The type of the service endpoint to delete
+	 * @param url The URL of the service endpoint to delete
+	 * @return This edit
+	 * @throws CoreException
+	 * @see DidManager#deleteServiceEndPoint(String, DidServiceType, String)
+	 */
+	public DidDocumentTransaction deleteServiceEndPoint(String didServiceId, DidServiceType type, String url) throws CoreException {
+		checkOpen();
+		try {
+			didManager.deleteServiceEndPoint(editor, didServiceId, type, url);
+		} catch (CoreException | RuntimeException e) {
+			rollback();
+			throw e;
+		}
+		return this;
+	}
+
+	/**
+	 * Validates the edited document and makes it the current document of the DidManager.
+	 * The {@code updated} timestamp is set and {@code versionId} is incremented once for the whole edit.
+	 *
+	 * @return The committed DID document
+	 * @throws CoreException If the document is invalid or the DidManager's document was replaced since {@link DidManager#beginEdit()}.
+	 *                       The edit is rolled back in both cases.
+	 */
+	public DidDocument commit() throws CoreException {
+		checkOpen();
+		isClosed = true;
+
+		if (didManager.getDocument() != baseDocument) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_EDIT_CONFLICT);
+		}
+
+		DidDocument document = editor.getDocument();
+		try {
+			document.setVersionId(String.valueOf(Integer.parseInt(document.getVersionId()) + 1));
+		} catch (NumberFormatException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT, "versionId: " + document.getVersionId());
+		}
+		document.setUpdated(DidManager.dateToString(ZonedDateTime.now(ZoneId.of("UTC"))));
+
+		try {
+			new GsonWrapper().validate(document);
+		} catch (ConstraintViolationException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT, e.getMessage());
+		}
+
+		document = editor.publish();
+		didManager.didDocument = document;
+		didManager.tmpDidDocument = document;
+		return document;
+	}
+
+	/**
+	 * Discards all changes of this edit. The DidManager keeps its current document.
+	 * Calling this method on a committed or rolled back edit has no effect.
+	 */
+	public void rollback() {
+		isClosed = true;
+	}
+
+	/**
+	 * Rolls back the edit unless it was committed.
+	 */
+	@Override
+	public void close() {
+		rollback();
+	}
+
+	/**
+	 * Checks whether the edit can still be used.
+	 *
+	 * @return true if the edit was neither committed nor rolled back
+	 */
+	public boolean isOpen() {
+		return !isClosed;
+	}
+
+	private void checkOpen() throws CoreException {
+		if (isClosed) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_EDIT_CLOSED);
+		}
+	}
+}
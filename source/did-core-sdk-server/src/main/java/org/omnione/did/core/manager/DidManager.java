@@ -18,19 +18,46 @@ package org.omnione.did.core.manager;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.omnione.did.core.data.rest.DidDocumentVerifyReport;
 import org.omnione.did.core.data.rest.DidKeyInfo;
+import org.omnione.did.core.data.rest.DidProofVerifyResult;
 import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.data.rest.SigningInputMode;
 import org.omnione.did.core.exception.CoreErrorCode;
 import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CanonicalJson;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.ExternalSigner;
+import org.omnione.did.core.util.MemoizedList;
+import org.omnione.did.core.util.OriginDataTemplate;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.core.util.VerificationExecutor;
 import org.omnione.did.core.util.VerifyUtil;
 import org.omnione.did.data.model.did.DidDocument;
 import org.omnione.did.data.model.did.Proof;
@@ -40,8 +67,9 @@ import org.omnione.did.data.model.enums.did.DidServiceType;
 import org.omnione.did.data.model.enums.did.ProofPurpose;
 import org.omnione.did.data.model.enums.did.ProofType;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonParseException;
+
+import jakarta.validation.ConstraintViolationException;
 
 
 public class DidManager {
@@ -51,12 +79,30 @@ public class DidManager {
 	
 	public DidDocument tmpDidDocument;
 	
+	private volatile DidDocumentIndex didDocumentIndex;
+	
 	public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssX");
 	
 	public DidDocument getDocument() {
 		return this.didDocument;
 	}
-	
+
+	/**
+     * Begin an edit that applies several changes to the DID document and commits them at once.
+     * The DID document is validated, copied, and its updated time and versionId are changed, only once on commit,
+     * so adding many keys through one edit avoids copying the document once per key.
+     *
+     * @return The edit of the current DID document
+     * @throws CoreException
+     * @see DidDocumentTransaction
+     */
+	public DidDocumentTransaction beginEdit() throws CoreException {
+		if (didDocument == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT, "DidDocument is not loaded");
+		}
+		return new DidDocumentTransaction(this, didDocument);
+	}
+
 	/**
      * Create a new DID document.
      *
@@ -87,9 +133,12 @@ public class DidManager {
 		didDocument.setVersionId("1");
 
 		
+		DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+		tmpDidDocument = editor.getDocument();
 		for (DidKeyInfo didKeyInfo : didKeyInfos) {
-			addVerifiCationMethod(didKeyInfo);
+			addVerificationMethod(editor, didKeyInfo);
 		}
+		didDocument = editor.publish();
 		
 		return didDocument;
 	}
@@ -101,29 +150,148 @@ public class DidManager {
     * @throws CoreException
     */
 	public void load(String didDocPath) throws CoreException {
+		didDocument = readDocument(new File(didDocPath));
+	}
 
-		ObjectMapper objectMapper = new ObjectMapper();
-	    
-	    File file = new File(didDocPath);
-	    
-	    if (!file.exists() || !file.isFile()) {
+	/**
+    * Read a DID Document file.
+    * The file is streamed once, directly into the DidDocument object, without an intermediate JSON string.
+    *
+    * @param didDocFile The JSON file containing the DID document
+    * @return The DID document
+    * @throws CoreException
+    */
+	public static DidDocument readDocument(File didDocFile) throws CoreException {
+	    if (!didDocFile.exists() || !didDocFile.isFile()) {
 	        throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_DIDDOCUMENT_FILE_NOT_FOUND);
 	    }
 
-	    String didDocJson = null;
+	    DidDocument document = null;
 	    
-	    try {
-	        JsonNode rootNode = objectMapper.readTree(file);
-	        didDocJson = rootNode.toString();
-	    } catch (IOException e) {
+	    try (Reader reader = Files.newBufferedReader(didDocFile.toPath(), StandardCharsets.UTF_8)) {
+	        document = CanonicalJson.read(reader, DidDocument.class);
+	    } catch (IOException | JsonParseException e) {
 	        throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_READ_DIDDOCUMENT_FILE_FAIL);
+	    } catch (ConstraintViolationException e) {
+	        throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT, e.getMessage());
 	    }
 
-	    if(didDocJson != null) {
-	    	didDocument = new DidDocument(didDocJson);
-	    } else {
+	    if (document == null) {
 	        throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_READ_DIDDOCUMENT_FILE_FAIL);
 	    }
+	    return document;
+	}
+
+	/**
+    * Read all DID Document files (*.json) of a directory in parallel on the common ForkJoinPool.
+    *
+    * @param directoryPath Path to the directory containing the DID document files
+    * @return The DID documents by DID
+    * @throws CoreException
+    * @see #loadDirectory(String, Executor)
+    */
+	public static Map<String, DidDocument> loadDirectory(String directoryPath) throws CoreException {
+		return loadDirectory(directoryPath, ForkJoinPool.commonPool());
+	}
+
+	/**
+    * Read all DID Document files (*.json) of a directory in parallel.
+    * Every file is streamed once into its DidDocument object. If several files hold the same DID,
+    * the document with the highest versionId is kept.
+    *
+    * @param directoryPath Path to the directory containing the DID document files
+    * @param executor The executor reading the files
+    * @return The concurrent map of the DID documents by DID
+    * @throws CoreException If the directory cannot be read or a file is not a valid DID document. The reason names the file.
+    */
+	public static Map<String, DidDocument> loadDirectory(String directoryPath, Executor executor) throws CoreException {
+		Map<String, DidDocument> documents = new ConcurrentHashMap<String, DidDocument>();
+		for (DidDocument document : readDirectory(directoryPath, executor)) {
+			documents.merge(document.getId(), document, DidManager::getNewerDocument);
+		}
+		return documents;
+	}
+
+	/**
+	 * Reads all DID Document files (*.json) of a directory in parallel.
+	 *
+	 * @param directoryPath Path to the directory containing the DID document files
+	 * @param executor The executor reading the files
+	 * @return The DID documents in file name order, each with an ID
+	 * @throws CoreException If the directory cannot be read or a file is not a valid DID document. The reason names the file.
+	 */
+	static List<DidDocument> readDirectory(String directoryPath, Executor executor) throws CoreException {
+		return new ArrayList<DidDocument>(readDirectoryFiles(directoryPath, executor).values());
+	}
+
+	/**
+	 * Reads all DID Document files (*.json) of a directory in parallel, keeping the file of each document.
+	 *
+	 * @param directoryPath Path to the directory containing the DID document files
+	 * @param executor The executor reading the files
+	 * @return The DID documents by file, in file name order, each with an ID
+	 * @throws CoreException If the directory cannot be read or a file is not a valid DID document. The reason names the file.
+	 */
+	static Map<Path, DidDocument> readDirectoryFiles(String directoryPath, Executor executor) throws CoreException {
+		Path directory = Paths.get(directoryPath);
+		if (!Files.isDirectory(directory)) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_DIDDOCUMENT_FILE_NOT_FOUND);
+		}
+
+		List<Path> didDocFiles;
+		try (Stream<Path> paths = Files.list(directory)) {
+			didDocFiles = paths.filter(path -> path.getFileName().toString().endsWith(".json") && Files.isRegularFile(path))
+					.sorted()
+					.collect(Collectors.toList());
+		} catch (IOException | UncheckedIOException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_READ_DIDDOCUMENT_FILE_FAIL, e.toString());
+		}
+
+		List<CompletableFuture<DidDocument>> readFutures = new ArrayList<CompletableFuture<DidDocument>>(didDocFiles.size());
+		for (Path didDocFile : didDocFiles) {
+			readFutures.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					DidDocument document = readDocument(didDocFile.toFile());
+					if (document.getId() == null) {
+						throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_ID_IS_NULL);
+					}
+					return document;
+				} catch (CoreException e) {
+					String reason = e.getErrorReason() != null ? didDocFile + ": " + e.getErrorReason() : didDocFile.toString();
+					throw new CompletionException(new CoreException(e.getErrorCode(), e.getErrorMsg(), reason));
+				}
+			}, executor));
+		}
+
+		try {
+			CompletableFuture.allOf(readFutures.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof CoreException) {
+				throw (CoreException) e.getCause();
+			}
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_READ_DIDDOCUMENT_FILE_FAIL, String.valueOf(e.getCause()));
+		}
+
+		Map<Path, DidDocument> documents = new LinkedHashMap<Path, DidDocument>();
+		for (int i = 0; i < didDocFiles.size(); i++) {
+			documents.put(didDocFiles.get(i), readFutures.get(i).join());
+		}
+		return documents;
+	}
+
+	/**
+	 * Picks the document with the higher versionId. A versionId that is not a number never wins.
+	 *
+	 * @param document The document loaded first
+	 * @param otherDocument The other document of the same DID
+	 * @return The newer document
+	 */
+	static DidDocument getNewerDocument(DidDocument document, DidDocument otherDocument) {
+		try {
+			return Integer.parseInt(otherDocument.getVersionId()) > Integer.parseInt(document.getVersionId()) ? otherDocument : document;
+		} catch (NumberFormatException e) {
+			return document;
+		}
 	}
 
 	/**
@@ -144,20 +312,34 @@ public class DidManager {
      */
 	public void addVerifiCationMethod(DidKeyInfo didKeyInfo) throws CoreException {
 
-		tmpDidDocument = new DidDocument(didDocument.toJson());
+		DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+		tmpDidDocument = editor.getDocument();
+		
+		addVerificationMethod(editor, didKeyInfo);
+		
+		this.didDocument = editor.publish();
+	}
+
+	/**
+	 * Add a key and its purposes to the working copy of the DID document.
+	 *
+	 * @param editor The working copy of the DID document
+	 * @param didKeyInfo Information about the key to be added
+	 * @throws CoreException
+	 */
+	void addVerificationMethod(DidDocumentEditor editor, DidKeyInfo didKeyInfo) throws CoreException {
 		
 		if (didKeyInfo == null) {
 			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_ADD_KEY_FAIL);
 		}
 		
-		
-		List<VerificationMethod> verificationMethodList = initializeList(tmpDidDocument.getVerificationMethod());
-	    for(VerificationMethod verificationMethod : verificationMethodList) {
-		    if(verificationMethod.getId().equals(didKeyInfo.getKeyId())) {
-				tmpDidDocument = null;
-				throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_DUPLICATED_KEY);
+		if (editor.getDocument().getVerificationMethod() != null) {
+			for(VerificationMethod verificationMethod : editor.getDocument().getVerificationMethod()) {
+				if(verificationMethod.getId().equals(didKeyInfo.getKeyId())) {
+					throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_DUPLICATED_KEY);
+				}
 			}
-	    }
+		}
 		
 		//verificationMethod set
 	    VerificationMethod verificationMethod = new VerificationMethod();
@@ -167,13 +349,9 @@ public class DidManager {
 		verificationMethod.setType(didKeyInfo.getAlgoType());
 		verificationMethod.setAuthType(didKeyInfo.getAuthType().getRawValue());
 		
-		verificationMethodList.add(verificationMethod);
-			
-		tmpDidDocument.setVerificationMethod(verificationMethodList);
+		editor.getVerificationMethodsForWrite().add(verificationMethod);
 		
-		addKeyPurpose(didKeyInfo.getKeyId(), didKeyInfo.getKeyPurpose());
-		
-		this.didDocument = tmpDidDocument;
+		addKeyPurpose(editor, didKeyInfo.getKeyId(), didKeyInfo.getKeyPurpose());
 	}
 
 	/**
@@ -185,58 +363,35 @@ public class DidManager {
      */
 	public void addKeyPurpose(String didKeyId, List<ProofPurpose> keyPurposes) throws CoreException {
 		
-		if (tmpDidDocument == null) {
-	        tmpDidDocument = new DidDocument(this.didDocument.toJson());
-		}	
-		List<VerificationMethod> verificationMethodList = tmpDidDocument.getVerificationMethod();
+		DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+		tmpDidDocument = editor.getDocument();
+		
+		addKeyPurpose(editor, didKeyId, keyPurposes);
+
+		this.didDocument = editor.publish();
+	}
+
+	/**
+     * Add key ID to the list of key purposes in the working copy of the DID document.
+     *
+     * @param editor The working copy of the DID document
+     * @param keyId The ID key to add the specific purposes
+     * @param keyPurposes List of purpose to add
+     * @throws CoreException
+     */
+	void addKeyPurpose(DidDocumentEditor editor, String didKeyId, List<ProofPurpose> keyPurposes) throws CoreException {
+		
+		List<VerificationMethod> verificationMethodList = editor.getDocument().getVerificationMethod();
 	
-	    boolean check = false;
-	    for(VerificationMethod verificationMethod : verificationMethodList) {
-		    if(verificationMethod.getId().equals(didKeyId)) {
-		    	check = true;		
-			}
-	    }
+	    boolean check = verificationMethodList != null && isVerificationMethodList(verificationMethodList, didKeyId);
 	    if(!check) throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNREGISTERED_KEY);
 	    
 	    if(keyPurposes != null) {
 			for(ProofPurpose keyPurpose : keyPurposes) {
-				 switch (keyPurpose) {
-			        case ASSERTION_METHOD:
-			        	List<String> assertionMethodList = initializeList(tmpDidDocument.getAssertionMethod());
-						checkKeyPurposeList(tmpDidDocument.getAssertionMethod(), didKeyId);
-						assertionMethodList.add(didKeyId);
-						tmpDidDocument.setAssertionMethod(assertionMethodList);
-						break;
-			        case AUTHENTICATION:
-			        	List<String> authenticationList = initializeList(tmpDidDocument.getAuthentication());
-			        	checkKeyPurposeList(tmpDidDocument.getAuthentication(), didKeyId);
-			        	authenticationList.add(didKeyId);
-			        	tmpDidDocument.setAuthentication(authenticationList);
-			        	break;
-			        case KEY_AGREEMENT:
-			        	List<String> keyAgreementList = initializeList(tmpDidDocument.getKeyAgreement());
-			        	checkKeyPurposeList(tmpDidDocument.getKeyAgreement(), didKeyId);
-			        	keyAgreementList.add(didKeyId);
-			        	tmpDidDocument.setKeyAgreement(keyAgreementList);
-			        	break;
-			        case CAPABILITY_INVOCATION:	
-			        	List<String> capabilityInvocationList = initializeList(tmpDidDocument.getCapabilityInvocation());
-			        	checkKeyPurposeList(tmpDidDocument.getCapabilityInvocation(), didKeyId);
-			        	capabilityInvocationList.add(didKeyId);
-			        	tmpDidDocument.setCapabilityInvocation(capabilityInvocationList);
-			        	break;
-			        case CAPABILITY_DELEGATION:
-			        	List<String> capabilityDelegationList = initializeList(tmpDidDocument.getCapabilityDelegation());
-			        	checkKeyPurposeList(tmpDidDocument.getCapabilityDelegation(), didKeyId);
-			        	capabilityDelegationList.add(didKeyId);
-			        	tmpDidDocument.setCapabilityDelegation(capabilityDelegationList);
-			        	break;
-				 }
+				checkKeyPurposeList(editor.getKeyPurposeList(keyPurpose), didKeyId);
+				editor.getKeyPurposeListForWrite(keyPurpose).add(didKeyId);
 			}
 	    }
-
-		this.didDocument = tmpDidDocument;
-
 	}
 	
 
@@ -248,16 +403,30 @@ public class DidManager {
 	 */
 	public void removeVerificationMethod(String keyId) throws CoreException {
 
-		tmpDidDocument = new DidDocument(this.didDocument.toJson());
+		DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+		tmpDidDocument = editor.getDocument();
 
-		List<VerificationMethod> verificationMethod = tmpDidDocument.getVerificationMethod();
+		removeVerificationMethod(editor, keyId);
+		
+		this.didDocument = editor.publish();
+	}
 
-		List<VerificationMethod> newVerificationMethod = removeVerificationMethod(verificationMethod, keyId);
-		tmpDidDocument.setVerificationMethod(newVerificationMethod);
+	/**
+	 * Remove the key and its purposes from the working copy of the DID document.
+	 *
+	 * @param editor The working copy of the DID document
+	 * @param keyId The ID of the key to remove
+	 * @throws CoreException
+	 */
+	void removeVerificationMethod(DidDocumentEditor editor, String keyId) throws CoreException {
 
-		removeKeyPurpose(keyId);
-		
-		this.didDocument = tmpDidDocument;
+		if (editor.getDocument().getVerificationMethod() == null
+				|| !isVerificationMethodList(editor.getDocument().getVerificationMethod(), keyId)) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY);
+		}
+		removeVerificationMethod(editor.getVerificationMethodsForWrite(), keyId);
+
+		removeKeyPurpose(editor, keyId);
 	}
 
 	/**
@@ -267,14 +436,7 @@ public class DidManager {
 	 * @return The VerificationMethod object representing the key information, or null if not found
 	 */
 	public VerificationMethod getVerificationMethodByKeyId(String didKeyId) {
-	    List<VerificationMethod> verificationMethodList = new ArrayList<>(didDocument.getVerificationMethod());
-	    
-	    for(VerificationMethod verificationMethod : verificationMethodList) {
-	        if(didKeyId.equals(verificationMethod.getId())) {
-	            return verificationMethod;
-	        }
-	    }
-	    return null;
+	    return getDidDocumentIndex().getVerificationMethod(didKeyId);
 	}
 	
 	/**
@@ -284,95 +446,239 @@ public class DidManager {
 	 * @throws CoreException
 	 */
 	public List<String> getAllSignKeyIdList() throws CoreException {
-	    List<String> signKeyIds = new ArrayList<>();
-
 	    if (didDocument.getVerificationMethod() == null) {
 	        throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY);
 	    }
 
-	    for (VerificationMethod verificationMethod : didDocument.getVerificationMethod()) {
-	    	if ((didDocument.getAssertionMethod() != null && didDocument.getAssertionMethod().contains(verificationMethod.getId())) || 
-        			(didDocument.getAuthentication() != null && didDocument.getAuthentication().contains(verificationMethod.getId())) ||
-        				(didDocument.getCapabilityInvocation() != null && didDocument.getCapabilityInvocation().contains(verificationMethod.getId())) ||
-    						(didDocument.getCapabilityDelegation() != null && didDocument.getCapabilityDelegation().contains(verificationMethod.getId()))) {
-	        	signKeyIds.add(verificationMethod.getId());
-	        }
-	    }
-
-	    return signKeyIds.isEmpty() ? null : signKeyIds;
+	    List<String> signKeyIds = getDidDocumentIndex().getSignKeyIds();
+	    return signKeyIds.isEmpty() ? null : new ArrayList<>(signKeyIds);
+	}
+	
+	/**
+	 * Gets the key lookup index of the current DID document, rebuilding it if the document was changed since it was built.
+	 *
+	 * @return The index of the current DID document
+	 */
+	private DidDocumentIndex getDidDocumentIndex() {
+		DidDocument document = didDocument;
+		DidDocumentIndex index = didDocumentIndex;
+		if (index == null || !index.isIndexOf(document)) {
+			index = DidDocumentIndex.of(document);
+			didDocumentIndex = index;
+		}
+		return index;
 	}
 	
 	/**
 	 * Extract the original data for signing each key in the DID document.
 	 *
 	 * @param keyIdList List of key IDs for signing
-	 * @return List of SignatureParams containing the original data for signing
+	 * @return List of SignatureParams containing the original data for signing, or null if there is nothing to sign
 	 * @throws CoreException
+	 * @see #getLazyOriginDataForSign(List, Executor)
 	 */
 	public List<SignatureParams> getOriginDataForSign(List<String> keyIds) throws CoreException {
+		return getOriginDataForSign(keyIds, null, SigningInputMode.ORIGIN_DATA);
+	}
+
+	/**
+	 * Extract the original data for signing each key in the DID document, rendering it in parallel.
+	 * The document without proofs is serialized once, each entry only serializes its proof on the executor,
+	 * and this method returns when all entries are rendered.
+	 *
+	 * @param keyIdList List of key IDs for signing
+	 * @param executor The executor rendering the original data, or null to render it on the calling thread
+	 * @return List of SignatureParams containing the original data for signing, or null if there is nothing to sign
+	 * @throws CoreException
+	 */
+	public List<SignatureParams> getOriginDataForSign(List<String> keyIds, Executor executor) throws CoreException {
+		return getOriginDataForSign(keyIds, executor, SigningInputMode.ORIGIN_DATA);
+	}
+
+	/**
+	 * Extract the original data for signing each key in the DID document as a lazy view.
+	 * The keys are checked immediately, and the original data of each key and purpose is rendered on first access,
+	 * or on the executor if one is given, so signing can start on the first entry before the others are rendered.
+	 *
+	 * @param keyIdList List of key IDs for signing
+	 * @param executor The executor rendering the original data, or null to render each entry on first access
+	 * @return Unmodifiable list of SignatureParams containing the original data for signing, or null if there is nothing to sign
+	 * @throws CoreException
+	 * @see #getOriginDataForSign(List)
+	 */
+	public List<SignatureParams> getLazyOriginDataForSign(List<String> keyIds, Executor executor) throws CoreException {
+		return getSigningInputs(keyIds, executor, SigningInputMode.ORIGIN_DATA, true);
+	}
+
+	/**
+	 * Extract the signing input of each key in the DID document in the given form.
+	 * With a digest mode, the hashedData of each entry is the SHA-256 that is signed, computed without rendering
+	 * the document if the origin data is omitted, and created and verificationMethod describe the unsigned proof
+	 * so addProof does not need the origin data. Digests are computed on the calling thread,
+	 * and the executor is only used to render the original data of the ORIGIN_DATA mode.
+	 *
+	 * @param keyIdList List of key IDs for signing
+	 * @param executor The executor rendering the original data, or null to render it on the calling thread
+	 * @param mode The content of the SignatureParams
+	 * @return List of SignatureParams containing the signing input, or null if there is nothing to sign
+	 * @throws CoreException
+	 */
+	public List<SignatureParams> getOriginDataForSign(List<String> keyIds, Executor executor, SigningInputMode mode) throws CoreException {
+		return getSigningInputs(keyIds, executor, mode, false);
+	}
+
+	/**
+	 * Extract the signing input of each key in the DID document.
+	 *
+	 * @param keyIdList List of key IDs for signing
+	 * @param executor The executor rendering the original data, or null
+	 * @param mode The content of the SignatureParams
+	 * @param lazy Whether the original data of the ORIGIN_DATA mode is returned as an unmodifiable lazy view
+	 * @return List of SignatureParams containing the signing input, or null if there is nothing to sign
+	 * @throws CoreException
+	 */
+	private List<SignatureParams> getSigningInputs(List<String> keyIds, Executor executor, SigningInputMode mode, boolean lazy) throws CoreException {
 		
-		List<SignatureParams> signatureParams = new ArrayList<SignatureParams>();
-		List<String> signableKeyIds = this.getAllSignKeyIdList();
+		if (didDocument.getVerificationMethod() == null) {
+		    throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY);
+		}
+		DidDocument document = this.didDocument;
+		DidDocumentIndex index = getDidDocumentIndex();
 		
-		if(signableKeyIds == null || signableKeyIds.isEmpty()) {
+		if(index.getSignKeyIds().isEmpty()) {
 		    throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_EXIST_SIGNING_KEY);
 		}
 		
-		DidDocument tmpDidDocument = new DidDocument(this.didDocument.toJson());
-
+		List<Proof> signingProofs = new ArrayList<Proof>();
 		if (keyIds != null && !keyIds.isEmpty()) {
+			String created = dateToString(ZonedDateTime.now(ZoneId.of("UTC")));
 			for (String keyId : keyIds) {
 
-				VerificationMethod verificationMethod = getVerificationMethodByKeyId(keyId);
+				VerificationMethod verificationMethod = index.getVerificationMethod(keyId);
 				if (verificationMethod == null) {
 					throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY);
 				}
 
-				if (!signableKeyIds.contains(keyId)) {
+				if (!index.isSignKey(keyId)) {
 					throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_A_SIGNING_KEY);
 				}
 
-				 EnumSet<ProofPurpose> proofPurposes = getKeyPurpose(keyId);
+				 Set<ProofPurpose> proofPurposes = getKeyPurpose(index, keyId);
 				 for (ProofPurpose purpose : proofPurposes) {
 					 if(purpose != ProofPurpose.KEY_AGREEMENT) {
-						SignatureParams signatureParam = new SignatureParams();
-						
-						// Create proof for each purpose
-						Proof proof = new Proof();
-						proof.setCreated(dateToString(ZonedDateTime.now(ZoneId.of("UTC"))));
-						proof.setProofPurpose(purpose.getRawValue());
-						proof.setVerificationMethod(didDocument.getId() + "?" + "versionId=" + didDocument.getVersionId() + "#" + keyId);
-						
-						switch (verificationMethod.getType()) {
-							case "RsaVerificationKey2018":
-								proof.setType(ProofType.RSA_SIGNATURE_2018.getRawValue());
-								break;
-							case "Secp256k1VerificationKey2018":
-								proof.setType(ProofType.SECP256K1_SIGNATURE_2018.getRawValue());
-								break;
-							case "Secp256r1VerificationKey2018":
-								proof.setType(ProofType.SECP256R1_SIGNATURE_2018.getRawValue());
-								break;
-						}
-						if(didDocument.getProofs() != null)
-						{
-						    tmpDidDocument.setProofs(null);
-						}
-						tmpDidDocument.setProof(proof);
-						
-						// Populate SignatureParams
-						signatureParam.setKeyId(keyId);
-						signatureParam.setAlgorithm(proof.getType());
-						signatureParam.setOriginData(tmpDidDocument.toJson());
-						signatureParam.setKeyPurpose(purpose.getRawValue());
-						
-						signatureParams.add(signatureParam);
+						signingProofs.add(createSigningProof(document, verificationMethod, keyId, purpose, created));
 					 }
 				 }
 			}
 		}
-		 
-		return signatureParams.isEmpty() ? null : signatureParams;
+		if (signingProofs.isEmpty()) {
+			return null;
+		}
+
+		OriginDataTemplate originDataTemplate = OriginDataTemplate.forProof(document, signingProofs.get(0));
+		String documentJson = originDataTemplate == null ? document.toJson() : null;
+		if (!mode.isDigestIncluded()) {
+			IntFunction<SignatureParams> signatureParamsFactory = i -> {
+				Proof proof = signingProofs.get(i);
+
+				SignatureParams signatureParam = createSignatureParams(proof);
+				signatureParam.setOriginData(renderOriginData(proof, originDataTemplate, documentJson));
+				return signatureParam;
+			};
+
+			List<SignatureParams> originData = executor != null
+					? MemoizedList.prefetched(signingProofs.size(), signatureParamsFactory, executor)
+					: MemoizedList.of(signingProofs.size(), signatureParamsFactory);
+			return lazy ? originData : new ArrayList<SignatureParams>(originData);
+		}
+
+		List<SignatureParams> signatureParams = new ArrayList<SignatureParams>(signingProofs.size());
+		for (Proof proof : signingProofs) {
+			SignatureParams signatureParam = createSignatureParams(proof);
+			signatureParam.setCreated(proof.getCreated());
+			signatureParam.setVerificationMethod(proof.getVerificationMethod());
+
+			byte[] digest;
+			if (mode.isOriginDataIncluded()) {
+				String originData = renderOriginData(proof, originDataTemplate, documentJson);
+				signatureParam.setOriginData(originData);
+				digest = VerifyUtil.digest(originData);
+			} else if (originDataTemplate != null) {
+				digest = originDataTemplate.digest(proof);
+			} else {
+				digest = CanonicalJson.digest(createSigningDocument(documentJson, proof));
+			}
+			signatureParam.setHashedData(VerifyUtil.encodeDigest(digest));
+			signatureParams.add(signatureParam);
+		}
+		return signatureParams;
+	}
+
+	/**
+	 * Creates the SignatureParams of a proof, without signing input.
+	 *
+	 * @param proof The proof to sign
+	 * @return The SignatureParams with key ID, algorithm and key purpose
+	 */
+	private static SignatureParams createSignatureParams(Proof proof) {
+		SignatureParams signatureParam = new SignatureParams();
+		signatureParam.setKeyId(getKeyIdByDidKeyUrl(proof.getVerificationMethod()));
+		signatureParam.setAlgorithm(proof.getType());
+		signatureParam.setKeyPurpose(proof.getProofPurpose());
+		return signatureParam;
+	}
+
+	/**
+	 * Renders the original data of a proof, from the template if available.
+	 *
+	 * @param proof The proof to sign
+	 * @param originDataTemplate The template of the document, or null
+	 * @param documentJson The JSON of the document, used without template
+	 * @return The original data for signing
+	 */
+	private static String renderOriginData(Proof proof, OriginDataTemplate originDataTemplate, String documentJson) {
+		if (originDataTemplate != null) {
+			return originDataTemplate.render(proof);
+		}
+		return createSigningDocument(documentJson, proof).toJson();
+	}
+
+	private static DidDocument createSigningDocument(String documentJson, Proof proof) {
+		DidDocument tmpDidDocument = new DidDocument(documentJson);
+		tmpDidDocument.setProofs(null);
+		tmpDidDocument.setProof(proof);
+		return tmpDidDocument;
+	}
+
+	/**
+	 * Creates the proof of a key and purpose without signature value.
+	 *
+	 * @param document The DID document to sign
+	 * @param verificationMethod The verification method of the signing key
+	 * @param keyId The ID of the signing key
+	 * @param purpose The purpose of the proof
+	 * @param created The creation date of the proof
+	 * @return The proof to sign
+	 */
+	private static Proof createSigningProof(DidDocument document, VerificationMethod verificationMethod, String keyId,
+			ProofPurpose purpose, String created) {
+		Proof proof = new Proof();
+		proof.setCreated(created);
+		proof.setProofPurpose(purpose.getRawValue());
+		proof.setVerificationMethod(document.getId() + "?" + "versionId=" + document.getVersionId() + "#" + keyId);
+		
+		switch (verificationMethod.getType()) {
+			case "RsaVerificationKey2018":
+				proof.setType(ProofType.RSA_SIGNATURE_2018.getRawValue());
+				break;
+			case "Secp256k1VerificationKey2018":
+				proof.setType(ProofType.SECP256K1_SIGNATURE_2018.getRawValue());
+				break;
+			case "Secp256r1VerificationKey2018":
+				proof.setType(ProofType.SECP256R1_SIGNATURE_2018.getRawValue());
+				break;
+		}
+		return proof;
 	}
 
 	/**
@@ -381,73 +687,207 @@ public class DidManager {
 	 * @throws CoreException
 	 */
     public void verifyDocumentSignature() throws CoreException {
-        DidDocument tmpDidDocument = new DidDocument(this.didDocument.toJson());
+        verifyDocumentSignature(this.didDocument, getDidDocumentIndex());
+    }
+
+	/**
+	 * Verifies the signature of the DID document asynchronously on the default bounded verification executor.
+	 *
+	 * @return The future completed when the signature is verified, or failed with the CoreException of the verification.
+	 * @see #verifyDocumentSignatureAsync(Executor)
+	 */
+	public CompletableFuture<Void> verifyDocumentSignatureAsync() {
+		return verifyDocumentSignatureAsync(VerificationExecutor.getDefault());
+	}
 
-        List<Proof> tmpProofs = tmpDidDocument.getProofs() != null ? new ArrayList<>(tmpDidDocument.getProofs()) : new ArrayList<>(Collections.singletonList(tmpDidDocument.getProof()));
+	/**
+	 * Verifies the signature of the DID document asynchronously on the given executor.
+	 * The document is taken when the method is called, so later changes do not affect the verification.
+	 * If the executor rejects the verification, e.g. because its queue is full,
+	 * the returned future fails with ERR_CODE_DIDMANAGER_VERIFICATION_REJECTED.
+	 *
+	 * @param executor The executor that runs the verification
+	 * @return The future completed when the signature is verified, or failed with the CoreException of the verification.
+	 */
+	public CompletableFuture<Void> verifyDocumentSignatureAsync(Executor executor) {
+		DidDocument document = this.didDocument;
+		DidDocumentIndex currentIndex = getDidDocumentIndex();
+		DidDocumentIndex index = currentIndex.isIndexOf(document) ? currentIndex : DidDocumentIndex.of(document);
+		return VerificationExecutor.supplyAsync(() -> {
+			verifyDocumentSignature(document, index);
+			return null;
+		}, executor, CoreErrorCode.ERR_CODE_DIDMANAGER_VERIFICATION_REJECTED);
+	}
+
+	/**
+	 * Verifies the signature of a DID document.
+	 *
+	 * @param document The DID document
+	 * @param index The key lookup index of the DID document
+	 * @throws CoreException
+	 */
+    private static void verifyDocumentSignature(DidDocument document, DidDocumentIndex index) throws CoreException {
+        long startNanos = CoreMetricsRegistry.startTimer();
+        try {
+            DidDocument tmpDidDocument = new DidDocument(document.toJson());
+
+            List<Proof> tmpProofs = tmpDidDocument.getProofs() != null ? new ArrayList<>(tmpDidDocument.getProofs()) : new ArrayList<>(Collections.singletonList(tmpDidDocument.getProof()));
             
-        for (Proof proof : tmpProofs) {
-            Proof tmpProof = new Proof();
-            tmpProof.setCreated(proof.getCreated());
-            tmpProof.setProofPurpose(proof.getProofPurpose());
-            tmpProof.setVerificationMethod(proof.getVerificationMethod());
-            tmpProof.setType(proof.getType());
-            tmpDidDocument.setProofs(null);
-            tmpDidDocument.setProof(tmpProof);
+            for (Proof proof : tmpProofs) {
+                Proof tmpProof = new Proof();
+                tmpProof.setCreated(proof.getCreated());
+                tmpProof.setProofPurpose(proof.getProofPurpose());
+                tmpProof.setVerificationMethod(proof.getVerificationMethod());
+                tmpProof.setType(proof.getType());
+                tmpDidDocument.setProofs(null);
+                tmpDidDocument.setProof(tmpProof);
             
-            SignatureParams sigParams = new SignatureParams();
-            sigParams.setOriginData(tmpDidDocument.toJson());
+                String keyId = getKeyIdByDidKeyUrl(tmpProof.getVerificationMethod());
+                VerificationMethod verificationMethod = index.getVerificationMethod(keyId);
+                if(verificationMethod == null) {
+                    throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_EXIST_SIGNING_KEY);
+                }
             
-            String keyId = getKeyIdByDidKeyUrl(tmpProof.getVerificationMethod());
-            VerificationMethod verificationMethod = getVerificationMethodByKeyId(keyId);
-            if(verificationMethod == null) {
-                throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_EXIST_SIGNING_KEY);
+                // The signing document is hashed directly, without rendering the origin data.
+                VerifyUtil.verifySignature(tmpDidDocument, proof.getProofValue(), proof.getType(), ResolvedPublicKey.from(verificationMethod));
             }
-            
-            sigParams.setPublicKey(verificationMethod.getPublicKeyMultibase());
-            sigParams.setAlgorithm(proof.getType());
-            sigParams.setSignatureValue(proof.getProofValue());
-            sigParams.setKeyPurpose(proof.getProofPurpose());
-            sigParams.setKeyId(getKeyIdByDidKeyUrl(proof.getVerificationMethod()));
-            
-            VerifyUtil.verifySignature(sigParams);
+        } catch (CoreException e) {
+            CoreMetricsRegistry.recordFailure(Phase.DID_DOCUMENT_VERIFICATION, e);
+            throw e;
+        } finally {
+            CoreMetricsRegistry.stopTimer(Phase.DID_DOCUMENT_VERIFICATION, startNanos);
         }
     }
 
 	/**
-	 * Retrieves the proof purposes associated with a given key ID from the DID document.
+	 * Verifies all proofs of the DID document in parallel on the common ForkJoinPool.
 	 *
-	 * @param keyId The ID of the key for which to get the purpose of the proof
-	 * @return EnumSet of ProofPurpose representing the purposes of the key
-	 * @throws CoreException
+	 * @return The verification report with one result per proof
+	 * @see #verifyDocumentProofs(Executor)
 	 */
-    private EnumSet<ProofPurpose> getKeyPurpose(String keyId) throws CoreException {
-		EnumSet<ProofPurpose> methodTypeEnumSet = EnumSet.noneOf(ProofPurpose.class);
+	public DidDocumentVerifyReport verifyDocumentProofs() {
+		return verifyDocumentProofs(ForkJoinPool.commonPool());
+	}
 
-		if (tmpDidDocument == null)
-			tmpDidDocument = new DidDocument(this.didDocument.toJson());
+	/**
+	 * Verifies all proofs of the DID document in parallel.
+	 * The signing input of every proof is rendered from one serialization of the document,
+	 * and a failing proof is reported instead of stopping the verification of the others.
+	 *
+	 * @param executor The executor running the proof verifications
+	 * @return The verification report with one result per proof, in document order
+	 */
+	public DidDocumentVerifyReport verifyDocumentProofs(Executor executor) {
+		long startNanos = CoreMetricsRegistry.startTimer();
+		DidDocument document = this.didDocument;
+		DidDocumentIndex index = getDidDocumentIndex();
+
+		List<Proof> proofs;
+		if (document.getProofs() != null) {
+			proofs = document.getProofs();
+		} else if (document.getProof() != null) {
+			proofs = Collections.singletonList(document.getProof());
+		} else {
+			proofs = Collections.emptyList();
+		}
 
-		String publicKeyId = keyId;
-		if (tmpDidDocument.getAssertionMethod() != null && tmpDidDocument.getAssertionMethod().contains(publicKeyId)) {
-			methodTypeEnumSet.add(ProofPurpose.ASSERTION_METHOD);
+		List<Proof> signingProofs = new ArrayList<Proof>(proofs.size());
+		for (Proof proof : proofs) {
+			signingProofs.add(makeSigningProof(proof));
 		}
 
-		if (tmpDidDocument.getAuthentication() != null && tmpDidDocument.getAuthentication().contains(publicKeyId)) {
-			methodTypeEnumSet.add(ProofPurpose.AUTHENTICATION);
+		OriginDataTemplate originDataTemplate = null;
+		if (!signingProofs.isEmpty()) {
+			try {
+				originDataTemplate = OriginDataTemplate.forProof(document, signingProofs.get(0));
+			} catch (RuntimeException e) {
+				// The document cannot be serialized; every proof reports the error below.
+			}
 		}
+		OriginDataTemplate template = originDataTemplate;
 
-		if (didDocument.getKeyAgreement() != null && tmpDidDocument.getKeyAgreement().contains(publicKeyId)) {
-			methodTypeEnumSet.add(ProofPurpose.KEY_AGREEMENT);
+		List<CompletableFuture<DidProofVerifyResult>> resultFutures = new ArrayList<CompletableFuture<DidProofVerifyResult>>(proofs.size());
+		for (int i = 0; i < proofs.size(); i++) {
+			int proofIndex = i;
+			resultFutures.add(CompletableFuture.supplyAsync(
+					() -> verifyDocumentProof(document, index, template, proofIndex, proofs.get(proofIndex), signingProofs.get(proofIndex)), executor));
 		}
 
-		if (tmpDidDocument.getCapabilityInvocation() != null
-				&& tmpDidDocument.getCapabilityInvocation().contains(publicKeyId)) {
-			methodTypeEnumSet.add(ProofPurpose.CAPABILITY_INVOCATION);
+		List<DidProofVerifyResult> proofResults = new ArrayList<DidProofVerifyResult>(proofs.size());
+		for (CompletableFuture<DidProofVerifyResult> resultFuture : resultFutures) {
+			proofResults.add(resultFuture.join());
 		}
+		CoreMetricsRegistry.stopTimer(Phase.DID_DOCUMENT_VERIFICATION, startNanos);
+		return new DidDocumentVerifyReport(document.getId(), document.getVersionId(), proofResults);
+	}
 
-		if (tmpDidDocument.getCapabilityDelegation() != null
-				&& tmpDidDocument.getCapabilityDelegation().contains(publicKeyId)) {
-			methodTypeEnumSet.add(ProofPurpose.CAPABILITY_DELEGATION);
+	/**
+	 * Verifies one proof of the DID document.
+	 *
+	 * @param document The DID document
+	 * @param index The key lookup index of the DID document
+	 * @param template The signing input template, or null to serialize the document for this proof
+	 * @param proofIndex The position of the proof
+	 * @param proof The proof to verify
+	 * @param signingProof The proof without signature value
+	 * @return The result of the proof
+	 */
+	private DidProofVerifyResult verifyDocumentProof(DidDocument document, DidDocumentIndex index, OriginDataTemplate template,
+			int proofIndex, Proof proof, Proof signingProof) {
+		try {
+			String keyId = getKeyIdByDidKeyUrl(proof.getVerificationMethod());
+			VerificationMethod verificationMethod = index.getVerificationMethod(keyId);
+			if (verificationMethod == null) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_EXIST_SIGNING_KEY);
+			}
+
+			byte[] hashedData;
+			if (template != null) {
+				hashedData = template.digest(signingProof);
+			} else {
+				DidDocument tmpDidDocument = new DidDocument(document.toJson());
+				tmpDidDocument.setProofs(null);
+				tmpDidDocument.setProof(signingProof);
+				hashedData = CanonicalJson.digest(tmpDidDocument);
+			}
+
+			VerifyUtil.verifyHashedSignature(hashedData, proof.getProofValue(), proof.getType(), ResolvedPublicKey.from(verificationMethod));
+			return DidProofVerifyResult.success(proofIndex, proof);
+		} catch (CoreException e) {
+			CoreMetricsRegistry.recordFailure(Phase.DID_DOCUMENT_VERIFICATION, e);
+			return DidProofVerifyResult.failure(proofIndex, proof, e);
+		} catch (RuntimeException e) {
+			CoreException exception = new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT, e.toString());
+			CoreMetricsRegistry.recordFailure(Phase.DID_DOCUMENT_VERIFICATION, exception);
+			return DidProofVerifyResult.failure(proofIndex, proof, exception);
 		}
+	}
+
+	/**
+	 * Copies the proof without its signature value.
+	 *
+	 * @param proof The proof of the DID document
+	 * @return The proof as it was signed
+	 */
+	private Proof makeSigningProof(Proof proof) {
+		Proof signingProof = new Proof();
+		signingProof.setCreated(proof.getCreated());
+		signingProof.setProofPurpose(proof.getProofPurpose());
+		signingProof.setVerificationMethod(proof.getVerificationMethod());
+		signingProof.setType(proof.getType());
+		return signingProof;
+	}
+
+	/**
+	 * Retrieves the proof purposes associated with a given key ID from the DID document.
+	 *
+	 * @param index The key lookup index of the DID document
+	 * @param keyId The ID of the key for which to get the purpose of the proof
+	 * @return Unmodifiable set of ProofPurpose representing the purposes of the key, in declaration order
+	 * @throws CoreException
+	 */
+    private static Set<ProofPurpose> getKeyPurpose(DidDocumentIndex index, String keyId) throws CoreException {
+		Set<ProofPurpose> methodTypeEnumSet = index.getKeyPurposes(keyId);
 
 		if (methodTypeEnumSet.isEmpty()) {
 			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_EMPTY_KEYPURPOSE_LIST);
@@ -465,11 +905,25 @@ public class DidManager {
 	 * @throws CoreException
 	 */
     public void addServiceEndPoint(String didServiceId, DidServiceType didServiceType, String url) throws CoreException {
-    	tmpDidDocument = new DidDocument(this.didDocument.toJson());
-    	List<Service> services = tmpDidDocument.getService();
-        if (services == null) {
-            services = new ArrayList<>();
-        }
+    	DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+    	tmpDidDocument = editor.getDocument();
+
+    	addServiceEndPoint(editor, didServiceId, didServiceType, url);
+
+    	this.didDocument = editor.publish();
+    }
+
+	/**
+	 * Adds a service endpoint to the working copy of the DID document.
+	 *
+	 * @param editor The working copy of the DID document
+	 * @param didServiceId The ID of the service to add
+	 * @param didServiceType The type of the service to add
+	 * @param url The URL of the service endpoint to add
+	 * @throws CoreException
+	 */
+    void addServiceEndPoint(DidDocumentEditor editor, String didServiceId, DidServiceType didServiceType, String url) throws CoreException {
+    	List<Service> services = editor.getServicesForWrite();
 
         Service existingService = null;
         for (Service service : services) {
@@ -509,12 +963,7 @@ public class DidManager {
             services.add(newService);
         }
 
-        tmpDidDocument.setService(services);
-
-        tmpDidDocument.setUpdated(dateToString(ZonedDateTime.now(ZoneId.of("UTC"))));
-        
-	    this.didDocument = tmpDidDocument;
-        
+        editor.getDocument().setUpdated(dateToString(ZonedDateTime.now(ZoneId.of("UTC"))));
     }
 	
     /**
@@ -526,14 +975,30 @@ public class DidManager {
      * @throws CoreException
      */
     public void deleteServiceEndPoint(String didServiceId, DidServiceType type, String url) throws CoreException {
-        tmpDidDocument = new DidDocument(this.didDocument.toJson());
+        DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+        tmpDidDocument = editor.getDocument();
 
-        List<Service> services = tmpDidDocument.getService();
+        deleteServiceEndPoint(editor, didServiceId, type, url);
+
+        this.didDocument = editor.publish();
+    }
 
-        if (services == null || services.isEmpty()) {
+    /**
+     * Deletes a service endpoint from the working copy of the DID document.
+     *
+     * @param editor The working copy of the DID document
+     * @param didServiceId The ID of the service endpoint to delete
+     * @param type The type of the service endpoint to delete
+     * @param url The URL of the service endpoint to delete
+     * @throws CoreException
+     */
+    void deleteServiceEndPoint(DidDocumentEditor editor, String didServiceId, DidServiceType type, String url) throws CoreException {
+        if (editor.getDocument().getService() == null || editor.getDocument().getService().isEmpty()) {
             throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_SERVICE_NOT_FOUND);
         }
 
+        List<Service> services = editor.getServicesForWrite();
+
         boolean serviceMatched = false;
 
         for (Iterator<Service> serviceIterator = services.iterator(); serviceIterator.hasNext();) {
@@ -576,14 +1041,10 @@ public class DidManager {
         }
 
         if (services.isEmpty()) {
-            tmpDidDocument.setService(null);
-        } else {
-            tmpDidDocument.setService(services);
+            editor.setServices(null);
         }
 
-        tmpDidDocument.setUpdated(dateToString(ZonedDateTime.now(ZoneId.of("UTC"))));
-
-        this.didDocument = tmpDidDocument;
+        editor.getDocument().setUpdated(dateToString(ZonedDateTime.now(ZoneId.of("UTC"))));
     }
 	
     /**
@@ -592,17 +1053,16 @@ public class DidManager {
      * signature parameter is provided, it creates a single proof.
      *
      * @param sigParamsList List of signature parameters to create proofs from.
-     *                      Each SignatureParams object contains origin data and key ID.
+     *                      Each SignatureParams object contains origin data, or created and verificationMethod, and key ID.
      * @throws CoreException
      */
 	public void addProof(List<SignatureParams> signatureParams) throws CoreException {
 		if(signatureParams.size() > 1) {
 			List<Proof> proofs = new ArrayList<Proof>();
 			for (SignatureParams signatureParam : signatureParams) {
-				tmpDidDocument = new DidDocument(signatureParam.getOriginData());
-				Proof tmpProof = tmpDidDocument.getProof(); 
+				Proof tmpProof = getUnsignedProof(signatureParam);
 	
-				String keyIdByProof = this.getKeyIdByDidKeyUrl(tmpProof.getVerificationMethod());
+				String keyIdByProof = getKeyIdByDidKeyUrl(tmpProof.getVerificationMethod());
 	
 				if (!keyIdByProof.equals(signatureParam.getKeyId())) {
 					throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY);
@@ -616,10 +1076,9 @@ public class DidManager {
 		}else {
 			Proof proof = new Proof();
 			SignatureParams signatureParam = signatureParams.get(0);
-			tmpDidDocument = new DidDocument(signatureParam.getOriginData());
-			Proof tmpProof = tmpDidDocument.getProof(); 
+			Proof tmpProof = getUnsignedProof(signatureParam);
 
-			String keyIdByProof = this.getKeyIdByDidKeyUrl(tmpProof.getVerificationMethod());
+			String keyIdByProof = getKeyIdByDidKeyUrl(tmpProof.getVerificationMethod());
 
 			if (!keyIdByProof.equals(signatureParam.getKeyId())) {
 				throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY);
@@ -632,6 +1091,53 @@ public class DidManager {
 		}
 	}
 	
+	/**
+	 * Gets the proof without signature value that the signature parameters were created for.
+	 * Without origin data, the proof is rebuilt from created, verificationMethod, keyPurpose and algorithm.
+	 *
+	 * @param signatureParam The signature parameters as returned by getOriginDataForSign
+	 * @return The unsigned proof
+	 */
+	private Proof getUnsignedProof(SignatureParams signatureParam) {
+		if (signatureParam.getOriginData() != null) {
+			tmpDidDocument = new DidDocument(signatureParam.getOriginData());
+			return tmpDidDocument.getProof();
+		}
+		Proof proof = new Proof();
+		proof.setCreated(signatureParam.getCreated());
+		proof.setProofPurpose(signatureParam.getKeyPurpose());
+		proof.setVerificationMethod(signatureParam.getVerificationMethod());
+		proof.setType(signatureParam.getAlgorithm());
+		return proof;
+	}
+
+	/**
+	 * Adds the proofs to the DID document, signed by an external signer with one signer request per key.
+	 *
+	 * @param signatureParams List of SignatureParams without signature values, as returned by getOriginDataForSign
+	 * @param signer The external signer holding the signing keys
+	 * @throws CoreException
+	 */
+	public void addProof(List<SignatureParams> signatureParams, ExternalSigner signer) throws CoreException {
+		ExternalSigning.signAll(signer, signatureParams);
+		addProof(signatureParams);
+	}
+
+	/**
+	 * Signs the DID document with the given keys through an external signer and adds the proofs.
+	 *
+	 * @param keyIds List of key IDs for signing
+	 * @param signer The external signer holding the signing keys
+	 * @throws CoreException
+	 */
+	public void signDocument(List<String> keyIds, ExternalSigner signer) throws CoreException {
+		List<SignatureParams> signatureParams = getOriginDataForSign(keyIds, null, SigningInputMode.DIGEST);
+		if (signatureParams == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_EXIST_SIGNING_KEY);
+		}
+		addProof(signatureParams, signer);
+	}
+
 	/**
 	 * Creates a proof object based on the given signature parameters and updates
 	 * the proof value.
@@ -657,27 +1163,28 @@ public class DidManager {
 	 *                             lists or if there are issues with key management.
 	 */
 	public void removeKeyPurpose(String keyId) throws CoreException {
-	    if (tmpDidDocument == null) {
-	        tmpDidDocument = new DidDocument(didDocument.toJson());
-	    }
+		DidDocumentEditor editor = new DidDocumentEditor(didDocument);
+		tmpDidDocument = editor.getDocument();
 
-	    if(tmpDidDocument.getAssertionMethod() != null && tmpDidDocument.getAssertionMethod().contains(keyId)) {
-	    	tmpDidDocument.setAssertionMethod(removeKeyPurposeByKeyId(didDocument.getAssertionMethod(), keyId));
-	    }
-		if(tmpDidDocument.getAuthentication() != null && tmpDidDocument.getAuthentication().contains(keyId)) {
-			tmpDidDocument.setAuthentication(removeKeyPurposeByKeyId(didDocument.getAuthentication(), keyId));
-		}
-		if(tmpDidDocument.getKeyAgreement() != null && tmpDidDocument.getKeyAgreement().contains(keyId)) {
-			tmpDidDocument.setKeyAgreement(removeKeyPurposeByKeyId(didDocument.getKeyAgreement(), keyId));
-		}
-		if(tmpDidDocument.getCapabilityInvocation() != null && tmpDidDocument.getCapabilityInvocation().contains(keyId)) {
-			tmpDidDocument.setCapabilityInvocation(removeKeyPurposeByKeyId(didDocument.getCapabilityInvocation(), keyId));
-		}
-		if(tmpDidDocument.getCapabilityDelegation() != null && tmpDidDocument.getCapabilityDelegation().contains(keyId)) {
-			tmpDidDocument.setCapabilityDelegation(removeKeyPurposeByKeyId(didDocument.getCapabilityDelegation(), keyId));
-		}
+		removeKeyPurpose(editor, keyId);
 
-	    this.didDocument = tmpDidDocument;
+	    this.didDocument = editor.publish();
+	}
+
+	/**
+	 * Removes the specified key ID from all key purpose lists in the working copy of the DID document.
+	 *
+	 * @param editor The working copy of the DID document
+	 * @param keyId Key ID to remove from key purpose lists.
+	 * @throws CoreException
+	 */
+	void removeKeyPurpose(DidDocumentEditor editor, String keyId) throws CoreException {
+		for (ProofPurpose keyPurpose : ProofPurpose.values()) {
+			List<String> keyPurposeList = editor.getKeyPurposeList(keyPurpose);
+			if (keyPurposeList != null && keyPurposeList.contains(keyId)) {
+				editor.setKeyPurposeList(keyPurpose, removeKeyPurposeByKeyId(editor.getKeyPurposeListForWrite(keyPurpose), keyId));
+			}
+		}
 	}
 
 	/**
@@ -736,7 +1243,7 @@ public class DidManager {
 	 * @param didKeyUrl The DID key URL (format: "did#keyId").
 	 * @return The extracted key ID.
 	 */
-	private String getKeyIdByDidKeyUrl(String didKeyUrl) {
+	private static String getKeyIdByDidKeyUrl(String didKeyUrl) {
 		String keyId = didKeyUrl.split("#")[1];
 		return keyId;
 	}
@@ -766,7 +1273,7 @@ public class DidManager {
 	 *                             current contexts list.
 	 */
 	public void addContext(String context) throws CoreException {
-	    List<String> currentContexts = didDocument.getContext();
+	    List<String> currentContexts = initializeList(didDocument.getContext());
 	    if (!currentContexts.contains(context)) {
 	        currentContexts.add(context);
 	    }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.ExternalSigner;
+import org.omnione.did.core.util.VerifyUtil;
+
+/**
+ * Signing of the signing inputs of DidManager and VcManager with an {@link ExternalSigner}.
+ */
+final class ExternalSigning {
+
+	private ExternalSigning() {
+	}
+
+	/**
+	 * Signs signing parameters with one signer request per key and sets their signature values.
+	 * The digest of each parameter is taken from its hashedData if the origin data is omitted.
+	 *
+	 * @param signer The external signer.
+	 * @param signatureParams The signing parameters, as returned by getOriginDataForSign.
+	 * @throws CoreException The error of the signer, or ERR_CODE_SIGNER_SIGN_FAIL if it returns a wrong number of signatures.
+	 */
+	static void signAll(ExternalSigner signer, List<? extends SignatureParams> signatureParams) throws CoreException {
+
+		Map<String, List<SignatureParams>> paramsByKeyId = new LinkedHashMap<String, List<SignatureParams>>();
+		for (SignatureParams signatureParam : signatureParams) {
+			paramsByKeyId.computeIfAbsent(signatureParam.getKeyId(), keyId -> new ArrayList<SignatureParams>()).add(signatureParam);
+		}
+
+		for (Map.Entry<String, List<SignatureParams>> entry : paramsByKeyId.entrySet()) {
+			List<SignatureParams> keyParams = entry.getValue();
+			List<byte[]> digests = new ArrayList<byte[]>(keyParams.size());
+			for (SignatureParams signatureParam : keyParams) {
+				digests.add(VerifyUtil.getDigest(signatureParam));
+			}
+
+			List<String> keySignatureValues;
+			try {
+				keySignatureValues = signer.signAll(entry.getKey(), digests);
+			} catch (RuntimeException e) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, e.toString());
+			}
+			if (keySignatureValues == null || keySignatureValues.size() != keyParams.size()) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, "Expected " + keyParams.size() + " signatures, received "
+						+ (keySignatureValues == null ? 0 : keySignatureValues.size()));
+			}
+			for (int i = 0; i < keyParams.size(); i++) {
+				keyParams.get(i).setSignatureValue(keySignatureValues.get(i));
+			}
+		}
+	}
+}
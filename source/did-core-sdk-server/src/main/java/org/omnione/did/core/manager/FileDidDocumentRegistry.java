@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CanonicalJson;
+import org.omnione.did.data.model.did.DidDocument;
+
+/**
+ * DID document registry kept in memory and persisted to a local directory.
+ *
+ * <p>All DID Document files (*.json) of the directory are registered on creation. Every registered version is
+ * written to {@code <DID>@<versionId>.json} (URL-encoded), so the registry is restored on the next start.</p>
+ *
+ * <p>If several files hold the same DID and versionId, the file of that naming scheme takes precedence; among
+ * other files, the last one in file name order does. Registering a version deletes the other files holding it,
+ * and removing a DID deletes all files holding one of its versions.</p>
+ */
+public final class FileDidDocumentRegistry extends InMemoryDidDocumentRegistry {
+
+	private static final String FILE_EXTENSION = ".json";
+	private static final String VERSION_SEPARATOR = "@";
+
+	private final Path directory;
+
+	/**
+	 * Files of the directory holding each registered version.
+	 */
+	private final Map<DocumentVersion, List<Path>> sourceFiles = new ConcurrentHashMap<DocumentVersion, List<Path>>();
+
+	/**
+	 * Creates the registry, reading the existing documents in parallel on the common ForkJoinPool.
+	 *
+	 * @param directoryPath Path to the directory of the DID document files. It is created if absent.
+	 * @throws CoreException
+	 */
+	public FileDidDocumentRegistry(String directoryPath) throws CoreException {
+		this(directoryPath, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates the registry, reading the existing documents in parallel.
+	 *
+	 * @param directoryPath Path to the directory of the DID document files. It is created if absent.
+	 * @param executor The executor reading the files
+	 * @throws CoreException
+	 */
+	public FileDidDocumentRegistry(String directoryPath, Executor executor) throws CoreException {
+		this.directory = Paths.get(directoryPath);
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_WRITE_DIDDOCUMENT_FILE_FAIL, e.toString());
+		}
+		loadFiles(executor);
+	}
+
+	/**
+	 * Registers the documents of the directory in memory, the files of the naming scheme last.
+	 *
+	 * @param executor The executor reading the files
+	 * @throws CoreException
+	 */
+	private void loadFiles(Executor executor) throws CoreException {
+		Map<Path, DidDocument> didDocuments = DidManager.readDirectoryFiles(directory.toString(), executor);
+		for (DidDocument didDocument : didDocuments.values()) {
+			checkDocument(didDocument);
+		}
+
+		List<Map.Entry<Path, DidDocument>> entries = new ArrayList<Map.Entry<Path, DidDocument>>(didDocuments.entrySet());
+		entries.sort(Comparator.comparing(entry -> entry.getKey().equals(getFile(entry.getValue()))));
+		for (Map.Entry<Path, DidDocument> entry : entries) {
+			super.register(entry.getValue());
+			sourceFiles.merge(DocumentVersion.of(entry.getValue()), List.of(entry.getKey()), FileDidDocumentRegistry::concat);
+		}
+	}
+
+	/**
+	 * Writes the document version to the directory and registers it.
+	 * The file is replaced atomically, so a concurrent reader never sees a partial document.
+	 * Other files holding the same version are deleted, so they cannot replace it on the next start.
+	 */
+	@Override
+	public void register(DidDocument didDocument) throws CoreException {
+		checkDocument(didDocument);
+
+		Path didDocFile = getFile(didDocument);
+		Path tmpFile = null;
+		try {
+			tmpFile = Files.createTempFile(directory, VERSION_SEPARATOR, ".tmp");
+			try (OutputStream outputStream = Files.newOutputStream(tmpFile)) {
+				CanonicalJson.write(didDocument, outputStream);
+			}
+			Files.move(tmpFile, didDocFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			deleteQuietly(tmpFile);
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_WRITE_DIDDOCUMENT_FILE_FAIL, e.toString());
+		}
+
+		super.register(didDocument);
+
+		List<Path> replacedFiles = sourceFiles.put(DocumentVersion.of(didDocument), List.of(didDocFile));
+		if (replacedFiles != null) {
+			try {
+				for (Path replacedFile : replacedFiles) {
+					if (!replacedFile.equals(didDocFile)) {
+						Files.deleteIfExists(replacedFile);
+					}
+				}
+			} catch (IOException e) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_WRITE_DIDDOCUMENT_FILE_FAIL, e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Removes all versions of the DID and deletes their files.
+	 */
+	@Override
+	public void remove(String did) throws CoreException {
+		super.remove(did);
+
+		List<Path> didDocFiles = new ArrayList<Path>();
+		sourceFiles.entrySet().removeIf(entry -> {
+			if (!entry.getKey().did().equals(did)) {
+				return false;
+			}
+			didDocFiles.addAll(entry.getValue());
+			return true;
+		});
+
+		String filePrefix = encode(did) + VERSION_SEPARATOR;
+		try (Stream<Path> paths = Files.list(directory)) {
+			paths.filter(path -> path.getFileName().toString().startsWith(filePrefix) && path.getFileName().toString().endsWith(FILE_EXTENSION))
+					.forEach(didDocFiles::add);
+			for (Path didDocFile : didDocFiles) {
+				Files.deleteIfExists(didDocFile);
+			}
+		} catch (IOException | UncheckedIOException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_WRITE_DIDDOCUMENT_FILE_FAIL, e.toString());
+		}
+	}
+
+	private Path getFile(DidDocument didDocument) {
+		return directory.resolve(encode(didDocument.getId()) + VERSION_SEPARATOR + encode(didDocument.getVersionId()) + FILE_EXTENSION);
+	}
+
+	private static List<Path> concat(List<Path> files, List<Path> otherFiles) {
+		List<Path> allFiles = new ArrayList<Path>(files);
+		allFiles.addAll(otherFiles);
+		return allFiles;
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	private static void deleteQuietly(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// the temporary file is left behind; it does not end with .json and is never loaded
+		}
+	}
+
+	private record DocumentVersion(String did, String versionId) {
+
+		private static DocumentVersion of(DidDocument didDocument) {
+			return new DocumentVersion(didDocument.getId(), didDocument.getVersionId());
+		}
+	}
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.DidUrl;
+import org.omnione.did.core.util.PublicKeyCache;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.core.util.VerificationResultCache;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+/**
+ * Concurrent in-process registry of DID documents.
+ *
+ * <p>Every registered version is indexed once, and the public keys resolved from it are kept with the version,
+ * so resolving a key does not scan or decode the document again. Registered documents must not be modified;
+ * register a new version instead.</p>
+ */
+public class InMemoryDidDocumentRegistry implements DidDocumentRegistry {
+
+	/**
+	 * Cache name reported to {@link org.omnione.did.core.util.CoreMetrics#recordCacheAccess(String, boolean)}.
+	 */
+	public static final String METRICS_NAME = "didDocumentRegistry";
+
+	private final Map<String, DidVersions> documents = new ConcurrentHashMap<String, DidVersions>();
+
+	/**
+	 * Registers all DID Document files (*.json) of a directory, read in parallel on the common ForkJoinPool.
+	 *
+	 * @param directoryPath Path to the directory containing the DID document files
+	 * @return The number of registered documents
+	 * @throws CoreException
+	 * @see #loadDirectory(String, Executor)
+	 */
+	public int loadDirectory(String directoryPath) throws CoreException {
+		return loadDirectory(directoryPath, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Registers all DID Document files (*.json) of a directory, read in parallel.
+	 * Every version found is registered, not only the latest one.
+	 * The documents are registered in memory only, also in subclasses that persist {@link #register(DidDocument) registered} documents.
+	 *
+	 * @param directoryPath Path to the directory containing the DID document files
+	 * @param executor The executor reading the files
+	 * @return The number of registered documents
+	 * @throws CoreException If the directory cannot be read or a file is not a valid DID document.
+	 *                       No document of the directory is registered in that case.
+	 */
+	public int loadDirectory(String directoryPath, Executor executor) throws CoreException {
+		List<DidDocument> didDocuments = DidManager.readDirectory(directoryPath, executor);
+		for (DidDocument didDocument : didDocuments) {
+			checkDocument(didDocument);
+		}
+		for (DidDocument didDocument : didDocuments) {
+			addDocument(didDocument);
+		}
+		return didDocuments.size();
+	}
+
+	@Override
+	public void register(DidDocument didDocument) throws CoreException {
+		checkDocument(didDocument);
+		addDocument(didDocument);
+	}
+
+	private void addDocument(DidDocument didDocument) {
+		RegistryEntry entry = new RegistryEntry(didDocument);
+		AtomicBoolean isChanged = new AtomicBoolean(false);
+		AtomicBoolean isReplaced = new AtomicBoolean(false);
+		documents.compute(didDocument.getId(), (did, versions) -> {
+			if (versions == null) {
+				return new DidVersions(entry);
+			}
+			isChanged.set(true);
+			isReplaced.set(versions.get(didDocument.getVersionId()) != null);
+			return versions.with(entry);
+		});
+
+		if (isReplaced.get()) {
+			// The version was replaced, so keys resolved from the old document must not be reused.
+			PublicKeyCache.invalidateDefault(didDocument.getId());
+		}
+		if (isChanged.get()) {
+			// The issuer document changed, so credentials it issued are verified again.
+			VerificationResultCache.invalidateDefault(didDocument.getId());
+		}
+	}
+
+	@Override
+	public DidDocument resolve(String did, String versionId) {
+		RegistryEntry entry = getEntry(did, versionId);
+		return entry != null ? entry.document : null;
+	}
+
+	@Override
+	public void remove(String did) throws CoreException {
+		documents.remove(did);
+		PublicKeyCache.invalidateDefault(did);
+		VerificationResultCache.invalidateDefault(did);
+	}
+
+	/**
+	 * Resolves the public key referenced by a DID URL from the indexed document version.
+	 * The key is decoded only the first time it is resolved from that version.
+	 */
+	@Override
+	public ResolvedPublicKey resolvePublicKey(String verificationMethod) throws CoreException {
+		DidUrl didUrl = DidUrl.parse(verificationMethod);
+		if (didUrl.getKeyId() == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DID_URL, verificationMethod);
+		}
+
+		RegistryEntry entry = getEntry(didUrl.getDid(), didUrl.getVersionId());
+		if (entry == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_REGISTERED_DIDDOCUMENT, verificationMethod);
+		}
+		return entry.resolvePublicKey(didUrl.getKeyId());
+	}
+
+	/**
+	 * Gets the registered DIDs.
+	 *
+	 * @return The unmodifiable view of the registered DIDs
+	 */
+	public Set<String> getDids() {
+		return Collections.unmodifiableSet(documents.keySet());
+	}
+
+	/**
+	 * Gets the number of registered document versions.
+	 *
+	 * @return The number of versions of all DIDs
+	 */
+	public int size() {
+		int size = 0;
+		for (DidVersions versions : documents.values()) {
+			size += versions.entries.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Checks that the document can be registered.
+	 *
+	 * @param didDocument The DID document
+	 * @throws CoreException If the document has no ID or versionId
+	 */
+	static void checkDocument(DidDocument didDocument) throws CoreException {
+		if (didDocument == null || didDocument.getId() == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_ID_IS_NULL);
+		}
+		if (didDocument.getVersionId() == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DIDDOCUMENT, "versionId: null");
+		}
+	}
+
+	private RegistryEntry getEntry(String did, String versionId) {
+		DidVersions versions = documents.get(did);
+		if (versions == null) {
+			return null;
+		}
+		return versionId != null ? versions.get(versionId) : versions.latest;
+	}
+
+	/**
+	 * Immutable set of the registered versions of one DID.
+	 */
+	private static class DidVersions {
+
+		private final Map<String, RegistryEntry> entries;
+		private final RegistryEntry latest;
+
+		private DidVersions(RegistryEntry entry) {
+			this(Collections.singletonMap(entry.document.getVersionId(), entry), entry);
+		}
+
+		private DidVersions(Map<String, RegistryEntry> entries, RegistryEntry latest) {
+			this.entries = entries;
+			this.latest = latest;
+		}
+
+		private RegistryEntry get(String versionId) {
+			return entries.get(versionId);
+		}
+
+		private DidVersions with(RegistryEntry entry) {
+			Map<String, RegistryEntry> newEntries = new HashMap<String, RegistryEntry>(entries);
+			newEntries.put(entry.document.getVersionId(), entry);
+
+			RegistryEntry newLatest;
+			if (latest.document.getVersionId().equals(entry.document.getVersionId())) {
+				newLatest = entry;
+			} else {
+				newLatest = DidManager.getNewerDocument(latest.document, entry.document) == entry.document ? entry : latest;
+			}
+			return new DidVersions(newEntries, newLatest);
+		}
+	}
+
+	/**
+	 * Registered document version with its index and resolved keys.
+	 */
+	private static class RegistryEntry {
+
+		private final DidDocument document;
+		private final DidDocumentIndex index;
+		private final Map<String, ResolvedPublicKey> publicKeys = new ConcurrentHashMap<String, ResolvedPublicKey>();
+
+		private RegistryEntry(DidDocument document) {
+			this.document = document;
+			this.index = DidDocumentIndex.of(document);
+		}
+
+		private ResolvedPublicKey resolvePublicKey(String keyId) throws CoreException {
+			ResolvedPublicKey publicKey = publicKeys.get(keyId);
+			CoreMetricsRegistry.recordCacheAccess(METRICS_NAME, publicKey != null);
+			if (publicKey != null) {
+				return publicKey;
+			}
+
+			VerificationMethod verificationMethod = index.getVerificationMethod(keyId);
+			if (verificationMethod == null) {
+				return null;
+			}
+			publicKey = ResolvedPublicKey.from(verificationMethod);
+			publicKeys.putIfAbsent(keyId, publicKey);
+			return publicKey;
+		}
+	}
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.omnione.did.core.data.rest.VpStreamVerifyResult;
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CanonicalJson;
+import org.omnione.did.core.util.CanonicalJson.Enclosure;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.PresentationFilter;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.core.util.VerificationResultCache;
+import org.omnione.did.core.util.VerifyUtil;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.omnione.did.data.model.vp.VpProof;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * Verification of a Verifiable Presentation read incrementally from its JSON.
+ *
+ * <p>The credentials are read one at a time. Each credential is checked, its issuer signature is verified and its
+ * claims are passed to the {@link ClaimConsumer}, then it is dropped, so at most one credential is held in memory.
+ * The holder signatures cover the whole presentation: the canonical JSON of each credential is fed to one SHA-256
+ * per holder proof while it is read, and the signatures are verified after the last member of the presentation.</p>
+ *
+ * <p>This requires the holder proofs and the other members that precede {@code verifiableCredential} in canonical
+ * order to be read before the credentials, as in the JSON written by {@code toJson()}. If no holder proof is known
+ * when the credentials start, their canonical JSON is buffered until the end. A presentation changing a member
+ * that precedes the credentials after they were read is rejected.</p>
+ *
+ * <p>The checks are those of the default {@link VpVerificationPipeline}, run per credential in reading order.
+ * A verifier belongs to a single verification and is not thread-safe.</p>
+ */
+final class StreamingVpVerifier {
+
+	private static final String VERIFIABLE_CREDENTIAL = "verifiableCredential";
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private final VpVerifyParam verifyParam;
+	private final ClaimConsumer claimConsumer;
+
+	/** The members of the presentation read so far, without the credentials. */
+	private final VerifiablePresentation presentation = new VerifiablePresentation();
+	private final VpVerificationContext context;
+	private final PresentationFilter.Matcher filterMatcher;
+
+	private boolean hasCredentials = false;
+	private int credentialCount = 0;
+	private int claimCount = 0;
+
+	/** Set if the credentials are hashed while read: the holder proofs and their signing inputs. */
+	private List<Enclosure> enclosures;
+	private DigestSink digestSink;
+
+	/** Set if the credentials are buffered until the holder proofs are known. */
+	private ByteArrayOutputStream credentialBuffer;
+
+	StreamingVpVerifier(VpVerifyParam verifyParam, DidDocumentRegistry didDocumentRegistry, ClaimConsumer claimConsumer) {
+		this.verifyParam = verifyParam;
+		this.claimConsumer = claimConsumer;
+		this.context = new VpVerificationContext(presentation, verifyParam, didDocumentRegistry);
+
+		PresentationFilter presentationFilter = verifyParam.getPresentationFilter();
+		if (presentationFilter == null && verifyParam.getFilter() != null) {
+			presentationFilter = PresentationFilter.compile(verifyParam.getFilter());
+		}
+		this.filterMatcher = presentationFilter != null ? presentationFilter.newMatcher() : null;
+	}
+
+	/**
+	 * Reads and verifies the presentation.
+	 *
+	 * @param reader The JSON of the presentation. It is read to the end of the presentation and not closed.
+	 * @return The verification result.
+	 * @throws CoreException If the presentation is rejected, or cannot be read.
+	 */
+	VpStreamVerifyResult verify(Reader reader) throws CoreException {
+
+		try {
+			JsonReader jsonReader = new JsonReader(reader);
+			jsonReader.beginObject();
+			while (jsonReader.hasNext()) {
+				String name = jsonReader.nextName();
+				if (VERIFIABLE_CREDENTIAL.equals(name)) {
+					readCredentials(jsonReader);
+				} else {
+					readMember(jsonReader, name);
+				}
+			}
+			jsonReader.endObject();
+			if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, "Content after the presentation");
+			}
+		} catch (IOException | JsonParseException | IllegalStateException | ConstraintViolationException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, e.toString());
+		}
+
+		verifyPresentation();
+
+		return new VpStreamVerifyResult(presentation.getId(), presentation.getHolder(), credentialCount, claimCount);
+	}
+
+	/**
+	 * Reads a member of the presentation other than its credentials.
+	 * Unknown members are skipped, as they are when the presentation is parsed as a whole.
+	 */
+	private void readMember(JsonReader jsonReader, String name) throws IOException, CoreException {
+
+		switch (name) {
+			case "@context":
+				presentation.setContext(readStringList(jsonReader));
+				break;
+			case "id":
+				presentation.setId(readString(jsonReader));
+				break;
+			case "type":
+				presentation.setType(readStringList(jsonReader));
+				break;
+			case "holder":
+				presentation.setHolder(readString(jsonReader));
+				break;
+			case "validFrom":
+				presentation.setValidFrom(readString(jsonReader));
+				break;
+			case "validUntil":
+				presentation.setValidUntil(readString(jsonReader));
+				break;
+			case "verifierNonce":
+				presentation.setVerifierNonce(readString(jsonReader));
+				break;
+			case "proof":
+				presentation.setProof(CanonicalJson.read(jsonReader, VpProof.class));
+				break;
+			case "proofs":
+				presentation.setProofs(readProofList(jsonReader));
+				break;
+			default:
+				jsonReader.skipValue();
+				break;
+		}
+	}
+
+	/**
+	 * Reads the credentials, verifying each one as soon as it is read.
+	 */
+	private void readCredentials(JsonReader jsonReader) throws IOException, CoreException {
+
+		if (hasCredentials) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, "Duplicate " + VERIFIABLE_CREDENTIAL);
+		}
+		if (jsonReader.peek() == JsonToken.NULL) {
+			jsonReader.nextNull();
+			return;
+		}
+		hasCredentials = true;
+
+		// Reject an expired presentation before any signature is verified, if its expiration date is known.
+		if (presentation.getValidUntil() != null && VerifyUtil.isExpired(presentation.getValidUntil())) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VP);
+		}
+
+		OutputStream credentialSink;
+		List<VpProof> holderProofs = getHolderProofs();
+		if (!holderProofs.isEmpty()) {
+			enclosures = encloseHolderSigningInputs(holderProofs);
+			digestSink = new DigestSink(enclosures.size());
+			for (int i = 0; i < enclosures.size(); i++) {
+				digestSink.messageDigests[i].update(enclosures.get(i).prefix());
+			}
+			credentialSink = digestSink;
+		} else {
+			credentialBuffer = new ByteArrayOutputStream();
+			credentialSink = credentialBuffer;
+		}
+
+		jsonReader.beginArray();
+		while (jsonReader.hasNext()) {
+			VerifiableCredential verifiableCredential = CanonicalJson.read(jsonReader, VerifiableCredential.class);
+			if (verifiableCredential == null) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, VERIFIABLE_CREDENTIAL + ": null");
+			}
+			if (credentialCount > 0) {
+				credentialSink.write(',');
+			}
+			CanonicalJson.writeValidated(verifiableCredential, credentialSink);
+
+			verifyCredential(verifiableCredential);
+			credentialCount++;
+		}
+		jsonReader.endArray();
+	}
+
+	/**
+	 * Checks a credential like the stages of the default pipeline, and passes its claims to the consumer.
+	 */
+	private void verifyCredential(VerifiableCredential verifiableCredential) throws CoreException {
+
+		VpVerificationPipeline.checkCredentialStructure(verifiableCredential);
+
+		if (verifyParam.isCheckVcExpirationDate() && VerifyUtil.isExpired(verifiableCredential.getValidUntil())) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VC, verifiableCredential.getId());
+		}
+
+		if (filterMatcher != null) {
+			filterMatcher.match(verifiableCredential);
+		}
+
+		if (verifiableCredential.getCredentialSubject() == null) {
+			return;
+		}
+
+		ResolvedPublicKey issuerPublicKey = context.resolveIssuerPublicKey(verifiableCredential);
+		VerificationResultCache.verifyCached(verifiableCredential, issuerPublicKey,
+				() -> VpVerificationPipeline.verifyIssuerSignature(verifiableCredential, issuerPublicKey));
+		context.releaseCredential(verifiableCredential);
+
+		for (Claim claim : verifiableCredential.getCredentialSubject().getClaims()) {
+			claimConsumer.accept(verifiableCredential, claim);
+			claimCount++;
+		}
+	}
+
+	/**
+	 * Checks the presentation once all of its members are read, and verifies its holder signatures.
+	 */
+	private void verifyPresentation() throws CoreException {
+
+		if (!hasCredentials) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, VERIFIABLE_CREDENTIAL + ": null");
+		}
+		presentation.setVerifiableCredential(Collections.<VerifiableCredential>emptyList());
+		try {
+			CanonicalJson.validate(presentation);
+		} catch (ConstraintViolationException e) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, e.toString());
+		}
+
+		List<VpProof> holderProofs = getHolderProofs();
+		if (holderProofs.isEmpty()) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, "proof: null");
+		}
+		if (VerifyUtil.isExpired(presentation.getValidUntil())) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VP);
+		}
+		if (filterMatcher != null) {
+			filterMatcher.finish();
+		}
+
+		List<Enclosure> finalEnclosures = encloseHolderSigningInputs(holderProofs);
+		if (credentialBuffer != null) {
+			digestSink = new DigestSink(finalEnclosures.size());
+			for (int i = 0; i < finalEnclosures.size(); i++) {
+				digestSink.messageDigests[i].update(finalEnclosures.get(i).prefix());
+			}
+			byte[] credentialBytes = credentialBuffer.toByteArray();
+			credentialBuffer = null;
+			digestSink.write(credentialBytes, 0, credentialBytes.length);
+		} else if (!isSamePrefixes(enclosures, finalEnclosures)) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION,
+					"Members preceding " + VERIFIABLE_CREDENTIAL + " changed after it");
+		}
+		CoreMetricsRegistry.recordBytesHashed(digestSink.byteCount);
+
+		for (int i = 0; i < holderProofs.size(); i++) {
+			VpProof proof = holderProofs.get(i);
+			MessageDigest messageDigest = digestSink.messageDigests[i];
+			messageDigest.update(finalEnclosures.get(i).suffix());
+
+			ResolvedPublicKey publicKey = context.resolveHolderPublicKey(proof);
+			VerifyUtil.verifyHashedSignature(messageDigest.digest(), proof.getProofValue(), proof.getType(), publicKey);
+		}
+	}
+
+	private List<VpProof> getHolderProofs() {
+		if (presentation.getProof() != null) {
+			return Collections.singletonList(presentation.getProof());
+		}
+		return presentation.getProofs() != null ? presentation.getProofs() : Collections.<VpProof>emptyList();
+	}
+
+	/**
+	 * Renders the signing input of each holder proof around the credentials:
+	 * the presentation with that proof without signature value, and without the other proofs.
+	 */
+	private List<Enclosure> encloseHolderSigningInputs(List<VpProof> holderProofs) {
+
+		VpProof proof = presentation.getProof();
+		List<VpProof> proofs = presentation.getProofs();
+		List<Enclosure> holderEnclosures = new ArrayList<Enclosure>(holderProofs.size());
+		try {
+			for (VpProof holderProof : holderProofs) {
+				presentation.setProof(VpVerificationPipeline.getUnsignedProof(holderProof));
+				if (proof == null) {
+					presentation.setProofs(null);
+				}
+				holderEnclosures.add(CanonicalJson.enclose(presentation, VERIFIABLE_CREDENTIAL));
+			}
+		} finally {
+			presentation.setProof(proof);
+			presentation.setProofs(proofs);
+		}
+		return holderEnclosures;
+	}
+
+	private static boolean isSamePrefixes(List<Enclosure> enclosures, List<Enclosure> finalEnclosures) {
+		if (enclosures.size() != finalEnclosures.size()) {
+			return false;
+		}
+		for (int i = 0; i < enclosures.size(); i++) {
+			if (!Arrays.equals(enclosures.get(i).prefix(), finalEnclosures.get(i).prefix())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String readString(JsonReader jsonReader) throws IOException {
+		if (jsonReader.peek() == JsonToken.NULL) {
+			jsonReader.nextNull();
+			return null;
+		}
+		return jsonReader.nextString();
+	}
+
+	private static List<String> readStringList(JsonReader jsonReader) throws IOException {
+		if (jsonReader.peek() == JsonToken.NULL) {
+			jsonReader.nextNull();
+			return null;
+		}
+		List<String> values = new ArrayList<String>();
+		jsonReader.beginArray();
+		while (jsonReader.hasNext()) {
+			values.add(readString(jsonReader));
+		}
+		jsonReader.endArray();
+		return values;
+	}
+
+	private static List<VpProof> readProofList(JsonReader jsonReader) throws IOException {
+		if (jsonReader.peek() == JsonToken.NULL) {
+			jsonReader.nextNull();
+			return null;
+		}
+		List<VpProof> proofs = new ArrayList<VpProof>();
+		jsonReader.beginArray();
+		while (jsonReader.hasNext()) {
+			proofs.add(CanonicalJson.read(jsonReader, VpProof.class));
+		}
+		jsonReader.endArray();
+		return proofs;
+	}
+
+	/**
+	 * Output stream feeding the same bytes to the message digest of each holder proof.
+	 */
+	private static final class DigestSink extends OutputStream {
+
+		private final MessageDigest[] messageDigests;
+		private long byteCount = 0;
+
+		private DigestSink(int digestCount) throws CoreException {
+			messageDigests = new MessageDigest[digestCount];
+			try {
+				for (int i = 0; i < digestCount; i++) {
+					messageDigests[i] = MessageDigest.getInstance(DIGEST_ALGORITHM);
+				}
+			} catch (NoSuchAlgorithmException e) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, e);
+			}
+		}
+
+		@Override
+		public void write(int b) {
+			for (MessageDigest messageDigest : messageDigests) {
+				messageDigest.update((byte) b);
+			}
+			byteCount++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (MessageDigest messageDigest : messageDigests) {
+				messageDigest.update(b, off, len);
+			}
+			byteCount += len;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.omnione.did.core.data.rest.ClaimInfo;
+import org.omnione.did.core.data.rest.IssueVcParam;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+import org.omnione.did.data.model.enums.vc.VcType;
+import org.omnione.did.data.model.schema.ClaimDef;
+import org.omnione.did.data.model.schema.SchemaClaims;
+import org.omnione.did.data.model.schema.VcSchema;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.Evidence;
+import org.omnione.did.data.model.vc.Issuer;
+import org.omnione.did.data.model.vc.VcProof;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+/**
+ * The parts of a bulk issuance that are the same for every Verifiable Credential.
+ *
+ * <p>The issuance parameters and the schema are read once: the required claim codes and the claim definitions
+ * in schema order are flattened, so each credential only looks up its personal information by claim code.
+ * Instances are immutable and can be shared between threads.</p>
+ */
+final class VcIssuanceTemplate {
+
+	private final List<String> context;
+	private final List<String> vcType;
+	private final String issuerDid;
+	private final String issuerName;
+	private final ZonedDateTime issuanceDate;
+	private final ZonedDateTime validFrom;
+	private final String validUntil;
+	private final String formatVersion;
+	private final String language;
+	private final List<Evidence> evidences;
+	private final String schemaId;
+	private final String schemaType;
+	private final List<String> requiredClaimCodes;
+	private final List<ClaimSlot> claimSlots;
+	private final String proofType;
+	private final String verificationMethod;
+
+	/**
+	 * Reads the issuance parameters and the schema.
+	 *
+	 * @param vcParam The issuance parameters shared by all credentials. Its privacy is ignored.
+	 * @param signKeyId The ID of the signing key.
+	 * @param proofType The proof type of the signing key.
+	 * @param issuerDidId The DID of the issuer DID Document holding the signing key.
+	 * @param issuerDidVersionId The version of the issuer DID Document.
+	 * @throws CoreException If the VC type or the schema metadata is missing.
+	 */
+	VcIssuanceTemplate(IssueVcParam vcParam, String signKeyId, String proofType, String issuerDidId, String issuerDidVersionId) throws CoreException {
+
+		if (vcParam.getVcType() == null || vcParam.getVcType().isEmpty()) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_MISSING_VC_TYPE);
+		}
+		VcSchema vcSchema = vcParam.getVcSchema();
+		if (isEmpty(vcSchema.getMetadata().getFormatVersion()) || isEmpty(vcSchema.getMetadata().getLanguage())) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_SCHEMA_MISSING_DETAIL);
+		}
+
+		this.context = vcParam.getContext() != null && !vcParam.getContext().isEmpty() ? vcParam.getContext() : null;
+		List<String> vcTypeList = new ArrayList<String>(vcParam.getVcType().size());
+		for (VcType type : vcParam.getVcType()) {
+			vcTypeList.add(type.getRawValue());
+		}
+		this.vcType = Collections.unmodifiableList(vcTypeList);
+		this.issuerDid = vcParam.getProviderDetail().getDid();
+		this.issuerName = vcParam.getProviderDetail().getName();
+		this.issuanceDate = vcParam.getIssuanceDate();
+		this.validFrom = vcParam.getValidFrom();
+		this.validUntil = vcParam.getValidUntil() != null
+				? VerifiableCredential.dateToUTC0String(vcParam.getValidUntil()) : IssueVcParam.DEFAULT_VALID_UNTIL;
+		this.formatVersion = vcSchema.getMetadata().getFormatVersion();
+		this.language = vcSchema.getMetadata().getLanguage();
+		this.evidences = vcParam.getEvidences();
+		this.schemaId = vcSchema.getId();
+		this.schemaType = vcParam.getSchemaType();
+
+		List<String> requiredCodes = new ArrayList<String>();
+		List<ClaimSlot> slots = new ArrayList<ClaimSlot>();
+		for (SchemaClaims schemaClaim : vcSchema.getCredentialSubject().getClaims()) {
+			for (ClaimDef claimDef : schemaClaim.getItems()) {
+				String claimCode = schemaClaim.getNamespace().getId() + "." + claimDef.getId();
+				if (claimDef.getRequired() == null || claimDef.getRequired()) {
+					requiredCodes.add(claimCode);
+				}
+				slots.add(new ClaimSlot(claimCode, claimDef));
+			}
+		}
+		this.requiredClaimCodes = Collections.unmodifiableList(requiredCodes);
+		this.claimSlots = Collections.unmodifiableList(slots);
+
+		this.proofType = proofType;
+		this.verificationMethod = issuerDidId + "?versionId=" + issuerDidVersionId + "#" + signKeyId;
+	}
+
+	/**
+	 * Creates a Verifiable Credential with a new id and every field except the credentialSubject and the proof.
+	 *
+	 * @return The new Verifiable Credential.
+	 */
+	VerifiableCredential newCredential() {
+
+		VerifiableCredential verifiableCredential = new VerifiableCredential();
+		if (context != null) {
+			verifiableCredential.setContext(context);
+		} else {
+			verifiableCredential.setContext();
+		}
+		verifiableCredential.setId(UUID.randomUUID().toString());
+		verifiableCredential.setType(new ArrayList<String>(vcType));
+
+		Issuer issuer = new Issuer();
+		issuer.setId(issuerDid);
+		issuer.setName(issuerName);
+		verifiableCredential.setIssuer(issuer);
+
+		verifiableCredential.setIssuanceDate(issuanceDate);
+		verifiableCredential.setValidFrom(validFrom != null ? validFrom : verifiableCredential.getIssuanceDateObject());
+		verifiableCredential.setValidUntil(validUntil);
+		verifiableCredential.setFormatVersion(formatVersion);
+		verifiableCredential.setLanguage(language);
+		verifiableCredential.setEvidence(evidences);
+
+		CredentialSchema credentialSchema = new CredentialSchema();
+		credentialSchema.setId(schemaId);
+		credentialSchema.setType(schemaType);
+		verifiableCredential.setCredentialSchema(credentialSchema);
+		return verifiableCredential;
+	}
+
+	/**
+	 * Creates the proof of a credential without signature value.
+	 *
+	 * @param verifiableCredential The credential to sign.
+	 * @return The proof without signature value.
+	 */
+	VcProof newProof(VerifiableCredential verifiableCredential) {
+
+		VcProof vcProof = new VcProof();
+		vcProof.setType(proofType);
+		vcProof.setCreated(verifiableCredential.getIssuanceDate());
+		vcProof.setVerificationMethod(verificationMethod);
+		vcProof.setProofPurpose(ProofPurpose.ASSERTION_METHOD.getRawValue());
+		return vcProof;
+	}
+
+	/**
+	 * Checks that the personal information holds every required claim of the schema.
+	 *
+	 * @param privacy The personal information about claims.
+	 * @throws CoreException If a required claim is missing.
+	 */
+	void checkClaims(Map<String, ClaimInfo> privacy) throws CoreException {
+
+		for (String claimCode : requiredClaimCodes) {
+			if (!privacy.containsKey(claimCode)) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_SUBMITED_PUBLIC_CLAIM);
+			}
+		}
+	}
+
+	/**
+	 * Gets the claim definitions of the schema.
+	 *
+	 * @return The claim definitions in schema order with their claim codes.
+	 */
+	List<ClaimSlot> getClaimSlots() {
+		return claimSlots;
+	}
+
+	String getProofType() {
+		return proofType;
+	}
+
+	private static boolean isEmpty(String value) {
+		return value == null || value.isEmpty();
+	}
+
+	/**
+	 * A claim definition of the schema with its claim code.
+	 */
+	record ClaimSlot(String claimCode, ClaimDef claimDef) {
+	}
+}
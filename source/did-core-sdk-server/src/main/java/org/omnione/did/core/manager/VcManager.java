@@ -21,16 +21,36 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.validation.Valid;
 import org.omnione.did.core.data.rest.ClaimInfo;
 import org.omnione.did.core.data.rest.IssueVcParam;
 import org.omnione.did.core.data.rest.SignatureVcParams;
+import org.omnione.did.core.data.rest.SigningInputMode;
+import org.omnione.did.core.data.rest.VcBatchIssueResult;
+import org.omnione.did.core.data.rest.VcIssueRequest;
 import org.omnione.did.core.exception.CoreErrorCode;
 import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CanonicalJson;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.DidUrl;
+import org.omnione.did.core.util.ExternalSigner;
+import org.omnione.did.core.util.OriginDataTemplate;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.core.util.VerificationExecutor;
+import org.omnione.did.core.util.VerificationResultCache;
 import org.omnione.did.core.util.VerifyUtil;
 import org.omnione.did.crypto.enums.MultiBaseType;
 import org.omnione.did.crypto.exception.CryptoException;
@@ -61,6 +81,25 @@ import org.omnione.did.data.model.vc.VerifiableCredential;
 
 public class VcManager {
 
+  private final DidDocumentRegistry didDocumentRegistry;
+
+  /**
+   * Creates a VcManager that verifies credentials against the DID Documents passed to it.
+   */
+  public VcManager() {
+      this(null);
+  }
+
+  /**
+   * Creates a VcManager that resolves the issuer keys from a DID document registry
+   * when no issuer DID Document is passed to the verification.
+   * 
+   * @param didDocumentRegistry The registry of the issuer DID Documents, or null.
+   */
+  public VcManager(DidDocumentRegistry didDocumentRegistry) {
+      this.didDocumentRegistry = didDocumentRegistry;
+  }
+
   /**
    * Issue VerifiableCredential
    * 
@@ -155,6 +194,25 @@ public class VcManager {
    */
   public List<SignatureVcParams> getOriginDataForSign(String signKeyId, DidDocument issuerDidDoc, 
       VerifiableCredential verifiableCredential) throws CoreException {
+    return getOriginDataForSign(signKeyId, issuerDidDoc, verifiableCredential, SigningInputMode.ORIGIN_DATA);
+  }
+
+  /**
+   * Get Signature Origin Data in the given form
+   * 
+   * <p>With a digest mode, the hashedData of each parameter is the SHA-256 that is signed. It is computed without
+   * rendering the credential if the origin data is omitted, and created and verificationMethod describe the unsigned proof,
+   * so {@link #addProof(VerifiableCredential, List)} does not need the origin data.</p>
+   * 
+   * @param signKeyId The ID of the signing key.
+   * @param issuerDidDoc The DID document of the issuer.
+   * @param verifiableCredential The verifiable credential for which to get the signature origin data.
+   * @param mode The content of the signature parameters.
+   * @return The list of signature parameters containing the signing inputs.
+   * @throws CoreException 
+   */
+  public List<SignatureVcParams> getOriginDataForSign(String signKeyId, DidDocument issuerDidDoc, 
+      VerifiableCredential verifiableCredential, SigningInputMode mode) throws CoreException {
 
     String publicKeyType = getPublicKeyTypeByDidDoc(signKeyId, issuerDidDoc);
     String proofType = getProofTypeByKeyType(publicKeyType);
@@ -171,16 +229,44 @@ public class VcManager {
     tmpVerifiableCredential.setProof(getProofWithOutSign(proofType, tmpVerifiableCredential.getIssuanceDate(),
             signKeyId, ProofPurpose.ASSERTION_METHOD, issuerDidDoc));
 
-    SignatureVcParams sigVcParams = new SignatureVcParams();
-    sigVcParams.setIsSingleClaim(false);
-    sigVcParams.setKeyId(signKeyId);
-    sigVcParams.setOriginData(tmpVerifiableCredential.toJson());
-    sigVcParams.setAlgorithm(proofType);
-    sigVcParams.setKeyPurpose(ProofPurpose.ASSERTION_METHOD.getRawValue());
-    
-    sigVcParamsList.add(sigVcParams);
+    sigVcParamsList.add(getTotalSigParams(tmpVerifiableCredential, signKeyId, proofType, mode));
+
+    return getClaimsSigParams(sigVcParamsList, tmpVerifiableCredential, signKeyId, proofType, mode);
+  }
+
+  /**
+   * Issue VerifiableCredentials in bulk and get their Signature Origin Data
+   * 
+   * <p>The issuance parameters, the schema and the signing key are read once for all subjects.
+   * The credentials are created lazily while the returned stream is consumed, so only the credentials
+   * being processed are held in memory. A failing subject does not stop the stream; its error is reported in its result,
+   * as ERR_CODE_VCMANAGER_ISSUE_BATCH_ITEM_FAIL if it is not a CoreException.</p>
+   * 
+   * <p>Each result holds the credential as returned by {@link #issueCredential(IssueVcParam, String)} and the signing inputs
+   * as returned by {@link #getOriginDataForSign(String, DidDocument, VerifiableCredential)}. Sign the inputs and pass them
+   * to {@link #addProof(VerifiableCredential, List)}.</p>
+   * 
+   * @param vcParam The parameters shared by all credentials, including types, providerDetails, schema etc... Its privacy is ignored.
+   * @param signKeyId The ID of the signing key.
+   * @param issuerDidDoc The DID document of the issuer.
+   * @param issueRequests The subjects and their personal information.
+   * @return One result per request, in request order if the requests are ordered.
+   * @throws CoreException If the parameters, the schema or the signing key are invalid.
+   */
+  public Stream<VcBatchIssueResult> issueCredentials(IssueVcParam vcParam, String signKeyId, DidDocument issuerDidDoc,
+      Stream<VcIssueRequest> issueRequests) throws CoreException {
+
+    String publicKeyType = getPublicKeyTypeByDidDoc(signKeyId, issuerDidDoc);
+    String proofType = getProofTypeByKeyType(publicKeyType);
+
+    if(proofType == null || proofType.isEmpty()) {
+      throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_ASSERTION_METHOD_TYPE);
+    }
+
+    VcIssuanceTemplate issuanceTemplate = new VcIssuanceTemplate(vcParam, signKeyId, proofType,
+        issuerDidDoc.getId(), issuerDidDoc.getVersionId());
 
-    return getClaimsSigParams(sigVcParamsList, tmpVerifiableCredential, signKeyId, proofType);
+    return issueRequests.map(issueRequest -> issueBatchItem(issuanceTemplate, signKeyId, issueRequest));
   }
 
   /**
@@ -192,9 +278,7 @@ public class VcManager {
    * @throws CoreException 
    */
   public VerifiableCredential addProof(VerifiableCredential vc, List<SignatureVcParams> sigVcParamsList) throws CoreException {
-    VerifiableCredential tempVc = new VerifiableCredential();
-    tempVc.fromJson(sigVcParamsList.get(0).getOriginData());
-    VcProof proof = tempVc.getProof();
+    VcProof proof = getUnsignedProof(sigVcParamsList.get(0));
     
     for(SignatureVcParams sigVcParams : sigVcParamsList)
         proof = updateProofWithSignatureParams(proof, sigVcParams);
@@ -204,56 +288,359 @@ public class VcManager {
     return vc;
   }
 
+  /**
+   * Add Proof Data signed by an External Signer
+   * 
+   * <p>The whole VC and every claim are signed with a single signer request.</p>
+   * 
+   * @param vc The verifiable credential to add the proof for.
+   * @param sigVcParamsList The list of signature parameters without signature values, as returned by getOriginDataForSign.
+   * @param signer The external signer holding the signing key.
+   * @return The verifiable credential with the proof add.
+   * @throws CoreException 
+   */
+  public VerifiableCredential addProof(VerifiableCredential vc, List<SignatureVcParams> sigVcParamsList, ExternalSigner signer) throws CoreException {
+    ExternalSigning.signAll(signer, sigVcParamsList);
+    return addProof(vc, sigVcParamsList);
+  }
+
+  /**
+   * Sign VerifiableCredential with an External Signer
+   * 
+   * <p>Gets the Signature Origin Data, signs it with a single signer request and adds the proof.
+   * Credentials signed concurrently through a {@link org.omnione.did.core.util.BatchingSigner BatchingSigner}
+   * share signer requests.</p>
+   * 
+   * @param vc The verifiable credential to sign.
+   * @param signKeyId The ID of the signing key.
+   * @param issuerDidDoc The DID document of the issuer.
+   * @param signer The external signer holding the signing key.
+   * @return The verifiable credential with the proof add.
+   * @throws CoreException 
+   */
+  public VerifiableCredential signCredential(VerifiableCredential vc, String signKeyId, DidDocument issuerDidDoc, ExternalSigner signer) throws CoreException {
+    return addProof(vc, getOriginDataForSign(signKeyId, issuerDidDoc, vc, SigningInputMode.DIGEST), signer);
+  }
+
+  /**
+   * Verifies the provided Verifiable Credential, resolving the issuer key from the DID document registry.
+   * The key is taken from the DID Document version named by the verificationMethod of the proof.
+   * 
+   * @param verifiableCredential The Verifiable Credential to be verified.
+   * @param isCheckVcExpirationDate A boolean flag indicating whether the credential's expiration date should be checked.
+   * @throws CoreException
+   * @see #VcManager(DidDocumentRegistry)
+   */
+  public void verifyCredential(VerifiableCredential verifiableCredential, boolean isCheckVcExpirationDate) throws CoreException {
+      verifyCredential(verifiableCredential, null, isCheckVcExpirationDate);
+  }
+
   /**
    * Verifies the provided Verifiable Credential against the issuer's DID Document.
    * 
    * @param verifiableCredential The Verifiable Credential to be verified.
-   * @param issuerDidDocument The DID Document of the issuer used for verification.
+   * @param issuerDidDocument The DID Document of the issuer used for verification, or null to resolve the key from the DID document registry.
    * @param isCheckVcExpirationDate A boolean flag indicating whether the credential's expiration date should be checked.
    * @throws CoreException
    */
   public void verifyCredential(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument, boolean isCheckVcExpirationDate) throws CoreException {
-      
+      long startNanos = CoreMetricsRegistry.startTimer();
+      try {
+          List<Claim> claimList = checkCredential(verifiableCredential, isCheckVcExpirationDate);
+          if (claimList == null) {
+              return;
+          }
+
+          ResolvedPublicKey issuerPublicKey = resolveIssuerPublicKey(verifiableCredential, issuerDidDocument);
+          VerificationResultCache.verifyCached(verifiableCredential, issuerPublicKey, () -> {
+              verifyTotalSignature(verifiableCredential, issuerPublicKey);
+
+              String vcJson = verifiableCredential.toJson();
+              for (int i = 0; i < claimList.size(); i++) {
+                  // ProofsValue Verify
+                  verifyClaimSignature(vcJson, claimList.get(i), verifiableCredential.getProof().getProofValueList().get(i), issuerPublicKey);
+              }
+          });
+      } catch (CoreException e) {
+          CoreMetricsRegistry.recordFailure(Phase.VC_VERIFICATION, e);
+          throw e;
+      } finally {
+          CoreMetricsRegistry.stopTimer(Phase.VC_VERIFICATION, startNanos);
+      }
+  }
+
+  /**
+   * Verifies the provided Verifiable Credential against the issuer's DID Document,
+   * verifying the individual claim signatures concurrently on the given executor.
+   * 
+   * <p>The total proofValue is verified first. The per-claim signatures are then checked in parallel,
+   * and verification fails as soon as the first invalid claim signature is detected.
+   * The thrown exception has the error code of the first failed check, as the sequential verification would report it,
+   * with the claim codes that failed appended to its reason.
+   * If the executor rejects a check, the verification fails with ERR_CODE_VCMANAGER_VERIFICATION_REJECTED.</p>
+   * 
+   * @param verifiableCredential The Verifiable Credential to be verified.
+   * @param issuerDidDocument The DID Document of the issuer used for verification, or null to resolve the key from the DID document registry.
+   * @param isCheckVcExpirationDate A boolean flag indicating whether the credential's expiration date should be checked.
+   * @param executor The executor that runs the per-claim signature checks (e.g. a ForkJoinPool or a virtual thread executor).
+   * @throws CoreException
+   */
+  public void verifyCredential(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument, boolean isCheckVcExpirationDate,
+          Executor executor) throws CoreException {
+      long startNanos = CoreMetricsRegistry.startTimer();
+      try {
+          List<Claim> claimList = checkCredential(verifiableCredential, isCheckVcExpirationDate);
+          if (claimList == null) {
+              return;
+          }
+
+          ResolvedPublicKey issuerPublicKey = resolveIssuerPublicKey(verifiableCredential, issuerDidDocument);
+          VerificationResultCache.verifyCached(verifiableCredential, issuerPublicKey, () -> {
+              verifyTotalSignature(verifiableCredential, issuerPublicKey);
+
+              String vcJson = verifiableCredential.toJson();
+              List<String> proofValueList = verifiableCredential.getProof().getProofValueList();
+
+              AtomicBoolean isFailed = new AtomicBoolean(false);
+              AtomicReference<Exception> firstException = new AtomicReference<Exception>();
+              Queue<String> failedClaimCodes = new ConcurrentLinkedQueue<String>();
+              CompletableFuture<Void> firstFailure = new CompletableFuture<Void>();
+              CompletableFuture<?>[] claimFutures = new CompletableFuture<?>[claimList.size()];
+
+              for (int i = 0; i < claimList.size(); i++) {
+                  Claim claim = claimList.get(i);
+                  String proofValue = proofValueList != null && i < proofValueList.size() ? proofValueList.get(i) : null;
+
+                  try {
+                      claimFutures[i] = CompletableFuture.runAsync(() -> {
+                          if (isFailed.get()) {
+                              return;
+                          }
+                          try {
+                              verifyClaimSignature(vcJson, claim, proofValue, issuerPublicKey);
+                          } catch (CoreException | RuntimeException e) {
+                              failedClaimCodes.add(claim.getCode());
+                              firstException.compareAndSet(null, e);
+                              isFailed.set(true);
+                              firstFailure.complete(null);
+                          }
+                      }, executor);
+                  } catch (RejectedExecutionException e) {
+                      // the submitted checks see the failure and skip their work
+                      isFailed.set(true);
+                      throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_VERIFICATION_REJECTED, verifiableCredential.getId());
+                  }
+              }
+
+              CompletableFuture.anyOf(CompletableFuture.allOf(claimFutures), firstFailure).join();
+
+              if (isFailed.get()) {
+                  throw toClaimSignatureException(firstException.get(), failedClaimCodes);
+              }
+          });
+      } catch (CoreException e) {
+          CoreMetricsRegistry.recordFailure(Phase.VC_VERIFICATION, e);
+          throw e;
+      } finally {
+          CoreMetricsRegistry.stopTimer(Phase.VC_VERIFICATION, startNanos);
+      }
+  }
+
+  /**
+   * Converts the first failure of the parallel claim checks into the exception of the verification.
+   * A CoreException keeps its error code, so both verification modes report the same error,
+   * and the codes of all failed claims are appended to its reason.
+   * 
+   * @param firstException The first exception thrown by a claim check.
+   * @param failedClaimCodes The codes of the claims whose check failed.
+   * @return The CoreException to throw.
+   * @throws RuntimeException The first exception, if it is not a CoreException.
+   */
+  private static CoreException toClaimSignatureException(Exception firstException, Queue<String> failedClaimCodes) {
+      if (firstException instanceof RuntimeException) {
+          throw (RuntimeException) firstException;
+      }
+      CoreException coreException = (CoreException) firstException;
+      if (coreException.getErrorCode() == null) {
+          return coreException;
+      }
+
+      String failedClaims = "failed claims: " + String.join(",", failedClaimCodes);
+      String errorReason = coreException.getErrorReason() != null ? coreException.getErrorReason() + ", " + failedClaims : failedClaims;
+      CoreException claimException = new CoreException(coreException.getErrorCode(), coreException.getErrorMsg(), errorReason);
+      claimException.initCause(coreException);
+      return claimException;
+  }
+
+  /**
+   * Verifies the provided Verifiable Credential asynchronously on the default bounded verification executor.
+   * 
+   * @param verifiableCredential The Verifiable Credential to be verified. It must not be modified until the future completes.
+   * @param issuerDidDocument The DID Document of the issuer used for verification, or null to resolve the key from the DID document registry.
+   * @param isCheckVcExpirationDate A boolean flag indicating whether the credential's expiration date should be checked.
+   * @return The future completed when the credential is verified, or failed with the CoreException of the verification.
+   * @see #verifyCredentialAsync(VerifiableCredential, DidDocument, boolean, Executor)
+   */
+  public CompletableFuture<Void> verifyCredentialAsync(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument,
+          boolean isCheckVcExpirationDate) {
+      return verifyCredentialAsync(verifiableCredential, issuerDidDocument, isCheckVcExpirationDate, VerificationExecutor.getDefault());
+  }
+
+  /**
+   * Verifies the provided Verifiable Credential asynchronously on the given executor.
+   * The calling thread does not block. If the executor rejects the verification, e.g. because its queue is full,
+   * the returned future fails with ERR_CODE_VCMANAGER_VERIFICATION_REJECTED.
+   * 
+   * @param verifiableCredential The Verifiable Credential to be verified. It must not be modified until the future completes.
+   * @param issuerDidDocument The DID Document of the issuer used for verification, or null to resolve the key from the DID document registry.
+   * @param isCheckVcExpirationDate A boolean flag indicating whether the credential's expiration date should be checked.
+   * @param executor The executor that runs the verification.
+   * @return The future completed when the credential is verified, or failed with the CoreException of the verification.
+   */
+  public CompletableFuture<Void> verifyCredentialAsync(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument,
+          boolean isCheckVcExpirationDate, Executor executor) {
+      return VerificationExecutor.supplyAsync(() -> {
+          verifyCredential(verifiableCredential, issuerDidDocument, isCheckVcExpirationDate);
+          return null;
+      }, executor, CoreErrorCode.ERR_CODE_VCMANAGER_VERIFICATION_REJECTED);
+  }
+
+  /**
+   * Checks the expiration date and the claims of the Verifiable Credential.
+   * 
+   * @param verifiableCredential The Verifiable Credential to be verified.
+   * @param isCheckVcExpirationDate A boolean flag indicating whether the credential's expiration date should be checked.
+   * @return The list of claims whose signatures must be verified, or null if the credential has no subject.
+   * @throws CoreException
+   */
+  private List<Claim> checkCredential(VerifiableCredential verifiableCredential, boolean isCheckVcExpirationDate) throws CoreException {
+
       if(isCheckVcExpirationDate) {
           boolean isExpired = VerifyUtil.isExpired(verifiableCredential.getValidUntil());
           if(isExpired) {
               throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_EXPIRED_VC, verifiableCredential.getId());
           }
       }
-      
-      if (verifiableCredential.getCredentialSubject() != null) {
-          List<Claim> claimList = verifiableCredential.getCredentialSubject().getClaims();
 
-          if (claimList == null || claimList.size() == 0) {
-              throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_PRIVACY_NOT_EXIST, verifiableCredential.getId());
+      if (verifiableCredential.getCredentialSubject() == null) {
+          return null;
+      }
+
+      List<Claim> claimList = verifiableCredential.getCredentialSubject().getClaims();
+
+      if (claimList == null || claimList.size() == 0) {
+          throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_PRIVACY_NOT_EXIST, verifiableCredential.getId());
+      }
+
+      return claimList;
+  }
+
+  /**
+   * Verifies the total proofValue of the Verifiable Credential.
+   * 
+   * @param verifiableCredential The Verifiable Credential to be verified.
+   * @param issuerPublicKey The public key of the issuer.
+   * @throws CoreException
+   */
+  private void verifyTotalSignature(VerifiableCredential verifiableCredential, ResolvedPublicKey issuerPublicKey) throws CoreException {
+
+      VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
+      tmpVerifiableCredential.fromJson(verifiableCredential.toJson());
+
+      // ProofValue Verify
+      VerifyUtil.verifyVcSignature(tmpVerifiableCredential, issuerPublicKey, verifiableCredential.getProof().getProofValue());
+  }
+
+  /**
+   * Resolves the public key of the issuer that signed the Verifiable Credential.
+   * Without a DID Document, the key is resolved from the DID document registry by the verificationMethod of the proof,
+   * which must belong to the issuer of the credential.
+   * 
+   * @param verifiableCredential The Verifiable Credential whose proof references the key.
+   * @param issuerDidDocument The DID Document of the issuer, or null to use the DID document registry.
+   * @return The resolved public key.
+   * @throws CoreException
+   */
+  private ResolvedPublicKey resolveIssuerPublicKey(VerifiableCredential verifiableCredential, DidDocument issuerDidDocument) throws CoreException {
+      String verificationMethod = verifiableCredential.getProof().getVerificationMethod();
+      ResolvedPublicKey issuerPublicKey;
+      if (issuerDidDocument == null && didDocumentRegistry != null) {
+          String issuerDid = verifiableCredential.getIssuer() != null ? verifiableCredential.getIssuer().getId() : null;
+          if (!DidUrl.parse(verificationMethod).getDid().equals(issuerDid)) {
+              throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_MATCHED_ISSUER_KEY, verificationMethod);
           }
+          issuerPublicKey = didDocumentRegistry.resolvePublicKey(verificationMethod);
+      } else {
+          issuerPublicKey = VerifyUtil.resolvePublicKey(issuerDidDocument, verificationMethod);
+      }
+      if (issuerPublicKey == null) {
+          throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_EXIST_SIGNING_KEY);
+      }
+      return issuerPublicKey;
+  }
+
+  /**
+   * Verifies the signature of a single claim of the Verifiable Credential.
+   * Each call works on its own copy of the credential, so it can be run concurrently.
+   * 
+   * @param vcJson The JSON of the Verifiable Credential to be verified.
+   * @param claim The claim whose signature is verified.
+   * @param proofValue The signature value of the claim from the ProofValueList.
+   * @param issuerPublicKey The resolved public key of the issuer.
+   * @throws CoreException
+   */
+  private void verifyClaimSignature(String vcJson, Claim claim, String proofValue, ResolvedPublicKey issuerPublicKey) throws CoreException {
+      if (proofValue == null) {
+          throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_VERIFY_CLAIM_SIGNATURE_FAIL, claim.getCode());
+      }
+
+      VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
+      tmpVerifiableCredential.fromJson(vcJson);
 
-          VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
-          tmpVerifiableCredential.fromJson(verifiableCredential.toJson());
-
-          SignatureVcParams sigVcParams = new SignatureVcParams();
-          sigVcParams = VerifyUtil.getSignatureVcParams(tmpVerifiableCredential, issuerDidDocument, false
-                  , verifiableCredential.getProof().getProofValue());
-          
-          // ProofValue Verify
-          VerifyUtil.verifySignature(sigVcParams);
-          
-          for (int i = 0; i < claimList.size(); i++) {
-              tmpVerifiableCredential.fromJson(verifiableCredential.toJson());
-              
-              List<Claim> tmpClaimList = new ArrayList<Claim>();
-              tmpClaimList.add(claimList.get(i));
-              
-              tmpVerifiableCredential.getCredentialSubject().setClaims(tmpClaimList);
-              
-              SignatureVcParams sigVcParamsByClaims = new SignatureVcParams();
-              sigVcParamsByClaims = VerifyUtil.getSignatureVcParams(tmpVerifiableCredential, issuerDidDocument, true
-                      , verifiableCredential.getProof().getProofValueList().get(i));
-              sigVcParamsByClaims.setClaimCode(claimList.get(i).getCode());
-              
-              // ProofsValue Verify
-              VerifyUtil.verifySignature(sigVcParamsByClaims);
+      List<Claim> tmpClaimList = new ArrayList<Claim>();
+      tmpClaimList.add(claim);
+      tmpVerifiableCredential.getCredentialSubject().setClaims(tmpClaimList);
+
+      VerifyUtil.verifyVcSignature(tmpVerifiableCredential, issuerPublicKey, proofValue);
+  }
+
+  /**
+   * Issues one credential of a bulk issuance without throwing.
+   *
+   * @param issuanceTemplate The parts shared by all credentials.
+   * @param signKeyId The ID of the signing key.
+   * @param issueRequest The subject and its personal information.
+   * @return The result of the item.
+   */
+  private VcBatchIssueResult issueBatchItem(VcIssuanceTemplate issuanceTemplate, String signKeyId, VcIssueRequest issueRequest) {
+      try {
+          Map<String, ClaimInfo> privacy = issueRequest.getPrivacy();
+          if (privacy == null) {
+              throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_PRIVACY_NOT_EXIST);
           }
+          issuanceTemplate.checkClaims(privacy);
+
+          VerifiableCredential verifiableCredential = issuanceTemplate.newCredential();
+          verifiableCredential.setCredentialSubject(createSubject(issuanceTemplate.getClaimSlots(), privacy,
+              verifiableCredential.getId(), issueRequest.getSubjectDid()));
+          if (verifiableCredential.getCredentialSubject().getClaims() == null) {
+              throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_PRIVACY_NOT_EXIST);
+          }
+
+          // The signing inputs are rendered with the unsigned proof, which is not part of the issued credential.
+          String proofType = issuanceTemplate.getProofType();
+          verifiableCredential.setProof(issuanceTemplate.newProof(verifiableCredential));
+          List<SignatureVcParams> sigVcParamsList = new ArrayList<>();
+          sigVcParamsList.add(getTotalSigParams(verifiableCredential, signKeyId, proofType, SigningInputMode.ORIGIN_DATA));
+          getClaimsSigParams(sigVcParamsList, verifiableCredential, signKeyId, proofType, SigningInputMode.ORIGIN_DATA);
+          verifiableCredential.setProof(null);
+
+          return VcBatchIssueResult.success(issueRequest.getSubjectDid(), verifiableCredential, sigVcParamsList);
+      } catch (CoreException e) {
+          return VcBatchIssueResult.failure(issueRequest.getSubjectDid(), e);
+      } catch (RuntimeException e) {
+          return VcBatchIssueResult.failure(issueRequest.getSubjectDid(),
+              new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_ISSUE_BATCH_ITEM_FAIL, e.toString()));
       }
   }
 
@@ -321,6 +708,38 @@ public class VcManager {
     return credentialSubject;
   }
 
+  /**
+   * Create Subject from the claim definitions of a bulk issuance
+   *
+   * @param claimSlots The claim definitions of the schema in schema order with their claim codes.
+   * @param privacy The personal information about claims.
+   * @param vcId The ID of the verifiable credential.
+   * @param subjectDid The DID of the subject.
+   * @return The created credential subject to be set in the verifiable credential.
+   * @throws CoreException 
+   */
+  private CredentialSubject createSubject(List<VcIssuanceTemplate.ClaimSlot> claimSlots, Map<String, ClaimInfo> privacy,
+      String vcId, String subjectDid) throws CoreException {
+    CredentialSubject credentialSubject = new CredentialSubject();  
+    credentialSubject.setId(subjectDid);
+
+    List<Claim> vcInnerClaimList = new ArrayList<Claim>();
+    for (VcIssuanceTemplate.ClaimSlot claimSlot : claimSlots) {
+      ClaimInfo claimInfo = privacy.get(claimSlot.claimCode());
+      if (claimInfo != null) {
+        Claim claim = createClaims(claimSlot.claimDef(), claimInfo, vcId);
+        if (claim != null) {
+          vcInnerClaimList.add(claim);
+        }
+      }
+    }
+
+    if (!vcInnerClaimList.isEmpty()) {
+      credentialSubject.setClaims(vcInnerClaimList);
+    }
+    return credentialSubject;
+  }
+
   /**
    * Create Claims
    *
@@ -470,6 +889,34 @@ public class VcManager {
     }
   }
 
+  /**
+   * Get Total Signature Params
+   *
+   * @param tmpVerifiableCredential The verifiable credential including the proof without signature.
+   * @param signKeyId The ID of the signing key.
+   * @param proofType The type of proof.
+   * @param mode The content of the signature parameters.
+   * @return The signature parameters of the whole verifiable credential.
+   * @throws CoreException
+   */
+  private SignatureVcParams getTotalSigParams(VerifiableCredential tmpVerifiableCredential, String signKeyId, String proofType,
+      SigningInputMode mode) throws CoreException {
+    SignatureVcParams sigVcParams = new SignatureVcParams();
+    sigVcParams.setIsSingleClaim(false);
+    sigVcParams.setKeyId(signKeyId);
+    if (mode.isOriginDataIncluded()) {
+      sigVcParams.setOriginData(tmpVerifiableCredential.toJson());
+    }
+    sigVcParams.setAlgorithm(proofType);
+    sigVcParams.setKeyPurpose(ProofPurpose.ASSERTION_METHOD.getRawValue());
+    if (mode.isDigestIncluded()) {
+      byte[] digest = sigVcParams.getOriginData() != null ? VerifyUtil.digest(sigVcParams.getOriginData())
+          : CanonicalJson.digest(tmpVerifiableCredential);
+      setSigningDigest(sigVcParams, tmpVerifiableCredential.getProof(), digest);
+    }
+    return sigVcParams;
+  }
+
   /**
    * Get Claims Signature Params
    *
@@ -477,30 +924,104 @@ public class VcManager {
    * @param tmpVerifiableCredential The temporary verifiable credential.
    * @param signKeyId The ID of the signing key.
    * @param proofType The type of proof.
+   * @param mode The content of the signature parameters.
    * @return The updated list of signature parameters including claims signature parameters.
+   * @throws CoreException
    */
-  private List<SignatureVcParams> getClaimsSigParams(List<SignatureVcParams> sigVcParamsList, VerifiableCredential tmpVerifiableCredential, String signKeyId, String proofType) {
+  private List<SignatureVcParams> getClaimsSigParams(List<SignatureVcParams> sigVcParamsList, VerifiableCredential tmpVerifiableCredential, String signKeyId, String proofType,
+      SigningInputMode mode) throws CoreException {
 
     List<Claim> claimList = tmpVerifiableCredential.getCredentialSubject().getClaims();
+    
+    // The invariant parts of the VC are rendered once, and each claim is spliced into the template.
+    OriginDataTemplate originDataTemplate = OriginDataTemplate.forSingleClaim(tmpVerifiableCredential);
 
     for (Claim claim : claimList) {
-      List<Claim> tmpClaimList = new ArrayList<Claim>();
-      tmpClaimList.add(claim);
-      tmpVerifiableCredential.getCredentialSubject().setClaims(tmpClaimList);
-
       SignatureVcParams sigVcParam = new SignatureVcParams();
       sigVcParam.setKeyId(signKeyId);
-      sigVcParam.setOriginData(tmpVerifiableCredential.toJson());
+      if (mode.isOriginDataIncluded()) {
+        sigVcParam.setOriginData(originDataTemplate != null ? originDataTemplate.render(claim) 
+            : getSingleClaimOriginData(tmpVerifiableCredential, claim));
+      }
       sigVcParam.setAlgorithm(proofType);
       sigVcParam.setKeyPurpose(ProofPurpose.ASSERTION_METHOD.getRawValue());
       sigVcParam.setIsSingleClaim(true);
       sigVcParam.setClaimCode(claim.getCode());
+      if (mode.isDigestIncluded()) {
+        byte[] digest;
+        if (sigVcParam.getOriginData() != null) {
+          digest = VerifyUtil.digest(sigVcParam.getOriginData());
+        } else if (originDataTemplate != null) {
+          digest = originDataTemplate.digest(claim);
+        } else {
+          digest = VerifyUtil.digest(getSingleClaimOriginData(tmpVerifiableCredential, claim));
+        }
+        setSigningDigest(sigVcParam, tmpVerifiableCredential.getProof(), digest);
+      }
 
       sigVcParamsList.add(sigVcParam);
     }
     return sigVcParamsList;
   }
 
+  /**
+   * Set Signing Digest
+   *
+   * <p>Sets the digest to sign and the fields of the unsigned proof, so the proof can be added without origin data.</p>
+   *
+   * @param sigVcParams The signature parameters.
+   * @param proof The proof without signature.
+   * @param digest The SHA-256 of the origin data.
+   * @throws CoreException
+   */
+  private void setSigningDigest(SignatureVcParams sigVcParams, VcProof proof, byte[] digest) throws CoreException {
+    sigVcParams.setHashedData(VerifyUtil.encodeDigest(digest));
+    sigVcParams.setCreated(proof.getCreated());
+    sigVcParams.setVerificationMethod(proof.getVerificationMethod());
+  }
+
+  /**
+   * Get Unsigned Proof
+   *
+   * <p>Parses the proof from the origin data, or rebuilds it from created, verificationMethod, keyPurpose and algorithm
+   * if the origin data is omitted.</p>
+   *
+   * @param sigVcParams The signature parameters of the whole verifiable credential.
+   * @return The proof without signature.
+   */
+  private VcProof getUnsignedProof(SignatureVcParams sigVcParams) {
+    if (sigVcParams.getOriginData() != null) {
+      VerifiableCredential tempVc = new VerifiableCredential();
+      tempVc.fromJson(sigVcParams.getOriginData());
+      return tempVc.getProof();
+    }
+    VcProof proof = new VcProof();
+    proof.setType(sigVcParams.getAlgorithm());
+    proof.setCreated(sigVcParams.getCreated());
+    proof.setVerificationMethod(sigVcParams.getVerificationMethod());
+    proof.setProofPurpose(sigVcParams.getKeyPurpose());
+    return proof;
+  }
+
+  /**
+   * Get Single Claim Origin Data by serializing the whole verifiable credential.
+   * Used when the origin data template cannot be built.
+   *
+   * @param tmpVerifiableCredential The temporary verifiable credential.
+   * @param claim The claim to be signed.
+   * @return The origin data of the verifiable credential containing only the given claim.
+   */
+  private String getSingleClaimOriginData(VerifiableCredential tmpVerifiableCredential, Claim claim) {
+    VerifiableCredential claimVerifiableCredential = new VerifiableCredential();
+    claimVerifiableCredential.fromJson(tmpVerifiableCredential.toJson());
+
+    List<Claim> tmpClaimList = new ArrayList<Claim>();
+    tmpClaimList.add(claim);
+    claimVerifiableCredential.getCredentialSubject().setClaims(tmpClaimList);
+
+    return claimVerifiableCredential.toJson();
+  }
+
   /**
    * Get Public Key Type
    *
@@ -16,22 +16,35 @@
 
 package org.omnione.did.core.manager;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
-import org.omnione.did.core.data.rest.SignatureParams;
-import org.omnione.did.core.data.rest.SignatureVcParams;
+import org.omnione.did.core.data.rest.VerifiedClaims;
+import org.omnione.did.core.data.rest.VpBatchVerifyResult;
+import org.omnione.did.core.data.rest.VpStreamVerifyResult;
 import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.data.rest.VpVerifyRequest;
+import org.omnione.did.core.data.rest.VpVerifyResult;
 import org.omnione.did.core.exception.CoreErrorCode;
 import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.PublicKeyCache;
+import org.omnione.did.core.util.VerificationExecutor;
 import org.omnione.did.core.util.VerifyUtil;
 import org.omnione.did.crypto.exception.CryptoException;
 import org.omnione.did.data.model.did.DidDocument;
-import org.omnione.did.data.model.did.VerificationMethod;
-import org.omnione.did.data.model.profile.Filter;
 import org.omnione.did.data.model.vc.Claim;
-import org.omnione.did.data.model.vc.CredentialSchema;
-import org.omnione.did.data.model.vc.CredentialSubject;
 import org.omnione.did.data.model.vc.VerifiableCredential;
 import org.omnione.did.data.model.vp.VpProof;
 import org.omnione.did.data.model.vp.VerifiablePresentation;
@@ -39,11 +52,52 @@ import org.omnione.did.data.model.vp.VerifiablePresentation;
 
 public class VpManager {
 
+	private final DidDocumentRegistry didDocumentRegistry;
+	private final VpVerificationPipeline verificationPipeline;
+
+	/**
+	 * The presentation passed to the last {@link #verifyPresentation(VerifiablePresentation, VpVerifyParam)} call.
+	 * Kept for {@link #getClaimList()}; use {@link #verify(VerifiablePresentation, VpVerifyParam)} to share one instance between threads.
+	 */
 	public VerifiablePresentation verifiablePresentation;
-	private static boolean isProofs = false;
+
+	/**
+	 * Claims of the last presentation that passed {@link #verifyPresentation(VerifiablePresentation, VpVerifyParam)}.
+	 */
+	private VerifiedClaims verifiedClaims;
+	private VerifiablePresentation verifiedPresentation;
+
+	/**
+	 * Creates a VpManager that verifies presentations against the DID Documents of the verification parameters.
+	 */
+	public VpManager() {
+		this(null);
+	}
+
+	/**
+	 * Creates a VpManager that resolves the holder and issuer keys from a DID document registry
+	 * when the verification parameters carry no DID Document.
+	 *
+	 * @param didDocumentRegistry The registry of the holder and issuer DID Documents, or null.
+	 */
+	public VpManager(DidDocumentRegistry didDocumentRegistry) {
+		this(didDocumentRegistry, VpVerificationPipeline.defaultPipeline());
+	}
+
+	/**
+	 * Creates a VpManager that verifies presentations with the stages of the given pipeline.
+	 *
+	 * @param didDocumentRegistry The registry of the holder and issuer DID Documents, or null.
+	 * @param verificationPipeline The verification stages, e.g. the default pipeline with additional stages.
+	 */
+	public VpManager(DidDocumentRegistry didDocumentRegistry, VpVerificationPipeline verificationPipeline) {
+		this.didDocumentRegistry = didDocumentRegistry;
+		this.verificationPipeline = verificationPipeline;
+	}
 	
 	/**
 	 * Verifies the provided VerifiablePresentation.
+	 * The presentation is kept on this instance for {@link #getClaimList()}, so the instance must not be shared between threads.
 	 *
 	 * @param verifiablePresentation The VerifiablePresentation to verify.
 	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
@@ -52,258 +106,299 @@ public class VpManager {
 	public void verifyPresentation(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam) throws CoreException {
 
 		this.verifiablePresentation = verifiablePresentation;
+		this.verifiedClaims = null;
+		this.verifiedPresentation = null;
 		
-		boolean isExpired = VerifyUtil.isExpired(verifiablePresentation.getValidUntil());
-		if(isExpired) {
-			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VP);
-		}
+		verifyPresentationInternal(verifiablePresentation, verifyParam);
 
-		checkFilter(verifyParam.getFilter(), verifiablePresentation.getVerifiableCredential());
-		
-        verifyHolderSignature(verifiablePresentation, verifyParam.getHolderDidDocument());
-        verifyIssuerSignature(verifiablePresentation.getVerifiableCredential(), verifyParam.getIssuerDidDocument(),
-                verifyParam.isCheckVcExpirationDate());
+		this.verifiedClaims = VerifiedClaims.of(verifiablePresentation);
+		this.verifiedPresentation = verifiablePresentation;
 	}
 
-    /**
-	 * Gets the list of claims from the VerifiablePresentation.
+	/**
+	 * Verifies the provided VerifiablePresentation without keeping any state.
+	 * This method is thread-safe, so a single VpManager can be shared between concurrent verifications.
 	 *
-	 * @return The list of claims.
+	 * @param verifiablePresentation The VerifiablePresentation to verify. It is not modified.
+	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
+	 * @return The verification result including the list of claims.
+	 * @throws CoreException
 	 */
-	public List<Claim> getClaimList() {
+	public VpVerifyResult verify(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam) throws CoreException {
 
-		List<Claim> claimListResult = new ArrayList<Claim>();
-		
-		for (VerifiableCredential verifiableCredential : verifiablePresentation.getVerifiableCredential()) {
-			CredentialSubject tmpCredentialSubject = new CredentialSubject();
-			tmpCredentialSubject.fromJson(verifiableCredential.getCredentialSubject().toJson());
-			claimListResult.addAll(tmpCredentialSubject.getClaims());
+		verifyPresentationInternal(verifiablePresentation, verifyParam);
+
+		return new VpVerifyResult(verifiablePresentation.getId(), verifiablePresentation.getHolder(),
+				VerifiedClaims.of(verifiablePresentation));
+	}
+
+	/**
+	 * Verifies the provided VerifiablePresentation asynchronously on the default bounded verification executor.
+	 *
+	 * @param verifiablePresentation The VerifiablePresentation to verify. It must not be modified until the future completes.
+	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
+	 * @return The future of the verification result, or failed with the CoreException of the verification.
+	 * @see #verifyAsync(VerifiablePresentation, VpVerifyParam, Executor)
+	 */
+	public CompletableFuture<VpVerifyResult> verifyAsync(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam) {
+
+		return verifyAsync(verifiablePresentation, verifyParam, VerificationExecutor.getDefault());
+	}
+
+	/**
+	 * Verifies the provided VerifiablePresentation asynchronously on the given executor, like {@link #verify(VerifiablePresentation, VpVerifyParam)}.
+	 * The calling thread does not block. If the executor rejects the verification, e.g. because its queue is full,
+	 * the returned future fails with ERR_CODE_VPMANAGER_VERIFICATION_REJECTED.
+	 *
+	 * @param verifiablePresentation The VerifiablePresentation to verify. It must not be modified until the future completes.
+	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
+	 * @param executor The executor that runs the verification.
+	 * @return The future of the verification result, or failed with the CoreException of the verification.
+	 */
+	public CompletableFuture<VpVerifyResult> verifyAsync(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam, Executor executor) {
+
+		return VerificationExecutor.supplyAsync(() -> verify(verifiablePresentation, verifyParam),
+				executor, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED);
+	}
+
+	/**
+	 * Verifies a VerifiablePresentation while reading its JSON, passing the claims of its credentials to a consumer.
+	 * The credentials are read, verified and handed over one at a time, so a presentation with many or large
+	 * credentials is never held in memory as a whole, and no copy of the claims is made.
+	 * This method is thread-safe, like {@link #verify(VerifiablePresentation, VpVerifyParam)}.
+	 *
+	 * <p>The checks are those of the default pipeline, run per credential in reading order; the stages of a custom pipeline
+	 * are not run. The holder signatures are verified after the last credential, so the claims received are verified
+	 * only if this method returns normally. The presentation is read in one pass if its holder proofs precede its
+	 * credentials, as in the JSON of {@code toJson()}; otherwise the canonical JSON of the credentials is buffered.</p>
+	 *
+	 * @param presentationJson The JSON of the VerifiablePresentation. It is not closed.
+	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
+	 * @param claimConsumer The receiver of the claims of the verified credentials.
+	 * @return The verification result, without the claims.
+	 * @throws CoreException If the presentation is rejected, or ERR_CODE_VPMANAGER_INVALID_PRESENTATION if it cannot be read.
+	 */
+	public VpStreamVerifyResult verifyStreaming(Reader presentationJson, VpVerifyParam verifyParam, ClaimConsumer claimConsumer) throws CoreException {
+
+		long startNanos = CoreMetricsRegistry.startTimer();
+		try {
+			return new StreamingVpVerifier(verifyParam, didDocumentRegistry, claimConsumer).verify(presentationJson);
+		} catch (CoreException e) {
+			CoreMetricsRegistry.recordFailure(Phase.VP_VERIFICATION, e);
+			throw e;
+		} finally {
+			CoreMetricsRegistry.stopTimer(Phase.VP_VERIFICATION, startNanos);
 		}
+	}
 
-		return claimListResult;
+	/**
+	 * Verifies a VerifiablePresentation while reading its UTF-8 encoded JSON, passing the claims of its credentials to a consumer.
+	 *
+	 * @param presentationJson The UTF-8 encoded JSON of the VerifiablePresentation. It is not closed.
+	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
+	 * @param claimConsumer The receiver of the claims of the verified credentials.
+	 * @return The verification result, without the claims.
+	 * @throws CoreException If the presentation is rejected, or ERR_CODE_VPMANAGER_INVALID_PRESENTATION if it cannot be read.
+	 * @see #verifyStreaming(Reader, VpVerifyParam, ClaimConsumer)
+	 */
+	public VpStreamVerifyResult verifyStreaming(InputStream presentationJson, VpVerifyParam verifyParam, ClaimConsumer claimConsumer) throws CoreException {
+
+		return verifyStreaming(new InputStreamReader(presentationJson, StandardCharsets.UTF_8), verifyParam, claimConsumer);
 	}
-	
+
 	/**
-	 * Checks if the VerifiableCredentials match the filter criteria.
+	 * Runs all checks of a VerifiablePresentation.
 	 *
-	 * @param filter Thㄷ filter specifies the conditions that the submitted VerifiableCredentials must meet.
-	 * @param verifiableCredentials The list of VerifiableCredentials to check.
+	 * @param verifiablePresentation The VerifiablePresentation to verify.
+	 * @param verifyParam The parameters for verification, including filter, DidDocument etc...
 	 * @throws CoreException
 	 */
-	private void checkFilter(Filter filter, List<VerifiableCredential> verifiableCredentials) throws CoreException {
+	private void verifyPresentationInternal(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam) throws CoreException {
 
-		if(filter == null) {
-			return;
+		long startNanos = CoreMetricsRegistry.startTimer();
+		try {
+			verificationPipeline.verify(new VpVerificationContext(verifiablePresentation, verifyParam, didDocumentRegistry));
+		} catch (CoreException e) {
+			CoreMetricsRegistry.recordFailure(Phase.VP_VERIFICATION, e);
+			throw e;
+		} finally {
+			CoreMetricsRegistry.stopTimer(Phase.VP_VERIFICATION, startNanos);
 		}
-		
-		for(CredentialSchema credentialSchema : filter.getCredentialSchemas()) {
-			VerifiableCredential filterVc = findVerifiableCredential(verifiableCredentials, credentialSchema);
+	}
 
-			if (filterVc == null) {
-			    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_SCHEMA);
-			}
-			
-			validateIssuerAllowed(filterVc, credentialSchema);
-	        validateRequiredClaims(filterVc, credentialSchema);
-	        validatePrsentAll(filterVc, credentialSchema);
+	/**
+	 * Verifies a batch of VerifiablePresentations in parallel on the common ForkJoinPool.
+	 *
+	 * @param verifyRequests The presentations to verify with their verification parameters.
+	 * @return One result per request, in request order.
+	 * @see #verifyPresentations(List, Executor)
+	 */
+	public List<VpBatchVerifyResult> verifyPresentations(List<VpVerifyRequest> verifyRequests) {
+
+		return verifyPresentations(verifyRequests, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Verifies a batch of VerifiablePresentations in parallel on the given executor.
+	 * The signing keys that the batch references in the DID documents of its verification parameters are resolved once
+	 * per distinct key into a cache shared by the items of the batch, before the signatures are verified.
+	 * A failing presentation does not stop the batch; its error code and, if applicable, the id of the failing VC are reported in its result.
+	 *
+	 * @param verifyRequests The presentations to verify with their verification parameters.
+	 * @param executor The executor that runs the verifications.
+	 * @return One result per request, in request order.
+	 */
+	public List<VpBatchVerifyResult> verifyPresentations(List<VpVerifyRequest> verifyRequests, Executor executor) {
+
+		PublicKeyCache batchKeyCache = new PublicKeyCache();
+		resolveSigningKeys(verifyRequests, batchKeyCache, executor);
+
+		List<CompletableFuture<VpBatchVerifyResult>> resultFutures = new ArrayList<CompletableFuture<VpBatchVerifyResult>>(verifyRequests.size());
+		for (int i = 0; i < verifyRequests.size(); i++) {
+			int index = i;
+			resultFutures.add(CompletableFuture.supplyAsync(() -> verifyBatchItem(index, verifyRequests.get(index), batchKeyCache), executor));
+		}
+
+		List<VpBatchVerifyResult> results = new ArrayList<VpBatchVerifyResult>(verifyRequests.size());
+		for (CompletableFuture<VpBatchVerifyResult> resultFuture : resultFutures) {
+			results.add(resultFuture.join());
 		}
+		return results;
 	}
 
 	/**
-	 * Finds the VerifiableCredential that matches the CredentialSchema.
+	 * Verifies one item of a batch without throwing.
+	 * A missing or malformed item is reported as ERR_CODE_VPMANAGER_INVALID_PRESENTATION.
 	 *
-	 * @param verifiableCredentials The list of VerifiableCredentials to search.
-	 * @param credentialSchema The CredentialSchema to match.
-	 * @return The matching VerifiableCredential, or null if not found.
+	 * @param index The position of the item in the batch.
+	 * @param verifyRequest The presentation to verify with its verification parameters.
+	 * @param batchKeyCache The signing keys resolved for the batch.
+	 * @return The result of the item.
 	 */
-	private VerifiableCredential findVerifiableCredential(List<VerifiableCredential> verifiableCredentials, CredentialSchema credentialSchema) {
-	    return verifiableCredentials.stream()
-	            .filter(vc -> credentialSchema.getId().equals(vc.getCredentialSchema().getId())
-	                    && credentialSchema.getType().equals(vc.getCredentialSchema().getType()))
-	            .findFirst()
-	            .orElse(null);
+	private VpBatchVerifyResult verifyBatchItem(int index, VpVerifyRequest verifyRequest, PublicKeyCache batchKeyCache) {
+
+		VpVerificationContext context = null;
+		long startNanos = CoreMetricsRegistry.startTimer();
+		try {
+			if (verifyRequest == null || verifyRequest.getVerifiablePresentation() == null || verifyRequest.getVerifyParam() == null) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, "missing presentation or verification parameters");
+			}
+			VerifiablePresentation verifiablePresentation = verifyRequest.getVerifiablePresentation();
+			context = new VpVerificationContext(verifiablePresentation, verifyRequest.getVerifyParam(), didDocumentRegistry, batchKeyCache);
+			verificationPipeline.verify(context);
+			return VpBatchVerifyResult.success(index, new VpVerifyResult(verifiablePresentation.getId(),
+					verifiablePresentation.getHolder(), VerifiedClaims.of(verifiablePresentation)));
+		} catch (CoreException e) {
+			CoreMetricsRegistry.recordFailure(Phase.VP_VERIFICATION, e);
+			return VpBatchVerifyResult.failure(index, e, getCurrentCredentialId(context));
+		} catch (RuntimeException e) {
+			CoreException exception = new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, e.toString());
+			CoreMetricsRegistry.recordFailure(Phase.VP_VERIFICATION, exception);
+			return VpBatchVerifyResult.failure(index, exception, getCurrentCredentialId(context));
+		} finally {
+			CoreMetricsRegistry.stopTimer(Phase.VP_VERIFICATION, startNanos);
+		}
 	}
-	
+
 	/**
-	 * Validates if the issuer of the VerifiableCredential is allowed by the CredentialSchema.
+	 * Gets the id of the VerifiableCredential that was being checked when the verification stopped.
 	 *
-	 * @param filterVc The VerifiableCredential to check.
-	 * @param credentialSchema The CredentialSchema containing information about allowed issuers.
-	 * @return True if the issuer is allowed, false otherwise.
-	 * @throws CoreException 
+	 * @param context The verification context, or null if the verification did not start.
+	 * @return The id of the VerifiableCredential, or null.
 	 */
-	private void validateIssuerAllowed(VerifiableCredential filterVc, CredentialSchema credentialSchema) throws CoreException {
-	    String issuer = filterVc.getIssuer().getId();
-	    boolean isIssuerAllowed = issuer != null && credentialSchema.getAllowedIssuers().contains(issuer);
-	    
-        if (!isIssuerAllowed) {
-            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER);
-        }
+	private static String getCurrentCredentialId(VpVerificationContext context) {
+
+		return context != null && context.getCurrentCredential() != null ? context.getCurrentCredential().getId() : null;
 	}
-	
+
 	/**
-	 * Validates if all required claims are present in the VerifiableCredential.
+	 * Resolves each distinct holder and issuer signing key of the batch once, in parallel, into the cache of the batch.
+	 * Missing items and keys that cannot be resolved are skipped here and reported by the verification of the items referencing them.
 	 *
-	 * @param filterVc The VerifiableCredential to validate.
-	 * @param credentialSchema The CredentialSchema that contains required claims.
-	 * @throws CoreException
+	 * @param verifyRequests The presentations to verify with their verification parameters.
+	 * @param batchKeyCache The cache receiving the resolved keys.
+	 * @param executor The executor that resolves the keys.
 	 */
-	private void validateRequiredClaims(VerifiableCredential filterVc, CredentialSchema credentialSchema) throws CoreException {
-	    List<String> requiredClaimCodeList = credentialSchema.getRequiredClaims();
-	    List<Claim> claimList = filterVc.getCredentialSubject().getClaims();
-
-	    boolean allRequiredClaimsPresent = requiredClaimCodeList.stream()
-	            .allMatch(requiredClaimCode -> claimList.stream()
-	                    .anyMatch(claim -> claim.getCode().equals(requiredClaimCode)));
-
-	    if (!allRequiredClaimsPresent) {
-	        throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_CONTAIN_CLAIM);
-	    }
-	}	
-	
-	   
-    /**
-     * Validates if the proof value is present when required by the CredentialSchema.
-     *
-     * @param filterVc The VerifiableCredential to validate.
-     * @param credentialSchema The CredentialSchema that specifies if proof is required.
-     * @throws CoreException
-     */
-    private void validatePrsentAll(VerifiableCredential filterVc, CredentialSchema credentialSchema) throws CoreException {
-        if (Boolean.TRUE.equals(credentialSchema.getPresentAll())
-                && (filterVc.getProof().getProofValue() == null || filterVc.getProof().getProofValue().isBlank())) {
-            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_PROOFVALUE);
-        }
-    }
-	
+	private void resolveSigningKeys(List<VpVerifyRequest> verifyRequests, PublicKeyCache batchKeyCache, Executor executor) {
+
+		Map<String, Runnable> keyResolvers = new LinkedHashMap<String, Runnable>();
+		for (VpVerifyRequest verifyRequest : verifyRequests) {
+			if (verifyRequest == null || verifyRequest.getVerifiablePresentation() == null || verifyRequest.getVerifyParam() == null) {
+				continue;
+			}
+			VerifiablePresentation verifiablePresentation = verifyRequest.getVerifiablePresentation();
+			VpVerifyParam verifyParam = verifyRequest.getVerifyParam();
+
+			List<VpProof> proofList = verifiablePresentation.getProof() != null
+					? Collections.singletonList(verifiablePresentation.getProof()) : verifiablePresentation.getProofs();
+			if (proofList != null) {
+				for (VpProof proof : proofList) {
+					addKeyResolver(keyResolvers, batchKeyCache, verifyParam.getHolderDidDocument(),
+							proof == null ? null : proof.getVerificationMethod());
+				}
+			}
+			if (verifiablePresentation.getVerifiableCredential() != null) {
+				for (VerifiableCredential verifiableCredential : verifiablePresentation.getVerifiableCredential()) {
+					addKeyResolver(keyResolvers, batchKeyCache, verifyParam.getIssuerDidDocument(),
+							verifiableCredential == null || verifiableCredential.getProof() == null ? null : verifiableCredential.getProof().getVerificationMethod());
+				}
+			}
+		}
+
+		CompletableFuture<?>[] resolveFutures = keyResolvers.values().stream()
+				.map(keyResolver -> CompletableFuture.runAsync(keyResolver, executor))
+				.toArray(CompletableFuture<?>[]::new);
+		CompletableFuture.allOf(resolveFutures).exceptionally(e -> null).join();
+	}
+
 	/**
-	 * Verifies the signature of a Verifiable Presentation (VP, Holder Signature).
-	 * This method first checks if the Verifiable Presentation (VP) contains a single proof.
-	 * If a single proof is present, it verifies the signature using that proof.
-	 * If multiple proofs are present, it iterates through each proof and verifies each one.
-	 * 
-	 * @param verifiablePresentation The Verifiable Presentation to be verified.
-	 * @param holderDidDocument The DID document of the holder of the Verifiable Presentation.
-	 * @throws CoreException
-	 * @throws CryptoException
+	 * Registers the resolution of a signing key into the cache of the batch unless the same key is already registered.
+	 *
+	 * @param keyResolvers The registered resolutions by key.
+	 * @param batchKeyCache The cache receiving the resolved key.
+	 * @param didDocument The DID document containing the key.
+	 * @param verificationMethod The verification method of the proof.
 	 */
-    private void verifyHolderSignature(VerifiablePresentation verifiablePresentation, DidDocument holderDidDocument) throws CoreException {
-        
-        SignatureParams vpSigParams = new SignatureParams();
-        
-        if(verifiablePresentation.getProof() != null) {
-            vpSigParams = getHolderSignatureParams(verifiablePresentation, holderDidDocument, verifiablePresentation.getProof());
-            VerifyUtil.verifySignature(vpSigParams);
-        } else {
-            isProofs=true;
-            List<VpProof> proofList = verifiablePresentation.getProofs();
-            for (VpProof proof : proofList) {
-                vpSigParams = getHolderSignatureParams(verifiablePresentation, holderDidDocument, proof);
-                VerifyUtil.verifySignature(vpSigParams);
-            }
-        }   
-    }
+	private void addKeyResolver(Map<String, Runnable> keyResolvers, PublicKeyCache batchKeyCache, DidDocument didDocument, String verificationMethod) {
+
+		if (didDocument == null || verificationMethod == null || !verificationMethod.contains("#")) {
+			return;
+		}
+		String key = didDocument.getId() + "?versionId=" + didDocument.getVersionId() + verificationMethod.substring(verificationMethod.indexOf('#'));
+		keyResolvers.putIfAbsent(key, () -> {
+			try {
+				VerifyUtil.resolvePublicKey(didDocument, verificationMethod, batchKeyCache);
+			} catch (CoreException e) {
+				// reported by the verification of the item
+			}
+		});
+	}
 
     /**
-     * Verifies the signature of claims within a list of Verifiable Credentials (VCs, Issuer Signature).
-     * This method iterates through each Verifiable Credential (VC) and checks its expiration date if required.
-     * If the expiration date is valid, it then verifies the signature of each claim within the VC.
-     * 
-     * @param verifiableCredentials The list of Verifiable Credentials to be verified.
-     * @param issuerDidDocument The DID document of the issuer of the Verifiable Credentials.
-     * @param isCheckVcExpirationDate A boolean flag indicating whether to check the expiration date of the VCs.
-     * @throws CoreException
-     */
-    private void verifyIssuerSignature(List<VerifiableCredential> verifiableCredentials, DidDocument issuerDidDocument, boolean isCheckVcExpirationDate) throws CoreException {
-        
-        for (VerifiableCredential verifiableCredential : verifiableCredentials) {
-            if(isCheckVcExpirationDate) {
-                boolean isExpired = VerifyUtil.isExpired(verifiableCredential.getValidUntil());
-                if(isExpired) {
-                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VC, verifiableCredential.getId());
-                }
-            }
-
-            if (verifiableCredential.getCredentialSubject() != null) {
-                List<Claim> claimList = verifiableCredential.getCredentialSubject().getClaims();
-
-                if (claimList == null || claimList.size() == 0) {
-                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_PRIVACY_NOT_EXIST, verifiableCredential.getId());
-                }
-
-                if(verifiableCredential.getProof().getProofValue() != null && !verifiableCredential.getProof().getProofValue().isEmpty()) {
-                    VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
-                    tmpVerifiableCredential.fromJson(verifiableCredential.toJson());
-
-                    SignatureVcParams sigVcParamsByClaims = new SignatureVcParams();
-                    sigVcParamsByClaims = VerifyUtil.getSignatureVcParams(tmpVerifiableCredential, issuerDidDocument, false
-                            , verifiableCredential.getProof().getProofValue());
-                    VerifyUtil.verifySignature(sigVcParamsByClaims);
-                } else if(verifiableCredential.getProof().getProofValueList() != null && !verifiableCredential.getProof().getProofValueList().isEmpty()){
-                    for (int i = 0; i < claimList.size(); i++) {
-                        VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
-                        tmpVerifiableCredential.fromJson(verifiableCredential.toJson());
-                        
-                        List<Claim> tmpClaimList = new ArrayList<Claim>();
-                        tmpClaimList.add(claimList.get(i));
-
-                        tmpVerifiableCredential.getCredentialSubject().setClaims(tmpClaimList);
-
-                        SignatureVcParams sigVcParamsByClaims = new SignatureVcParams();
-                        sigVcParamsByClaims = VerifyUtil.getSignatureVcParams(tmpVerifiableCredential, issuerDidDocument, true
-                                , verifiableCredential.getProof().getProofValueList().get(i));
-                        sigVcParamsByClaims.setClaimCode(claimList.get(i).getCode());
-
-                        VerifyUtil.verifySignature(sigVcParamsByClaims);
-                    }   
-                } else {
-                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL);
-                }
-            }
-        }
-    }
-    
+	 * Gets the list of claims from the VerifiablePresentation.
+	 * The claims are copied from the snapshot taken by {@link #verifyPresentation(VerifiablePresentation, VpVerifyParam)}
+	 * field by field, without a JSON round-trip, so the caller owns the list and the claims.
+	 * Use {@link #getVerifiedClaims()} to read the claims without copying them.
+	 *
+	 * @return A new list of new claims.
+	 */
+	public List<Claim> getClaimList() {
+
+		return getVerifiedClaims().copyClaimList();
+	}
+
 	/**
-     * Gets the SignatureParams for verifying a VerifiablePresentation proof.
-     *
-     * @param verifiablePresentation The VerifiablePresentation to verify.
-     * @param holderDidDocument The DID document of the holder.
-     * @param proof The proof to verify.
-     * @return The SignatureParams for verifying Signature
-     * @throws CoreException
-     */
-    private SignatureParams getHolderSignatureParams(VerifiablePresentation verifiablePresentation, DidDocument holderDidDocument, VpProof proof) throws CoreException {
-        VerifiablePresentation tmpVerifiablePresentation = new VerifiablePresentation();
-        tmpVerifiablePresentation.fromJson(verifiablePresentation.toJson());
-
-        VpProof tmpProof = new VpProof();
-        tmpProof.setType(proof.getType());
-        tmpProof.setCreated(proof.getCreated());
-        tmpProof.setVerificationMethod(proof.getVerificationMethod());
-        tmpProof.setProofPurpose(proof.getProofPurpose());
-
-        tmpVerifiablePresentation.setProof(tmpProof);
-
-        if(isProofs) {
-            tmpVerifiablePresentation.setProofs(null);
-        }
-        
-        SignatureParams sigParams = new SignatureParams();
-        sigParams.setOriginData(tmpVerifiablePresentation.toJson());
-        sigParams.setSignatureValue(proof.getProofValue());
-
-        DidManager didManager = new DidManager();
-        didManager.parse(holderDidDocument.toJson());
-
-        VerificationMethod publicKey = didManager.getVerificationMethodByKeyId(tmpProof.getVerificationMethod().split("\\#")[1]);
-        if (publicKey == null) {
-            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_SIGNING_KEY);
-        }
-
-        sigParams.setPublicKey(publicKey.getPublicKeyMultibase());
-        sigParams.setAlgorithm(tmpProof.getType());
-        sigParams.setKeyPurpose(tmpProof.getProofPurpose());
-
-        return sigParams;
-    }
+	 * Gets a read-only view of the claims of the VerifiablePresentation, with lookup by claim code and by credential.
+	 * The view is the snapshot taken when the presentation passed {@link #verifyPresentation(VerifiablePresentation, VpVerifyParam)};
+	 * if {@link #verifiablePresentation} has been replaced or was not verified, a new snapshot of it is taken.
+	 *
+	 * @return The claims of all credentials of the presentation.
+	 */
+	public VerifiedClaims getVerifiedClaims() {
+
+		if (verifiedClaims == null || verifiedPresentation != verifiablePresentation) {
+			return VerifiedClaims.of(verifiablePresentation);
+		}
+		return verifiedClaims;
+	}
 }
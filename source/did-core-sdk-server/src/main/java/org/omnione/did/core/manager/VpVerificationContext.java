@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.DidUrl;
+import org.omnione.did.core.util.PublicKeyCache;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.core.util.VerifyUtil;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.omnione.did.data.model.vp.VpProof;
+
+/**
+ * State of one Verifiable Presentation verification, passed through the stages of a {@link VpVerificationPipeline}.
+ *
+ * <p>Signing keys are resolved once per proof and kept for the later stages. A context belongs to a single
+ * verification and is not thread-safe.</p>
+ */
+public final class VpVerificationContext {
+
+	private final VerifiablePresentation verifiablePresentation;
+	private final VpVerifyParam verifyParam;
+	private final DidDocumentRegistry didDocumentRegistry;
+	private final PublicKeyCache publicKeyCache;
+
+	private final Map<VpProof, ResolvedPublicKey> holderPublicKeys = new IdentityHashMap<VpProof, ResolvedPublicKey>();
+	private final Map<VerifiableCredential, ResolvedPublicKey> issuerPublicKeys = new IdentityHashMap<VerifiableCredential, ResolvedPublicKey>();
+
+	private VerifiableCredential currentCredential;
+
+	VpVerificationContext(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam, DidDocumentRegistry didDocumentRegistry) {
+		this(verifiablePresentation, verifyParam, didDocumentRegistry, null);
+	}
+
+	/**
+	 * Creates a context that resolves the keys of the holder and issuer DID documents of the verification parameters
+	 * through the given cache, e.g. one shared by the items of a batch.
+	 *
+	 * @param verifiablePresentation The presentation to verify.
+	 * @param verifyParam The parameters of the verification.
+	 * @param didDocumentRegistry The registry of the holder and issuer DID Documents, or null.
+	 * @param publicKeyCache The cache of resolved keys, or null to use the default PublicKeyCache.
+	 */
+	VpVerificationContext(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam, DidDocumentRegistry didDocumentRegistry,
+			PublicKeyCache publicKeyCache) {
+		this.verifiablePresentation = verifiablePresentation;
+		this.verifyParam = verifyParam;
+		this.didDocumentRegistry = didDocumentRegistry;
+		this.publicKeyCache = publicKeyCache;
+	}
+
+	/**
+	 * Gets the presentation being verified.
+	 *
+	 * @return The VerifiablePresentation.
+	 */
+	public VerifiablePresentation getVerifiablePresentation() {
+		return verifiablePresentation;
+	}
+
+	/**
+	 * Gets the parameters of the verification.
+	 *
+	 * @return The verification parameters.
+	 */
+	public VpVerifyParam getVerifyParam() {
+		return verifyParam;
+	}
+
+	/**
+	 * Gets the holder proofs of the presentation: its single proof, or its multiple proofs.
+	 *
+	 * @return The holder proofs, empty if the presentation has none.
+	 */
+	public List<VpProof> getHolderProofs() {
+		if (verifiablePresentation.getProof() != null) {
+			return Collections.singletonList(verifiablePresentation.getProof());
+		}
+		return verifiablePresentation.getProofs() != null ? verifiablePresentation.getProofs() : Collections.<VpProof>emptyList();
+	}
+
+	/**
+	 * Gets the Verifiable Credentials of the presentation.
+	 *
+	 * @return The Verifiable Credentials, empty if the presentation has none.
+	 */
+	public List<VerifiableCredential> getVerifiableCredentials() {
+		return verifiablePresentation.getVerifiableCredential() != null
+				? verifiablePresentation.getVerifiableCredential() : Collections.<VerifiableCredential>emptyList();
+	}
+
+	/**
+	 * Sets the Verifiable Credential being checked, reported if the verification fails.
+	 *
+	 * @param verifiableCredential The Verifiable Credential, or null when no credential is being checked.
+	 */
+	public void setCurrentCredential(VerifiableCredential verifiableCredential) {
+		this.currentCredential = verifiableCredential;
+	}
+
+	/**
+	 * Gets the Verifiable Credential being checked.
+	 *
+	 * @return The Verifiable Credential, or null.
+	 */
+	public VerifiableCredential getCurrentCredential() {
+		return currentCredential;
+	}
+
+	/**
+	 * Resolves the public key of the holder that signed a proof of the presentation.
+	 * Without a holder DID document, the key is resolved from the DID document registry by the verificationMethod of the proof,
+	 * which must belong to the holder of the presentation.
+	 *
+	 * @param proof The holder proof referencing the key.
+	 * @return The resolved public key.
+	 * @throws CoreException If the key does not exist or does not belong to the holder.
+	 */
+	public ResolvedPublicKey resolveHolderPublicKey(VpProof proof) throws CoreException {
+		ResolvedPublicKey publicKey = holderPublicKeys.get(proof);
+		if (publicKey != null) {
+			return publicKey;
+		}
+
+		String verificationMethod = proof.getVerificationMethod();
+		if (verifyParam.getHolderDidDocument() == null && didDocumentRegistry != null) {
+			if (!DidUrl.parse(verificationMethod).getDid().equals(verifiablePresentation.getHolder())) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_HOLDER_KEY, verificationMethod);
+			}
+			publicKey = didDocumentRegistry.resolvePublicKey(verificationMethod);
+		} else {
+			publicKey = VerifyUtil.resolvePublicKey(verifyParam.getHolderDidDocument(), verificationMethod, publicKeyCache);
+		}
+		if (publicKey == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_SIGNING_KEY);
+		}
+		holderPublicKeys.put(proof, publicKey);
+		return publicKey;
+	}
+
+	/**
+	 * Resolves the public key of the issuer that signed a Verifiable Credential of the presentation.
+	 * Without an issuer DID document, the key is resolved from the DID document registry by the verificationMethod of the proof,
+	 * which must belong to the issuer of the credential.
+	 *
+	 * @param verifiableCredential The Verifiable Credential whose proof references the key.
+	 * @return The resolved public key.
+	 * @throws CoreException If the key does not exist or does not belong to the issuer.
+	 */
+	public ResolvedPublicKey resolveIssuerPublicKey(VerifiableCredential verifiableCredential) throws CoreException {
+		ResolvedPublicKey issuerPublicKey = issuerPublicKeys.get(verifiableCredential);
+		if (issuerPublicKey != null) {
+			return issuerPublicKey;
+		}
+
+		String verificationMethod = verifiableCredential.getProof().getVerificationMethod();
+		if (verifyParam.getIssuerDidDocument() == null && didDocumentRegistry != null) {
+			String issuerDid = verifiableCredential.getIssuer() != null ? verifiableCredential.getIssuer().getId() : null;
+			if (!DidUrl.parse(verificationMethod).getDid().equals(issuerDid)) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_MATCHED_ISSUER_KEY, verificationMethod);
+			}
+			issuerPublicKey = didDocumentRegistry.resolvePublicKey(verificationMethod);
+		} else {
+			issuerPublicKey = VerifyUtil.resolvePublicKey(verifyParam.getIssuerDidDocument(), verificationMethod, publicKeyCache);
+		}
+		if (issuerPublicKey == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_EXIST_SIGNING_KEY);
+		}
+		issuerPublicKeys.put(verifiableCredential, issuerPublicKey);
+		return issuerPublicKey;
+	}
+
+	/**
+	 * Drops the issuer key resolved for a Verifiable Credential,
+	 * so a streaming verification does not keep the credentials it has checked.
+	 *
+	 * @param verifiableCredential The checked Verifiable Credential.
+	 */
+	void releaseCredential(VerifiableCredential verifiableCredential) {
+		issuerPublicKeys.remove(verifiableCredential);
+		if (currentCredential == verifiableCredential) {
+			currentCredential = null;
+		}
+	}
+}
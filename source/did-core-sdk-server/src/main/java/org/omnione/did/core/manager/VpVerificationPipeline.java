@@ -0,0 +1,403 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.PresentationFilter;
+import org.omnione.did.core.util.ResolvedPublicKey;
+import org.omnione.did.core.util.VerificationResultCache;
+import org.omnione.did.core.util.VerifyUtil;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.omnione.did.data.model.vp.VpProof;
+
+/**
+ * Ordered stages of the Verifiable Presentation verification.
+ *
+ * <p>The default pipeline runs every cheap check across all Verifiable Credentials before any signature is verified,
+ * so an invalid presentation is rejected without ECDSA work:</p>
+ * <ol>
+ *     <li>{@value #STRUCTURE}: the presentation and every credential carry the proofs and claims to verify</li>
+ *     <li>{@value #EXPIRY}: the presentation and, if requested, every credential are not expired</li>
+ *     <li>{@value #FILTER}: the credentials match the filter of the verification parameters</li>
+ *     <li>{@value #KEY_RESOLUTION}: every holder and issuer signing key exists</li>
+ *     <li>{@value #HOLDER_SIGNATURE}: the holder signatures of the presentation</li>
+ *     <li>{@value #ISSUER_SIGNATURE}: the issuer signatures of the credentials</li>
+ * </ol>
+ *
+ * <p>Stages can be added, replaced or removed by name; every change returns a new pipeline.
+ * The latency of each stage and the rejections per stage are reported to the installed
+ * {@link org.omnione.did.core.util.CoreMetrics CoreMetrics}. Pipelines are immutable and can be shared between threads.</p>
+ */
+public final class VpVerificationPipeline {
+
+	public static final String STRUCTURE = "structure";
+	public static final String EXPIRY = "expiry";
+	public static final String FILTER = "filter";
+	public static final String KEY_RESOLUTION = "keyResolution";
+	public static final String HOLDER_SIGNATURE = "holderSignature";
+	public static final String ISSUER_SIGNATURE = "issuerSignature";
+
+	private static final VpVerificationPipeline DEFAULT_PIPELINE = new VpVerificationPipeline(Arrays.asList(
+			stage(STRUCTURE, VpVerificationPipeline::checkStructure),
+			stage(EXPIRY, VpVerificationPipeline::checkExpiry),
+			stage(FILTER, VpVerificationPipeline::checkFilter),
+			stage(KEY_RESOLUTION, VpVerificationPipeline::resolveSigningKeys),
+			stage(HOLDER_SIGNATURE, VpVerificationPipeline::verifyHolderSignatures),
+			stage(ISSUER_SIGNATURE, VpVerificationPipeline::verifyIssuerSignatures)));
+
+	private final List<VpVerificationStage> stages;
+
+	private VpVerificationPipeline(List<VpVerificationStage> stages) {
+		Set<String> stageNames = new HashSet<String>();
+		for (VpVerificationStage stage : stages) {
+			if (!stageNames.add(stage.getName())) {
+				throw new IllegalArgumentException("Duplicate stage: " + stage.getName());
+			}
+		}
+		this.stages = Collections.unmodifiableList(new ArrayList<VpVerificationStage>(stages));
+	}
+
+	/**
+	 * Gets the default pipeline.
+	 *
+	 * @return The pipeline with the default stages.
+	 */
+	public static VpVerificationPipeline defaultPipeline() {
+		return DEFAULT_PIPELINE;
+	}
+
+	/**
+	 * Creates a pipeline of the given stages.
+	 *
+	 * @param stages The stages in execution order.
+	 * @return The pipeline.
+	 * @throws IllegalArgumentException If two stages have the same name.
+	 */
+	public static VpVerificationPipeline of(List<VpVerificationStage> stages) {
+		return new VpVerificationPipeline(stages);
+	}
+
+	/**
+	 * Gets the stages.
+	 *
+	 * @return The unmodifiable stages in execution order.
+	 */
+	public List<VpVerificationStage> getStages() {
+		return stages;
+	}
+
+	/**
+	 * Returns a pipeline with the stage added at the end.
+	 *
+	 * @param stage The stage to add.
+	 * @return The new pipeline.
+	 */
+	public VpVerificationPipeline withStage(VpVerificationStage stage) {
+		List<VpVerificationStage> newStages = new ArrayList<VpVerificationStage>(stages);
+		newStages.add(stage);
+		return new VpVerificationPipeline(newStages);
+	}
+
+	/**
+	 * Returns a pipeline with the stage inserted before a stage.
+	 *
+	 * @param stageName The name of the stage to insert before.
+	 * @param stage The stage to insert.
+	 * @return The new pipeline.
+	 * @throws IllegalArgumentException If the pipeline has no stage of that name.
+	 */
+	public VpVerificationPipeline withStageBefore(String stageName, VpVerificationStage stage) {
+		List<VpVerificationStage> newStages = new ArrayList<VpVerificationStage>(stages);
+		newStages.add(indexOf(stageName), stage);
+		return new VpVerificationPipeline(newStages);
+	}
+
+	/**
+	 * Returns a pipeline with a stage replaced.
+	 *
+	 * @param stageName The name of the stage to replace.
+	 * @param stage The replacing stage.
+	 * @return The new pipeline.
+	 * @throws IllegalArgumentException If the pipeline has no stage of that name.
+	 */
+	public VpVerificationPipeline withStageReplaced(String stageName, VpVerificationStage stage) {
+		List<VpVerificationStage> newStages = new ArrayList<VpVerificationStage>(stages);
+		newStages.set(indexOf(stageName), stage);
+		return new VpVerificationPipeline(newStages);
+	}
+
+	/**
+	 * Returns a pipeline without a stage.
+	 *
+	 * @param stageName The name of the stage to remove.
+	 * @return The new pipeline.
+	 * @throws IllegalArgumentException If the pipeline has no stage of that name.
+	 */
+	public VpVerificationPipeline withoutStage(String stageName) {
+		List<VpVerificationStage> newStages = new ArrayList<VpVerificationStage>(stages);
+		newStages.remove(indexOf(stageName));
+		return new VpVerificationPipeline(newStages);
+	}
+
+	/**
+	 * Runs the stages in order, stopping at the first rejection.
+	 *
+	 * @param context The presentation to verify with its parameters.
+	 * @throws CoreException The rejection of the first failing stage.
+	 */
+	public void verify(VpVerificationContext context) throws CoreException {
+
+		for (VpVerificationStage stage : stages) {
+			context.setCurrentCredential(null);
+			long startNanos = CoreMetricsRegistry.startTimer();
+			try {
+				stage.verify(context);
+			} catch (CoreException e) {
+				CoreMetricsRegistry.recordStageRejection(stage.getName(), e);
+				throw e;
+			} finally {
+				CoreMetricsRegistry.stopStageTimer(stage.getName(), startNanos);
+			}
+		}
+		context.setCurrentCredential(null);
+	}
+
+	private int indexOf(String stageName) {
+		for (int i = 0; i < stages.size(); i++) {
+			if (stages.get(i).getName().equals(stageName)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown stage: " + stageName);
+	}
+
+	/**
+	 * Checks that the presentation has a holder proof and that every credential has a proof,
+	 * its claims and a signature value for them.
+	 */
+	private static void checkStructure(VpVerificationContext context) throws CoreException {
+
+		if (context.getHolderProofs().isEmpty()) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, "proof: null");
+		}
+
+		for (VerifiableCredential verifiableCredential : context.getVerifiableCredentials()) {
+			context.setCurrentCredential(verifiableCredential);
+			checkCredentialStructure(verifiableCredential);
+		}
+	}
+
+	/**
+	 * Checks that a credential has a proof, its claims and a signature value for them.
+	 */
+	static void checkCredentialStructure(VerifiableCredential verifiableCredential) throws CoreException {
+
+		if (verifiableCredential.getProof() == null) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION, verifiableCredential.getId());
+		}
+		if (verifiableCredential.getCredentialSubject() == null) {
+			return;
+		}
+
+		List<Claim> claimList = verifiableCredential.getCredentialSubject().getClaims();
+		if (claimList == null || claimList.size() == 0) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_PRIVACY_NOT_EXIST, verifiableCredential.getId());
+		}
+
+		String proofValue = verifiableCredential.getProof().getProofValue();
+		List<String> proofValueList = verifiableCredential.getProof().getProofValueList();
+		boolean hasProofValue = proofValue != null && !proofValue.isEmpty();
+		boolean hasProofValueList = proofValueList != null && proofValueList.size() >= claimList.size();
+		if (!hasProofValue && !hasProofValueList) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, verifiableCredential.getId());
+		}
+	}
+
+	/**
+	 * Checks the expiration date of the presentation and, if requested, of every credential.
+	 */
+	private static void checkExpiry(VpVerificationContext context) throws CoreException {
+
+		if (VerifyUtil.isExpired(context.getVerifiablePresentation().getValidUntil())) {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VP);
+		}
+
+		if (context.getVerifyParam().isCheckVcExpirationDate()) {
+			for (VerifiableCredential verifiableCredential : context.getVerifiableCredentials()) {
+				context.setCurrentCredential(verifiableCredential);
+				if (VerifyUtil.isExpired(verifiableCredential.getValidUntil())) {
+					throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VC, verifiableCredential.getId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks the credentials against the compiled filter of the parameters, or else against their filter.
+	 */
+	private static void checkFilter(VpVerificationContext context) throws CoreException {
+
+		VpVerifyParam verifyParam = context.getVerifyParam();
+		PresentationFilter presentationFilter = verifyParam.getPresentationFilter();
+		if (presentationFilter == null) {
+			if (verifyParam.getFilter() == null) {
+				return;
+			}
+			presentationFilter = PresentationFilter.compile(verifyParam.getFilter());
+		}
+		presentationFilter.check(context.getVerifiablePresentation().getVerifiableCredential());
+	}
+
+	/**
+	 * Resolves every holder and issuer signing key, so a missing key is reported before any signature is verified.
+	 */
+	private static void resolveSigningKeys(VpVerificationContext context) throws CoreException {
+
+		for (VpProof proof : context.getHolderProofs()) {
+			context.resolveHolderPublicKey(proof);
+		}
+		for (VerifiableCredential verifiableCredential : context.getVerifiableCredentials()) {
+			context.setCurrentCredential(verifiableCredential);
+			if (verifiableCredential.getCredentialSubject() != null) {
+				context.resolveIssuerPublicKey(verifiableCredential);
+			}
+		}
+	}
+
+	/**
+	 * Verifies the holder signatures of the presentation.
+	 */
+	private static void verifyHolderSignatures(VpVerificationContext context) throws CoreException {
+
+		VerifiablePresentation verifiablePresentation = context.getVerifiablePresentation();
+		boolean isProofs = verifiablePresentation.getProof() == null;
+		for (VpProof proof : context.getHolderProofs()) {
+			ResolvedPublicKey publicKey = context.resolveHolderPublicKey(proof);
+			VerifiablePresentation signingPresentation = getHolderSigningPresentation(verifiablePresentation, proof, isProofs);
+			VerifyUtil.verifySignature(signingPresentation, proof.getProofValue(), proof.getType(), publicKey);
+		}
+	}
+
+	/**
+	 * Verifies the issuer signatures of every credential, skipping credentials found in the verification result cache.
+	 */
+	private static void verifyIssuerSignatures(VpVerificationContext context) throws CoreException {
+
+		for (VerifiableCredential verifiableCredential : context.getVerifiableCredentials()) {
+			context.setCurrentCredential(verifiableCredential);
+			if (verifiableCredential.getCredentialSubject() == null) {
+				continue;
+			}
+
+			ResolvedPublicKey issuerPublicKey = context.resolveIssuerPublicKey(verifiableCredential);
+			VerificationResultCache.verifyCached(verifiableCredential, issuerPublicKey,
+					() -> verifyIssuerSignature(verifiableCredential, issuerPublicKey));
+		}
+	}
+
+	/**
+	 * Verifies the issuer signature of a credential by its total proofValue, or else by its per-claim proofValueList.
+	 */
+	static void verifyIssuerSignature(VerifiableCredential verifiableCredential, ResolvedPublicKey issuerPublicKey) throws CoreException {
+
+		List<Claim> claimList = verifiableCredential.getCredentialSubject().getClaims();
+		String proofValue = verifiableCredential.getProof().getProofValue();
+
+		if (proofValue != null && !proofValue.isEmpty()) {
+			VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
+			tmpVerifiableCredential.fromJson(verifiableCredential.toJson());
+
+			VerifyUtil.verifyVcSignature(tmpVerifiableCredential, issuerPublicKey, proofValue);
+		} else {
+			String vcJson = verifiableCredential.toJson();
+			for (int i = 0; i < claimList.size(); i++) {
+				VerifiableCredential tmpVerifiableCredential = new VerifiableCredential();
+				tmpVerifiableCredential.fromJson(vcJson);
+				tmpVerifiableCredential.getCredentialSubject().setClaims(Collections.singletonList(claimList.get(i)));
+
+				VerifyUtil.verifyVcSignature(tmpVerifiableCredential, issuerPublicKey, verifiableCredential.getProof().getProofValueList().get(i));
+			}
+		}
+	}
+
+	/**
+	 * Gets the VerifiablePresentation as it was signed by a proof, i.e. with that proof without signature value.
+	 *
+	 * @param verifiablePresentation The VerifiablePresentation to verify.
+	 * @param proof The proof to verify.
+	 * @param isProofs Whether the proof is one of the multiple proofs of the VerifiablePresentation.
+	 * @return The copy of the VerifiablePresentation that was signed
+	 */
+	private static VerifiablePresentation getHolderSigningPresentation(VerifiablePresentation verifiablePresentation, VpProof proof, boolean isProofs) {
+		VerifiablePresentation tmpVerifiablePresentation = new VerifiablePresentation();
+		tmpVerifiablePresentation.fromJson(verifiablePresentation.toJson());
+
+		tmpVerifiablePresentation.setProof(getUnsignedProof(proof));
+
+		if (isProofs) {
+			tmpVerifiablePresentation.setProofs(null);
+		}
+
+		return tmpVerifiablePresentation;
+	}
+
+	/**
+	 * Gets a holder proof as it was signed, i.e. without signature value.
+	 *
+	 * @param proof The proof to verify.
+	 * @return The copy of the proof without proofValue.
+	 */
+	static VpProof getUnsignedProof(VpProof proof) {
+		VpProof tmpProof = new VpProof();
+		tmpProof.setType(proof.getType());
+		tmpProof.setCreated(proof.getCreated());
+		tmpProof.setVerificationMethod(proof.getVerificationMethod());
+		tmpProof.setProofPurpose(proof.getProofPurpose());
+		return tmpProof;
+	}
+
+	private static VpVerificationStage stage(String name, StageCheck check) {
+		return new VpVerificationStage() {
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public void verify(VpVerificationContext context) throws CoreException {
+				check.verify(context);
+			}
+		};
+	}
+
+	@FunctionalInterface
+	private interface StageCheck {
+		void verify(VpVerificationContext context) throws CoreException;
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import org.omnione.did.core.exception.CoreException;
+
+/**
+ * Stage of the Verifiable Presentation verification pipeline.
+ *
+ * <p>A stage checks one aspect of a presentation and rejects it by throwing a CoreException.
+ * Stages are shared between concurrent verifications, so per-presentation state belongs in the
+ * {@link VpVerificationContext}.</p>
+ *
+ * @see VpVerificationPipeline
+ */
+public interface VpVerificationStage {
+
+	/**
+	 * Gets the name of the stage, used to replace or remove it and to report its metrics.
+	 *
+	 * @return The unique name of the stage in its pipeline.
+	 */
+	String getName();
+
+	/**
+	 * Checks the presentation of the context.
+	 * Before checking a Verifiable Credential, call {@link VpVerificationContext#setCurrentCredential(org.omnione.did.data.model.vc.VerifiableCredential)}
+	 * so a rejection reports the credential.
+	 *
+	 * @param context The presentation being verified with its parameters and resolved keys.
+	 * @throws CoreException If the presentation is rejected.
+	 */
+	void verify(VpVerificationContext context) throws CoreException;
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+
+/**
+ * External signer that merges the requests of concurrent callers into batched round-trips.
+ *
+ * <p>Requests for the same key are collected into a batch, which is sent to the wrapped signer in one
+ * {@link ExternalSigner#signAll(String, List)} call when it holds {@code maxBatchSize} digests or when its first
+ * request has waited {@code maxDelay}. A request never spans two batches; a request of {@code maxBatchSize}
+ * digests or more is sent on its own. Batches are sent on the round-trip executor without waiting for the
+ * previous ones, so several round-trips can be in flight.</p>
+ *
+ * <p>A caller waits at most {@code timeout} for its signatures and then fails with ERR_CODE_SIGNER_SIGN_TIMEOUT.
+ * If a round-trip fails, every request of the batch fails with the same error. If the round-trip executor rejects
+ * a batch, e.g. because its queue is full, the requests of the batch fail with ERR_CODE_SIGNER_SIGN_FAIL instead of
+ * piling up.</p>
+ */
+public final class BatchingSigner implements ExternalSigner, AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(5);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Round-trips in flight at once on the threads of the signer. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    /** Batches waiting for a thread of the signer; further batches fail with ERR_CODE_SIGNER_SIGN_FAIL. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final ExternalSigner delegate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor roundTripExecutor;
+    private final ExecutorService ownedRoundTripExecutor;
+
+    private final Object lock = new Object();
+    private final Map<String, PendingBatch> pendingBatches = new HashMap<String, PendingBatch>();
+    private boolean closed;
+
+    /**
+     * Creates a batching signer with the default batch size, delay and timeout.
+     *
+     * @param delegate The signer receiving the batches.
+     */
+    public BatchingSigner(ExternalSigner delegate) {
+        this(delegate, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a batching signer that sends the batches on its own threads.
+     *
+     * @param delegate The signer receiving the batches.
+     * @param maxBatchSize The maximum number of digests per batch.
+     * @param maxDelay The maximum time a request waits for other requests before its batch is sent.
+     * @param timeout The maximum time a caller waits for its signatures.
+     */
+    public BatchingSigner(ExternalSigner delegate, int maxBatchSize, Duration maxDelay, Duration timeout) {
+        this(delegate, maxBatchSize, maxDelay, timeout, null);
+    }
+
+    /**
+     * Creates a batching signer.
+     *
+     * @param delegate The signer receiving the batches.
+     * @param maxBatchSize The maximum number of digests per batch.
+     * @param maxDelay The maximum time a request waits for other requests before its batch is sent.
+     * @param timeout The maximum time a caller waits for its signatures.
+     * @param roundTripExecutor The executor sending the batches, or null to send them on at most {@link #DEFAULT_MAX_IN_FLIGHT}
+     *          threads of the signer, with at most {@link #DEFAULT_QUEUE_CAPACITY} batches waiting.
+     */
+    public BatchingSigner(ExternalSigner delegate, int maxBatchSize, Duration maxDelay, Duration timeout, Executor roundTripExecutor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+
+        String namePrefix = "did-core-signer-" + POOL_NUMBER.getAndIncrement() + "-";
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new SignerThreadFactory(namePrefix + "scheduler-"));
+        if (roundTripExecutor != null) {
+            this.ownedRoundTripExecutor = null;
+            this.roundTripExecutor = roundTripExecutor;
+        } else {
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY), new SignerThreadFactory(namePrefix), new ThreadPoolExecutor.AbortPolicy());
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.ownedRoundTripExecutor = threadPoolExecutor;
+            this.roundTripExecutor = ownedRoundTripExecutor;
+        }
+    }
+
+    /**
+     * Signs the digests in a batch shared with concurrent callers and waits for the signatures.
+     *
+     * @param keyId The ID of the signing key in the DID Document of the signer.
+     * @param digests The SHA-256 digests of the signing inputs.
+     * @return The multibase encoded signature values, one per digest in the same order.
+     * @throws CoreException The error of the wrapped signer, or ERR_CODE_SIGNER_SIGN_TIMEOUT.
+     */
+    @Override
+    public List<String> signAll(String keyId, List<byte[]> digests) throws CoreException {
+        if (digests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        CompletableFuture<List<String>> future = submit(keyId, digests);
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, e.toString());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CoreException) {
+                throw (CoreException) e.getCause();
+            }
+            throw new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Adds the digests to the batch of their key without waiting for the signatures.
+     *
+     * @param keyId The ID of the signing key in the DID Document of the signer.
+     * @param digests The SHA-256 digests of the signing inputs.
+     * @return The future of the multibase encoded signature values, failed with a CoreException if the batch fails.
+     */
+    public CompletableFuture<List<String>> submit(String keyId, List<byte[]> digests) {
+        CompletableFuture<List<String>> future = new CompletableFuture<List<String>>();
+        List<PendingBatch> readyBatches = new ArrayList<PendingBatch>(2);
+
+        synchronized (lock) {
+            if (closed) {
+                future.completeExceptionally(new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, "The signer is closed"));
+                return future;
+            }
+
+            PendingBatch batch = pendingBatches.get(keyId);
+            if (batch != null && batch.size() + digests.size() > maxBatchSize) {
+                pendingBatches.remove(keyId);
+                readyBatches.add(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new PendingBatch(keyId);
+                if (digests.size() < maxBatchSize) {
+                    PendingBatch scheduledBatch = batch;
+                    pendingBatches.put(keyId, batch);
+                    batch.timer = scheduler.schedule(() -> flushExpired(scheduledBatch), maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            batch.add(digests, future);
+            if (batch.size() >= maxBatchSize) {
+                pendingBatches.remove(keyId, batch);
+                readyBatches.add(batch);
+            }
+        }
+
+        for (PendingBatch readyBatch : readyBatches) {
+            dispatch(readyBatch);
+        }
+        return future;
+    }
+
+    /**
+     * Sends the pending batches and stops accepting requests.
+     * Batches already sent still complete.
+     */
+    @Override
+    public void close() {
+        List<PendingBatch> readyBatches;
+        synchronized (lock) {
+            closed = true;
+            readyBatches = new ArrayList<PendingBatch>(pendingBatches.values());
+            pendingBatches.clear();
+        }
+        for (PendingBatch readyBatch : readyBatches) {
+            dispatch(readyBatch);
+        }
+        scheduler.shutdown();
+        if (ownedRoundTripExecutor != null) {
+            ownedRoundTripExecutor.shutdown();
+        }
+    }
+
+    private void flushExpired(PendingBatch batch) {
+        synchronized (lock) {
+            if (!pendingBatches.remove(batch.keyId, batch)) {
+                // already sent because it was full
+                return;
+            }
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(PendingBatch batch) {
+        if (batch.timer != null) {
+            batch.timer.cancel(false);
+        }
+        try {
+            roundTripExecutor.execute(() -> batch.sign(delegate));
+        } catch (RejectedExecutionException e) {
+            batch.fail(new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, "The round-trip was rejected"));
+        }
+    }
+
+    /**
+     * Requests for one key waiting to be sent together. Guarded by the lock of the signer until it is dispatched.
+     */
+    private static final class PendingBatch {
+
+        private final String keyId;
+        private final List<byte[]> digests = new ArrayList<byte[]>();
+        private final List<CompletableFuture<List<String>>> futures = new ArrayList<CompletableFuture<List<String>>>();
+        private final List<Integer> counts = new ArrayList<Integer>();
+        private ScheduledFuture<?> timer;
+
+        private PendingBatch(String keyId) {
+            this.keyId = keyId;
+        }
+
+        private int size() {
+            return digests.size();
+        }
+
+        private void add(List<byte[]> requestDigests, CompletableFuture<List<String>> future) {
+            digests.addAll(requestDigests);
+            futures.add(future);
+            counts.add(requestDigests.size());
+        }
+
+        private void sign(ExternalSigner signer) {
+            List<String> signatureValues;
+            try {
+                signatureValues = signer.signAll(keyId, digests);
+            } catch (CoreException e) {
+                fail(e);
+                return;
+            } catch (RuntimeException e) {
+                fail(new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, e.toString()));
+                return;
+            }
+            if (signatureValues == null || signatureValues.size() != digests.size()) {
+                fail(new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, "Expected " + digests.size() + " signatures, received "
+                        + (signatureValues == null ? 0 : signatureValues.size())));
+                return;
+            }
+
+            int offset = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                int count = counts.get(i);
+                futures.get(i).complete(new ArrayList<String>(signatureValues.subList(offset, offset + count)));
+                offset += count;
+            }
+        }
+
+        private void fail(CoreException exception) {
+            for (CompletableFuture<List<String>> future : futures) {
+                future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static final class SignerThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private SignerThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+import org.omnione.did.data.model.DataObject;
+import org.omnione.did.data.model.enums.vc.EvidenceType;
+import org.omnione.did.data.model.util.json.GsonWrapper;
+import org.omnione.did.data.model.vc.DocumentVerificationEvidence;
+import org.omnione.did.data.model.vc.Evidence;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming writer of the canonical JSON that {@code DataObject.toJson()} returns.
+ *
+ * <p>{@code toJson()} serializes the object, parses the result into sorted maps and serializes it again,
+ * so the signing input exists as several Strings and a byte array before it is hashed. This class walks the
+ * serialized object tree once and writes the UTF-8 bytes straight to a stream or a SHA-256 digest.</p>
+ *
+ * <p>The output is byte-identical to {@code toJson().getBytes(UTF_8)}. It follows the rules of the sorted
+ * re-serialization of {@code toJson()}: object members are ordered by name and nulls are omitted, numbers
+ * that are object members are written as truncated integers, and numbers inside arrays are written as doubles.
+ * Objects {@code toJson()} cannot serialize are rejected as well.</p>
+ *
+ * <p>Objects can also be read from a stream with the same Gson configuration, without an intermediate String,
+ * and a large array member can be written element by element between the rest of its object
+ * (see {@link #enclose(DataObject, String)}).</p>
+ */
+public final class CanonicalJson {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Configured like the Gson of {@link GsonWrapper}. Its Evidence type adapter is not accessible,
+     * so it is reproduced by {@link EvidenceTypeAdapter}.
+     */
+    private static final Gson GSON = new GsonBuilder()
+            .disableHtmlEscaping()
+            .excludeFieldsWithoutExposeAnnotation()
+            .registerTypeAdapter(Evidence.class, new EvidenceTypeAdapter())
+            .create();
+
+    /** Shared for validation only; building a GsonWrapper creates a new validator factory. */
+    private static final GsonWrapper VALIDATOR = new GsonWrapper();
+
+    private CanonicalJson() {
+    }
+
+    /**
+     * Writes the canonical JSON of the object as UTF-8.
+     * The object is validated first, like {@code toJson()} does.
+     *
+     * @param dataObject The object to write.
+     * @param outputStream The stream to write to. It is flushed but not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    public static void write(DataObject dataObject, OutputStream outputStream) throws IOException {
+        VALIDATOR.validate(dataObject);
+        writeValidated(dataObject, outputStream);
+    }
+
+    /**
+     * Writes the canonical JSON of an object that is already validated, e.g. read by {@link #read(JsonReader, Class)}.
+     *
+     * @param dataObject The object to write.
+     * @param outputStream The stream to write to. It is flushed but not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    public static void writeValidated(DataObject dataObject, OutputStream outputStream) throws IOException {
+        JsonElement jsonTree = GSON.toJsonTree(dataObject);
+
+        JsonWriter jsonWriter = new JsonWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeObject(jsonWriter, jsonTree.getAsJsonObject());
+        jsonWriter.flush();
+    }
+
+    /**
+     * Validates an object like {@code toJson()} and {@code fromJson()} do.
+     *
+     * @param dataObject The object to validate.
+     * @throws jakarta.validation.ConstraintViolationException If the object is not valid.
+     */
+    public static void validate(DataObject dataObject) {
+        VALIDATOR.validate(dataObject);
+    }
+
+    /**
+     * Renders the canonical JSON of an object around the elements of one of its array members.
+     * The canonical JSON of the object holding elements e1..en in that member is
+     * {@code prefix + e1 + "," + ... + "," + en + suffix}, where each element is written by {@link #write(DataObject, OutputStream)}.
+     * The elements can thus be written one at a time, without holding the whole array.
+     *
+     * <p>The current value of the array member is ignored, and the object is not validated,
+     * so it can be rendered before all of its members are known.</p>
+     *
+     * @param dataObject The object holding the array member.
+     * @param arrayMemberName The serialized name of the array member.
+     * @return The UTF-8 bytes preceding and following the elements.
+     */
+    public static Enclosure enclose(DataObject dataObject, String arrayMemberName) {
+        JsonObject before = new JsonObject();
+        JsonObject after = new JsonObject();
+        for (Map.Entry<String, JsonElement> member : GSON.toJsonTree(dataObject).getAsJsonObject().entrySet()) {
+            if (member.getKey().equals(arrayMemberName)) {
+                continue;
+            }
+            (member.getKey().compareTo(arrayMemberName) < 0 ? before : after).add(member.getKey(), member.getValue());
+        }
+        JsonObject arrayMember = new JsonObject();
+        arrayMember.add(arrayMemberName, new JsonArray());
+
+        // {"a":..} + {"name":[]} + {"z":..}  ->  {"a":..,"name":[  and  ],"z":..}
+        String beforeJson = render(before);
+        String arrayMemberJson = render(arrayMember);
+        String afterJson = render(after);
+
+        StringBuilder prefix = new StringBuilder(beforeJson.length() + arrayMemberJson.length());
+        prefix.append(beforeJson, 0, beforeJson.length() - 1);
+        if (beforeJson.length() > 2) {
+            prefix.append(',');
+        }
+        prefix.append(arrayMemberJson, 1, arrayMemberJson.length() - 2);
+
+        StringBuilder suffix = new StringBuilder(afterJson.length() + 1);
+        suffix.append(']');
+        if (afterJson.length() > 2) {
+            suffix.append(',').append(afterJson, 1, afterJson.length());
+        } else {
+            suffix.append('}');
+        }
+        return new Enclosure(prefix.toString().getBytes(StandardCharsets.UTF_8), suffix.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String render(JsonObject jsonObject) {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            writeObject(new JsonWriter(stringWriter), jsonObject);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stringWriter.toString();
+    }
+
+    /**
+     * Reads an object from a JSON stream with the configuration of {@link GsonWrapper}.
+     * The stream is parsed once, directly into the object, and the object is validated like {@code fromJson()} does.
+     *
+     * @param reader The JSON stream. It is not closed.
+     * @param type The type of the object.
+     * @return The object, or null if the stream is empty.
+     * @throws JsonParseException If the stream cannot be read or is not JSON of the type.
+     */
+    public static <T extends DataObject> T read(Reader reader, Class<T> type) throws JsonParseException {
+        T dataObject = GSON.fromJson(reader, type);
+        if (dataObject != null) {
+            VALIDATOR.validate(dataObject);
+        }
+        return dataObject;
+    }
+
+    /**
+     * Reads the next value of a JSON stream as an object, like {@link #read(Reader, Class)}.
+     * The rest of the stream is left unread, so the elements of a large array can be read one at a time.
+     *
+     * @param jsonReader The JSON stream, positioned before the value.
+     * @param type The type of the object.
+     * @return The object, or null if the value is null.
+     * @throws JsonParseException If the value is not JSON of the type.
+     */
+    public static <T extends DataObject> T read(JsonReader jsonReader, Class<T> type) throws JsonParseException {
+        T dataObject = GSON.fromJson(jsonReader, type);
+        if (dataObject != null) {
+            VALIDATOR.validate(dataObject);
+        }
+        return dataObject;
+    }
+
+    /**
+     * Hashes the canonical JSON of the object with SHA-256 without rendering it to a String.
+     * The result equals the SHA-256 of {@code dataObject.toJson().getBytes(UTF_8)}.
+     *
+     * @param dataObject The object to hash.
+     * @return The SHA-256 digest.
+     * @throws CoreException If the digest cannot be created.
+     */
+    public static byte[] digest(DataObject dataObject) throws CoreException {
+        return digest(null, dataObject, null);
+    }
+
+    /**
+     * Hashes the canonical JSON of the object enclosed in pre-rendered bytes.
+     *
+     * @param prefix The UTF-8 bytes preceding the object, or null.
+     * @param dataObject The object to hash.
+     * @param suffix The UTF-8 bytes following the object, or null.
+     * @return The SHA-256 digest.
+     * @throws CoreException If the digest cannot be created.
+     */
+    static byte[] digest(byte[] prefix, DataObject dataObject, byte[] suffix) throws CoreException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, e);
+        }
+
+        long startNanos = CoreMetricsRegistry.startTimer();
+        DigestSink digestSink = new DigestSink(messageDigest);
+        try {
+            if (prefix != null) {
+                digestSink.write(prefix);
+            }
+            write(dataObject, digestSink);
+            if (suffix != null) {
+                digestSink.write(suffix);
+            }
+        } catch (IOException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, e);
+        } finally {
+            CoreMetricsRegistry.stopTimer(Phase.HASHING, startNanos);
+            CoreMetricsRegistry.recordBytesHashed(digestSink.byteCount);
+        }
+        return messageDigest.digest();
+    }
+
+    private static void writeObject(JsonWriter jsonWriter, JsonObject jsonObject) throws IOException {
+        List<Map.Entry<String, JsonElement>> members = new ArrayList<Map.Entry<String, JsonElement>>(jsonObject.entrySet());
+        members.sort(Map.Entry.comparingByKey());
+
+        jsonWriter.beginObject();
+        for (Map.Entry<String, JsonElement> member : members) {
+            JsonElement value = member.getValue();
+            if (value.isJsonNull()) {
+                continue;
+            }
+            jsonWriter.name(member.getKey());
+            if (value.isJsonObject()) {
+                writeObject(jsonWriter, value.getAsJsonObject());
+            } else if (value.isJsonArray()) {
+                writeArray(jsonWriter, value.getAsJsonArray());
+            } else {
+                JsonPrimitive primitive = value.getAsJsonPrimitive();
+                if (primitive.isNumber()) {
+                    jsonWriter.value((long) (int) toDouble(primitive));
+                } else if (primitive.isBoolean()) {
+                    jsonWriter.value(primitive.getAsBoolean());
+                } else {
+                    jsonWriter.value(primitive.getAsString());
+                }
+            }
+        }
+        jsonWriter.endObject();
+    }
+
+    private static void writeArray(JsonWriter jsonWriter, JsonArray jsonArray) throws IOException {
+        jsonWriter.beginArray();
+        for (JsonElement element : jsonArray) {
+            if (element.isJsonObject()) {
+                writeObject(jsonWriter, element.getAsJsonObject());
+            } else if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+                jsonWriter.value(element.getAsString());
+            } else if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+                jsonWriter.value(toDouble(element.getAsJsonPrimitive()));
+            } else {
+                // toJson() fails on array elements other than strings, numbers and objects.
+                throw new IllegalArgumentException("Unsupported array element: " + element);
+            }
+        }
+        jsonWriter.endArray();
+    }
+
+    /**
+     * Converts a number the way {@code toJson()} reads it back from its first serialization.
+     */
+    private static double toDouble(JsonPrimitive primitive) {
+        return Double.parseDouble(primitive.getAsString());
+    }
+
+    /**
+     * Canonical JSON of an object preceding and following the elements of one of its array members.
+     *
+     * @param prefix The UTF-8 bytes up to and including the opening bracket of the array.
+     * @param suffix The UTF-8 bytes from the closing bracket of the array to the end of the object.
+     * @see CanonicalJson#enclose(DataObject, String)
+     */
+    public record Enclosure(byte[] prefix, byte[] suffix) {
+    }
+
+    /**
+     * Reads evidence as its concrete type and writes it with the fields of that type, like the adapter of {@link GsonWrapper}.
+     * Evidence of an unknown type is rejected: GsonWrapper reads it as null, which {@code toJson()} cannot serialize,
+     * and serializing a plain Evidence would recurse into this adapter.
+     */
+    private static final class EvidenceTypeAdapter implements JsonSerializer<Evidence>, JsonDeserializer<Evidence> {
+
+        @Override
+        public JsonElement serialize(Evidence evidence, Type type, JsonSerializationContext context) {
+            if (evidence.getClass() == Evidence.class) {
+                throw new JsonParseException("Unsupported evidence type: " + evidence.getType());
+            }
+            return context.serialize(evidence).getAsJsonObject();
+        }
+
+        @Override
+        public Evidence deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+            JsonElement evidenceType = json.getAsJsonObject().get("type");
+            if (evidenceType == null || !EvidenceType.DOCUMENT_VERIFICATION.getRawValue().equals(evidenceType.getAsString())) {
+                throw new JsonParseException("Unsupported evidence type: " + evidenceType);
+            }
+            return context.deserialize(json, DocumentVerificationEvidence.class);
+        }
+    }
+
+    /**
+     * Output stream feeding a message digest and counting the bytes.
+     */
+    private static final class DigestSink extends OutputStream {
+
+        private final MessageDigest messageDigest;
+        private long byteCount = 0;
+
+        private DigestSink(MessageDigest messageDigest) {
+            this.messageDigest = messageDigest;
+        }
+
+        @Override
+        public void write(int b) {
+            messageDigest.update((byte) b);
+            byteCount++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            messageDigest.update(b, off, len);
+            byteCount += len;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.omnione.did.core.util;
+
+/**
+ * Metrics sink for the verification hot paths of the SDK.
+ *
+ * <p>Implement this interface to forward timings and counters to a metrics library (e.g. Micrometer or Dropwizard)
+ * and install it with {@link CoreMetricsRegistry#setMetrics(CoreMetrics)}. All methods default to no-ops,
+ * so an implementation only overrides what it records. Methods are called concurrently from verifying threads
+ * and must be thread-safe and non-blocking.</p>
+ */
+public interface CoreMetrics {
+
+    /**
+     * Measured phases of signing input generation and verification.
+     */
+    enum Phase {
+        /** Serializing a document or fragment into its signing input. */
+        CANONICALIZATION,
+        /** SHA-256 of the signing input. */
+        HASHING,
+        /** Decoding multibase public keys and signatures. */
+        MULTIBASE_DECODING,
+        /** ECDSA signature verification. */
+        SIGNATURE_VERIFICATION,
+        /** Decoding and preparing a public key of a DID Document (cache misses only). */
+        KEY_RESOLUTION,
+        /** A complete {@code VcManager.verifyCredential} call. */
+        VC_VERIFICATION,
+        /** A complete Verifiable Presentation verification. */
+        VP_VERIFICATION,
+        /** A complete DID Document proof verification. */
+        DID_DOCUMENT_VERIFICATION
+    }
+
+    /**
+     * Records the latency of a phase.
+     *
+     * @param phase The measured phase.
+     * @param elapsedNanos The elapsed time in nanoseconds.
+     */
+    default void recordLatency(Phase phase, long elapsedNanos) {
+    }
+
+    /**
+     * Counts a verified signature.
+     *
+     * @param isValid Whether the signature matched the public key.
+     */
+    default void incrementSignaturesVerified(boolean isValid) {
+    }
+
+    /**
+     * Counts the bytes passed to the hash function.
+     *
+     * @param byteCount The number of hashed bytes.
+     */
+    default void addBytesHashed(long byteCount) {
+    }
+
+    /**
+     * Counts a cache lookup.
+     *
+     * @param cacheName The name of the cache (e.g. {@link PublicKeyCache#METRICS_NAME}).
+     * @param isHit Whether the entry was found in the cache.
+     */
+    default void recordCacheAccess(String cacheName, boolean isHit) {
+    }
+
+    /**
+     * Counts a failed verification.
+     *
+     * @param phase The verification that failed (VC, VP or DID Document).
+     * @param errorCode The error code of the failure (e.g. SSDKCOR03006).
+     */
+    default void incrementFailure(Phase phase, String errorCode) {
+    }
+
+    /**
+     * Records the latency of a stage of the Verifiable Presentation verification pipeline.
+     *
+     * @param stageName The name of the stage (e.g. "expiry" or "issuerSignature").
+     * @param elapsedNanos The elapsed time in nanoseconds.
+     */
+    default void recordStageLatency(String stageName, long elapsedNanos) {
+    }
+
+    /**
+     * Counts a presentation rejected by a stage of the verification pipeline.
+     *
+     * @param stageName The name of the stage that rejected the presentation.
+     * @param errorCode The error code of the rejection.
+     */
+    default void incrementStageRejection(String stageName, String errorCode) {
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.omnione.did.core.util;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+
+/**
+ * Holds the {@link CoreMetrics} sink used by the SDK and the recording helpers called on the hot paths.
+ *
+ * <p>No sink is installed by default. In that case the helpers only read a volatile flag, so instrumentation
+ * does not take timestamps or allocate.</p>
+ */
+public final class CoreMetricsRegistry {
+
+    private static final CoreMetrics NO_OP = new CoreMetrics() {
+    };
+
+    private static volatile CoreMetrics metrics = NO_OP;
+    private static volatile boolean isEnabled = false;
+
+    private CoreMetricsRegistry() {
+    }
+
+    /**
+     * Gets the installed sink.
+     *
+     * @return The installed sink, or a no-op sink if none is installed.
+     */
+    public static CoreMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Installs the sink that receives the metrics of the SDK.
+     *
+     * @param coreMetrics The sink, or null to stop recording.
+     */
+    public static synchronized void setMetrics(CoreMetrics coreMetrics) {
+        isEnabled = false;
+        metrics = coreMetrics != null ? coreMetrics : NO_OP;
+        isEnabled = coreMetrics != null;
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return The start time to pass to {@link #stopTimer(Phase, long)}, or 0 if no sink is installed.
+     */
+    public static long startTimer() {
+        return isEnabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the latency of a phase started with {@link #startTimer()}.
+     *
+     * @param phase The measured phase.
+     * @param startNanos The value returned by {@link #startTimer()}.
+     */
+    public static void stopTimer(Phase phase, long startNanos) {
+        if (startNanos != 0L && isEnabled) {
+            metrics.recordLatency(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void recordSignatureVerified(boolean isValid) {
+        if (isEnabled) {
+            metrics.incrementSignaturesVerified(isValid);
+        }
+    }
+
+    public static void recordBytesHashed(long byteCount) {
+        if (isEnabled) {
+            metrics.addBytesHashed(byteCount);
+        }
+    }
+
+    public static void recordCacheAccess(String cacheName, boolean isHit) {
+        if (isEnabled) {
+            metrics.recordCacheAccess(cacheName, isHit);
+        }
+    }
+
+    /**
+     * Counts a failed verification by its error code.
+     *
+     * @param phase The verification that failed.
+     * @param exception The exception reporting the failure.
+     */
+    public static void recordFailure(Phase phase, CoreException exception) {
+        if (isEnabled) {
+            metrics.incrementFailure(phase, exception.getErrorCode());
+        }
+    }
+
+    /**
+     * Records the latency of a pipeline stage started with {@link #startTimer()}.
+     *
+     * @param stageName The name of the stage.
+     * @param startNanos The value returned by {@link #startTimer()}.
+     */
+    public static void stopStageTimer(String stageName, long startNanos) {
+        if (startNanos != 0L && isEnabled) {
+            metrics.recordStageLatency(stageName, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Counts a presentation rejected by a pipeline stage.
+     *
+     * @param stageName The name of the stage.
+     * @param exception The exception reporting the rejection.
+     */
+    public static void recordStageRejection(String stageName, CoreException exception) {
+        if (isEnabled) {
+            metrics.incrementStageRejection(stageName, exception.getErrorCode());
+        }
+    }
+}
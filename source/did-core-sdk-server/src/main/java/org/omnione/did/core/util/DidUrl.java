@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+
+/**
+ * DID URL as used in the verificationMethod of a proof, e.g. {@code did:omn:issuer?versionId=1#assert}.
+ *
+ * <p>The URL consists of the DID, an optional query carrying the {@code versionId} of the DID Document,
+ * and an optional fragment naming the key. Other query parameters are ignored.</p>
+ */
+public class DidUrl {
+
+    private static final String DID_SCHEME = "did:";
+    private static final String VERSION_ID_PARAMETER = "versionId=";
+
+    private final String did;
+    private final String versionId;
+    private final String keyId;
+
+    private DidUrl(String did, String versionId, String keyId) {
+        this.did = did;
+        this.versionId = versionId;
+        this.keyId = keyId;
+    }
+
+    /**
+     * Parses a DID URL.
+     *
+     * @param didUrl The DID URL (e.g. "did:omn:issuer?versionId=1#assert").
+     * @return The parsed DID URL.
+     * @throws CoreException If the URL does not start with a DID of the form did:method:id.
+     */
+    public static DidUrl parse(String didUrl) throws CoreException {
+        if (didUrl == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DID_URL, "null");
+        }
+
+        String keyId = null;
+        String didAndQuery = didUrl;
+        int fragmentIndex = didUrl.indexOf('#');
+        if (fragmentIndex >= 0) {
+            keyId = didUrl.substring(fragmentIndex + 1);
+            didAndQuery = didUrl.substring(0, fragmentIndex);
+        }
+
+        String did = didAndQuery;
+        String versionId = null;
+        int queryIndex = didAndQuery.indexOf('?');
+        if (queryIndex >= 0) {
+            did = didAndQuery.substring(0, queryIndex);
+            for (String parameter : didAndQuery.substring(queryIndex + 1).split("&")) {
+                if (parameter.startsWith(VERSION_ID_PARAMETER)) {
+                    versionId = parameter.substring(VERSION_ID_PARAMETER.length());
+                }
+            }
+        }
+
+        int methodEnd = did.indexOf(':', DID_SCHEME.length());
+        if (!did.startsWith(DID_SCHEME) || methodEnd <= DID_SCHEME.length() || methodEnd == did.length() - 1) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DID_URL, didUrl);
+        }
+        if (keyId != null && keyId.isEmpty()) {
+            keyId = null;
+        }
+        if (versionId != null && versionId.isEmpty()) {
+            versionId = null;
+        }
+        return new DidUrl(did, versionId, keyId);
+    }
+
+    /**
+     * Gets the DID.
+     *
+     * @return The DID without query and fragment.
+     */
+    public String getDid() {
+        return did;
+    }
+
+    /**
+     * Gets the versionId of the DID Document.
+     *
+     * @return The versionId, or null if the URL has none.
+     */
+    public String getVersionId() {
+        return versionId;
+    }
+
+    /**
+     * Gets the key ID named by the fragment.
+     *
+     * @return The key ID, or null if the URL has no fragment.
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder didUrl = new StringBuilder(did);
+        if (versionId != null) {
+            didUrl.append('?').append(VERSION_ID_PARAMETER).append(versionId);
+        }
+        if (keyId != null) {
+            didUrl.append('#').append(keyId);
+        }
+        return didUrl.toString();
+    }
+}
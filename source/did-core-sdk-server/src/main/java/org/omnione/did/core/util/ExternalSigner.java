@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.util.List;
+
+import org.omnione.did.core.exception.CoreException;
+
+/**
+ * Signer of signing inputs, e.g. an HSM client, called by DidManager and VcManager to add proofs.
+ *
+ * <p>The SDK hashes every signing input with SHA-256 and passes all digests of one key in a single call,
+ * so an implementation can sign them in one round-trip. A Verifiable Credential with N claims is signed
+ * with one call instead of N+1. Wrap a signer in a {@link BatchingSigner} to also share round-trips
+ * between concurrent callers.</p>
+ *
+ * <p>Implementations must be thread-safe.</p>
+ */
+@FunctionalInterface
+public interface ExternalSigner {
+
+    /**
+     * Signs SHA-256 digests with one key.
+     *
+     * @param keyId The ID of the signing key in the DID Document of the signer.
+     * @param digests The SHA-256 digests of the signing inputs.
+     * @return The multibase encoded signature values (as used in proofValue), one per digest in the same order.
+     * @throws CoreException If the digests cannot be signed.
+     */
+    List<String> signAll(String keyId, List<byte[]> digests) throws CoreException;
+}
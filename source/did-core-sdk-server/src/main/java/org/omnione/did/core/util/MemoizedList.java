@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Unmodifiable list whose elements are created on first access and kept afterwards.
+ *
+ * <p>The size is fixed up front. An element is created by the element factory when it is first read, or ahead of
+ * time on an executor for a {@linkplain #prefetched(int, IntFunction, Executor) prefetched} list, so a consumer can
+ * process the first elements while the others are still being created. Every read of an index returns the same
+ * element instance, so elements may be completed in place (e.g. by setting a signature value).</p>
+ *
+ * <p>The list is thread-safe. A runtime exception of the element factory is thrown by the read of that index.</p>
+ *
+ * @param <E> The type of the elements.
+ */
+public final class MemoizedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final IntFunction<E> elementFactory;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicReferenceArray<CompletableFuture<E>> prefetchedElements;
+
+    private MemoizedList(int size, IntFunction<E> elementFactory) {
+        this.elementFactory = elementFactory;
+        this.elements = new AtomicReferenceArray<E>(size);
+        this.prefetchedElements = new AtomicReferenceArray<CompletableFuture<E>>(size);
+    }
+
+    /**
+     * Creates a list whose elements are created on the thread that first reads them.
+     *
+     * @param size The number of elements.
+     * @param elementFactory The function creating the element of an index. It must not return null.
+     * @return The list.
+     */
+    public static <E> MemoizedList<E> of(int size, IntFunction<E> elementFactory) {
+        return new MemoizedList<E>(size, elementFactory);
+    }
+
+    /**
+     * Creates a list whose elements are all submitted to an executor immediately, in index order.
+     * Reading an element waits for its creation. Elements the executor rejects are created on first read instead.
+     *
+     * @param size The number of elements.
+     * @param elementFactory The function creating the element of an index. It must not return null.
+     * @param executor The executor creating the elements.
+     * @return The list.
+     */
+    public static <E> MemoizedList<E> prefetched(int size, IntFunction<E> elementFactory, Executor executor) {
+        MemoizedList<E> list = new MemoizedList<E>(size, elementFactory);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            try {
+                list.prefetchedElements.set(index, CompletableFuture.supplyAsync(() -> elementFactory.apply(index), executor));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, elements.length());
+        E element = elements.get(index);
+        if (element != null) {
+            return element;
+        }
+
+        CompletableFuture<E> prefetchedElement = prefetchedElements.get(index);
+        if (prefetchedElement != null) {
+            try {
+                element = prefetchedElement.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        } else {
+            element = Objects.requireNonNull(elementFactory.apply(index));
+        }
+
+        // Concurrent first reads may both create the element; all readers get the one stored first.
+        elements.compareAndSet(index, null, element);
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.length();
+    }
+}
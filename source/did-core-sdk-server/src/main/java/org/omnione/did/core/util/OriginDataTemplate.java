@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.DataObject;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.CredentialSubject;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+/**
+ * Pre-rendered signing input whose variable part is a single JSON fragment.
+ *
+ * <p>The invariant part of the document is serialized once with {@code toJson()} and split around
+ * the fragment. Rendering a fragment then only serializes the fragment itself, and the result is
+ * byte-identical to calling {@code toJson()} on the whole document with that fragment set.</p>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ */
+public class OriginDataTemplate {
+
+    private final String prefix;
+    private final String suffix;
+    private final byte[] prefixBytes;
+    private final byte[] suffixBytes;
+
+    private OriginDataTemplate(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        // The split points are JSON delimiters, so each part encodes on its own.
+        this.prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        this.suffixBytes = suffix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a template for the per-claim signing input of a Verifiable Credential.
+     * The rendered data equals the credential's JSON with the credentialSubject holding only the given claim.
+     *
+     * @param verifiableCredential The Verifiable Credential including the proof (without signature value). It is not modified.
+     * @return The template, or null if the credential has no claims or the claim position cannot be located.
+     */
+    public static OriginDataTemplate forSingleClaim(VerifiableCredential verifiableCredential) {
+        CredentialSubject credentialSubject = verifiableCredential.getCredentialSubject();
+        if (credentialSubject == null || credentialSubject.getClaims() == null || credentialSubject.getClaims().isEmpty()) {
+            return null;
+        }
+
+        Claim sampleClaim = credentialSubject.getClaims().get(0);
+        List<Claim> sampleClaimList = new ArrayList<Claim>();
+        sampleClaimList.add(sampleClaim);
+
+        CredentialSubject tmpCredentialSubject = new CredentialSubject();
+        tmpCredentialSubject.setId(credentialSubject.getId());
+        tmpCredentialSubject.setClaims(sampleClaimList);
+
+        VerifiableCredential tmpVerifiableCredential = copyOf(verifiableCredential);
+        tmpVerifiableCredential.setCredentialSubject(tmpCredentialSubject);
+
+        return of(tmpVerifiableCredential.toJson(), "\"claims\":[", sampleClaim.toJson(), "]");
+    }
+
+    /**
+     * Creates a template for the signing input of a DID Document proof.
+     * The rendered data equals the document's JSON with {@code proofs} removed and {@code proof} set to the given proof.
+     *
+     * @param didDocument The DID Document. It is not modified.
+     * @param sampleProof A proof without signature value, used to locate the proof position.
+     * @return The template, or null if the proof position cannot be located.
+     */
+    public static OriginDataTemplate forProof(DidDocument didDocument, Proof sampleProof) {
+        DidDocument tmpDidDocument = new DidDocument(didDocument.toJson());
+        tmpDidDocument.setProofs(null);
+        tmpDidDocument.setProof(sampleProof);
+
+        return of(tmpDidDocument.toJson(), "\"proof\":", sampleProof.toJson(), "");
+    }
+
+    /**
+     * Splits the rendered document around the rendered fragment.
+     *
+     * @param renderedDocument The document rendered with a sample fragment.
+     * @param before The text that must directly precede the fragment.
+     * @param renderedFragment The sample fragment as rendered inside the document.
+     * @param after The text that must directly follow the fragment.
+     * @return The template, or null if the fragment does not occur exactly once.
+     */
+    static OriginDataTemplate of(String renderedDocument, String before, String renderedFragment, String after) {
+        String anchor = before + renderedFragment + after;
+        int index = renderedDocument.indexOf(anchor);
+        if (index < 0 || index != renderedDocument.lastIndexOf(anchor)) {
+            return null;
+        }
+
+        int fragmentStart = index + before.length();
+        int fragmentEnd = fragmentStart + renderedFragment.length();
+        return new OriginDataTemplate(renderedDocument.substring(0, fragmentStart), renderedDocument.substring(fragmentEnd));
+    }
+
+    /**
+     * Renders the signing input for the given fragment.
+     *
+     * @param fragment The fragment to insert (e.g. a claim or a proof).
+     * @return The signing input.
+     */
+    public String render(DataObject fragment) {
+        long startNanos = CoreMetricsRegistry.startTimer();
+        String originData = prefix + fragment.toJson() + suffix;
+        CoreMetricsRegistry.stopTimer(CoreMetrics.Phase.CANONICALIZATION, startNanos);
+        return originData;
+    }
+
+    /**
+     * Hashes the signing input for the given fragment with SHA-256 without rendering it.
+     * The result equals the SHA-256 of the UTF-8 bytes of {@link #render(DataObject)}.
+     *
+     * @param fragment The fragment to insert (e.g. a claim or a proof).
+     * @return The SHA-256 digest of the signing input.
+     * @throws CoreException If the digest cannot be created.
+     */
+    public byte[] digest(DataObject fragment) throws CoreException {
+        return CanonicalJson.digest(prefixBytes, fragment, suffixBytes);
+    }
+
+    /**
+     * Creates a shallow copy of the Verifiable Credential.
+     * The nested objects are shared with the source, so only top-level fields may be replaced on the copy.
+     *
+     * @param verifiableCredential The Verifiable Credential to copy.
+     * @return The shallow copy.
+     */
+    private static VerifiableCredential copyOf(VerifiableCredential verifiableCredential) {
+        VerifiableCredential copy = new VerifiableCredential();
+        if (verifiableCredential.getContext() != null) {
+            // setContext(List) always prepends the default context, so the list is filled in directly.
+            copy.setContext();
+            copy.getContext().clear();
+            copy.getContext().addAll(verifiableCredential.getContext());
+        }
+        copy.setId(verifiableCredential.getId());
+        copy.setType(verifiableCredential.getType());
+        copy.setIssuer(verifiableCredential.getIssuer());
+        copy.setIssuanceDate(verifiableCredential.getIssuanceDate());
+        copy.setValidFrom(verifiableCredential.getValidFrom());
+        copy.setValidUntil(verifiableCredential.getValidUntil());
+        copy.setEncoding(verifiableCredential.getEncoding());
+        copy.setFormatVersion(verifiableCredential.getFormatVersion());
+        copy.setLanguage(verifiableCredential.getLanguage());
+        copy.setEvidence(verifiableCredential.getEvidence());
+        copy.setCredentialSchema(verifiableCredential.getCredentialSchema());
+        copy.setCredentialSubject(verifiableCredential.getCredentialSubject());
+        copy.setProof(verifiableCredential.getProof());
+        return copy;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+/**
+ * Presentation filter compiled for repeated checks.
+ *
+ * <p>The credential schemas of a {@link Filter} are indexed by schema id and type, and their allowed issuers
+ * and required claims are kept as hash sets. Checking a presentation then matches every VC with one lookup
+ * and every schema with set lookups, instead of searching the VC and claim lists for each schema.</p>
+ *
+ * <p>The filter is copied on compilation, so later changes to the Filter are not seen.
+ * Instances are immutable and can be shared between threads.</p>
+ */
+public final class PresentationFilter {
+
+    private final List<SchemaRule> schemaRules;
+    private final Map<SchemaKey, List<Integer>> schemaIndexes;
+
+    private PresentationFilter(List<SchemaRule> schemaRules) {
+        this.schemaRules = schemaRules;
+
+        Map<SchemaKey, List<Integer>> schemaIndexes = new HashMap<SchemaKey, List<Integer>>();
+        for (int i = 0; i < schemaRules.size(); i++) {
+            schemaIndexes.computeIfAbsent(schemaRules.get(i).key, k -> new ArrayList<Integer>(1)).add(i);
+        }
+        this.schemaIndexes = schemaIndexes;
+    }
+
+    /**
+     * Compiles a filter.
+     * A schema without allowed issuers admits no issuer, and a schema without required claims requires none.
+     *
+     * @param filter The filter specifying the conditions the submitted VerifiableCredentials must meet.
+     * @return The compiled filter.
+     */
+    public static PresentationFilter compile(Filter filter) {
+
+        List<SchemaRule> schemaRules = new ArrayList<SchemaRule>();
+        if (filter != null && filter.getCredentialSchemas() != null) {
+            for (CredentialSchema credentialSchema : filter.getCredentialSchemas()) {
+                schemaRules.add(new SchemaRule(credentialSchema));
+            }
+        }
+        return new PresentationFilter(Collections.unmodifiableList(schemaRules));
+    }
+
+    /**
+     * Checks if the VerifiableCredentials match the filter.
+     * Each schema is checked against the first VerifiableCredential with its id and type.
+     * The schemas are checked in filter order, so the error reported is the same as the first failing schema of the filter.
+     *
+     * @param verifiableCredentials The VerifiableCredentials of the presentation.
+     * @throws CoreException If a schema has no matching VerifiableCredential, or its VerifiableCredential
+     *                       has an issuer not allowed, misses a required claim or a required proofValue.
+     */
+    public void check(List<VerifiableCredential> verifiableCredentials) throws CoreException {
+
+        if (schemaRules.isEmpty()) {
+            return;
+        }
+
+        Matcher matcher = newMatcher();
+        if (verifiableCredentials != null) {
+            for (VerifiableCredential verifiableCredential : verifiableCredentials) {
+                matcher.match(verifiableCredential);
+            }
+        }
+        matcher.finish();
+    }
+
+    /**
+     * Creates a matcher that checks the VerifiableCredentials of one presentation one at a time,
+     * so they need not be held together.
+     *
+     * @return The matcher.
+     */
+    public Matcher newMatcher() {
+        return new Matcher();
+    }
+
+    /**
+     * Check of the VerifiableCredentials of one presentation against the filter, fed one credential at a time.
+     * It reports the same error as {@link PresentationFilter#check(List)} of all credentials.
+     * A matcher is not thread-safe.
+     */
+    public final class Matcher {
+
+        /** Per schema: whether a VerifiableCredential matched it, and the error of that credential, if any. */
+        private final boolean[] isMatched = new boolean[schemaRules.size()];
+        private final CoreException[] errors = new CoreException[schemaRules.size()];
+        private int passedCount = 0;
+
+        private Matcher() {
+        }
+
+        /**
+         * Checks a VerifiableCredential against the schemas it is the first match of.
+         *
+         * @param verifiableCredential The next VerifiableCredential of the presentation.
+         * @throws CoreException The error of the first failing schema, as soon as every schema before it has passed.
+         */
+        public void match(VerifiableCredential verifiableCredential) throws CoreException {
+
+            CredentialSchema credentialSchema = verifiableCredential.getCredentialSchema();
+            if (credentialSchema == null) {
+                return;
+            }
+            List<Integer> indexes = schemaIndexes.get(new SchemaKey(credentialSchema.getId(), credentialSchema.getType()));
+            if (indexes == null) {
+                return;
+            }
+            for (int index : indexes) {
+                if (!isMatched[index]) {
+                    isMatched[index] = true;
+                    try {
+                        schemaRules.get(index).check(verifiableCredential);
+                    } catch (CoreException e) {
+                        errors[index] = e;
+                    }
+                }
+            }
+
+            // Fail early once the first failing schema in filter order is known.
+            while (passedCount < isMatched.length && isMatched[passedCount]) {
+                if (errors[passedCount] != null) {
+                    throw errors[passedCount];
+                }
+                passedCount++;
+            }
+        }
+
+        /**
+         * Checks that every schema has a matching VerifiableCredential, after the last credential was matched.
+         *
+         * @throws CoreException If a schema has no matching VerifiableCredential, or its VerifiableCredential failed.
+         */
+        public void finish() throws CoreException {
+
+            for (int i = 0; i < isMatched.length; i++) {
+                if (!isMatched[i]) {
+                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_SCHEMA);
+                }
+                if (errors[i] != null) {
+                    throw errors[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Conditions of one credential schema of the filter.
+     */
+    private static final class SchemaRule {
+
+        private final SchemaKey key;
+        private final Set<String> allowedIssuers;
+        private final Set<String> requiredClaims;
+        private final boolean presentAll;
+
+        private SchemaRule(CredentialSchema credentialSchema) {
+            this.key = new SchemaKey(credentialSchema.getId(), credentialSchema.getType());
+            this.allowedIssuers = toSet(credentialSchema.getAllowedIssuers());
+            this.requiredClaims = toSet(credentialSchema.getRequiredClaims());
+            this.presentAll = Boolean.TRUE.equals(credentialSchema.getPresentAll());
+        }
+
+        private void check(VerifiableCredential verifiableCredential) throws CoreException {
+
+            String issuer = verifiableCredential.getIssuer() != null ? verifiableCredential.getIssuer().getId() : null;
+            if (issuer == null || !allowedIssuers.contains(issuer)) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER);
+            }
+
+            if (!requiredClaims.isEmpty() && !containsRequiredClaims(verifiableCredential)) {
+                throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_CONTAIN_CLAIM);
+            }
+
+            if (presentAll) {
+                String proofValue = verifiableCredential.getProof() != null ? verifiableCredential.getProof().getProofValue() : null;
+                if (proofValue == null || proofValue.isBlank()) {
+                    throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_PROOFVALUE);
+                }
+            }
+        }
+
+        private boolean containsRequiredClaims(VerifiableCredential verifiableCredential) {
+
+            if (verifiableCredential.getCredentialSubject() == null || verifiableCredential.getCredentialSubject().getClaims() == null) {
+                return false;
+            }
+            List<Claim> claimList = verifiableCredential.getCredentialSubject().getClaims();
+            Set<String> claimCodes = new HashSet<String>(claimList.size() * 2);
+            for (Claim claim : claimList) {
+                claimCodes.add(claim.getCode());
+            }
+            return claimCodes.containsAll(requiredClaims);
+        }
+
+        private static Set<String> toSet(List<String> values) {
+            return values == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(new HashSet<String>(values));
+        }
+    }
+
+    /**
+     * Schema id and type identifying the credential schema of a VerifiableCredential.
+     */
+    private static final class SchemaKey {
+
+        private final String id;
+        private final String type;
+
+        private SchemaKey(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SchemaKey)) {
+                return false;
+            }
+            SchemaKey other = (SchemaKey) obj;
+            return Objects.equals(id, other.id) && Objects.equals(type, other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, type);
+        }
+    }
+}
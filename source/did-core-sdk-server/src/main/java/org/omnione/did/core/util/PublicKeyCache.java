@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Bounded, thread-safe cache of resolved public keys keyed by (DID, versionId, keyId) and the key material.
+ *
+ * <p>The cache saves decoding the public key of a verification method again. The key type and publicKeyMultibase
+ * of the passed DID Document are part of the cache key, so a hit always returns the key of the passed document:
+ * a forged or stale document sharing the DID, version and key ID of another one neither reuses nor replaces
+ * the key of the other.</p>
+ *
+ * <p>No cache is installed by default; install one with {@link #setDefault(PublicKeyCache)}.</p>
+ */
+public class PublicKeyCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    /**
+     * Cache name reported to {@link CoreMetrics#recordCacheAccess(String, boolean)}.
+     */
+    public static final String METRICS_NAME = "publicKey";
+
+    private static volatile PublicKeyCache defaultCache;
+
+    private final Cache<CacheKey, ResolvedPublicKey> cache;
+
+    /**
+     * Creates a cache with the default size and expiration.
+     */
+    public PublicKeyCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_WRITE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize The maximum number of keys kept in the cache.
+     * @param expireAfterWrite The time after which a cached key is resolved again.
+     */
+    public PublicKeyCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the cache used by {@link VerifyUtil} and the DID document registries.
+     *
+     * @return The default cache, or null if resolved keys are not cached.
+     */
+    public static PublicKeyCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Installs the cache used by {@link VerifyUtil} and the DID document registries.
+     *
+     * @param publicKeyCache The cache, or null to stop caching resolved keys.
+     */
+    public static void setDefault(PublicKeyCache publicKeyCache) {
+        defaultCache = publicKeyCache;
+    }
+
+    /**
+     * Resolves a public key of the DID Document through the default cache, or directly if no cache is installed.
+     *
+     * @param didDocument The DID Document containing the key.
+     * @param keyId The key ID (without the DID).
+     * @return The resolved public key, or null if the DID Document has no such key.
+     * @throws CoreException
+     */
+    public static ResolvedPublicKey resolveCached(DidDocument didDocument, String keyId) throws CoreException {
+        PublicKeyCache publicKeyCache = defaultCache;
+        if (publicKeyCache != null) {
+            return publicKeyCache.resolve(didDocument, keyId);
+        }
+
+        long startNanos = CoreMetricsRegistry.startTimer();
+        VerificationMethod verificationMethod = findVerificationMethod(didDocument, keyId);
+        if (verificationMethod == null) {
+            return null;
+        }
+        ResolvedPublicKey resolvedPublicKey = ResolvedPublicKey.from(verificationMethod);
+        CoreMetricsRegistry.stopTimer(CoreMetrics.Phase.KEY_RESOLUTION, startNanos);
+        return resolvedPublicKey;
+    }
+
+    /**
+     * Resolves a public key of the DID Document, decoding it only when the same key of the same document
+     * version is cached.
+     *
+     * @param didDocument The DID Document containing the key.
+     * @param keyId The key ID (without the DID).
+     * @return The resolved public key, or null if the DID Document has no such key.
+     * @throws CoreException
+     */
+    public ResolvedPublicKey resolve(DidDocument didDocument, String keyId) throws CoreException {
+        VerificationMethod verificationMethod = findVerificationMethod(didDocument, keyId);
+        if (verificationMethod == null) {
+            return null;
+        }
+
+        CacheKey cacheKey = new CacheKey(didDocument.getId(), didDocument.getVersionId(), keyId,
+                verificationMethod.getType(), verificationMethod.getPublicKeyMultibase());
+        ResolvedPublicKey resolvedPublicKey = cache.getIfPresent(cacheKey);
+        CoreMetricsRegistry.recordCacheAccess(METRICS_NAME, resolvedPublicKey != null);
+        if (resolvedPublicKey != null) {
+            return resolvedPublicKey;
+        }
+
+        long startNanos = CoreMetricsRegistry.startTimer();
+        resolvedPublicKey = ResolvedPublicKey.from(verificationMethod);
+        cache.put(cacheKey, resolvedPublicKey);
+        CoreMetricsRegistry.stopTimer(CoreMetrics.Phase.KEY_RESOLUTION, startNanos);
+        return resolvedPublicKey;
+    }
+
+    /**
+     * Removes all cached keys of the given DID.
+     *
+     * @param did The DID whose keys are removed.
+     */
+    public void invalidate(String did) {
+        cache.asMap().keySet().removeIf(cacheKey -> Objects.equals(cacheKey.did(), did));
+    }
+
+    /**
+     * Removes all cached keys.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Removes the cached keys of the given DID from the default cache, if one is installed.
+     *
+     * @param did The DID whose keys are removed.
+     */
+    public static void invalidateDefault(String did) {
+        PublicKeyCache publicKeyCache = defaultCache;
+        if (publicKeyCache != null) {
+            publicKeyCache.invalidate(did);
+        }
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static VerificationMethod findVerificationMethod(DidDocument didDocument, String keyId) {
+        if (didDocument.getVerificationMethod() == null) {
+            return null;
+        }
+        for (VerificationMethod verificationMethod : didDocument.getVerificationMethod()) {
+            if (keyId.equals(verificationMethod.getId())) {
+                return verificationMethod;
+            }
+        }
+        return null;
+    }
+
+    private record CacheKey(String did, String versionId, String keyId, String keyType, String publicKeyMultibase) {
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.VerificationMethod;
+
+/**
+ * Prepared verifier of compact (recoverable) ECDSA signatures for a single public key.
+ *
+ * <p>The compressed public key is decompressed and validated once when the verifier is created,
+ * so verifying many signatures of the same key (claims, VC and VP proofs) does not repeat that work.
+ * The accepted signatures are the same as {@code SignatureUtils.verifyCompactSignWithCompressedKey}:
+ * 65 bytes of header, r and s, where the header carries the recovery id of a compressed key.
+ * {@code PublicKeyVerifierTest} cross-checks both on valid and tampered signatures of both curves.</p>
+ *
+ * <p>Instances are immutable and can be shared between threads.</p>
+ */
+public class PublicKeyVerifier {
+
+    private static final int COMPRESSED_PUBLIC_KEY_LENGTH = 33;
+    private static final int COMPACT_SIGNATURE_LENGTH = 65;
+    private static final int COMPRESSED_KEY_HEADER_BASE = 27 + 4;
+
+    private final EccCurveType curveType;
+    private final ECNamedCurveParameterSpec curveSpec;
+    private final ECPoint publicPoint;
+
+    private PublicKeyVerifier(EccCurveType curveType, ECNamedCurveParameterSpec curveSpec, ECPoint publicPoint) {
+        this.curveType = curveType;
+        this.curveSpec = curveSpec;
+        this.publicPoint = publicPoint;
+    }
+
+    /**
+     * Creates a verifier for the public key of a verification method.
+     *
+     * @param verificationMethod The verification method holding the public key.
+     * @return The verifier.
+     * @throws CoreException
+     */
+    public static PublicKeyVerifier from(VerificationMethod verificationMethod) throws CoreException {
+        ResolvedPublicKey resolvedPublicKey = ResolvedPublicKey.from(verificationMethod);
+        if (resolvedPublicKey.getVerifier() == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, "Unsupported key type: " + verificationMethod.getType());
+        }
+        return resolvedPublicKey.getVerifier();
+    }
+
+    /**
+     * Creates a verifier for a compressed EC public key.
+     *
+     * @param compressPublicKeyBytes The compressed public key bytes.
+     * @param curveType The curve of the key.
+     * @return The verifier.
+     * @throws CoreException
+     */
+    public static PublicKeyVerifier of(byte[] compressPublicKeyBytes, EccCurveType curveType) throws CoreException {
+        if (compressPublicKeyBytes == null || compressPublicKeyBytes.length != COMPRESSED_PUBLIC_KEY_LENGTH) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, "Invalid compressed public key");
+        }
+
+        ECNamedCurveParameterSpec curveSpec = ECNamedCurveTable.getParameterSpec(curveType.getCurveName());
+        ECPoint publicPoint;
+        try {
+            publicPoint = curveSpec.getCurve().decodePoint(compressPublicKeyBytes).normalize();
+        } catch (IllegalArgumentException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, "Invalid compressed public key");
+        }
+        if (publicPoint.isInfinity() || !publicPoint.isValid()) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, "Invalid compressed public key");
+        }
+        return new PublicKeyVerifier(curveType, curveSpec, publicPoint);
+    }
+
+    public EccCurveType getCurveType() {
+        return curveType;
+    }
+
+    /**
+     * Verifies a compact signature over the hashed data.
+     *
+     * @param hashedData The hashed data that was signed.
+     * @param signatureBytes The compact signature (header, r, s).
+     * @throws CoreException
+     */
+    public void verify(byte[] hashedData, byte[] signatureBytes) throws CoreException {
+        if (!isValid(hashedData, signatureBytes)) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, "Signature does not match the public key");
+        }
+    }
+
+    /**
+     * Checks a compact signature over the hashed data.
+     *
+     * <p>{@code SignatureUtils} recovers the key Q' = (sR - eG)/r from the point R with x = r and the y parity
+     * of the recovery id, and compares it with the key. Q' equals Q exactly when sR = eG + rQ, so instead of
+     * decompressing R and recovering a key, the point (e/s)G + (r/s)Q is compared with R. Like the recovery,
+     * only the parity of the recovery id is used, and s is taken modulo n.</p>
+     *
+     * @param hashedData The hashed data that was signed.
+     * @param signatureBytes The compact signature (header, r, s).
+     * @return True if the signature is valid for this key, false otherwise.
+     */
+    public boolean isValid(byte[] hashedData, byte[] signatureBytes) {
+        if (hashedData == null || hashedData.length == 0
+                || signatureBytes == null || signatureBytes.length != COMPACT_SIGNATURE_LENGTH) {
+            return false;
+        }
+
+        boolean isOddY = (((signatureBytes[0] & 0xFF) - COMPRESSED_KEY_HEADER_BASE) & 1) == 1;
+        BigInteger n = curveSpec.getN();
+        BigInteger r = new BigInteger(1, Arrays.copyOfRange(signatureBytes, 1, 33));
+        BigInteger s = new BigInteger(1, Arrays.copyOfRange(signatureBytes, 33, 65)).mod(n);
+        if (r.mod(n).signum() == 0) {
+            return false;
+        }
+
+        BigInteger e = new BigInteger(1, hashedData);
+        if (s.signum() == 0) {
+            // sR is the point at infinity, so the recovered key is -(e/r)G whenever R exists
+            return decodeR(r, isOddY) != null && ECAlgorithms.sumOfTwoMultiplies(curveSpec.getG(), e.mod(n), publicPoint, r.mod(n)).isInfinity();
+        }
+
+        BigInteger sInverse = s.modInverse(n);
+        ECPoint point = ECAlgorithms.sumOfTwoMultiplies(curveSpec.getG(), e.multiply(sInverse).mod(n),
+                publicPoint, r.multiply(sInverse).mod(n)).normalize();
+        if (point.isInfinity()) {
+            return false;
+        }
+
+        return point.getAffineXCoord().toBigInteger().equals(r)
+                && point.getAffineYCoord().testBitZero() == isOddY;
+    }
+
+    private ECPoint decodeR(BigInteger r, boolean isOddY) {
+        byte[] encodedR = new byte[COMPRESSED_PUBLIC_KEY_LENGTH];
+        encodedR[0] = (byte) (isOddY ? 3 : 2);
+        byte[] rBytes = r.toByteArray();
+        int length = Math.min(rBytes.length, COMPRESSED_PUBLIC_KEY_LENGTH - 1);
+        System.arraycopy(rBytes, rBytes.length - length, encodedR, COMPRESSED_PUBLIC_KEY_LENGTH - length, length);
+        try {
+            return curveSpec.getCurve().decodePoint(encodedR);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.crypto.exception.CryptoException;
+import org.omnione.did.crypto.util.MultiBaseUtils;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.DidKeyType;
+
+/**
+ * Public key of a verification method, decoded once from its publicKeyMultibase.
+ * Instances are immutable.
+ */
+public class ResolvedPublicKey {
+
+    private final String keyId;
+    private final String publicKeyMultibase;
+    private final byte[] publicKeyBytes;
+    private final EccCurveType curveType;
+    private final PublicKeyVerifier verifier;
+
+    private ResolvedPublicKey(String keyId, String publicKeyMultibase, byte[] publicKeyBytes, EccCurveType curveType,
+            PublicKeyVerifier verifier) {
+        this.keyId = keyId;
+        this.publicKeyMultibase = publicKeyMultibase;
+        this.publicKeyBytes = publicKeyBytes;
+        this.curveType = curveType;
+        this.verifier = verifier;
+    }
+
+    /**
+     * Decodes the public key of the given verification method.
+     *
+     * @param verificationMethod The verification method holding the public key.
+     * @return The resolved public key.
+     * @throws CoreException
+     */
+    public static ResolvedPublicKey from(VerificationMethod verificationMethod) throws CoreException {
+        byte[] publicKeyBytes;
+        try {
+            publicKeyBytes = MultiBaseUtils.decode(verificationMethod.getPublicKeyMultibase());
+        } catch (CryptoException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_MULTIBASE_DECODING_FAIL, e);
+        }
+        EccCurveType curveType = getCurveTypeByKeyType(verificationMethod.getType());
+        return new ResolvedPublicKey(verificationMethod.getId(), verificationMethod.getPublicKeyMultibase(), publicKeyBytes,
+                curveType, createVerifier(publicKeyBytes, curveType));
+    }
+
+    /**
+     * Prepares the verifier of an EC key.
+     * Keys that cannot be prepared are left to the regular verification path, which reports the error.
+     *
+     * @param publicKeyBytes The decoded public key.
+     * @param curveType The curve of the key.
+     * @return The verifier, or null if the key is not a valid EC key.
+     */
+    private static PublicKeyVerifier createVerifier(byte[] publicKeyBytes, EccCurveType curveType) {
+        if (curveType == null) {
+            return null;
+        }
+        try {
+            return PublicKeyVerifier.of(publicKeyBytes, curveType);
+        } catch (CoreException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the EccCurveType based on the key type of the verification method.
+     *
+     * @param keyType The key type of the verification method.
+     * @return The corresponding elliptic curve type, or null if the key is not an EC key.
+     */
+    private static EccCurveType getCurveTypeByKeyType(String keyType) {
+        DidKeyType didKeyType = keyType == null ? null : DidKeyType.fromString(keyType);
+        if (didKeyType == DidKeyType.SECP256K1_VERIFICATION_KEY_2018) {
+            return EccCurveType.Secp256k1;
+        } else if (didKeyType == DidKeyType.SECP256R1_VERIFICATION_KEY_2018) {
+            return EccCurveType.Secp256r1;
+        }
+        return null;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public String getPublicKeyMultibase() {
+        return publicKeyMultibase;
+    }
+
+    /**
+     * Gets the decoded (compressed) public key.
+     *
+     * @return A copy of the decoded public key bytes.
+     */
+    public byte[] getPublicKeyBytes() {
+        return publicKeyBytes.clone();
+    }
+
+    /**
+     * Gets the curve of the key.
+     *
+     * @return The curve type, or null if the key is not an EC key.
+     */
+    public EccCurveType getCurveType() {
+        return curveType;
+    }
+
+    /**
+     * Gets the prepared verifier of the key.
+     *
+     * @return The verifier, or null if the key is not a valid EC key.
+     */
+    public PublicKeyVerifier getVerifier() {
+        return verifier;
+    }
+}
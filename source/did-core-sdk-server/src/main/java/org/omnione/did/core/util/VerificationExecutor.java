@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+
+/**
+ * Bounded executor for the asynchronous verification APIs.
+ *
+ * <p>A fixed number of threads takes tasks from a queue of fixed capacity. When all threads are busy and the
+ * queue is full, new tasks are rejected instead of queued without limit, and the asynchronous APIs return
+ * a future failed with a VERIFICATION_REJECTED error. Callers can use that as backpressure signal, e.g. by
+ * answering 503 or retrying later. The threads are daemon threads, so the default executor does not keep
+ * the JVM alive.</p>
+ */
+public final class VerificationExecutor implements Executor {
+
+    /** Queued tasks per thread of the default executor. */
+    private static final int DEFAULT_QUEUE_CAPACITY_PER_THREAD = 64;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final int queueCapacity;
+
+    /**
+     * Creates an executor.
+     *
+     * @param threadCount The number of verification threads.
+     * @param queueCapacity The maximum number of tasks waiting for a thread.
+     */
+    public VerificationExecutor(int threadCount, int queueCapacity) {
+        if (threadCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threadCount and queueCapacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.threadPoolExecutor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new VerificationThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Gets the executor used when no executor is passed to an asynchronous API.
+     * It runs one thread per available processor, since verification is CPU-bound.
+     *
+     * @return The shared default executor.
+     */
+    public static VerificationExecutor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Runs a task on the executor.
+     *
+     * @param command The task.
+     * @throws RejectedExecutionException If all threads are busy and the queue is full, or the executor is shut down.
+     */
+    @Override
+    public void execute(Runnable command) {
+        threadPoolExecutor.execute(command);
+    }
+
+    /**
+     * Gets the number of tasks waiting for a thread.
+     *
+     * @return The number of queued tasks.
+     */
+    public int getQueuedTaskCount() {
+        return threadPoolExecutor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of further tasks the queue accepts.
+     *
+     * @return The remaining capacity of the queue.
+     */
+    public int getRemainingCapacity() {
+        return threadPoolExecutor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * Gets the maximum number of tasks waiting for a thread.
+     *
+     * @return The capacity of the queue.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Gets the number of threads running a task.
+     *
+     * @return The approximate number of active threads.
+     */
+    public int getActiveCount() {
+        return threadPoolExecutor.getActiveCount();
+    }
+
+    /**
+     * Stops accepting tasks. Queued tasks are still run.
+     */
+    public void shutdown() {
+        threadPoolExecutor.shutdown();
+    }
+
+    /**
+     * Runs a task asynchronously on an executor.
+     * A CoreException thrown by the task completes the future with that exception.
+     * If the executor rejects the task, the future fails with a CoreException of the given error code,
+     * so a saturated executor never blocks the caller.
+     *
+     * @param task The task to run.
+     * @param executor The executor to run the task on.
+     * @param rejectedErrorCode The error code reported when the executor rejects the task.
+     * @return The future of the result of the task.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> task, Executor executor, CoreErrorCode rejectedErrorCode) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    // cancelled while queued
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new CoreException(rejectedErrorCode));
+        }
+        return future;
+    }
+
+    private static final class DefaultHolder {
+
+        private static final VerificationExecutor INSTANCE;
+
+        static {
+            int threadCount = Runtime.getRuntime().availableProcessors();
+            INSTANCE = new VerificationExecutor(threadCount, threadCount * DEFAULT_QUEUE_CAPACITY_PER_THREAD);
+        }
+    }
+
+    private static final class VerificationThreadFactory implements ThreadFactory {
+
+        private final String namePrefix = "did-core-verification-" + POOL_NUMBER.getAndIncrement() + "-";
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
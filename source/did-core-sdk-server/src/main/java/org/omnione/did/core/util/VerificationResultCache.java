@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Bounded, thread-safe cache of successful issuer signature verifications of Verifiable Credentials.
+ *
+ * <p>An entry is keyed by the SHA-256 of the canonical JSON of the credential, including its proof, and by the
+ * issuer public key that verified it. A credential presented again with the same bytes and the same issuer key
+ * skips its signature checks. Any change of the credential, its signatures or the issuer key misses the cache.
+ * Failed verifications are not cached.</p>
+ *
+ * <p>The cache holds no expiration dates: the callers check {@code validUntil} and resolve the issuer key from
+ * the current DID Document before every lookup, so an expired credential or a removed key is rejected on a hit
+ * as well. Entries of an issuer are removed with {@link #invalidate(String)} when its DID Document changes.</p>
+ *
+ * <p>No cache is installed by default; install one with {@link #setDefault(VerificationResultCache)}.</p>
+ */
+public class VerificationResultCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+    public static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    /**
+     * Cache name reported to {@link CoreMetrics#recordCacheAccess(String, boolean)}.
+     */
+    public static final String METRICS_NAME = "verificationResult";
+
+    private static volatile VerificationResultCache defaultCache;
+
+    private final Cache<CacheKey, Boolean> cache;
+
+    /**
+     * Creates a cache with the default size and expiration.
+     */
+    public VerificationResultCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_WRITE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize The maximum number of verifications kept in the cache.
+     * @param expireAfterWrite The time after which a credential is verified again.
+     */
+    public VerificationResultCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the cache used by VcManager and VpManager.
+     *
+     * @return The default cache, or null if verification results are not cached.
+     */
+    public static VerificationResultCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Installs the cache used by VcManager and VpManager.
+     *
+     * @param verificationResultCache The cache, or null to stop caching verification results.
+     */
+    public static void setDefault(VerificationResultCache verificationResultCache) {
+        defaultCache = verificationResultCache;
+    }
+
+    /**
+     * Runs the signature checks of a credential through the default cache, or directly if no cache is installed.
+     *
+     * @param verifiableCredential The Verifiable Credential whose signatures are checked.
+     * @param issuerPublicKey The issuer public key the signatures are checked with.
+     * @param signatureCheck The signature checks, throwing if a signature is invalid.
+     * @throws CoreException The exception of the signature checks.
+     * @see #verify(VerifiableCredential, ResolvedPublicKey, SignatureCheck)
+     */
+    public static void verifyCached(VerifiableCredential verifiableCredential, ResolvedPublicKey issuerPublicKey,
+            SignatureCheck signatureCheck) throws CoreException {
+        VerificationResultCache resultCache = defaultCache;
+        if (resultCache == null) {
+            signatureCheck.verify();
+        } else {
+            resultCache.verify(verifiableCredential, issuerPublicKey, signatureCheck);
+        }
+    }
+
+    /**
+     * Runs the signature checks of a credential unless the same credential was verified with the same key before.
+     * The result is cached only if the checks pass.
+     *
+     * @param verifiableCredential The Verifiable Credential whose signatures are checked.
+     * @param issuerPublicKey The issuer public key the signatures are checked with.
+     * @param signatureCheck The signature checks, throwing if a signature is invalid.
+     * @throws CoreException The exception of the signature checks, or if the credential cannot be hashed.
+     */
+    public void verify(VerifiableCredential verifiableCredential, ResolvedPublicKey issuerPublicKey,
+            SignatureCheck signatureCheck) throws CoreException {
+        String issuerDid = verifiableCredential.getIssuer() != null ? verifiableCredential.getIssuer().getId() : null;
+        CacheKey cacheKey = new CacheKey(issuerDid, issuerPublicKey.getKeyId(), issuerPublicKey.getPublicKeyMultibase(),
+                ByteBuffer.wrap(CanonicalJson.digest(verifiableCredential)));
+
+        boolean isHit = cache.getIfPresent(cacheKey) != null;
+        CoreMetricsRegistry.recordCacheAccess(METRICS_NAME, isHit);
+        if (isHit) {
+            return;
+        }
+
+        signatureCheck.verify();
+        cache.put(cacheKey, Boolean.TRUE);
+    }
+
+    /**
+     * Removes all cached verifications of credentials issued by the given DID.
+     *
+     * @param did The DID of the issuer.
+     */
+    public void invalidate(String did) {
+        cache.asMap().keySet().removeIf(cacheKey -> Objects.equals(cacheKey.issuerDid(), did));
+    }
+
+    /**
+     * Removes all cached verifications.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Removes the cached verifications of the given DID from the default cache, if one is installed.
+     *
+     * @param did The DID of the issuer.
+     */
+    public static void invalidateDefault(String did) {
+        VerificationResultCache resultCache = defaultCache;
+        if (resultCache != null) {
+            resultCache.invalidate(did);
+        }
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Signature checks of a credential, run on a cache miss.
+     */
+    @FunctionalInterface
+    public interface SignatureCheck {
+
+        /**
+         * Checks the signatures.
+         *
+         * @throws CoreException If a signature is invalid.
+         */
+        void verify() throws CoreException;
+    }
+
+    private record CacheKey(String issuerDid, String keyId, String publicKeyMultibase, ByteBuffer digest) {
+    }
+}
@@ -24,15 +24,16 @@ import org.omnione.did.core.data.rest.SignatureParams;
 import org.omnione.did.core.data.rest.SignatureVcParams;
 import org.omnione.did.core.exception.CoreErrorCode;
 import org.omnione.did.core.exception.CoreException;
-import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.core.util.CoreMetrics.Phase;
 import org.omnione.did.crypto.enums.DigestType;
 import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.crypto.enums.MultiBaseType;
 import org.omnione.did.crypto.exception.CryptoException;
 import org.omnione.did.crypto.util.DigestUtils;
 import org.omnione.did.crypto.util.MultiBaseUtils;
 import org.omnione.did.crypto.util.SignatureUtils;
+import org.omnione.did.data.model.DataObject;
 import org.omnione.did.data.model.did.DidDocument;
-import org.omnione.did.data.model.did.VerificationMethod;
 import org.omnione.did.data.model.enums.did.ProofType;
 import org.omnione.did.data.model.vc.VcProof;
 import org.omnione.did.data.model.vc.VerifiableCredential;
@@ -68,6 +69,48 @@ public class VerifyUtil {
     public static SignatureVcParams getSignatureVcParams(VerifiableCredential tmpVerifiableCredential, DidDocument issuerDidDocument
             , boolean isSingleClaim, String proofValue) throws CoreException {
 
+        ResolvedPublicKey publicKey = resolvePublicKey(issuerDidDocument, tmpVerifiableCredential.getProof().getVerificationMethod());
+
+        if (publicKey == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_EXIST_SIGNING_KEY);
+        }
+        
+        return getSignatureVcParams(tmpVerifiableCredential, publicKey, isSingleClaim, proofValue);
+    }
+
+    /**
+     * Constructs and returns a SignatureVcParams object using the provided Verifiable Credential and an already resolved public key.
+     * 
+     * @param tmpVerifiableCredential The Verifiable Credential used to extract signature-related parameters.
+     * @param publicKey The resolved public key of the issuer.
+     * @param isSingleClaim A boolean flag indicating whether the signature is for a single claim or the entire Verifiable Credential.
+     * @param proofValue The cryptographic proof (signature) associated with the Verifiable Credential or claim.
+     * @return A SignatureVcParams object populated with the necessary data for signature verification.
+     */
+    public static SignatureVcParams getSignatureVcParams(VerifiableCredential tmpVerifiableCredential, ResolvedPublicKey publicKey
+            , boolean isSingleClaim, String proofValue) {
+
+        VcProof tmpProof = setSigningProof(tmpVerifiableCredential);
+        
+        SignatureVcParams sigVcParams = new SignatureVcParams();
+        sigVcParams.setIsSingleClaim(isSingleClaim);
+        long startNanos = CoreMetricsRegistry.startTimer();
+        sigVcParams.setOriginData(tmpVerifiableCredential.toJson());
+        CoreMetricsRegistry.stopTimer(Phase.CANONICALIZATION, startNanos);
+        sigVcParams.setSignatureValue(proofValue);
+        sigVcParams.setPublicKey(publicKey.getPublicKeyMultibase());
+        sigVcParams.setAlgorithm(tmpProof.getType());
+        
+        return sigVcParams;
+    }
+
+    /**
+     * Replaces the proof of the Verifiable Credential with a copy holding no signature values.
+     *
+     * @param tmpVerifiableCredential The Verifiable Credential to modify.
+     * @return The proof as it was signed.
+     */
+    private static VcProof setSigningProof(VerifiableCredential tmpVerifiableCredential) {
         VcProof vcProof = tmpVerifiableCredential.getProof();
         VcProof tmpProof = new VcProof();
         tmpProof.setCreated(vcProof.getCreated());
@@ -76,25 +119,108 @@ public class VerifyUtil {
         tmpProof.setVerificationMethod(vcProof.getVerificationMethod());
 
         tmpVerifiableCredential.setProof(tmpProof);
-        
-        SignatureVcParams sigVcParams = new SignatureVcParams();
-        sigVcParams.setIsSingleClaim(isSingleClaim);
-        sigVcParams.setOriginData(tmpVerifiableCredential.toJson());
-        sigVcParams.setSignatureValue(proofValue);
-        DidManager didManager = new DidManager();
-        didManager.parse(issuerDidDocument.toJson());
+        return tmpProof;
+    }
 
-        VerificationMethod publicKey =  didManager.getVerificationMethodByKeyId(tmpProof.getVerificationMethod().split("\\#")[1]);
+    /**
+     * Resolves the public key referenced by a proof from the DID Document.
+     * Resolved keys are kept in the {@link PublicKeyCache#getDefault() default PublicKeyCache}, if one is installed.
+     *
+     * @param didDocument The DID Document containing the key.
+     * @param verificationMethod The verification method of the proof (e.g. "did:omn:issuer?versionId=1#assert").
+     * @return The resolved public key, or null if the DID Document has no such key.
+     * @throws CoreException If the URL has no key ID, or names another version than the versionId of the DID Document.
+     */
+    public static ResolvedPublicKey resolvePublicKey(DidDocument didDocument, String verificationMethod) throws CoreException {
+        return resolvePublicKey(didDocument, verificationMethod, null);
+    }
 
-        if (publicKey == null) {
-            throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_NOT_EXIST_SIGNING_KEY);
+    /**
+     * Resolves the public key referenced by a proof from the DID Document through the given cache,
+     * e.g. one shared by the items of a batch.
+     *
+     * @param didDocument The DID Document containing the key.
+     * @param verificationMethod The verification method of the proof (e.g. "did:omn:issuer?versionId=1#assert").
+     * @param publicKeyCache The cache of resolved keys, or null to use the default PublicKeyCache.
+     * @return The resolved public key, or null if the DID Document has no such key.
+     * @throws CoreException If the URL has no key ID, or names another version than the versionId of the DID Document.
+     */
+    public static ResolvedPublicKey resolvePublicKey(DidDocument didDocument, String verificationMethod, PublicKeyCache publicKeyCache) throws CoreException {
+        DidUrl didUrl = DidUrl.parse(verificationMethod);
+        if (didUrl.getKeyId() == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DID_URL, verificationMethod);
         }
-        sigVcParams.setPublicKey(publicKey.getPublicKeyMultibase());
-        sigVcParams.setAlgorithm(tmpProof.getType());
-        
-        return sigVcParams;
+        if (didUrl.getVersionId() != null && !didUrl.getVersionId().equals(didDocument.getVersionId())) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_MATCHED_VERSION,
+                    verificationMethod + " (DidDocument versionId: " + didDocument.getVersionId() + ")");
+        }
+
+        if (publicKeyCache != null) {
+            return publicKeyCache.resolve(didDocument, didUrl.getKeyId());
+        }
+        return PublicKeyCache.resolveCached(didDocument, didUrl.getKeyId());
     }
     
+    /**
+     * Hashes a signing input using SHA-256, the digest that is signed and verified.
+     *
+     * @param originData The signing input.
+     * @return The SHA-256 digest of the UTF-8 bytes of the signing input.
+     * @throws CoreException
+     */
+    public static byte[] digest(String originData) throws CoreException {
+        return hashData(originData);
+    }
+
+    /**
+     * Gets the SHA-256 digest that signing parameters are signed with.
+     * The digest is computed from the origin data if present, otherwise it is decoded from hashedData.
+     * It is only meant for handing the digest to a signer; the verifySignature methods do not trust hashedData.
+     *
+     * @param sigParams The signing parameters.
+     * @return The SHA-256 digest.
+     * @throws CoreException If neither origin data nor hashedData is set, or hashedData cannot be decoded.
+     */
+    public static byte[] getDigest(SignatureParams sigParams) throws CoreException {
+        if (sigParams.getOriginData() != null) {
+            return hashData(sigParams.getOriginData());
+        }
+        if (sigParams.getHashedData() == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, "Neither originData nor hashedData is set");
+        }
+        return decodeMultibase(sigParams.getHashedData());
+    }
+
+    /**
+     * Computes the SHA-256 digest of the origin data of signing parameters for verification.
+     * The hashedData is ignored, as it is not bound to the signed data.
+     *
+     * @param sigParams The signing parameters.
+     * @return The SHA-256 digest of the origin data.
+     * @throws CoreException If the origin data is not set.
+     */
+    private static byte[] getVerificationDigest(SignatureParams sigParams) throws CoreException {
+        if (sigParams.getOriginData() == null) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, "originData is required for verification");
+        }
+        return hashData(sigParams.getOriginData());
+    }
+
+    /**
+     * Encodes a SHA-256 digest as the hashedData of signing parameters.
+     *
+     * @param digest The SHA-256 digest.
+     * @return The multibase (base58btc) encoded digest.
+     * @throws CoreException
+     */
+    public static String encodeDigest(byte[] digest) throws CoreException {
+        try {
+            return MultiBaseUtils.encode(digest, MultiBaseType.base58btc);
+        } catch (CryptoException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_MULTIBASE_ENCODING_FAIL, e);
+        }
+    }
+
     /**
      * Hashes the provided data using SHA-256.
      *
@@ -103,10 +229,33 @@ public class VerifyUtil {
      * @throws CoreException 
      */
     private static byte[] hashData(String signOrignData) throws CoreException{
+        long startNanos = CoreMetricsRegistry.startTimer();
+        byte[] signOrignDataBytes = signOrignData.getBytes(StandardCharsets.UTF_8);
         try {
-            return DigestUtils.getDigest(signOrignData.getBytes(StandardCharsets.UTF_8), DigestType.SHA256);
+            return DigestUtils.getDigest(signOrignDataBytes, DigestType.SHA256);
         } catch (CryptoException e) {
             throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL ,e);
+        } finally {
+            CoreMetricsRegistry.stopTimer(Phase.HASHING, startNanos);
+            CoreMetricsRegistry.recordBytesHashed(signOrignDataBytes.length);
+        }
+    }
+
+    /**
+     * Decodes a multibase encoded public key or signature.
+     *
+     * @param encoded The multibase encoded value.
+     * @return The decoded bytes.
+     * @throws CoreException
+     */
+    private static byte[] decodeMultibase(String encoded) throws CoreException {
+        long startNanos = CoreMetricsRegistry.startTimer();
+        try {
+            return MultiBaseUtils.decode(encoded);
+        } catch (CryptoException e) {
+            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_MULTIBASE_DECODING_FAIL ,e);
+        } finally {
+            CoreMetricsRegistry.stopTimer(Phase.MULTIBASE_DECODING, startNanos);
         }
     }
 
@@ -127,30 +276,123 @@ public class VerifyUtil {
     /**
      * Verifies the signature with the provided public key, hashed data, and signature.
      *
-     * @param compressPublicKeyBytes The compressed public key bytes.
-     * @param hashedSignOrignData The hashed data.
-     * @param signatureByte The signature bytes.
-     * @param eccCurveType The ECC curve type.
-     * @throws CoreException
+     * The digest is computed from the origin data; hashedData is not trusted.
+     *
+     * @param sigParams The signature parameters including the origin data, public key, signature and algorithm.
+     * @throws CoreException If the origin data is not set or the signature is invalid.
+     * @see #verifyHashedSignature(byte[], String, String, ResolvedPublicKey)
      */
     public static void verifySignature(SignatureParams sigParams) throws CoreException {
-        byte[] hashedSignOrignData = hashData(sigParams.getOriginData());
+        byte[] compressPublicKeyBytes = decodeMultibase(sigParams.getPublicKey());
+        
+        verifyHashedSignature(getVerificationDigest(sigParams), sigParams.getSignatureValue(), sigParams.getAlgorithm(), compressPublicKeyBytes);
+    }
+
+    /**
+     * Verifies the signature with an already resolved public key.
+     * The public key and hashedData of the signature parameters are ignored.
+     *
+     * @param sigParams The signature parameters including the origin data, signature and algorithm.
+     * @param publicKey The resolved public key.
+     * @throws CoreException If the origin data is not set or the signature is invalid.
+     */
+    public static void verifySignature(SignatureParams sigParams, ResolvedPublicKey publicKey) throws CoreException {
+        verifyHashedSignature(getVerificationDigest(sigParams), sigParams.getSignatureValue(), sigParams.getAlgorithm(), publicKey);
+    }
+
+    /**
+     * Verifies the signature with a prepared verifier of the signing key.
+     * The public key, the algorithm and hashedData of the signature parameters are ignored.
+     *
+     * @param sigParams The signature parameters including the origin data and signature.
+     * @param verifier The prepared verifier of the signing key.
+     * @throws CoreException If the origin data is not set or the signature is invalid.
+     */
+    public static void verifySignature(SignatureParams sigParams, PublicKeyVerifier verifier) throws CoreException {
+        verifyHashedSignature(getVerificationDigest(sigParams), sigParams.getSignatureValue(), verifier);
+    }
+
+    /**
+     * Verifies the signature over the canonical JSON of a signing document.
+     * The document is hashed while it is serialized, so the origin data is never rendered to a String.
+     *
+     * @param signingDocument The document as it was signed (i.e. its proof without signature value).
+     * @param signatureValue The multibase encoded signature.
+     * @param algorithm The signature algorithm (proof type).
+     * @param publicKey The resolved public key.
+     * @throws CoreException
+     * @see CanonicalJson#digest(DataObject)
+     */
+    public static void verifySignature(DataObject signingDocument, String signatureValue, String algorithm, ResolvedPublicKey publicKey) throws CoreException {
+        verifyHashedSignature(CanonicalJson.digest(signingDocument), signatureValue, algorithm, publicKey);
+    }
+
+    /**
+     * Verifies the proof value of a Verifiable Credential or one of its claims.
+     * The proof of the credential is replaced by a copy without signature values, as in
+     * {@link #getSignatureVcParams(VerifiableCredential, ResolvedPublicKey, boolean, String)}, and the credential is
+     * hashed without rendering the origin data.
+     *
+     * @param tmpVerifiableCredential A copy of the Verifiable Credential holding the signed claims. Its proof is replaced.
+     * @param publicKey The resolved public key of the issuer.
+     * @param proofValue The signature of the Verifiable Credential or claim.
+     * @throws CoreException
+     */
+    public static void verifyVcSignature(VerifiableCredential tmpVerifiableCredential, ResolvedPublicKey publicKey, String proofValue) throws CoreException {
+        VcProof tmpProof = setSigningProof(tmpVerifiableCredential);
+        
+        verifySignature(tmpVerifiableCredential, proofValue, tmpProof.getType(), publicKey);
+    }
+
+    /**
+     * Verifies the signature over already hashed origin data with a resolved public key.
+     * The digest must be computed by the verifier from the signed data, never taken from the signer.
+     *
+     * @param hashedData The SHA-256 of the origin data.
+     * @param signatureValue The multibase encoded signature.
+     * @param algorithm The signature algorithm (proof type).
+     * @param publicKey The resolved public key.
+     * @throws CoreException
+     */
+    public static void verifyHashedSignature(byte[] hashedData, String signatureValue, String algorithm, ResolvedPublicKey publicKey) throws CoreException {
+        PublicKeyVerifier verifier = publicKey.getVerifier();
+        if (verifier == null || verifier.getCurveType() != getCurveTypeByAlgorithm(algorithm)) {
+            verifyHashedSignature(hashedData, signatureValue, algorithm, publicKey.getPublicKeyBytes());
+            return;
+        }
+        
+        verifyHashedSignature(hashedData, signatureValue, verifier);
+    }
 
-        byte[] signatureByte;
-        byte[] compressPublicKeyBytes;
+    private static void verifyHashedSignature(byte[] hashedData, String signatureValue, PublicKeyVerifier verifier) throws CoreException {
+        byte[] signatureByte = decodeMultibase(signatureValue);
+        
+        long startNanos = CoreMetricsRegistry.startTimer();
+        boolean isValid = false;
         try {
-            signatureByte = MultiBaseUtils.decode(sigParams.getSignatureValue());
-            compressPublicKeyBytes = MultiBaseUtils.decode(sigParams.getPublicKey());
-        } catch (CryptoException e) {
-            throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_MULTIBASE_DECODING_FAIL ,e);
+            verifier.verify(hashedData, signatureByte);
+            isValid = true;
+        } finally {
+            CoreMetricsRegistry.stopTimer(Phase.SIGNATURE_VERIFICATION, startNanos);
+            CoreMetricsRegistry.recordSignatureVerified(isValid);
         }
+    }
+
+    private static void verifyHashedSignature(byte[] hashedData, String signatureValue, String algorithm, byte[] compressPublicKeyBytes) throws CoreException {
+        byte[] signatureByte = decodeMultibase(signatureValue);
         
-        EccCurveType eccCurveType = getCurveTypeByAlgorithm(sigParams.getAlgorithm());
+        EccCurveType eccCurveType = getCurveTypeByAlgorithm(algorithm);
         
+        long startNanos = CoreMetricsRegistry.startTimer();
+        boolean isValid = false;
         try {
-            SignatureUtils.verifyCompactSignWithCompressedKey(compressPublicKeyBytes, hashedSignOrignData, signatureByte, eccCurveType);
+            SignatureUtils.verifyCompactSignWithCompressedKey(compressPublicKeyBytes, hashedData, signatureByte, eccCurveType);
+            isValid = true;
         } catch (CryptoException e) {
             throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, e.getMessage());
+        } finally {
+            CoreMetricsRegistry.stopTimer(Phase.SIGNATURE_VERIFICATION, startNanos);
+            CoreMetricsRegistry.recordSignatureVerified(isValid);
         }
     }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.PublicKeyCache;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+
+class DidDocumentRegistryTest {
+
+	private static final String DID = "did:omn:registry";
+	private static final String KEY_ID = BenchmarkFixtures.ASSERT_KEY_ID;
+
+	private static DidDocument firstVersion;
+	private static DidDocument secondVersion;
+	private static DidDocument replacedFirstVersion;
+
+	@TempDir
+	Path directory;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		firstVersion = BenchmarkFixtures.didDocument(DID, 4, EccCurveType.Secp256r1).getDocument();
+		secondVersion = withKeysOf(firstVersion, "2", "did:omn:rotated");
+		replacedFirstVersion = withKeysOf(firstVersion, firstVersion.getVersionId(), "did:omn:replaced");
+	}
+
+	@AfterEach
+	void removeDefault() {
+		PublicKeyCache.setDefault(null);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void resolvesLatestAndSpecificVersion(boolean isPersisted) throws CoreException {
+		InMemoryDidDocumentRegistry registry = registry(isPersisted);
+		registry.register(secondVersion);
+		registry.register(firstVersion);
+
+		assertEquals(secondVersion.toJson(), registry.resolve(DID, null).toJson());
+		assertEquals(firstVersion.toJson(), registry.resolve(DID, firstVersion.getVersionId()).toJson());
+		assertEquals(publicKeyOf(secondVersion), registry.resolvePublicKey(DID + "#" + KEY_ID).getPublicKeyMultibase());
+		assertEquals(publicKeyOf(firstVersion),
+				registry.resolvePublicKey(DID + "?versionId=" + firstVersion.getVersionId() + "#" + KEY_ID).getPublicKeyMultibase());
+		assertNull(registry.resolve(DID, "3"));
+		assertNull(registry.resolve("did:omn:unknown", null));
+		assertEquals(2, registry.size());
+
+		CoreException exception = assertThrows(CoreException.class, () -> registry.resolvePublicKey(DID + "?versionId=3#" + KEY_ID));
+		assertEquals(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_REGISTERED_DIDDOCUMENT.getCode(), exception.getErrorCode());
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void replacesVersionAndInvalidatesCachedKeys(boolean isPersisted) throws CoreException {
+		InMemoryDidDocumentRegistry registry = registry(isPersisted);
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		PublicKeyCache.setDefault(publicKeyCache);
+		registry.register(firstVersion);
+		registry.resolvePublicKey(DID + "#" + KEY_ID);
+		publicKeyCache.resolve(firstVersion, KEY_ID);
+
+		registry.register(replacedFirstVersion);
+
+		assertEquals(0, publicKeyCache.size());
+		assertEquals(publicKeyOf(replacedFirstVersion), registry.resolvePublicKey(DID + "#" + KEY_ID).getPublicKeyMultibase());
+		assertEquals(1, registry.size());
+
+		publicKeyCache.resolve(replacedFirstVersion, KEY_ID);
+		registry.remove(DID);
+
+		assertEquals(0, publicKeyCache.size());
+		assertNull(registry.resolve(DID, null));
+		assertFalse(registry.getDids().contains(DID));
+	}
+
+	@Test
+	void restoresRegisteredVersionsAfterRestart() throws CoreException {
+		FileDidDocumentRegistry registry = new FileDidDocumentRegistry(directory.toString());
+		registry.register(firstVersion);
+		registry.register(secondVersion);
+
+		FileDidDocumentRegistry restored = new FileDidDocumentRegistry(directory.toString());
+
+		assertEquals(2, restored.size());
+		assertEquals(secondVersion.toJson(), restored.resolve(DID, null).toJson());
+		assertEquals(firstVersion.toJson(), restored.resolve(DID, firstVersion.getVersionId()).toJson());
+
+		restored.remove(DID);
+
+		assertEquals(0, new FileDidDocumentRegistry(directory.toString()).size());
+	}
+
+	@Test
+	void registeredVersionReplacesOtherFilesOfTheVersion() throws CoreException, IOException {
+		// sorted after the files of the registry, so it was loaded last
+		Path seedFile = directory.resolve("seed.json");
+		Files.writeString(seedFile, firstVersion.toJson(), StandardCharsets.UTF_8);
+		FileDidDocumentRegistry registry = new FileDidDocumentRegistry(directory.toString());
+		assertEquals(firstVersion.toJson(), registry.resolve(DID, null).toJson());
+
+		registry.register(replacedFirstVersion);
+
+		assertFalse(Files.exists(seedFile));
+		FileDidDocumentRegistry restored = new FileDidDocumentRegistry(directory.toString());
+		assertEquals(replacedFirstVersion.toJson(), restored.resolve(DID, null).toJson());
+	}
+
+	@Test
+	void fileOfTheNamingSchemeTakesPrecedence() throws CoreException, IOException {
+		new FileDidDocumentRegistry(directory.toString()).register(replacedFirstVersion);
+		Files.writeString(directory.resolve("seed.json"), firstVersion.toJson(), StandardCharsets.UTF_8);
+
+		FileDidDocumentRegistry restored = new FileDidDocumentRegistry(directory.toString());
+
+		assertEquals(1, restored.size());
+		assertEquals(replacedFirstVersion.toJson(), restored.resolve(DID, null).toJson());
+	}
+
+	private InMemoryDidDocumentRegistry registry(boolean isPersisted) throws CoreException {
+		return isPersisted ? new FileDidDocumentRegistry(directory.toString()) : new InMemoryDidDocumentRegistry();
+	}
+
+	/**
+	 * Copies the document with another versionId and the keys of another DID.
+	 */
+	private static DidDocument withKeysOf(DidDocument didDocument, String versionId, String otherDid) throws CoreException {
+		DidDocument otherDidDocument = BenchmarkFixtures.didDocument(otherDid, 4, EccCurveType.Secp256r1).getDocument();
+		DidDocument copy = new DidDocument();
+		copy.fromJson(didDocument.toJson());
+		copy.setVersionId(versionId);
+		for (int i = 0; i < copy.getVerificationMethod().size(); i++) {
+			copy.getVerificationMethod().get(i).setPublicKeyMultibase(otherDidDocument.getVerificationMethod().get(i).getPublicKeyMultibase());
+		}
+		return copy;
+	}
+
+	private static String publicKeyOf(DidDocument didDocument) {
+		return BenchmarkFixtures.verificationMethod(didDocument, KEY_ID).getPublicKeyMultibase();
+	}
+}
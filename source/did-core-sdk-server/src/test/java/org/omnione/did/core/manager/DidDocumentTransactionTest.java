@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.data.rest.DidKeyInfo;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.AuthType;
+import org.omnione.did.data.model.enums.did.DidServiceType;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+
+class DidDocumentTransactionTest {
+
+	private static final String DID = "did:omn:edited";
+	private static final String NEW_KEY_ID = "rotated";
+	private static final String SERVICE_ID = "homepage";
+	private static final String SERVICE_URL = "https://example.org";
+
+	private static DidKeyInfo newKey;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		VerificationMethod verificationMethod = BenchmarkFixtures.verificationMethod(
+				BenchmarkFixtures.didDocument("did:omn:newkeys", 4, EccCurveType.Secp256r1).getDocument(), BenchmarkFixtures.ASSERT_KEY_ID);
+		newKey = new DidKeyInfo();
+		newKey.setKeyId(NEW_KEY_ID);
+		newKey.setController(DID);
+		newKey.setAlgoType(verificationMethod.getType());
+		newKey.setPublicKey(verificationMethod.getPublicKeyMultibase());
+		newKey.setAuthType(AuthType.Free);
+		newKey.setKeyPurpose(List.of(ProofPurpose.AUTHENTICATION));
+	}
+
+	@Test
+	void commitAppliesAllOperationsAndIncrementsVersionOnce() throws CoreException {
+		DidManager didManager = didManager();
+		DidDocument baseDocument = didManager.getDocument();
+		String baseJson = baseDocument.toJson();
+
+		DidDocument committed;
+		try (DidDocumentTransaction edit = didManager.beginEdit()) {
+			edit.addVerificationMethod(newKey)
+					.addKeyPurpose(NEW_KEY_ID, List.of(ProofPurpose.ASSERTION_METHOD))
+					.removeVerificationMethod("key4")
+					.removeKeyPurpose(BenchmarkFixtures.DELEGATE_KEY_ID)
+					.addServiceEndPoint(SERVICE_ID, DidServiceType.LINKED_DOMAINS, SERVICE_URL);
+			assertSame(baseDocument, didManager.getDocument());
+			committed = edit.commit();
+		}
+
+		assertEquals(baseJson, baseDocument.toJson());
+		assertSame(committed, didManager.getDocument());
+		assertEquals(String.valueOf(Integer.parseInt(baseDocument.getVersionId()) + 1), committed.getVersionId());
+		assertNotNull(didManager.getVerificationMethodByKeyId(NEW_KEY_ID));
+		assertTrue(committed.getAuthentication().contains(NEW_KEY_ID));
+		assertTrue(committed.getAssertionMethod().contains(NEW_KEY_ID));
+		assertNull(didManager.getVerificationMethodByKeyId("key4"));
+		assertNull(committed.getCapabilityDelegation());
+		assertEquals(List.of(SERVICE_URL), committed.getService().get(0).getServiceEndpoint());
+	}
+
+	@ParameterizedTest
+	@EnumSource(FailingOperation.class)
+	void failingOperationRollsBackTheEdit(FailingOperation failingOperation) throws CoreException {
+		DidManager didManager = didManager();
+		DidDocument baseDocument = didManager.getDocument();
+		String baseJson = baseDocument.toJson();
+
+		DidDocumentTransaction edit = didManager.beginEdit()
+				.addVerificationMethod(newKey)
+				.addServiceEndPoint(SERVICE_ID, DidServiceType.LINKED_DOMAINS, SERVICE_URL);
+		CoreException exception = assertThrows(CoreException.class, () -> failingOperation.apply(edit));
+		assertEquals(failingOperation.errorCode.getCode(), exception.getErrorCode());
+
+		assertClosed(() -> edit.addKeyPurpose(NEW_KEY_ID, List.of(ProofPurpose.ASSERTION_METHOD)));
+		assertClosed(edit::commit);
+		assertSame(baseDocument, didManager.getDocument());
+		assertEquals(baseJson, didManager.getDocument().toJson());
+		assertNull(didManager.getVerificationMethodByKeyId(NEW_KEY_ID));
+	}
+
+	@Test
+	void commitFailsIfTheDocumentWasReplaced() throws CoreException {
+		DidManager didManager = didManager();
+		DidDocumentTransaction edit = didManager.beginEdit().addVerificationMethod(newKey);
+
+		didManager.removeKeyPurpose(BenchmarkFixtures.DELEGATE_KEY_ID);
+		DidDocument replacedDocument = didManager.getDocument();
+
+		CoreException exception = assertThrows(CoreException.class, edit::commit);
+		assertEquals(CoreErrorCode.ERR_CODE_DIDMANAGER_EDIT_CONFLICT.getCode(), exception.getErrorCode());
+		assertSame(replacedDocument, didManager.getDocument());
+		assertNull(didManager.getVerificationMethodByKeyId(NEW_KEY_ID));
+		assertClosed(edit::commit);
+	}
+
+	@Test
+	void closingWithoutCommitDiscardsTheEdit() throws CoreException {
+		DidManager didManager = didManager();
+		DidDocument baseDocument = didManager.getDocument();
+		String baseJson = baseDocument.toJson();
+
+		try (DidDocumentTransaction edit = didManager.beginEdit()) {
+			edit.addVerificationMethod(newKey).removeVerificationMethod("key4");
+		}
+
+		assertSame(baseDocument, didManager.getDocument());
+		assertEquals(baseJson, baseDocument.toJson());
+	}
+
+	private static DidManager didManager() throws CoreException {
+		return BenchmarkFixtures.didDocument(DID, 5, EccCurveType.Secp256r1).getDidManager();
+	}
+
+	private static void assertClosed(EditCall editCall) {
+		CoreException exception = assertThrows(CoreException.class, editCall::apply);
+		assertEquals(CoreErrorCode.ERR_CODE_DIDMANAGER_EDIT_CLOSED.getCode(), exception.getErrorCode());
+	}
+
+	private interface EditCall {
+
+		void apply() throws CoreException;
+	}
+
+	/**
+	 * An operation failing after a key and a service were added in the same edit.
+	 */
+	private enum FailingOperation {
+
+		ADD_DUPLICATED_KEY(CoreErrorCode.ERR_CODE_DIDMANAGER_DUPLICATED_KEY) {
+			@Override
+			void apply(DidDocumentTransaction edit) throws CoreException {
+				edit.addVerificationMethod(newKey);
+			}
+		},
+		ADD_PURPOSE_OF_UNKNOWN_KEY(CoreErrorCode.ERR_CODE_DIDMANAGER_UNREGISTERED_KEY) {
+			@Override
+			void apply(DidDocumentTransaction edit) throws CoreException {
+				edit.addKeyPurpose("unknown", List.of(ProofPurpose.ASSERTION_METHOD));
+			}
+		},
+		REMOVE_UNKNOWN_KEY(CoreErrorCode.ERR_CODE_DIDMANAGER_UNSAVED_KEY) {
+			@Override
+			void apply(DidDocumentTransaction edit) throws CoreException {
+				edit.removeVerificationMethod("unknown");
+			}
+		},
+		ADD_EXISTING_SERVICE_URL(CoreErrorCode.ERR_CODE_DIDMANAGER_EXISTED_SERVICE_URL) {
+			@Override
+			void apply(DidDocumentTransaction edit) throws CoreException {
+				edit.addServiceEndPoint(SERVICE_ID, DidServiceType.LINKED_DOMAINS, SERVICE_URL);
+			}
+		},
+		DELETE_UNKNOWN_SERVICE(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_MATCHED_SERVICE) {
+			@Override
+			void apply(DidDocumentTransaction edit) throws CoreException {
+				edit.deleteServiceEndPoint("unknown", DidServiceType.LINKED_DOMAINS, SERVICE_URL);
+			}
+		};
+
+		private final CoreErrorCode errorCode;
+
+		FailingOperation(CoreErrorCode errorCode) {
+			this.errorCode = errorCode;
+		}
+
+		abstract void apply(DidDocumentTransaction edit) throws CoreException;
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.data.rest.DidDocumentVerifyReport;
+import org.omnione.did.core.data.rest.DidProofVerifyResult;
+import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.data.rest.SigningInputMode;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.ReferenceJson;
+import org.omnione.did.core.util.VerifyUtil;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.DidServiceType;
+import org.omnione.did.data.model.enums.did.ProofPurpose;
+import org.omnione.did.data.model.util.json.GsonWrapper;
+
+class DidManagerTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void mutationDoesNotShareStateWithHandedOutDocument() throws CoreException {
+		DidFixture fixture = signedDocument();
+		DidManager didManager = fixture.getDidManager();
+		DidDocument snapshot = didManager.getDocument();
+		String snapshotJson = snapshot.toJson();
+
+		didManager.addServiceEndPoint("homepage", DidServiceType.LINKED_DOMAINS, "https://example.org");
+		DidDocument current = didManager.getDocument();
+		assertNotSame(snapshot, current);
+
+		modifyEverything(current);
+		assertEquals(snapshotJson, snapshot.toJson());
+
+		String currentJson = current.toJson();
+		modifyEverything(snapshot);
+		assertEquals(currentJson, didManager.getDocument().toJson());
+	}
+
+	@Test
+	void currentDocumentIsNotChangedThroughOldSnapshot() throws CoreException {
+		DidFixture fixture = signedDocument();
+		DidManager didManager = fixture.getDidManager();
+		DidDocument snapshot = didManager.getDocument();
+
+		didManager.removeKeyPurpose(BenchmarkFixtures.DELEGATE_KEY_ID);
+		String currentJson = didManager.getDocument().toJson();
+		DidDocument afterRemove = didManager.getDocument();
+
+		didManager.addServiceEndPoint("homepage", DidServiceType.LINKED_DOMAINS, "https://example.org");
+		modifyEverything(afterRemove);
+		modifyEverything(snapshot);
+
+		DidDocument expected = new DidDocument();
+		expected.fromJson(currentJson);
+		assertEquals(expected.getVerificationMethod().size(), didManager.getDocument().getVerificationMethod().size());
+		assertEquals(expected.getAuthentication(), didManager.getDocument().getAuthentication());
+		assertEquals(expected.getProofs().get(0).getProofValue(), didManager.getDocument().getProofs().get(0).getProofValue());
+		assertEquals(expected.getVerificationMethod().get(0).getPublicKeyMultibase(),
+				didManager.getDocument().getVerificationMethod().get(0).getPublicKeyMultibase());
+	}
+
+	@Test
+	void committedEditDoesNotShareStateWithBaseDocument() throws CoreException {
+		DidFixture fixture = signedDocument();
+		DidManager didManager = fixture.getDidManager();
+		DidDocument snapshot = didManager.getDocument();
+
+		DidDocument committed = didManager.beginEdit()
+				.addKeyPurpose(BenchmarkFixtures.INVOKE_KEY_ID, List.of(ProofPurpose.AUTHENTICATION))
+				.commit();
+		String committedJson = committed.toJson();
+
+		modifyEverything(snapshot);
+		assertEquals(committedJson, didManager.getDocument().toJson());
+	}
+
+	@Test
+	void originDataMatchesSortedDocumentJson() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<SignatureParams> eager = didManager.getOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS);
+			List<SignatureParams> parallel = didManager.getOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS, executor);
+			List<SignatureParams> lazy = didManager.getLazyOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS, executor);
+
+			assertEquals(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS.size(), eager.size());
+			for (List<SignatureParams> signatureParams : List.of(eager, parallel, lazy)) {
+				assertEquals(eager.size(), signatureParams.size());
+				for (SignatureParams signatureParam : signatureParams) {
+					DidDocument signingDocument = new DidDocument();
+					signingDocument.fromJson(signatureParam.getOriginData());
+					assertEquals(ReferenceJson.didDocumentSigningInput(didManager.getDocument(), signingDocument.getProof()), signatureParam.getOriginData());
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void digestMatchesSortedDocumentJson() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+
+		List<SignatureParams> signatureParams = didManager.getOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS,
+				null, SigningInputMode.DIGEST);
+
+		for (SignatureParams signatureParam : signatureParams) {
+			Proof proof = new Proof();
+			proof.setType(signatureParam.getAlgorithm());
+			proof.setCreated(signatureParam.getCreated());
+			proof.setVerificationMethod(signatureParam.getVerificationMethod());
+			proof.setProofPurpose(signatureParam.getKeyPurpose());
+			String expectedOriginData = ReferenceJson.didDocumentSigningInput(didManager.getDocument(), proof);
+
+			assertEquals(VerifyUtil.encodeDigest(ReferenceJson.sha256(expectedOriginData)), signatureParam.getHashedData());
+		}
+	}
+
+	@Test
+	void legacySigningInputsAreMutableAndLazyViewIsNot() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			List<SignatureParams> eager = didManager.getOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS);
+			List<SignatureParams> parallel = didManager.getOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS, executor);
+			List<SignatureParams> lazy = didManager.getLazyOriginDataForSign(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS, null);
+
+			assertTrue(eager instanceof ArrayList, eager.getClass().getName());
+			assertTrue(parallel instanceof ArrayList, parallel.getClass().getName());
+			eager.remove(eager.size() - 1);
+			parallel.add(new SignatureParams());
+			assertThrows(UnsupportedOperationException.class, () -> lazy.remove(0));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void keyLookupFollowsReplacedDocument() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+		assertNotNull(didManager.getVerificationMethodByKeyId("key4"));
+		assertTrue(didManager.getAllSignKeyIdList().contains("key4"));
+
+		didManager.removeVerificationMethod("key4");
+
+		assertNull(didManager.getVerificationMethodByKeyId("key4"));
+		assertFalse(didManager.getAllSignKeyIdList().contains("key4"));
+	}
+
+	@Test
+	void keyLookupFollowsChangesInPlace() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+		VerificationMethod verificationMethod = didManager.getVerificationMethodByKeyId("key4");
+		assertTrue(didManager.getAllSignKeyIdList().contains("key4"));
+
+		didManager.didDocument.getAuthentication().remove("key4");
+		assertFalse(didManager.getAllSignKeyIdList().contains("key4"));
+
+		didManager.didDocument.getAuthentication().add("key4");
+		verificationMethod.setId("renamed");
+		assertNull(didManager.getVerificationMethodByKeyId("key4"));
+		assertSame(verificationMethod, didManager.getVerificationMethodByKeyId("renamed"));
+
+		didManager.didDocument.getVerificationMethod().remove(verificationMethod);
+		assertNull(didManager.getVerificationMethodByKeyId("renamed"));
+		assertEquals(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS, didManager.getAllSignKeyIdList());
+	}
+
+	@Test
+	void proofReportVerifiesEveryProofInDocumentOrder() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+		List<Proof> proofs = didManager.getDocument().getProofs();
+
+		DidDocumentVerifyReport report = didManager.verifyDocumentProofs();
+
+		assertTrue(report.isVerified());
+		assertEquals(didManager.getDocument().getId(), report.getDid());
+		assertEquals(didManager.getDocument().getVersionId(), report.getVersionId());
+		assertEquals(proofs.size(), report.getProofResults().size());
+		for (int i = 0; i < proofs.size(); i++) {
+			DidProofVerifyResult proofResult = report.getProofResults().get(i);
+			assertEquals(i, proofResult.getIndex());
+			assertEquals(proofs.get(i).getVerificationMethod(), proofResult.getVerificationMethod());
+			assertEquals(proofs.get(i).getProofPurpose(), proofResult.getProofPurpose());
+			assertTrue(proofResult.isSuccess());
+			assertNull(proofResult.getErrorCode());
+		}
+	}
+
+	@Test
+	void proofReportWithoutProofsIsNotVerified() throws CoreException {
+		DidManager didManager = BenchmarkFixtures.didDocument("did:omn:unsigned", 4, EccCurveType.Secp256r1).getDidManager();
+
+		DidDocumentVerifyReport report = didManager.verifyDocumentProofs();
+
+		assertFalse(report.isVerified());
+		assertTrue(report.getProofResults().isEmpty());
+	}
+
+	@Test
+	void proofReportNamesTamperedAndMissingKeyProofs() throws CoreException {
+		DidManager didManager = signedDocument().getDidManager();
+		List<Proof> proofs = didManager.didDocument.getProofs();
+		proofs.get(1).setProofValue(proofs.get(0).getProofValue());
+		proofs.get(3).setVerificationMethod(proofs.get(3).getVerificationMethod().replace(BenchmarkFixtures.DELEGATE_KEY_ID, "unknown"));
+
+		DidDocumentVerifyReport report = didManager.verifyDocumentProofs(Runnable::run);
+
+		assertFalse(report.isVerified());
+		List<DidProofVerifyResult> proofResults = report.getProofResults();
+		assertEquals(proofs.size(), proofResults.size());
+		assertTrue(proofResults.get(0).isSuccess());
+		assertFalse(proofResults.get(1).isSuccess());
+		assertEquals(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL.getCode(), proofResults.get(1).getErrorCode());
+		assertTrue(proofResults.get(2).isSuccess());
+		assertFalse(proofResults.get(3).isSuccess());
+		assertEquals(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_EXIST_SIGNING_KEY.getCode(), proofResults.get(3).getErrorCode());
+		assertEquals(proofs.get(3).getVerificationMethod(), proofResults.get(3).getVerificationMethod());
+	}
+
+	@Test
+	void readDocumentMatchesGsonWrapperParsing() throws CoreException, IOException {
+		DidManager didManager = signedDocument().getDidManager();
+		didManager.addServiceEndPoint("homepage", DidServiceType.LINKED_DOMAINS, "https://example.org/\uD55C\uAE00");
+		String compactJson = GsonWrapper.getGson().toJson(didManager.getDocument());
+		String prettyJson = GsonWrapper.getGsonPrettyPrinting().toJson(didManager.getDocument());
+
+		for (String json : List.of(compactJson, prettyJson)) {
+			Path didDocFile = Files.writeString(directory.resolve("document.json"), json, StandardCharsets.UTF_8);
+			DidDocument expected = GsonWrapper.getGson().fromJson(json, DidDocument.class);
+
+			assertEquals(expected.toJson(), DidManager.readDocument(didDocFile.toFile()).toJson());
+
+			DidManager loadedDidManager = new DidManager();
+			loadedDidManager.load(didDocFile.toString());
+			assertEquals(expected.toJson(), loadedDidManager.getDocument().toJson());
+		}
+	}
+
+	@Test
+	void loadDirectoryMatchesGsonWrapperParsingAndKeepsNewestVersion() throws CoreException, IOException {
+		DidDocument firstVersion = signedDocument().getDocument();
+		DidManager didManager = new DidManager();
+		didManager.parse(firstVersion.toJson());
+		didManager.removeKeyPurpose(BenchmarkFixtures.DELEGATE_KEY_ID);
+		DidDocument secondVersion = didManager.getDocument();
+		DidDocument otherDocument = BenchmarkFixtures.didDocument("did:omn:other", 4, EccCurveType.Secp256r1).getDocument();
+		Files.writeString(directory.resolve("a.json"), secondVersion.toJson(), StandardCharsets.UTF_8);
+		Files.writeString(directory.resolve("b.json"), firstVersion.toJson(), StandardCharsets.UTF_8);
+		Files.writeString(directory.resolve("c.json"), GsonWrapper.getGsonPrettyPrinting().toJson(otherDocument), StandardCharsets.UTF_8);
+		Files.writeString(directory.resolve("notes.txt"), "not a DID document", StandardCharsets.UTF_8);
+
+		List<DidDocument> readDocuments = DidManager.readDirectory(directory.toString(), Runnable::run);
+		assertEquals(3, readDocuments.size());
+		assertEquals(gsonRoundTrip(secondVersion), readDocuments.get(0).toJson());
+		assertEquals(gsonRoundTrip(firstVersion), readDocuments.get(1).toJson());
+		assertEquals(gsonRoundTrip(otherDocument), readDocuments.get(2).toJson());
+
+		Map<String, DidDocument> loadedDocuments = DidManager.loadDirectory(directory.toString());
+		assertEquals(2, loadedDocuments.size());
+		assertEquals(gsonRoundTrip(secondVersion), loadedDocuments.get(secondVersion.getId()).toJson());
+		assertEquals(gsonRoundTrip(otherDocument), loadedDocuments.get(otherDocument.getId()).toJson());
+	}
+
+	@Test
+	void loadDirectoryNamesTheInvalidFile() throws CoreException, IOException {
+		Files.writeString(directory.resolve("a.json"), signedDocument().getDocument().toJson(), StandardCharsets.UTF_8);
+		Path invalidFile = Files.writeString(directory.resolve("b.json"), "{\"id\": ", StandardCharsets.UTF_8);
+
+		CoreException exception = assertThrows(CoreException.class, () -> DidManager.loadDirectory(directory.toString()));
+
+		assertEquals(CoreErrorCode.ERR_CODE_DIDMANAGER_READ_DIDDOCUMENT_FILE_FAIL.getCode(), exception.getErrorCode());
+		assertTrue(exception.getErrorReason().contains(invalidFile.toString()), exception.getErrorReason());
+	}
+
+	private static DidFixture signedDocument() throws CoreException {
+		return BenchmarkFixtures.didDocument("did:omn:snapshot", 5, EccCurveType.Secp256r1)
+				.signDocument(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS);
+	}
+
+	private static String gsonRoundTrip(DidDocument didDocument) {
+		return GsonWrapper.getGson().fromJson(didDocument.toJson(), DidDocument.class).toJson();
+	}
+
+	private static void modifyEverything(DidDocument didDocument) {
+		didDocument.getContext().add("https://example.org/modified");
+		didDocument.getVerificationMethod().get(0).setPublicKeyMultibase("modified");
+		didDocument.getVerificationMethod().remove(didDocument.getVerificationMethod().size() - 1);
+		didDocument.getAssertionMethod().clear();
+		didDocument.getAuthentication().add("modified");
+		didDocument.getCapabilityInvocation().clear();
+		if (didDocument.getCapabilityDelegation() != null) {
+			didDocument.getCapabilityDelegation().clear();
+		}
+		if (didDocument.getService() != null) {
+			didDocument.getService().get(0).getServiceEndpoint().add("https://modified.example.org");
+		}
+		didDocument.getProofs().get(0).setProofValue("modified");
+		didDocument.getProofs().remove(1);
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.data.rest.ClaimInfo;
+import org.omnione.did.core.data.rest.IssueVcParam;
+import org.omnione.did.core.data.rest.VcBatchIssueResult;
+import org.omnione.did.core.data.rest.VcIssueRequest;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+class VcManagerTest {
+
+	private static final int CLAIM_COUNT = 6;
+
+	private static DidFixture issuer;
+	private static ExecutorService executor;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		issuer = BenchmarkFixtures.didDocument("did:omn:vcissuer", 4, EccCurveType.Secp256r1);
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void parallelVerificationAcceptsValidCredential() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", CLAIM_COUNT);
+
+		new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true);
+		new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true, executor);
+	}
+
+	@Test
+	void parallelVerificationReportsTheSequentialErrorCode() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", CLAIM_COUNT);
+		List<String> proofValueList = new ArrayList<String>(verifiableCredential.getProof().getProofValueList());
+		proofValueList.set(2, proofValueList.get(3));
+		verifiableCredential.getProof().setProofValueList(proofValueList);
+		String failedClaimCode = verifiableCredential.getCredentialSubject().getClaims().get(2).getCode();
+
+		CoreException sequential = assertThrows(CoreException.class,
+				() -> new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true));
+		CoreException parallel = assertThrows(CoreException.class,
+				() -> new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true, executor));
+
+		assertEquals(sequential.getErrorCode(), parallel.getErrorCode());
+		assertTrue(parallel.getErrorReason().contains(failedClaimCode), parallel.getErrorReason());
+	}
+
+	@Test
+	void parallelVerificationReportsMissingProofValue() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", CLAIM_COUNT);
+		List<String> proofValueList = new ArrayList<String>(verifiableCredential.getProof().getProofValueList());
+		proofValueList.remove(proofValueList.size() - 1);
+		verifiableCredential.getProof().setProofValueList(proofValueList);
+
+		CoreException parallel = assertThrows(CoreException.class,
+				() -> new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true, executor));
+
+		assertEquals(CoreErrorCode.ERR_CODE_VCMANAGER_VERIFY_CLAIM_SIGNATURE_FAIL.getCode(), parallel.getErrorCode());
+	}
+
+	@Test
+	void parallelVerificationWrapsExecutorRejection() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", CLAIM_COUNT);
+
+		CoreException rejected = assertThrows(CoreException.class, () -> new VcManager().verifyCredential(verifiableCredential,
+				issuer.getDocument(), true, command -> { throw new RejectedExecutionException("full"); }));
+
+		assertEquals(CoreErrorCode.ERR_CODE_VCMANAGER_VERIFICATION_REJECTED.getCode(), rejected.getErrorCode());
+	}
+
+	@Test
+	void batchIssuanceReportsItemFailures() throws CoreException {
+		IssueVcParam issueVcParam = BenchmarkFixtures.issueVcParam(issuer.getDid(), CLAIM_COUNT);
+		Map<String, ClaimInfo> brokenPrivacy = new LinkedHashMap<String, ClaimInfo>();
+		for (Map.Entry<String, ClaimInfo> entry : issueVcParam.getPrivacy().entrySet()) {
+			ClaimInfo claimInfo = new ClaimInfo();
+			claimInfo.setCode(entry.getKey());
+			brokenPrivacy.put(entry.getKey(), claimInfo);
+		}
+
+		List<VcBatchIssueResult> results = new VcManager().issueCredentials(issueVcParam, BenchmarkFixtures.ASSERT_KEY_ID,
+				issuer.getDocument(), Stream.of(
+						new VcIssueRequest("did:omn:holder1", issueVcParam.getPrivacy()),
+						new VcIssueRequest("did:omn:holder2", null),
+						new VcIssueRequest("did:omn:holder3", brokenPrivacy)))
+				.collect(Collectors.toList());
+
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		assertEquals(CoreErrorCode.ERR_CODE_VCMANAGER_PRIVACY_NOT_EXIST.getCode(), results.get(1).getErrorCode());
+		assertFalse(results.get(2).isSuccess());
+		assertEquals(CoreErrorCode.ERR_CODE_VCMANAGER_ISSUE_BATCH_ITEM_FAIL.getCode(), results.get(2).getErrorCode());
+	}
+}
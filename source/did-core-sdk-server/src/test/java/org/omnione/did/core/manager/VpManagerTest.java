@@ -0,0 +1,399 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.ProofMode;
+import org.omnione.did.core.data.rest.IssueVcParam;
+import org.omnione.did.core.data.rest.VpBatchVerifyResult;
+import org.omnione.did.core.data.rest.VpStreamVerifyResult;
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.data.rest.VpVerifyRequest;
+import org.omnione.did.core.data.rest.VpVerifyResult;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetrics;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.enums.vc.EvidenceType;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.DocumentVerificationEvidence;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+import org.omnione.did.data.model.vp.VpProof;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+class VpManagerTest {
+
+	private static final int CLAIM_COUNT = 4;
+	private static final String EXPIRED = ZonedDateTime.now(ZoneOffset.UTC).minusDays(1)
+			.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'"));
+
+	private static DidFixture issuer;
+	private static DidFixture holder;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		issuer = BenchmarkFixtures.didDocument("did:omn:vpissuer", 4, EccCurveType.Secp256r1);
+		holder = BenchmarkFixtures.didDocument("did:omn:vpholder", 4, EccCurveType.Secp256k1);
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationReturnsTheClaimsOfVerify(ProofMode proofMode) throws CoreException {
+		String presentationJson = presentation(proofMode).toJson();
+
+		assertSameClaims(presentationJson, presentationJson);
+		assertSameClaims(presentationJson, credentialsFirst(presentationJson));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationReadsCredentialEvidence(ProofMode proofMode) throws CoreException {
+		DocumentVerificationEvidence evidence = new DocumentVerificationEvidence();
+		evidence.setId("https://evidence.example.org/1");
+		evidence.setType(EvidenceType.DOCUMENT_VERIFICATION.getRawValue());
+		evidence.setVerifier(issuer.getDid());
+		evidence.setEvidenceDocument("DriverLicense");
+		evidence.setSubjectPresence("Physical");
+		evidence.setDocumentPresence("Physical");
+		evidence.setAttribute(Map.of("licenseNumber", "1234"));
+		IssueVcParam issueVcParam = BenchmarkFixtures.issueVcParam(issuer.getDid(), CLAIM_COUNT);
+		issueVcParam.setEvidences(List.of(evidence));
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, holder.getDid(), issueVcParam);
+		String presentationJson = BenchmarkFixtures.verifiablePresentation(holder, verifiableCredential, proofMode).toJson();
+
+		assertSameClaims(presentationJson, presentationJson);
+		assertSameClaims(presentationJson, credentialsFirst(presentationJson));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsUnknownEvidence(ProofMode proofMode) throws CoreException {
+		JsonObject presentation = JsonParser.parseString(presentation(proofMode).toJson()).getAsJsonObject();
+		JsonObject evidence = new JsonObject();
+		evidence.addProperty("type", "UnknownEvidence");
+		JsonArray evidences = new JsonArray();
+		evidences.add(evidence);
+		presentation.getAsJsonArray("verifiableCredential").get(0).getAsJsonObject().add("evidence", evidences);
+
+		CoreException exception = assertThrows(CoreException.class, () -> verifyStreaming(presentation.toString()));
+		assertEquals(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION.getCode(), exception.getErrorCode());
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsTamperedClaim(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> presentation.getAsJsonArray("verifiableCredential").get(0).getAsJsonObject()
+				.getAsJsonObject("credentialSubject").getAsJsonArray("claims").get(1).getAsJsonObject()
+				.addProperty("value", "tampered"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsTamperedPresentation(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> presentation.addProperty("verifierNonce", "tampered"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsTamperedCredentialOrder(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> {
+			JsonElement verifiableCredential = presentation.getAsJsonArray("verifiableCredential").get(0);
+			presentation.getAsJsonArray("verifiableCredential").add(verifiableCredential.deepCopy());
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsExpiredPresentation(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> presentation.addProperty("validUntil", EXPIRED));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsExpiredCredential(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> presentation.getAsJsonArray("verifiableCredential").get(0).getAsJsonObject()
+				.addProperty("validUntil", EXPIRED));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsMissingProof(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> {
+			presentation.remove("proof");
+			presentation.remove("proofs");
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsForeignHolderKey(ProofMode proofMode) throws CoreException {
+		assertSameError(proofMode, presentation -> presentation.addProperty("holder", issuer.getDid()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void streamingVerificationRejectsMembersChangedAfterCredentials(ProofMode proofMode) throws CoreException {
+		String presentationJson = presentation(proofMode).toJson();
+		String changedJson = presentationJson.substring(0, presentationJson.length() - 1) + ",\"holder\":\"" + issuer.getDid() + "\"}";
+
+		CoreException exception = assertThrows(CoreException.class, () -> verifyStreaming(changedJson));
+		assertEquals(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION.getCode(), exception.getErrorCode());
+	}
+
+	@Test
+	void sharedVerifierKeepsConcurrentVerificationsApart() throws Exception {
+		List<VerifiablePresentation> presentations = new ArrayList<VerifiablePresentation>();
+		for (int i = 0; i < 8; i++) {
+			VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, holder.getDid(), CLAIM_COUNT + i);
+			VerifiablePresentation verifiablePresentation = BenchmarkFixtures.verifiablePresentation(holder, verifiableCredential,
+					i % 2 == 0 ? ProofMode.SINGLE : ProofMode.MULTI);
+			if (i % 4 == 3) {
+				verifiablePresentation.setVerifierNonce("tampered");
+			}
+			presentations.add(verifiablePresentation);
+		}
+		List<String> expected = new ArrayList<String>();
+		for (VerifiablePresentation verifiablePresentation : presentations) {
+			expected.add(summarize(new VpManager(), verifiablePresentation));
+		}
+
+		VpManager vpManager = new VpManager();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int i = 0; i < 64; i++) {
+				VerifiablePresentation verifiablePresentation = presentations.get(i % presentations.size());
+				results.add(executor.submit(() -> {
+					start.await();
+					return summarize(vpManager, verifiablePresentation);
+				}));
+			}
+			start.countDown();
+
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(expected.get(i % presentations.size()), results.get(i).get(60, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void claimListIsCopiedForEveryCall() throws CoreException {
+		VerifiablePresentation verifiablePresentation = presentation(ProofMode.SINGLE);
+		VpManager vpManager = new VpManager();
+		vpManager.verifyPresentation(verifiablePresentation, verifyParam());
+		List<Claim> expected = verifiablePresentation.getVerifiableCredential().get(0).getCredentialSubject().getClaims();
+
+		List<Claim> claims = vpManager.getClaimList();
+		claims.get(0).setValue("modified");
+		claims.remove(1);
+
+		List<Claim> otherClaims = vpManager.getClaimList();
+		assertNotSame(claims.get(0), otherClaims.get(0));
+		assertEquals(expected.size(), otherClaims.size());
+		assertEquals(expected.size(), vpManager.getVerifiedClaims().size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toJson(), otherClaims.get(i).toJson());
+			assertEquals(expected.get(i).toJson(), vpManager.getVerifiedClaims().getClaimList().get(i).toJson());
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProofMode.class)
+	void batchVerificationResolvesEachDistinctKeyOnce(ProofMode proofMode) throws CoreException {
+		List<VpVerifyRequest> verifyRequests = new ArrayList<VpVerifyRequest>();
+		Set<String> verificationMethods = new HashSet<String>();
+		for (int i = 0; i < 4; i++) {
+			VerifiablePresentation verifiablePresentation = presentation(proofMode);
+			verifyRequests.add(new VpVerifyRequest(verifiablePresentation, verifyParam()));
+			for (VpProof proof : verifiablePresentation.getProof() != null
+					? List.of(verifiablePresentation.getProof()) : verifiablePresentation.getProofs()) {
+				verificationMethods.add(proof.getVerificationMethod());
+			}
+			for (VerifiableCredential verifiableCredential : verifiablePresentation.getVerifiableCredential()) {
+				verificationMethods.add(verifiableCredential.getProof().getVerificationMethod());
+			}
+		}
+
+		AtomicInteger keyResolutions = new AtomicInteger();
+		CoreMetricsRegistry.setMetrics(new CoreMetrics() {
+			@Override
+			public void recordLatency(Phase phase, long elapsedNanos) {
+				if (phase == Phase.KEY_RESOLUTION) {
+					keyResolutions.incrementAndGet();
+				}
+			}
+		});
+		List<VpBatchVerifyResult> results;
+		try {
+			results = new VpManager().verifyPresentations(verifyRequests);
+		} finally {
+			CoreMetricsRegistry.setMetrics(null);
+		}
+
+		for (VpBatchVerifyResult result : results) {
+			assertTrue(result.isSuccess(), result.getErrorReason());
+		}
+		assertEquals(verificationMethods.size(), keyResolutions.get());
+	}
+
+	@Test
+	void batchVerificationReportsMalformedItems() throws CoreException {
+		VerifiablePresentation verifiablePresentation = presentation(ProofMode.SINGLE);
+		VerifiablePresentation tamperedPresentation = presentation(ProofMode.SINGLE);
+		tamperedPresentation.setVerifierNonce("tampered");
+		List<VpVerifyRequest> verifyRequests = Arrays.asList(
+				null,
+				new VpVerifyRequest(null, verifyParam()),
+				new VpVerifyRequest(verifiablePresentation, null),
+				new VpVerifyRequest(new VerifiablePresentation(), verifyParam()),
+				new VpVerifyRequest(tamperedPresentation, verifyParam()),
+				new VpVerifyRequest(verifiablePresentation, verifyParam()));
+
+		List<VpBatchVerifyResult> results = new VpManager().verifyPresentations(verifyRequests);
+
+		assertEquals(verifyRequests.size(), results.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, results.get(i).getIndex());
+			assertFalse(results.get(i).isSuccess());
+			assertEquals(CoreErrorCode.ERR_CODE_VPMANAGER_INVALID_PRESENTATION.getCode(), results.get(i).getErrorCode());
+		}
+		CoreException expected = assertThrows(CoreException.class, () -> new VpManager().verify(tamperedPresentation, verifyParam()));
+		assertFalse(results.get(4).isSuccess());
+		assertEquals(expected.getErrorCode(), results.get(4).getErrorCode());
+		assertTrue(results.get(5).isSuccess(), results.get(5).getErrorReason());
+		assertEquals(verifiablePresentation.getId(), results.get(5).getResult().getPresentationId());
+	}
+
+	/**
+	 * Describes the outcome of a verification: the presentation and its claims, or the error code.
+	 */
+	private static String summarize(VpManager vpManager, VerifiablePresentation verifiablePresentation) {
+		try {
+			VpVerifyResult result = vpManager.verify(verifiablePresentation, verifyParam());
+			StringBuilder summary = new StringBuilder(result.getPresentationId()).append(' ').append(result.getHolder());
+			for (Claim claim : result.getClaimList()) {
+				summary.append(' ').append(claim.toJson());
+			}
+			return summary.toString();
+		} catch (CoreException e) {
+			return e.getErrorCode();
+		}
+	}
+
+	private static VerifiablePresentation presentation(ProofMode proofMode) throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, holder.getDid(), CLAIM_COUNT);
+		return BenchmarkFixtures.verifiablePresentation(holder, verifiableCredential, proofMode);
+	}
+
+	private static void assertSameClaims(String presentationJson, String streamedJson) throws CoreException {
+		VerifiablePresentation verifiablePresentation = new VerifiablePresentation();
+		verifiablePresentation.fromJson(presentationJson);
+		VpVerifyResult expected = new VpManager().verify(verifiablePresentation, verifyParam());
+
+		List<Claim> claims = new ArrayList<Claim>();
+		VpStreamVerifyResult result = new VpManager().verifyStreaming(new StringReader(streamedJson), verifyParam(),
+				(verifiableCredential, claim) -> claims.add(claim));
+
+		assertEquals(expected.getPresentationId(), result.getPresentationId());
+		assertEquals(expected.getHolder(), result.getHolder());
+		assertEquals(verifiablePresentation.getVerifiableCredential().size(), result.getCredentialCount());
+		assertEquals(expected.getClaimList().size(), result.getClaimCount());
+		assertEquals(expected.getClaimList().size(), claims.size());
+		for (int i = 0; i < claims.size(); i++) {
+			assertEquals(expected.getClaimList().get(i).toJson(), claims.get(i).toJson());
+		}
+	}
+
+	/**
+	 * Checks that the tampered presentation is rejected with the same error code by both verifications,
+	 * with the credentials in canonical order and before the other members.
+	 */
+	private static void assertSameError(ProofMode proofMode, Consumer<JsonObject> tampering) throws CoreException {
+		JsonObject presentation = JsonParser.parseString(presentation(proofMode).toJson()).getAsJsonObject();
+		tampering.accept(presentation);
+		String presentationJson = presentation.toString();
+
+		VerifiablePresentation verifiablePresentation = new VerifiablePresentation();
+		verifiablePresentation.fromJson(presentationJson);
+		CoreException expected = assertThrows(CoreException.class,
+				() -> new VpManager().verify(verifiablePresentation, verifyParam()));
+
+		for (String streamedJson : List.of(presentationJson, credentialsFirst(presentationJson))) {
+			CoreException streamed = assertThrows(CoreException.class, () -> verifyStreaming(streamedJson));
+			assertEquals(expected.getErrorCode(), streamed.getErrorCode(), streamed.getErrorReason());
+		}
+	}
+
+	private static VpStreamVerifyResult verifyStreaming(String presentationJson) throws CoreException {
+		return new VpManager().verifyStreaming(new StringReader(presentationJson), verifyParam(), (verifiableCredential, claim) -> {});
+	}
+
+	private static String credentialsFirst(String presentationJson) {
+		JsonObject presentation = JsonParser.parseString(presentationJson).getAsJsonObject();
+		JsonObject reordered = new JsonObject();
+		reordered.add("verifiableCredential", presentation.get("verifiableCredential"));
+		for (Map.Entry<String, JsonElement> member : presentation.entrySet()) {
+			if (!member.getKey().equals("verifiableCredential")) {
+				reordered.add(member.getKey(), member.getValue());
+			}
+		}
+		return reordered.toString();
+	}
+
+	private static VpVerifyParam verifyParam() {
+		return new VpVerifyParam(holder.getDocument(), issuer.getDocument());
+	}
+}
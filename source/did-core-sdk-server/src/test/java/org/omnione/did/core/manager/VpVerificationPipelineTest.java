@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.ProofMode;
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.util.CoreMetrics;
+import org.omnione.did.core.util.CoreMetricsRegistry;
+import org.omnione.did.core.util.PresentationFilter;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+
+class VpVerificationPipelineTest {
+
+	private static final List<String> DEFAULT_STAGE_NAMES = List.of(VpVerificationPipeline.STRUCTURE, VpVerificationPipeline.EXPIRY,
+			VpVerificationPipeline.FILTER, VpVerificationPipeline.KEY_RESOLUTION, VpVerificationPipeline.HOLDER_SIGNATURE,
+			VpVerificationPipeline.ISSUER_SIGNATURE);
+	private static final String EXPIRED = ZonedDateTime.now(ZoneOffset.UTC).minusDays(1)
+			.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'"));
+
+	private static DidFixture issuer;
+	private static DidFixture holder;
+
+	private final StageRecorder stageRecorder = new StageRecorder();
+
+	/**
+	 * A fault of the presentation or its parameters, and the stage that must reject it.
+	 */
+	private enum Fault {
+
+		NO_CLAIMS(VpVerificationPipeline.STRUCTURE, CoreErrorCode.ERR_CODE_VPMANAGER_PRIVACY_NOT_EXIST,
+				(verifiablePresentation, verifyParam) -> credential(verifiablePresentation).getCredentialSubject().setClaims(new ArrayList<>())),
+		EXPIRED_CREDENTIAL(VpVerificationPipeline.EXPIRY, CoreErrorCode.ERR_CODE_VPMANAGER_EXPIRED_VC,
+				(verifiablePresentation, verifyParam) -> credential(verifiablePresentation).setValidUntil(EXPIRED)),
+		UNMATCHED_SCHEMA(VpVerificationPipeline.FILTER, CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_SCHEMA,
+				(verifiablePresentation, verifyParam) -> verifyParam.setPresentationFilter(PresentationFilter.compile(unmatchedFilter()))),
+		UNKNOWN_ISSUER_KEY(VpVerificationPipeline.KEY_RESOLUTION, null,
+				(verifiablePresentation, verifyParam) -> credential(verifiablePresentation).getProof().setVerificationMethod(
+						credential(verifiablePresentation).getProof().getVerificationMethod() + "unknown")),
+		TAMPERED_PRESENTATION(VpVerificationPipeline.HOLDER_SIGNATURE, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL,
+				(verifiablePresentation, verifyParam) -> verifiablePresentation.setVerifierNonce("tampered")),
+		TAMPERED_CREDENTIAL(VpVerificationPipeline.ISSUER_SIGNATURE, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL,
+				(verifiablePresentation, verifyParam) -> {
+					// Signed again by the holder, so only the issuer signature is broken.
+					VerifiableCredential verifiableCredential = credential(verifiablePresentation);
+					verifiableCredential.setValidUntil(ZonedDateTime.now(ZoneOffset.UTC).plusYears(10)
+							.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")));
+					verifiablePresentation.fromJson(BenchmarkFixtures.verifiablePresentation(holder, verifiableCredential, ProofMode.SINGLE).toJson());
+				});
+
+		private final String stageName;
+		private final CoreErrorCode errorCode;
+		private final Tampering tampering;
+
+		Fault(String stageName, CoreErrorCode errorCode, Tampering tampering) {
+			this.stageName = stageName;
+			this.errorCode = errorCode;
+			this.tampering = tampering;
+		}
+	}
+
+	private interface Tampering {
+
+		void apply(VerifiablePresentation verifiablePresentation, VpVerifyParam verifyParam) throws CoreException;
+	}
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		issuer = BenchmarkFixtures.didDocument("did:omn:pipelineissuer", 4, EccCurveType.Secp256r1);
+		holder = BenchmarkFixtures.didDocument("did:omn:pipelineholder", 4, EccCurveType.Secp256r1);
+	}
+
+	@AfterEach
+	void removeMetrics() {
+		CoreMetricsRegistry.setMetrics(null);
+	}
+
+	@Test
+	void defaultPipelineRunsCheapStagesBeforeSignatures() throws CoreException {
+		assertEquals(DEFAULT_STAGE_NAMES, stageNames(VpVerificationPipeline.defaultPipeline()));
+
+		CoreMetricsRegistry.setMetrics(stageRecorder);
+		new VpManager().verify(presentation(), verifyParam());
+
+		assertEquals(DEFAULT_STAGE_NAMES, stageRecorder.stages);
+		assertEquals(Collections.emptyList(), stageRecorder.rejections);
+		assertEquals(2, stageRecorder.validSignatures.get());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Fault.class)
+	void faultIsRejectedByItsStageAndLaterStagesDoNotRun(Fault fault) throws CoreException {
+		VerifiablePresentation verifiablePresentation = presentation();
+		VpVerifyParam verifyParam = verifyParam();
+		fault.tampering.apply(verifiablePresentation, verifyParam);
+
+		CoreMetricsRegistry.setMetrics(stageRecorder);
+		CoreException exception = assertThrows(CoreException.class, () -> new VpManager().verify(verifiablePresentation, verifyParam));
+
+		if (fault.errorCode != null) {
+			assertEquals(fault.errorCode.getCode(), exception.getErrorCode());
+		}
+		int stageIndex = DEFAULT_STAGE_NAMES.indexOf(fault.stageName);
+		assertEquals(DEFAULT_STAGE_NAMES.subList(0, stageIndex + 1), stageRecorder.stages);
+		assertEquals(List.of(fault.stageName + ":" + exception.getErrorCode()), stageRecorder.rejections);
+		if (stageIndex < DEFAULT_STAGE_NAMES.indexOf(VpVerificationPipeline.HOLDER_SIGNATURE)) {
+			assertEquals(0, stageRecorder.validSignatures.get() + stageRecorder.invalidSignatures.get());
+		}
+	}
+
+	@Test
+	void addedStageRunsInPlaceAndRejectsEarly() throws CoreException {
+		VpVerificationPipeline pipeline = VpVerificationPipeline.defaultPipeline()
+				.withStageBefore(VpVerificationPipeline.KEY_RESOLUTION, stage("audit", context -> {}))
+				.withoutStage(VpVerificationPipeline.FILTER);
+		List<String> stageNames = new ArrayList<String>(DEFAULT_STAGE_NAMES);
+		stageNames.remove(VpVerificationPipeline.FILTER);
+		stageNames.add(stageNames.indexOf(VpVerificationPipeline.KEY_RESOLUTION), "audit");
+		assertEquals(stageNames, stageNames(pipeline));
+
+		CoreMetricsRegistry.setMetrics(stageRecorder);
+		new VpManager(null, pipeline).verify(presentation(), verifyParam());
+		assertEquals(stageNames, stageRecorder.stages);
+
+		VpVerificationPipeline rejectingPipeline = pipeline.withStageReplaced("audit", stage("audit", context -> {
+			throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER);
+		}));
+		stageRecorder.clear();
+		CoreException exception = assertThrows(CoreException.class,
+				() -> new VpManager(null, rejectingPipeline).verify(presentation(), verifyParam()));
+
+		assertEquals(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER.getCode(), exception.getErrorCode());
+		assertEquals(stageNames.subList(0, stageNames.indexOf("audit") + 1), stageRecorder.stages);
+		assertEquals(0, stageRecorder.validSignatures.get() + stageRecorder.invalidSignatures.get());
+	}
+
+	@Test
+	void stageNamesMustBeKnownAndUnique() {
+		VpVerificationPipeline pipeline = VpVerificationPipeline.defaultPipeline();
+
+		assertThrows(IllegalArgumentException.class, () -> pipeline.withStage(stage(VpVerificationPipeline.EXPIRY, context -> {})));
+		assertThrows(IllegalArgumentException.class, () -> pipeline.withoutStage("unknown"));
+		assertThrows(IllegalArgumentException.class, () -> pipeline.withStageBefore("unknown", stage("audit", context -> {})));
+		assertEquals(DEFAULT_STAGE_NAMES, stageNames(pipeline));
+	}
+
+	private static VerifiablePresentation presentation() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, holder.getDid(), 4);
+		return BenchmarkFixtures.verifiablePresentation(holder, verifiableCredential, ProofMode.SINGLE);
+	}
+
+	private static VpVerifyParam verifyParam() {
+		return new VpVerifyParam(holder.getDocument(), issuer.getDocument());
+	}
+
+	private static VerifiableCredential credential(VerifiablePresentation verifiablePresentation) {
+		return verifiablePresentation.getVerifiableCredential().get(0);
+	}
+
+	private static Filter unmatchedFilter() {
+		CredentialSchema credentialSchema = new CredentialSchema();
+		credentialSchema.setId("https://example.org/schema/unknown");
+		credentialSchema.setType("OsdSchemaCredential");
+		credentialSchema.setAllowedIssuers(List.of(issuer.getDid()));
+		credentialSchema.setRequiredClaims(List.of());
+		Filter filter = new Filter();
+		filter.setCredentialSchemas(List.of(credentialSchema));
+		return filter;
+	}
+
+	private static List<String> stageNames(VpVerificationPipeline pipeline) {
+		List<String> stageNames = new ArrayList<String>();
+		for (VpVerificationStage stage : pipeline.getStages()) {
+			stageNames.add(stage.getName());
+		}
+		return stageNames;
+	}
+
+	private static VpVerificationStage stage(String name, StageCheck stageCheck) {
+		return new VpVerificationStage() {
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public void verify(VpVerificationContext context) throws CoreException {
+				stageCheck.verify(context);
+			}
+		};
+	}
+
+	private interface StageCheck {
+
+		void verify(VpVerificationContext context) throws CoreException;
+	}
+
+	/**
+	 * Records the stages in the order they finished, the rejections and the verified signatures.
+	 */
+	private static class StageRecorder implements CoreMetrics {
+
+		private final List<String> stages = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> rejections = Collections.synchronizedList(new ArrayList<String>());
+		private final AtomicInteger validSignatures = new AtomicInteger();
+		private final AtomicInteger invalidSignatures = new AtomicInteger();
+
+		@Override
+		public void recordStageLatency(String stageName, long elapsedNanos) {
+			stages.add(stageName);
+		}
+
+		@Override
+		public void incrementStageRejection(String stageName, String errorCode) {
+			rejections.add(stageName + ":" + errorCode);
+		}
+
+		@Override
+		public void incrementSignaturesVerified(boolean isValid) {
+			(isValid ? validSignatures : invalidSignatures).incrementAndGet();
+		}
+
+		private void clear() {
+			stages.clear();
+			rejections.clear();
+			validSignatures.set(0);
+			invalidSignatures.set(0);
+		}
+	}
+}
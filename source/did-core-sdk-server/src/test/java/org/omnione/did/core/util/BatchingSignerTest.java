@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+
+class BatchingSignerTest {
+
+	private static final Duration NEVER = Duration.ofHours(1);
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	@Test
+	void sendsBatchWhenFullAndSplitsTheSignatures() throws Exception {
+		RecordingSigner delegate = new RecordingSigner();
+		try (BatchingSigner batchingSigner = new BatchingSigner(delegate, 6, NEVER, TIMEOUT)) {
+			CompletableFuture<List<String>> first = batchingSigner.submit("assert", digests(1));
+			CompletableFuture<List<String>> second = batchingSigner.submit("assert", digests(2, 3, 4));
+			assertFalse(first.isDone());
+			CompletableFuture<List<String>> third = batchingSigner.submit("assert", digests(5, 6));
+
+			assertEquals(List.of("assert-1"), get(first));
+			assertEquals(List.of("assert-2", "assert-3", "assert-4"), get(second));
+			assertEquals(List.of("assert-5", "assert-6"), get(third));
+			assertEquals(List.of(6), delegate.batchSizes());
+		}
+	}
+
+	@Test
+	void sendsBatchAfterMaxDelay() throws Exception {
+		RecordingSigner delegate = new RecordingSigner();
+		try (BatchingSigner batchingSigner = new BatchingSigner(delegate, 64, Duration.ofMillis(20), TIMEOUT)) {
+			CompletableFuture<List<String>> first = batchingSigner.submit("assert", digests(1));
+			CompletableFuture<List<String>> second = batchingSigner.submit("assert", digests(2));
+
+			assertEquals(List.of("assert-1"), get(first));
+			assertEquals(List.of("assert-2"), get(second));
+			assertEquals(List.of(2), delegate.batchSizes());
+		}
+	}
+
+	@Test
+	void failsCallerAfterTimeout() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		ExternalSigner delegate = (keyId, digests) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return Collections.nCopies(digests.size(), "late");
+		};
+		try (BatchingSigner batchingSigner = new BatchingSigner(delegate, 1, NEVER, Duration.ofMillis(50))) {
+			CoreException exception = assertThrows(CoreException.class, () -> batchingSigner.signAll("assert", digests(1)));
+			assertEquals(CoreErrorCode.ERR_CODE_SIGNER_SIGN_TIMEOUT.getCode(), exception.getErrorCode());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void failedRoundTripFailsOnlyItsCallers() throws Exception {
+		ExternalSigner delegate = (keyId, digests) -> {
+			if (keyId.equals("broken")) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, "HSM unavailable");
+			}
+			return new RecordingSigner().signAll(keyId, digests);
+		};
+		try (BatchingSigner batchingSigner = new BatchingSigner(delegate, 2, NEVER, TIMEOUT)) {
+			CompletableFuture<List<String>> broken = batchingSigner.submit("broken", digests(1));
+			CompletableFuture<List<String>> first = batchingSigner.submit("assert", digests(2));
+			CompletableFuture<List<String>> alsoBroken = batchingSigner.submit("broken", digests(3));
+			CompletableFuture<List<String>> second = batchingSigner.submit("assert", digests(4));
+
+			assertFailedWith(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, broken);
+			assertFailedWith(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, alsoBroken);
+			assertEquals(List.of("assert-2"), get(first));
+			assertEquals(List.of("assert-4"), get(second));
+		}
+	}
+
+	@Test
+	void closeSendsPendingBatchesAndRejectsNewRequests() throws Exception {
+		RecordingSigner delegate = new RecordingSigner();
+		BatchingSigner batchingSigner = new BatchingSigner(delegate, 64, NEVER, TIMEOUT);
+		CompletableFuture<List<String>> first = batchingSigner.submit("assert", digests(1));
+		CompletableFuture<List<String>> second = batchingSigner.submit("auth", digests(2));
+
+		batchingSigner.close();
+
+		assertEquals(List.of("assert-1"), get(first));
+		assertEquals(List.of("auth-2"), get(second));
+		assertFailedWith(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, batchingSigner.submit("assert", digests(3)));
+	}
+
+	@Test
+	void rejectedRoundTripFailsItsCallers() throws Exception {
+		try (BatchingSigner batchingSigner = new BatchingSigner(new RecordingSigner(), 1, NEVER, TIMEOUT, command -> {
+			throw new RejectedExecutionException();
+		})) {
+			assertFailedWith(CoreErrorCode.ERR_CODE_SIGNER_SIGN_FAIL, batchingSigner.submit("assert", digests(1)));
+		}
+	}
+
+	@Test
+	void requiresDelegate() {
+		assertThrows(NullPointerException.class, () -> new BatchingSigner(null));
+	}
+
+	private static List<byte[]> digests(int... values) {
+		List<byte[]> digests = new ArrayList<byte[]>();
+		for (int value : values) {
+			digests.add(new byte[] { (byte) value });
+		}
+		return digests;
+	}
+
+	private static List<String> get(CompletableFuture<List<String>> future) throws Exception {
+		return future.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private static void assertFailedWith(CoreErrorCode errorCode, CompletableFuture<List<String>> future) {
+		ExecutionException exception = assertThrows(ExecutionException.class, () -> get(future));
+		assertTrue(exception.getCause() instanceof CoreException, String.valueOf(exception.getCause()));
+		assertEquals(errorCode.getCode(), ((CoreException) exception.getCause()).getErrorCode());
+	}
+
+	/**
+	 * Signs each digest as "keyId-firstByte" and records the size of each round-trip.
+	 */
+	private static final class RecordingSigner implements ExternalSigner {
+
+		private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+		@Override
+		public List<String> signAll(String keyId, List<byte[]> digests) {
+			batchSizes.add(digests.size());
+			List<String> signatureValues = new ArrayList<String>();
+			for (byte[] digest : digests) {
+				signatureValues.add(keyId + "-" + digest[0]);
+			}
+			return signatureValues;
+		}
+
+		private List<Integer> batchSizes() {
+			return new ArrayList<Integer>(batchSizes);
+		}
+	}
+}
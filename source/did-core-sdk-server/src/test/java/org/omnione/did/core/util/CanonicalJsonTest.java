@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.ProofMode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.DataObject;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.enums.did.DidServiceType;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+
+class CanonicalJsonTest {
+
+	/** Non-ASCII text and characters that JSON or HTML escaping treats specially. */
+	private static final String SPECIAL_TEXT = "홍길동 <b>&amp;</b> \"quoted\" back\\slash tab\t line\u2028separator e\u0301 \uD83D\uDE00 =";
+
+	private static DidFixture holder;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		holder = BenchmarkFixtures.didDocument("did:omn:canonical", 5, EccCurveType.Secp256k1)
+				.signDocument(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS);
+	}
+
+	@Test
+	void didDocumentMatchesSortedJson() throws CoreException {
+		DidManager didManager = BenchmarkFixtures.didDocument("did:omn:canonical:service", 4, EccCurveType.Secp256r1)
+				.signDocument(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS)
+				.getDidManager();
+		didManager.addServiceEndPoint("homepage", DidServiceType.LINKED_DOMAINS, "https://example.org/" + SPECIAL_TEXT);
+
+		assertCanonical(didManager.getDocument());
+	}
+
+	@Test
+	void credentialMatchesSortedJson() throws CoreException {
+		assertCanonical(credentialWithSpecialText());
+	}
+
+	@Test
+	void presentationMatchesSortedJson() throws CoreException {
+		assertCanonical(BenchmarkFixtures.verifiablePresentation(holder, credentialWithSpecialText(), ProofMode.MULTI));
+	}
+
+	@Test
+	void documentWithoutOptionalMembersMatchesSortedJson() throws CoreException {
+		DidDocument didDocument = new DidDocument();
+		didDocument.fromJson(holder.getDocument().toJson());
+		didDocument.setProofs(null);
+		didDocument.setCapabilityDelegation(null);
+
+		assertCanonical(didDocument);
+	}
+
+	@Test
+	void enclosureSurroundsTheArrayElements() throws CoreException {
+		VerifiablePresentation verifiablePresentation = BenchmarkFixtures.verifiablePresentation(holder, credentialWithSpecialText(),
+				ProofMode.SINGLE);
+		List<VerifiableCredential> verifiableCredentials = List.of(credentialWithSpecialText(), credentialWithSpecialText());
+
+		CanonicalJson.Enclosure enclosure = CanonicalJson.enclose(verifiablePresentation, "verifiableCredential");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			outputStream.write(enclosure.prefix());
+			for (int i = 0; i < verifiableCredentials.size(); i++) {
+				if (i > 0) {
+					outputStream.write(',');
+				}
+				CanonicalJson.write(verifiableCredentials.get(i), outputStream);
+			}
+			outputStream.write(enclosure.suffix());
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		verifiablePresentation.setVerifiableCredential(verifiableCredentials);
+		assertEquals(ReferenceJson.sortedJson(verifiablePresentation), outputStream.toString(StandardCharsets.UTF_8));
+	}
+
+	private static VerifiableCredential credentialWithSpecialText() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(holder, holder.getDid(), 3);
+		List<Claim> claims = verifiableCredential.getCredentialSubject().getClaims();
+		claims.get(0).setValue(SPECIAL_TEXT);
+		claims.get(1).setCaption(SPECIAL_TEXT);
+		claims.get(2).setValue("");
+		return verifiableCredential;
+	}
+
+	private static void assertCanonical(DataObject dataObject) throws CoreException {
+		String expectedJson = ReferenceJson.sortedJson(dataObject);
+		assertEquals(expectedJson, dataObject.toJson());
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			CanonicalJson.write(dataObject, outputStream);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		assertEquals(expectedJson, outputStream.toString(StandardCharsets.UTF_8));
+		assertArrayEquals(ReferenceJson.sha256(expectedJson), CanonicalJson.digest(dataObject));
+	}
+}
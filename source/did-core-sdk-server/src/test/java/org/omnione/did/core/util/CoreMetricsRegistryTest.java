@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.core.util.CoreMetrics.Phase;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+
+class CoreMetricsRegistryTest {
+
+	@AfterEach
+	void removeMetrics() {
+		CoreMetricsRegistry.setMetrics(null);
+	}
+
+	@Test
+	void documentVerificationReportsPhaseTimings() throws CoreException {
+		DidManager didManager = signedDidManager();
+		int proofCount = didManager.getDocument().getProofs().size();
+		RecordingMetrics recordingMetrics = new RecordingMetrics();
+		CoreMetricsRegistry.setMetrics(recordingMetrics);
+
+		didManager.verifyDocumentSignature();
+
+		assertEquals(1, recordingMetrics.latencyCount(Phase.DID_DOCUMENT_VERIFICATION));
+		assertEquals(proofCount, recordingMetrics.latencyCount(Phase.HASHING));
+		assertEquals(proofCount, recordingMetrics.latencyCount(Phase.SIGNATURE_VERIFICATION));
+		assertEquals(proofCount, recordingMetrics.count(recordingMetrics.validSignatures));
+		assertEquals(0, recordingMetrics.count(recordingMetrics.invalidSignatures));
+		assertTrue(recordingMetrics.bytesHashed.get() > 0);
+		assertTrue(recordingMetrics.failures.isEmpty());
+	}
+
+	@Test
+	void failedVerificationIsCountedByErrorCode() throws CoreException {
+		DidManager didManager = signedDidManager();
+		DidDocument didDocument = didManager.getDocument();
+		Proof tamperedProof = didDocument.getProofs().get(1);
+		tamperedProof.setProofValue(didDocument.getProofs().get(0).getProofValue());
+		DidManager tamperedDidManager = new DidManager();
+		tamperedDidManager.parse(didDocument.toJson());
+		RecordingMetrics recordingMetrics = new RecordingMetrics();
+		CoreMetricsRegistry.setMetrics(recordingMetrics);
+
+		CoreException exception = assertThrows(CoreException.class, tamperedDidManager::verifyDocumentSignature);
+
+		assertEquals(1, recordingMetrics.count(recordingMetrics.invalidSignatures));
+		assertEquals(1, recordingMetrics.count(recordingMetrics.failures.get(Phase.DID_DOCUMENT_VERIFICATION + ":" + exception.getErrorCode())));
+		assertEquals(1, recordingMetrics.latencyCount(Phase.DID_DOCUMENT_VERIFICATION));
+	}
+
+	@Test
+	void publicKeyCacheReportsHitsAndMisses() throws CoreException {
+		DidDocument didDocument = BenchmarkFixtures.didDocument("did:omn:metrics", 4, EccCurveType.Secp256r1).getDocument();
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		RecordingMetrics recordingMetrics = new RecordingMetrics();
+		CoreMetricsRegistry.setMetrics(recordingMetrics);
+
+		publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+		publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+		publicKeyCache.resolve(didDocument, BenchmarkFixtures.AUTH_KEY_ID);
+
+		assertEquals(1, recordingMetrics.count(recordingMetrics.cacheHits.get(PublicKeyCache.METRICS_NAME)));
+		assertEquals(2, recordingMetrics.count(recordingMetrics.cacheMisses.get(PublicKeyCache.METRICS_NAME)));
+		assertEquals(2, recordingMetrics.latencyCount(Phase.KEY_RESOLUTION));
+	}
+
+	@Test
+	void removedSinkReceivesNothing() throws CoreException {
+		DidManager didManager = signedDidManager();
+		RecordingMetrics recordingMetrics = new RecordingMetrics();
+		CoreMetricsRegistry.setMetrics(recordingMetrics);
+		assertTrue(CoreMetricsRegistry.isEnabled());
+
+		CoreMetricsRegistry.setMetrics(null);
+		didManager.verifyDocumentSignature();
+		new PublicKeyCache().resolve(didManager.getDocument(), BenchmarkFixtures.ASSERT_KEY_ID);
+
+		assertFalse(CoreMetricsRegistry.isEnabled());
+		assertNotSame(recordingMetrics, CoreMetricsRegistry.getMetrics());
+		assertEquals(0L, CoreMetricsRegistry.startTimer());
+		assertTrue(recordingMetrics.latencies.isEmpty());
+		assertEquals(0, recordingMetrics.count(recordingMetrics.validSignatures));
+		assertTrue(recordingMetrics.cacheMisses.isEmpty());
+	}
+
+	private static DidManager signedDidManager() throws CoreException {
+		return BenchmarkFixtures.didDocument("did:omn:metrics", 4, EccCurveType.Secp256r1)
+				.signDocument(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS)
+				.getDidManager();
+	}
+
+	private static class RecordingMetrics implements CoreMetrics {
+
+		private final Map<Phase, AtomicLong> latencies = new ConcurrentHashMap<Phase, AtomicLong>();
+		private final AtomicLong validSignatures = new AtomicLong();
+		private final AtomicLong invalidSignatures = new AtomicLong();
+		private final AtomicLong bytesHashed = new AtomicLong();
+		private final Map<String, AtomicLong> cacheHits = new ConcurrentHashMap<String, AtomicLong>();
+		private final Map<String, AtomicLong> cacheMisses = new ConcurrentHashMap<String, AtomicLong>();
+		private final Map<String, AtomicLong> failures = new ConcurrentHashMap<String, AtomicLong>();
+
+		@Override
+		public void recordLatency(Phase phase, long elapsedNanos) {
+			assertTrue(elapsedNanos >= 0);
+			latencies.computeIfAbsent(phase, key -> new AtomicLong()).incrementAndGet();
+		}
+
+		@Override
+		public void incrementSignaturesVerified(boolean isValid) {
+			(isValid ? validSignatures : invalidSignatures).incrementAndGet();
+		}
+
+		@Override
+		public void addBytesHashed(long byteCount) {
+			bytesHashed.addAndGet(byteCount);
+		}
+
+		@Override
+		public void recordCacheAccess(String cacheName, boolean isHit) {
+			(isHit ? cacheHits : cacheMisses).computeIfAbsent(cacheName, key -> new AtomicLong()).incrementAndGet();
+		}
+
+		@Override
+		public void incrementFailure(Phase phase, String errorCode) {
+			failures.computeIfAbsent(phase + ":" + errorCode, key -> new AtomicLong()).incrementAndGet();
+		}
+
+		private long latencyCount(Phase phase) {
+			return count(latencies.get(phase));
+		}
+
+		private long count(AtomicLong counter) {
+			return counter != null ? counter.get() : 0;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.data.rest.SignatureVcParams;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.VcManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+class OriginDataTemplateTest {
+
+	private static final int CLAIM_COUNT = 5;
+
+	private static DidFixture issuer;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		issuer = BenchmarkFixtures.didDocument("did:omn:template", 4, EccCurveType.Secp256r1)
+				.signDocument(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS);
+	}
+
+	@Test
+	void singleClaimTemplateMatchesSortedJson() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", CLAIM_COUNT);
+		List<Claim> claims = verifiableCredential.getCredentialSubject().getClaims();
+		claims.get(1).setValue("\"claims\":[ 홍길동 <b>&amp;</b>");
+		claims.get(2).setValue(claims.get(3).getValue());
+
+		OriginDataTemplate template = OriginDataTemplate.forSingleClaim(verifiableCredential);
+		assertNotNull(template);
+		for (Claim claim : claims) {
+			String expectedOriginData = ReferenceJson.singleClaimSigningInput(verifiableCredential, claim);
+			assertEquals(expectedOriginData, template.render(claim));
+			assertArrayEquals(ReferenceJson.sha256(expectedOriginData), template.digest(claim));
+		}
+	}
+
+	@Test
+	void credentialSigningInputsMatchSortedJson() throws CoreException {
+		VcManager vcManager = new VcManager();
+		VerifiableCredential verifiableCredential = vcManager.issueCredential(
+				BenchmarkFixtures.issueVcParam(issuer.getDid(), CLAIM_COUNT), "did:omn:holder");
+
+		List<SignatureVcParams> sigVcParamsList = vcManager.getOriginDataForSign(BenchmarkFixtures.ASSERT_KEY_ID,
+				issuer.getDocument(), verifiableCredential);
+
+		assertEquals(CLAIM_COUNT + 1, sigVcParamsList.size());
+		VerifiableCredential signingCredential = new VerifiableCredential();
+		signingCredential.fromJson(sigVcParamsList.get(0).getOriginData());
+		VerifiableCredential expectedCredential = new VerifiableCredential();
+		expectedCredential.fromJson(verifiableCredential.toJson());
+		expectedCredential.setProof(signingCredential.getProof());
+		assertEquals(ReferenceJson.sortedJson(expectedCredential), sigVcParamsList.get(0).getOriginData());
+
+		List<Claim> claims = verifiableCredential.getCredentialSubject().getClaims();
+		for (int i = 0; i < claims.size(); i++) {
+			SignatureVcParams sigVcParams = sigVcParamsList.get(i + 1);
+			assertEquals(claims.get(i).getCode(), sigVcParams.getClaimCode());
+			assertEquals(ReferenceJson.singleClaimSigningInput(expectedCredential, claims.get(i)), sigVcParams.getOriginData());
+		}
+	}
+
+	@Test
+	void proofTemplateMatchesSortedJson() throws CoreException {
+		DidDocument didDocument = issuer.getDocument();
+		Proof proof = new Proof();
+		proof.setType(didDocument.getProofs().get(0).getType());
+		proof.setCreated(didDocument.getProofs().get(0).getCreated());
+		proof.setProofPurpose(didDocument.getProofs().get(0).getProofPurpose());
+		proof.setVerificationMethod(didDocument.getProofs().get(0).getVerificationMethod());
+
+		OriginDataTemplate template = OriginDataTemplate.forProof(didDocument, proof);
+		assertNotNull(template);
+		for (Proof documentProof : didDocument.getProofs()) {
+			Proof signingProof = new Proof();
+			signingProof.setType(documentProof.getType());
+			signingProof.setCreated(documentProof.getCreated());
+			signingProof.setProofPurpose(documentProof.getProofPurpose());
+			signingProof.setVerificationMethod(documentProof.getVerificationMethod());
+
+			String expectedOriginData = ReferenceJson.didDocumentSigningInput(didDocument, signingProof);
+			assertEquals(expectedOriginData, template.render(signingProof));
+			assertArrayEquals(ReferenceJson.sha256(expectedOriginData), template.digest(signingProof));
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.data.model.profile.Filter;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.CredentialSchema;
+import org.omnione.did.data.model.vc.CredentialSubject;
+import org.omnione.did.data.model.vc.Issuer;
+import org.omnione.did.data.model.vc.VcProof;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+class PresentationFilterTest {
+
+	private static final String PASSED = "passed";
+	private static final String SCHEMA_TYPE = "OsdSchemaCredential";
+	private static final String ISSUER = "did:omn:issuer";
+	private static final String OTHER_ISSUER = "did:omn:other";
+
+	/**
+	 * Credentials presented for one schema of the filter.
+	 */
+	private enum Submission {
+		VALID,
+		NOT_ALLOWED_ISSUER,
+		MISSING_CLAIM,
+		NO_PROOF_VALUE,
+		OTHER_TYPE,
+		ABSENT,
+		INVALID_BEFORE_VALID
+	}
+
+	@Test
+	void compiledFilterReportsTheSameResultAsCheckFilter() {
+		Filter filter = filter();
+		PresentationFilter presentationFilter = PresentationFilter.compile(filter);
+
+		for (Submission firstSubmission : Submission.values()) {
+			for (Submission secondSubmission : Submission.values()) {
+				List<VerifiableCredential> verifiableCredentials = new ArrayList<VerifiableCredential>();
+				verifiableCredentials.addAll(credentials(filter.getCredentialSchemas().get(0), firstSubmission));
+				verifiableCredentials.addAll(credentials(filter.getCredentialSchemas().get(1), secondSubmission));
+
+				for (List<VerifiableCredential> presented : List.of(verifiableCredentials, reversed(verifiableCredentials))) {
+					String expected = result(() -> legacyCheckFilter(filter, presented));
+					String message = firstSubmission + ", " + secondSubmission;
+					assertEquals(expected, result(() -> presentationFilter.check(presented)), message);
+					assertEquals(expected, result(() -> {
+						PresentationFilter.Matcher matcher = presentationFilter.newMatcher();
+						for (VerifiableCredential verifiableCredential : presented) {
+							matcher.match(verifiableCredential);
+						}
+						matcher.finish();
+					}), message);
+				}
+			}
+		}
+	}
+
+	@Test
+	void emptyFilterAcceptsAnyPresentation() throws CoreException {
+		Filter filter = new Filter();
+		filter.setCredentialSchemas(new ArrayList<CredentialSchema>());
+
+		PresentationFilter.compile(filter).check(Collections.emptyList());
+		PresentationFilter.compile(null).check(null);
+	}
+
+	@Test
+	void filterChangedAfterCompilationIsNotSeen() throws CoreException {
+		Filter filter = filter();
+		PresentationFilter presentationFilter = PresentationFilter.compile(filter);
+		List<VerifiableCredential> verifiableCredentials = new ArrayList<VerifiableCredential>();
+		for (CredentialSchema credentialSchema : filter.getCredentialSchemas()) {
+			verifiableCredentials.addAll(credentials(credentialSchema, Submission.VALID));
+		}
+
+		filter.getCredentialSchemas().get(0).getAllowedIssuers().clear();
+		filter.getCredentialSchemas().get(1).getRequiredClaims().add("added");
+
+		presentationFilter.check(verifiableCredentials);
+	}
+
+	@Test
+	void missingIssuerIsNotAllowed() {
+		Filter filter = filter();
+		VerifiableCredential verifiableCredential = credential(filter.getCredentialSchemas().get(0), ISSUER, true, true);
+		verifiableCredential.setIssuer(null);
+
+		CoreException exception = assertThrows(CoreException.class,
+				() -> PresentationFilter.compile(filter).check(List.of(verifiableCredential)));
+		assertEquals(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER.getCode(), exception.getErrorCode());
+	}
+
+	private static Filter filter() {
+		Filter filter = new Filter();
+		filter.setCredentialSchemas(new ArrayList<CredentialSchema>(List.of(
+				schema("https://example.org/schema/identity", List.of(ISSUER), List.of("name", "birth"), Boolean.TRUE),
+				schema("https://example.org/schema/license", List.of(ISSUER, "did:omn:agency"), List.of("number"), null))));
+		return filter;
+	}
+
+	private static CredentialSchema schema(String id, List<String> allowedIssuers, List<String> requiredClaims, Boolean presentAll) {
+		CredentialSchema credentialSchema = new CredentialSchema();
+		credentialSchema.setId(id);
+		credentialSchema.setType(SCHEMA_TYPE);
+		credentialSchema.setAllowedIssuers(new ArrayList<String>(allowedIssuers));
+		credentialSchema.setRequiredClaims(new ArrayList<String>(requiredClaims));
+		credentialSchema.setPresentAll(presentAll);
+		return credentialSchema;
+	}
+
+	private static List<VerifiableCredential> credentials(CredentialSchema credentialSchema, Submission submission) {
+		switch (submission) {
+		case VALID:
+			return List.of(credential(credentialSchema, ISSUER, true, true));
+		case NOT_ALLOWED_ISSUER:
+			return List.of(credential(credentialSchema, OTHER_ISSUER, true, true));
+		case MISSING_CLAIM:
+			return List.of(credential(credentialSchema, ISSUER, false, true));
+		case NO_PROOF_VALUE:
+			return List.of(credential(credentialSchema, ISSUER, true, false));
+		case OTHER_TYPE:
+			VerifiableCredential verifiableCredential = credential(credentialSchema, ISSUER, true, true);
+			verifiableCredential.getCredentialSchema().setType("OtherSchemaCredential");
+			return List.of(verifiableCredential);
+		case INVALID_BEFORE_VALID:
+			return List.of(credential(credentialSchema, OTHER_ISSUER, true, true), credential(credentialSchema, ISSUER, true, true));
+		default:
+			return Collections.emptyList();
+		}
+	}
+
+	private static VerifiableCredential credential(CredentialSchema credentialSchema, String issuerId, boolean hasAllClaims, boolean hasProofValue) {
+		CredentialSchema vcSchema = new CredentialSchema();
+		vcSchema.setId(credentialSchema.getId());
+		vcSchema.setType(credentialSchema.getType());
+
+		Issuer issuer = new Issuer();
+		issuer.setId(issuerId);
+
+		List<Claim> claims = new ArrayList<Claim>();
+		List<String> claimCodes = credentialSchema.getRequiredClaims();
+		for (String claimCode : hasAllClaims ? claimCodes : claimCodes.subList(1, claimCodes.size())) {
+			Claim claim = new Claim();
+			claim.setCode(claimCode);
+			claims.add(claim);
+		}
+		CredentialSubject credentialSubject = new CredentialSubject();
+		credentialSubject.setClaims(claims);
+
+		VcProof proof = new VcProof();
+		proof.setProofValue(hasProofValue ? "mProofValue" : " ");
+
+		VerifiableCredential verifiableCredential = new VerifiableCredential();
+		verifiableCredential.setCredentialSchema(vcSchema);
+		verifiableCredential.setIssuer(issuer);
+		verifiableCredential.setCredentialSubject(credentialSubject);
+		verifiableCredential.setProof(proof);
+		return verifiableCredential;
+	}
+
+	private static List<VerifiableCredential> reversed(List<VerifiableCredential> verifiableCredentials) {
+		List<VerifiableCredential> reversed = new ArrayList<VerifiableCredential>(verifiableCredentials);
+		Collections.reverse(reversed);
+		return reversed;
+	}
+
+	private static String result(FilterCheck filterCheck) {
+		try {
+			filterCheck.run();
+			return PASSED;
+		} catch (CoreException e) {
+			return e.getErrorCode();
+		}
+	}
+
+	private interface FilterCheck {
+
+		void run() throws CoreException;
+	}
+
+	/**
+	 * The filter check of VpManager before the filter was compiled.
+	 */
+	private static void legacyCheckFilter(Filter filter, List<VerifiableCredential> verifiableCredentials) throws CoreException {
+		for (CredentialSchema credentialSchema : filter.getCredentialSchemas()) {
+			VerifiableCredential filterVc = verifiableCredentials.stream()
+					.filter(vc -> credentialSchema.getId().equals(vc.getCredentialSchema().getId())
+							&& credentialSchema.getType().equals(vc.getCredentialSchema().getType()))
+					.findFirst()
+					.orElse(null);
+			if (filterVc == null) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_MATCHED_SCHEMA);
+			}
+
+			String issuer = filterVc.getIssuer().getId();
+			if (issuer == null || !credentialSchema.getAllowedIssuers().contains(issuer)) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_ALLOW_ISSUER);
+			}
+
+			List<Claim> claimList = filterVc.getCredentialSubject().getClaims();
+			boolean allRequiredClaimsPresent = credentialSchema.getRequiredClaims().stream()
+					.allMatch(requiredClaimCode -> claimList.stream().anyMatch(claim -> claim.getCode().equals(requiredClaimCode)));
+			if (!allRequiredClaimsPresent) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_CONTAIN_CLAIM);
+			}
+
+			if (Boolean.TRUE.equals(credentialSchema.getPresentAll())
+					&& (filterVc.getProof().getProofValue() == null || filterVc.getProof().getProofValue().isBlank())) {
+				throw new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_NOT_EXIST_PROOFVALUE);
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.InMemoryDidDocumentRegistry;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+
+class PublicKeyCacheTest {
+
+	private static final String DID = "did:omn:cached";
+
+	private static DidDocument didDocument;
+	private static DidDocument forgedDidDocument;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		didDocument = BenchmarkFixtures.didDocument(DID, 4, EccCurveType.Secp256r1).getDocument();
+
+		// same DID, version and key IDs, but the keys of another DID
+		DidDocument otherDidDocument = BenchmarkFixtures.didDocument("did:omn:forger", 4, EccCurveType.Secp256r1).getDocument();
+		forgedDidDocument = new DidDocument();
+		forgedDidDocument.fromJson(didDocument.toJson());
+		for (int i = 0; i < forgedDidDocument.getVerificationMethod().size(); i++) {
+			forgedDidDocument.getVerificationMethod().get(i)
+					.setPublicKeyMultibase(otherDidDocument.getVerificationMethod().get(i).getPublicKeyMultibase());
+		}
+	}
+
+	@AfterEach
+	void removeDefault() {
+		PublicKeyCache.setDefault(null);
+	}
+
+	@Test
+	void resolvesCachedKeyOfTheSameDocument() throws CoreException {
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+
+		ResolvedPublicKey first = publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+		ResolvedPublicKey second = publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+
+		assertSame(first, second);
+		assertEquals(1, publicKeyCache.getHitCount());
+		assertEquals(1, publicKeyCache.getMissCount());
+		assertNull(publicKeyCache.resolve(didDocument, "unknown"));
+	}
+
+	@Test
+	void forgedDocumentNeitherReusesNorReplacesTheCachedKey() throws CoreException {
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		ResolvedPublicKey genuine = publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+
+		ResolvedPublicKey forged = publicKeyCache.resolve(forgedDidDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+
+		assertEquals(BenchmarkFixtures.verificationMethod(forgedDidDocument, BenchmarkFixtures.ASSERT_KEY_ID).getPublicKeyMultibase(), forged.getPublicKeyMultibase());
+		assertSame(genuine, publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID));
+	}
+
+	@Test
+	void forgedDocumentCachedFirstDoesNotPinItsKey() throws CoreException {
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		publicKeyCache.resolve(forgedDidDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+
+		ResolvedPublicKey genuine = publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+
+		assertEquals(BenchmarkFixtures.verificationMethod(didDocument, BenchmarkFixtures.ASSERT_KEY_ID).getPublicKeyMultibase(), genuine.getPublicKeyMultibase());
+	}
+
+	@Test
+	void invalidateRemovesOnlyTheKeysOfTheDid() throws CoreException {
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		DidDocument otherDidDocument = BenchmarkFixtures.didDocument("did:omn:other", 4, EccCurveType.Secp256r1).getDocument();
+		ResolvedPublicKey cached = publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+		ResolvedPublicKey otherCached = publicKeyCache.resolve(otherDidDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+
+		publicKeyCache.invalidate(DID);
+
+		assertEquals(1, publicKeyCache.size());
+		assertNotSame(cached, publicKeyCache.resolve(didDocument, BenchmarkFixtures.ASSERT_KEY_ID));
+		assertSame(otherCached, publicKeyCache.resolve(otherDidDocument, BenchmarkFixtures.ASSERT_KEY_ID));
+
+		publicKeyCache.invalidateAll();
+		assertEquals(0, publicKeyCache.size());
+	}
+
+	@Test
+	void resolvesWithoutCacheUnlessDefaultIsInstalled() throws CoreException {
+		String verificationMethod = DID + "?versionId=1#" + BenchmarkFixtures.ASSERT_KEY_ID;
+		assertNotSame(VerifyUtil.resolvePublicKey(didDocument, verificationMethod), VerifyUtil.resolvePublicKey(didDocument, verificationMethod));
+
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		PublicKeyCache.setDefault(publicKeyCache);
+		assertSame(VerifyUtil.resolvePublicKey(didDocument, verificationMethod), VerifyUtil.resolvePublicKey(didDocument, verificationMethod));
+		assertEquals(1, publicKeyCache.size());
+	}
+
+	@Test
+	void registryInvalidatesDefaultCacheWhenVersionIsReplaced() throws CoreException {
+		PublicKeyCache publicKeyCache = new PublicKeyCache();
+		PublicKeyCache.setDefault(publicKeyCache);
+		InMemoryDidDocumentRegistry registry = new InMemoryDidDocumentRegistry();
+		registry.register(didDocument);
+		PublicKeyCache.resolveCached(didDocument, BenchmarkFixtures.ASSERT_KEY_ID);
+		assertEquals(1, publicKeyCache.size());
+
+		registry.register(forgedDidDocument);
+
+		assertEquals(0, publicKeyCache.size());
+		ResolvedPublicKey replaced = registry.resolvePublicKey(DID + "?versionId=" + didDocument.getVersionId() + "#" + BenchmarkFixtures.ASSERT_KEY_ID);
+		assertEquals(BenchmarkFixtures.verificationMethod(forgedDidDocument, BenchmarkFixtures.ASSERT_KEY_ID).getPublicKeyMultibase(), replaced.getPublicKeyMultibase());
+	}
+}
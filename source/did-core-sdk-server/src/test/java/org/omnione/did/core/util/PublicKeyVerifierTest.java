@@ -0,0 +1,271 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.jce.interfaces.ECPublicKey;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.crypto.enums.DigestType;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.crypto.exception.CryptoException;
+import org.omnione.did.crypto.generator.EcKeyPairGenerator;
+import org.omnione.did.crypto.keypair.EcKeyPair;
+import org.omnione.did.crypto.util.DigestUtils;
+import org.omnione.did.crypto.util.SignatureUtils;
+
+/**
+ * Cross-checks {@link PublicKeyVerifier} against {@code SignatureUtils.verifyCompactSignWithCompressedKey},
+ * the verification it replaces: both must accept and reject the same signatures.
+ */
+class PublicKeyVerifierTest {
+
+	private static final int HEADER_BASE = 27 + 4;
+	private static final int ROUNDS = 20;
+
+	static {
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void acceptsValidAndRejectsTamperedSignatures(EccCurveType curveType) throws Exception {
+		Random random = new Random(curveType.ordinal());
+		for (int round = 0; round < ROUNDS; round++) {
+			EcKeyPair keyPair = keyPair(curveType);
+			byte[] publicKey = compressedPublicKey(keyPair);
+			byte[] hashedData = hash("message " + round);
+			byte[] signature = SignatureUtils.generateCompactSignature(keyPair, hashedData, curveType);
+
+			assertTrue(assertSameResult(publicKey, hashedData, signature, curveType));
+			assertFalse(assertSameResult(publicKey, hash("other " + round), signature, curveType));
+			assertFalse(assertSameResult(compressedPublicKey(keyPair(curveType)), hashedData, signature, curveType));
+
+			byte[] tampered = signature.clone();
+			tampered[1 + random.nextInt(64)] ^= (byte) (1 << random.nextInt(8));
+			assertFalse(assertSameResult(publicKey, hashedData, tampered, curveType));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void rejectsSignatureOfTheOtherCurve(EccCurveType curveType) throws Exception {
+		EccCurveType otherCurveType = curveType == EccCurveType.Secp256k1 ? EccCurveType.Secp256r1 : EccCurveType.Secp256k1;
+		EcKeyPair keyPair = keyPair(curveType);
+		byte[] hashedData = hash("curve");
+		byte[] signature = SignatureUtils.generateCompactSignature(keyPair, hashedData, curveType);
+
+		assertFalse(assertSameResult(compressedPublicKey(keyPair(otherCurveType)), hashedData, signature, otherCurveType));
+	}
+
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void agreesOnEveryRecoveryId(EccCurveType curveType) throws Exception {
+		for (int round = 0; round < ROUNDS; round++) {
+			EcKeyPair keyPair = keyPair(curveType);
+			byte[] publicKey = compressedPublicKey(keyPair);
+			byte[] hashedData = hash("recovery " + round);
+			byte[] signature = SignatureUtils.generateCompactSignature(keyPair, hashedData, curveType);
+
+			// the recovery only uses the y parity of the header
+			for (int header = 0; header < 256; header++) {
+				byte[] withHeader = signature.clone();
+				withHeader[0] = (byte) header;
+				assertEquals(((header ^ signature[0]) & 1) == 0, assertSameResult(publicKey, hashedData, withHeader, curveType));
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void agreesOnHighS(EccCurveType curveType) throws Exception {
+		BigInteger n = curveSpec(curveType).getN();
+		for (int round = 0; round < ROUNDS; round++) {
+			EcKeyPair keyPair = keyPair(curveType);
+			byte[] publicKey = compressedPublicKey(keyPair);
+			byte[] hashedData = hash("high s " + round);
+			byte[] signature = SignatureUtils.generateCompactSignature(keyPair, hashedData, curveType);
+
+			// (r, n - s) is the same signature with the y coordinate of R negated
+			byte[] negated = signature.clone();
+			System.arraycopy(unsigned32(n.subtract(new BigInteger(1, Arrays.copyOfRange(signature, 33, 65)))), 0, negated, 33, 32);
+			assertFalse(assertSameResult(publicKey, hashedData, negated, curveType));
+
+			negated[0] = (byte) (negated[0] ^ 1);
+			assertTrue(assertSameResult(publicKey, hashedData, negated, curveType));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void agreesOnOutOfRangeScalars(EccCurveType curveType) throws Exception {
+		BigInteger n = curveSpec(curveType).getN();
+		EcKeyPair keyPair = keyPair(curveType);
+		byte[] publicKey = compressedPublicKey(keyPair);
+		byte[] hashedData = hash("range");
+		byte[] signature = SignatureUtils.generateCompactSignature(keyPair, hashedData, curveType);
+		BigInteger r = new BigInteger(1, Arrays.copyOfRange(signature, 1, 33));
+		BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, 33, 65));
+
+		assertFalse(assertSameResult(publicKey, hashedData, compactSignature(signature[0], BigInteger.ZERO, s), curveType));
+		assertFalse(assertSameResult(publicKey, hashedData, compactSignature(signature[0], r, BigInteger.ZERO), curveType));
+		assertFalse(assertSameResult(publicKey, hashedData, compactSignature(signature[0], n, s), curveType));
+		assertFalse(assertSameResult(publicKey, hashedData, compactSignature(signature[0], r, n), curveType));
+		if (r.add(n).bitLength() <= 256) {
+			assertFalse(assertSameResult(publicKey, hashedData, compactSignature(signature[0], r.add(n), s), curveType));
+		}
+		if (s.add(n).bitLength() <= 256) {
+			// the recovery takes s modulo n
+			assertTrue(assertSameResult(publicKey, hashedData, compactSignature(signature[0], r, s.add(n)), curveType));
+		}
+		assertFalse(assertSameResult(publicKey, hashedData, Arrays.copyOf(signature, 64), curveType));
+	}
+
+	/**
+	 * A signature whose point R has an x coordinate of at least n. Such signatures are too rare to be produced
+	 * by signing, so the public key is recovered from a chosen R instead. The recovery uses x = r, so only r = x
+	 * is accepted, not r = x - n with the recovery id bit for x above n.
+	 */
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void agreesOnRWithXAboveN(EccCurveType curveType) throws Exception {
+		ECNamedCurveParameterSpec curveSpec = curveSpec(curveType);
+		BigInteger n = curveSpec.getN();
+		BigInteger p = curveSpec.getCurve().getField().getCharacteristic();
+		byte[] hashedData = hash("above n");
+		BigInteger e = new BigInteger(1, hashedData);
+		BigInteger s = BigInteger.valueOf(0x1234567);
+
+		ECPoint pointR = null;
+		for (BigInteger x = n.add(BigInteger.TEN); x.compareTo(p) < 0 && pointR == null; x = x.add(BigInteger.ONE)) {
+			pointR = decompress(curveSpec, x, false);
+		}
+		assertTrue(pointR != null);
+
+		BigInteger x = pointR.getAffineXCoord().toBigInteger();
+		BigInteger rInverse = x.modInverse(n);
+		ECPoint publicPoint = ECAlgorithms.sumOfTwoMultiplies(pointR, s.multiply(rInverse).mod(n),
+				curveSpec.getG(), e.negate().multiply(rInverse).mod(n)).normalize();
+		byte[] publicKey = publicPoint.getEncoded(true);
+
+		int parity = pointR.getAffineYCoord().testBitZero() ? 1 : 0;
+		assertTrue(assertSameResult(publicKey, hashedData, compactSignature((byte) (HEADER_BASE + parity), x, s), curveType));
+		assertFalse(assertSameResult(publicKey, hashedData, compactSignature((byte) (HEADER_BASE + (parity ^ 1)), x, s), curveType));
+		assertFalse(assertSameResult(publicKey, hashedData, compactSignature((byte) (HEADER_BASE + 2 + parity), x.subtract(n), s), curveType));
+	}
+
+	@ParameterizedTest
+	@EnumSource(EccCurveType.class)
+	void agreesOnSMultipleOfN(EccCurveType curveType) throws Exception {
+		ECNamedCurveParameterSpec curveSpec = curveSpec(curveType);
+		BigInteger n = curveSpec.getN();
+		byte[] hashedData = hash("zero s");
+		BigInteger e = new BigInteger(1, hashedData);
+
+		// with s = 0 the recovered key is -(e/r)G for any r that is the x coordinate of a point
+		ECPoint pointR = null;
+		for (BigInteger x = BigInteger.valueOf(2); pointR == null; x = x.add(BigInteger.ONE)) {
+			pointR = decompress(curveSpec, x, false);
+		}
+		BigInteger r = pointR.getAffineXCoord().toBigInteger();
+		byte[] publicKey = curveSpec.getG().multiply(e.negate().multiply(r.modInverse(n)).mod(n)).normalize().getEncoded(true);
+
+		assertTrue(assertSameResult(publicKey, hashedData, compactSignature((byte) HEADER_BASE, r, BigInteger.ZERO), curveType));
+		assertTrue(assertSameResult(publicKey, hashedData, compactSignature((byte) HEADER_BASE, r, n), curveType));
+		assertFalse(assertSameResult(compressedPublicKey(keyPair(curveType)), hashedData, compactSignature((byte) HEADER_BASE, r, BigInteger.ZERO), curveType));
+	}
+
+	/**
+	 * Verifies with both implementations and fails unless they agree.
+	 *
+	 * @return Whether the signature was accepted.
+	 */
+	private static boolean assertSameResult(byte[] publicKey, byte[] hashedData, byte[] signature, EccCurveType curveType) throws CoreException {
+		boolean isSdkValid;
+		try {
+			SignatureUtils.verifyCompactSignWithCompressedKey(publicKey, hashedData, signature, curveType);
+			isSdkValid = true;
+		} catch (CryptoException | RuntimeException e) {
+			isSdkValid = false;
+		}
+		boolean isValid = PublicKeyVerifier.of(publicKey, curveType).isValid(hashedData, signature);
+		assertEquals(isSdkValid, isValid, "header " + (signature.length > 0 ? signature[0] & 0xFF : -1));
+		return isValid;
+	}
+
+	private static ECNamedCurveParameterSpec curveSpec(EccCurveType curveType) {
+		return ECNamedCurveTable.getParameterSpec(curveType.getCurveName());
+	}
+
+	private static ECPoint decompress(ECNamedCurveParameterSpec curveSpec, BigInteger x, boolean isOddY) {
+		byte[] encoded = new byte[33];
+		encoded[0] = (byte) (isOddY ? 3 : 2);
+		System.arraycopy(unsigned32(x), 0, encoded, 1, 32);
+		try {
+			return curveSpec.getCurve().decodePoint(encoded).normalize();
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static byte[] compactSignature(byte header, BigInteger r, BigInteger s) {
+		byte[] signature = new byte[65];
+		signature[0] = header;
+		System.arraycopy(unsigned32(r), 0, signature, 1, 32);
+		System.arraycopy(unsigned32(s), 0, signature, 33, 32);
+		return signature;
+	}
+
+	private static byte[] unsigned32(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		byte[] unsigned = new byte[32];
+		int length = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - length, unsigned, 32 - length, length);
+		return unsigned;
+	}
+
+	private static EcKeyPair keyPair(EccCurveType curveType) throws CryptoException {
+		EcKeyPair keyPair = (EcKeyPair) new EcKeyPairGenerator().generateKeyPair(curveType);
+		keyPair.setECType(curveType);
+		return keyPair;
+	}
+
+	private static byte[] compressedPublicKey(EcKeyPair keyPair) {
+		return ((ECPublicKey) keyPair.getPublicKey()).getQ().getEncoded(true);
+	}
+
+	private static byte[] hash(String data) throws CryptoException {
+		return DigestUtils.getDigest(data.getBytes(StandardCharsets.UTF_8), DigestType.SHA256);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.omnione.did.data.model.DataObject;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.did.Proof;
+import org.omnione.did.data.model.util.json.GsonWrapper;
+import org.omnione.did.data.model.util.json.JsonSortUtil;
+import org.omnione.did.data.model.vc.Claim;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+/**
+ * Reference renderings of the signing inputs, built the way the SDK built them before the templates and
+ * the canonical JSON writer: serialized with {@link GsonWrapper} and sorted with {@link JsonSortUtil}.
+ */
+public final class ReferenceJson {
+
+	private ReferenceJson() {
+	}
+
+	/**
+	 * Serializes the object as {@code DataObject.toJson()} is specified.
+	 *
+	 * @param dataObject The object to serialize
+	 * @return The sorted JSON
+	 */
+	public static String sortedJson(DataObject dataObject) {
+		GsonWrapper gson = new GsonWrapper();
+		return JsonSortUtil.sortJsonString(gson, gson.toJson(dataObject));
+	}
+
+	/**
+	 * Renders the signing input of a DID document proof: the document with its proofs replaced by the given proof.
+	 *
+	 * @param didDocument The DID document
+	 * @param proof The proof without signature value
+	 * @return The signing input
+	 */
+	public static String didDocumentSigningInput(DidDocument didDocument, Proof proof) {
+		DidDocument signingDocument = new DidDocument(didDocument.toJson());
+		signingDocument.setProofs(null);
+		signingDocument.setProof(proof);
+		return sortedJson(signingDocument);
+	}
+
+	/**
+	 * Renders the signing input of a claim: the credential holding only that claim.
+	 *
+	 * @param verifiableCredential The credential with its proof without signature values
+	 * @param claim The claim
+	 * @return The signing input
+	 */
+	public static String singleClaimSigningInput(VerifiableCredential verifiableCredential, Claim claim) {
+		VerifiableCredential signingCredential = new VerifiableCredential();
+		signingCredential.fromJson(verifiableCredential.toJson());
+		signingCredential.getCredentialSubject().setClaims(List.of(claim));
+		return sortedJson(signingCredential);
+	}
+
+	/**
+	 * Hashes the UTF-8 bytes of the data with SHA-256.
+	 *
+	 * @param data The data
+	 * @return The digest
+	 */
+	public static byte[] sha256(String data) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
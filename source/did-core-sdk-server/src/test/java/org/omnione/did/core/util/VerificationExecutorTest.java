@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.ProofMode;
+import org.omnione.did.core.data.rest.VpVerifyParam;
+import org.omnione.did.core.data.rest.VpVerifyResult;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.DidManager;
+import org.omnione.did.core.manager.VcManager;
+import org.omnione.did.core.manager.VpManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+import org.omnione.did.data.model.vp.VerifiablePresentation;
+
+class VerificationExecutorTest {
+
+	private static final int QUEUE_CAPACITY = 2;
+
+	private static DidFixture issuer;
+	private static DidFixture holder;
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final List<CompletableFuture<String>> blockingTasks = new ArrayList<CompletableFuture<String>>();
+	private VerificationExecutor executor;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		issuer = BenchmarkFixtures.didDocument("did:omn:asyncissuer", 4, EccCurveType.Secp256r1)
+				.signDocument(BenchmarkFixtures.DOCUMENT_SIGN_KEY_IDS);
+		holder = BenchmarkFixtures.didDocument("did:omn:asyncholder", 4, EccCurveType.Secp256r1);
+	}
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void saturatedExecutorRejectsWithoutBlocking() throws Exception {
+		saturate();
+
+		assertEquals(QUEUE_CAPACITY, executor.getQueuedTaskCount());
+		assertEquals(0, executor.getRemainingCapacity());
+		assertEquals(1, executor.getActiveCount());
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+		AtomicBoolean isRun = new AtomicBoolean();
+		CompletableFuture<Boolean> rejected = VerificationExecutor.supplyAsync(() -> isRun.getAndSet(true), executor,
+				CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED);
+		assertTrue(rejected.isCompletedExceptionally());
+		assertRejected(rejected, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED);
+
+		drain();
+		assertEquals("accepted", VerificationExecutor.supplyAsync(() -> "accepted", executor,
+				CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED).get(10, TimeUnit.SECONDS));
+		assertFalse(isRun.get());
+	}
+
+	@Test
+	void saturatedExecutorRejectsEveryAsyncVerification() throws Exception {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, holder.getDid(), 4);
+		VerifiablePresentation verifiablePresentation = BenchmarkFixtures.verifiablePresentation(holder, verifiableCredential, ProofMode.SINGLE);
+		VpVerifyParam verifyParam = new VpVerifyParam(holder.getDocument(), issuer.getDocument());
+		saturate();
+
+		assertRejected(new VpManager().verifyAsync(verifiablePresentation, verifyParam, executor),
+				CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED);
+		assertRejected(new VcManager().verifyCredentialAsync(verifiableCredential, issuer.getDocument(), true, executor),
+				CoreErrorCode.ERR_CODE_VCMANAGER_VERIFICATION_REJECTED);
+		assertRejected(issuer.getDidManager().verifyDocumentSignatureAsync(executor),
+				CoreErrorCode.ERR_CODE_DIDMANAGER_VERIFICATION_REJECTED);
+
+		drain();
+		VpVerifyResult result = new VpManager().verifyAsync(verifiablePresentation, verifyParam, executor).get(30, TimeUnit.SECONDS);
+		assertEquals(holder.getDid(), result.getHolder());
+		assertNull(new VcManager().verifyCredentialAsync(verifiableCredential, issuer.getDocument(), true, executor).get(30, TimeUnit.SECONDS));
+		assertNull(issuer.getDidManager().verifyDocumentSignatureAsync(executor).get(30, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void verificationErrorCompletesTheFuture() throws CoreException {
+		executor = new VerificationExecutor(1, QUEUE_CAPACITY);
+		DidDocument tamperedDocument = new DidDocument(issuer.getDocument().toJson());
+		tamperedDocument.getProofs().get(1).setProofValue(tamperedDocument.getProofs().get(0).getProofValue());
+		DidManager didManager = new DidManager();
+		didManager.parse(tamperedDocument.toJson());
+		CoreException exception = new CoreException(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL);
+
+		ExecutionException thrown = assertThrows(ExecutionException.class, () -> VerificationExecutor.supplyAsync(() -> {
+			throw exception;
+		}, executor, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED).get(10, TimeUnit.SECONDS));
+		assertSame(exception, thrown.getCause());
+
+		ExecutionException tampered = assertThrows(ExecutionException.class,
+				() -> didManager.verifyDocumentSignatureAsync(executor).get(10, TimeUnit.SECONDS));
+		assertInstanceOf(CoreException.class, tampered.getCause());
+	}
+
+	@Test
+	void taskCancelledWhileQueuedDoesNotRun() throws Exception {
+		saturate();
+		AtomicBoolean isRun = new AtomicBoolean();
+		drain();
+
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch unblock = new CountDownLatch(1);
+		CompletableFuture<Void> blocker = VerificationExecutor.supplyAsync(() -> {
+			blocked.countDown();
+			unblock.await();
+			return null;
+		}, executor, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED);
+		assertTrue(blocked.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Boolean> queued = VerificationExecutor.supplyAsync(() -> isRun.getAndSet(true), executor,
+				CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED);
+		queued.cancel(false);
+		unblock.countDown();
+		blocker.get(10, TimeUnit.SECONDS);
+		VerificationExecutor.supplyAsync(() -> null, executor, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED).get(10, TimeUnit.SECONDS);
+
+		assertFalse(isRun.get());
+	}
+
+	@Test
+	void sizesMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new VerificationExecutor(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new VerificationExecutor(1, 0));
+		assertEquals(Runtime.getRuntime().availableProcessors() * 64, VerificationExecutor.getDefault().getQueueCapacity());
+	}
+
+	/**
+	 * Occupies the only thread of a new executor and fills its queue with tasks waiting for the release latch.
+	 */
+	private void saturate() throws InterruptedException {
+		executor = new VerificationExecutor(1, QUEUE_CAPACITY);
+		CountDownLatch started = new CountDownLatch(1);
+		for (int i = 0; i <= QUEUE_CAPACITY; i++) {
+			blockingTasks.add(VerificationExecutor.supplyAsync(() -> {
+				started.countDown();
+				release.await();
+				return "done";
+			}, executor, CoreErrorCode.ERR_CODE_VPMANAGER_VERIFICATION_REJECTED));
+		}
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Releases the tasks of {@link #saturate()} and waits until they are done.
+	 */
+	private void drain() throws Exception {
+		release.countDown();
+		for (CompletableFuture<String> blockingTask : blockingTasks) {
+			assertEquals("done", blockingTask.get(10, TimeUnit.SECONDS));
+		}
+	}
+
+	private static void assertRejected(CompletableFuture<?> future, CoreErrorCode errorCode) {
+		assertTrue(future.isDone());
+		ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(0, TimeUnit.SECONDS));
+		assertInstanceOf(CoreException.class, exception.getCause());
+		assertEquals(errorCode.getCode(), ((CoreException) exception.getCause()).getErrorCode());
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.core.manager.InMemoryDidDocumentRegistry;
+import org.omnione.did.core.manager.VcManager;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.DidDocument;
+import org.omnione.did.data.model.vc.VerifiableCredential;
+
+class VerificationResultCacheTest {
+
+	private static DidFixture issuer;
+	private static DidFixture otherIssuer;
+	private static ResolvedPublicKey issuerKey;
+	private static ResolvedPublicKey otherIssuerKey;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		issuer = BenchmarkFixtures.didDocument("did:omn:resultissuer", 4, EccCurveType.Secp256r1);
+		otherIssuer = BenchmarkFixtures.didDocument("did:omn:otherissuer", 4, EccCurveType.Secp256r1);
+		issuerKey = ResolvedPublicKey.from(BenchmarkFixtures.verificationMethod(issuer.getDocument(), BenchmarkFixtures.ASSERT_KEY_ID));
+		otherIssuerKey = ResolvedPublicKey.from(BenchmarkFixtures.verificationMethod(otherIssuer.getDocument(), BenchmarkFixtures.ASSERT_KEY_ID));
+	}
+
+	@AfterEach
+	void removeDefault() {
+		VerificationResultCache.setDefault(null);
+	}
+
+	@Test
+	void sameCredentialAndKeyHitTheCache() throws CoreException {
+		VerificationResultCache resultCache = new VerificationResultCache();
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		AtomicInteger checkCount = new AtomicInteger();
+
+		resultCache.verify(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+		resultCache.verify(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+
+		assertEquals(1, checkCount.get());
+		assertEquals(1, resultCache.getHitCount());
+		assertEquals(1, resultCache.getMissCount());
+	}
+
+	@Test
+	void changedCredentialOrKeyMissesTheCache() throws CoreException {
+		VerificationResultCache resultCache = new VerificationResultCache();
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		AtomicInteger checkCount = new AtomicInteger();
+		resultCache.verify(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+
+		resultCache.verify(verifiableCredential, otherIssuerKey, checkCount::incrementAndGet);
+		verifiableCredential.getCredentialSubject().getClaims().get(0).setValue("changed");
+		resultCache.verify(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+
+		assertEquals(3, checkCount.get());
+		assertEquals(0, resultCache.getHitCount());
+	}
+
+	@Test
+	void failedVerificationIsNotCached() throws CoreException {
+		VerificationResultCache resultCache = new VerificationResultCache();
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		AtomicInteger checkCount = new AtomicInteger();
+		VerificationResultCache.SignatureCheck failingCheck = () -> {
+			checkCount.incrementAndGet();
+			throw new CoreException(CoreErrorCode.ERR_CODE_VCMANAGER_VERIFY_CLAIM_SIGNATURE_FAIL);
+		};
+
+		assertThrows(CoreException.class, () -> resultCache.verify(verifiableCredential, issuerKey, failingCheck));
+		assertThrows(CoreException.class, () -> resultCache.verify(verifiableCredential, issuerKey, failingCheck));
+
+		assertEquals(2, checkCount.get());
+		assertEquals(0, resultCache.size());
+	}
+
+	@Test
+	void invalidateRemovesOnlyTheCredentialsOfTheIssuer() throws CoreException {
+		VerificationResultCache resultCache = new VerificationResultCache();
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		VerifiableCredential otherCredential = BenchmarkFixtures.verifiableCredential(otherIssuer, "did:omn:holder", 3);
+		AtomicInteger checkCount = new AtomicInteger();
+		resultCache.verify(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+		resultCache.verify(otherCredential, otherIssuerKey, checkCount::incrementAndGet);
+
+		resultCache.invalidate(issuer.getDid());
+
+		assertEquals(1, resultCache.size());
+		resultCache.verify(otherCredential, otherIssuerKey, checkCount::incrementAndGet);
+		assertEquals(2, checkCount.get());
+		resultCache.verify(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+		assertEquals(3, checkCount.get());
+
+		resultCache.invalidateAll();
+		assertEquals(0, resultCache.size());
+	}
+
+	@Test
+	void verificationUsesTheDefaultCacheOnlyIfInstalled() throws CoreException {
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		AtomicInteger checkCount = new AtomicInteger();
+		VerificationResultCache.verifyCached(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+		VerificationResultCache.verifyCached(verifiableCredential, issuerKey, checkCount::incrementAndGet);
+		assertEquals(2, checkCount.get());
+
+		VerificationResultCache resultCache = new VerificationResultCache();
+		VerificationResultCache.setDefault(resultCache);
+		new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true);
+		new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true);
+		assertEquals(1, resultCache.getHitCount());
+
+		VerificationResultCache.invalidateDefault(otherIssuer.getDid());
+		assertEquals(1, resultCache.size());
+		VerificationResultCache.invalidateDefault(issuer.getDid());
+		assertEquals(0, resultCache.size());
+	}
+
+	@Test
+	void tamperedCredentialIsRejectedAfterCachedVerification() throws CoreException {
+		VerificationResultCache.setDefault(new VerificationResultCache());
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true);
+
+		verifiableCredential.getCredentialSubject().getClaims().get(0).setValue("tampered");
+
+		assertThrows(CoreException.class, () -> new VcManager().verifyCredential(verifiableCredential, issuer.getDocument(), true));
+	}
+
+	@Test
+	void registryInvalidatesTheDefaultCacheWhenTheIssuerChanges() throws CoreException {
+		VerificationResultCache resultCache = new VerificationResultCache();
+		VerificationResultCache.setDefault(resultCache);
+		VerifiableCredential verifiableCredential = BenchmarkFixtures.verifiableCredential(issuer, "did:omn:holder", 3);
+		InMemoryDidDocumentRegistry registry = new InMemoryDidDocumentRegistry();
+		registry.register(issuer.getDocument());
+		resultCache.verify(verifiableCredential, issuerKey, () -> {});
+		assertEquals(1, resultCache.size());
+
+		DidDocument nextVersion = new DidDocument(issuer.getDocument().toJson());
+		nextVersion.setVersionId(String.valueOf(Integer.parseInt(issuer.getDocument().getVersionId()) + 1));
+		registry.register(nextVersion);
+		assertEquals(0, resultCache.size());
+
+		resultCache.verify(verifiableCredential, issuerKey, () -> {});
+		registry.remove(issuer.getDid());
+		assertEquals(0, resultCache.size());
+	}
+}
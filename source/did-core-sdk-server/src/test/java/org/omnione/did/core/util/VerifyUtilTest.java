@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 OmniOne.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.omnione.did.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.omnione.did.core.benchmark.BenchmarkFixtures;
+import org.omnione.did.core.benchmark.BenchmarkFixtures.DidFixture;
+import org.omnione.did.core.data.rest.SignatureParams;
+import org.omnione.did.core.exception.CoreErrorCode;
+import org.omnione.did.core.exception.CoreException;
+import org.omnione.did.crypto.enums.EccCurveType;
+import org.omnione.did.data.model.did.VerificationMethod;
+import org.omnione.did.data.model.enums.did.ProofType;
+
+class VerifyUtilTest {
+
+	private static final String ORIGIN_DATA = "{\"id\":\"signed\"}";
+
+	private static DidFixture signer;
+	private static VerificationMethod verificationMethod;
+	private static ResolvedPublicKey publicKey;
+
+	@BeforeAll
+	static void setUp() throws CoreException {
+		signer = BenchmarkFixtures.didDocument("did:omn:verifyutil", 4, EccCurveType.Secp256r1);
+		verificationMethod = BenchmarkFixtures.verificationMethod(signer.getDocument(), BenchmarkFixtures.ASSERT_KEY_ID);
+		publicKey = ResolvedPublicKey.from(verificationMethod);
+	}
+
+	@Test
+	void verifiesOriginData() throws CoreException {
+		SignatureParams sigParams = signatureParams(ORIGIN_DATA, ORIGIN_DATA);
+
+		VerifyUtil.verifySignature(sigParams, publicKey);
+		VerifyUtil.verifySignature(sigParams, publicKey.getVerifier());
+		VerifyUtil.verifySignature(sigParams);
+	}
+
+	@Test
+	void rejectsHashedDataWithoutOriginData() throws CoreException {
+		SignatureParams sigParams = signatureParams(ORIGIN_DATA, null);
+		sigParams.setHashedData(VerifyUtil.encodeDigest(VerifyUtil.digest(ORIGIN_DATA)));
+
+		assertRejected(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, () -> VerifyUtil.verifySignature(sigParams, publicKey));
+		assertRejected(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, () -> VerifyUtil.verifySignature(sigParams, publicKey.getVerifier()));
+		assertRejected(CoreErrorCode.ERR_CODE_VPMANAGER_GEN_HASH_FAIL, () -> VerifyUtil.verifySignature(sigParams));
+	}
+
+	@Test
+	void ignoresHashedDataOfOtherData() throws CoreException {
+		SignatureParams sigParams = signatureParams("{\"id\":\"forged\"}", ORIGIN_DATA);
+		sigParams.setHashedData(VerifyUtil.encodeDigest(VerifyUtil.digest("{\"id\":\"forged\"}")));
+
+		assertRejected(CoreErrorCode.ERR_CODE_VPMANAGER_VERIFY_SIGNATURE_FAIL, () -> VerifyUtil.verifySignature(sigParams, publicKey));
+	}
+
+	@Test
+	void keepsHashedDataForSigning() throws CoreException {
+		SignatureParams sigParams = signatureParams(ORIGIN_DATA, null);
+		sigParams.setHashedData(VerifyUtil.encodeDigest(VerifyUtil.digest(ORIGIN_DATA)));
+
+		assertEquals(sigParams.getHashedData(), VerifyUtil.encodeDigest(VerifyUtil.getDigest(sigParams)));
+	}
+
+	@Test
+	void resolvesKeyOfTheReferencedVersion() throws CoreException {
+		String did = signer.getDid();
+		String versionId = signer.getDocument().getVersionId();
+		String keyId = BenchmarkFixtures.ASSERT_KEY_ID;
+
+		ResolvedPublicKey resolvedPublicKey = VerifyUtil.resolvePublicKey(signer.getDocument(), did + "?versionId=" + versionId + "#" + keyId);
+		assertEquals(publicKey.getPublicKeyMultibase(), resolvedPublicKey.getPublicKeyMultibase());
+		assertEquals(publicKey.getPublicKeyMultibase(),
+				VerifyUtil.resolvePublicKey(signer.getDocument(), did + "#" + keyId).getPublicKeyMultibase());
+
+		assertRejected(CoreErrorCode.ERR_CODE_DIDMANAGER_NOT_MATCHED_VERSION,
+				() -> VerifyUtil.resolvePublicKey(signer.getDocument(), did + "?versionId=" + versionId + "0#" + keyId));
+		assertRejected(CoreErrorCode.ERR_CODE_DIDMANAGER_INVALID_DID_URL,
+				() -> VerifyUtil.resolvePublicKey(signer.getDocument(), did + "?versionId=" + versionId));
+	}
+
+	private static SignatureParams signatureParams(String signedData, String originData) {
+		SignatureParams sigParams = new SignatureParams();
+		sigParams.setKeyId(BenchmarkFixtures.ASSERT_KEY_ID);
+		sigParams.setAlgorithm(ProofType.SECP256R1_SIGNATURE_2018.getRawValue());
+		sigParams.setPublicKey(verificationMethod.getPublicKeyMultibase());
+		sigParams.setOriginData(originData);
+		sigParams.setSignatureValue(signer.sign(BenchmarkFixtures.ASSERT_KEY_ID, signedData));
+		return sigParams;
+	}
+
+	private static void assertRejected(CoreErrorCode errorCode, VerificationCall verificationCall) {
+		CoreException exception = assertThrows(CoreException.class, verificationCall::verify);
+		assertEquals(errorCode.getCode(), exception.getErrorCode());
+	}
+
+	private interface VerificationCall {
+
+		void verify() throws CoreException;
+	}
+}